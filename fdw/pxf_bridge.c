@@ -249,6 +249,7 @@ PxfBridgeImportStart(PxfFdwScanState *pxfsstate)
 					 pxfsstate->options,
 					 pxfsstate->relation,
 					 pxfsstate->filter_str,
+					 pxfsstate->agg_type,
 					 pxfsstate->retrieved_attrs,
 					 pxfsstate->projectionInfo);
 
@@ -295,6 +296,7 @@ PxfBridgeExportStart(PxfFdwModifyState *pxfmstate)
 					 pxfmstate->relation,
 					 NULL,
 					 NULL,
+					 NULL,
 					 NULL);
 
 	if (IsProtocolHttps(pxfmstate->options->pxf_protocol)) {
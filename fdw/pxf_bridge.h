@@ -44,6 +44,7 @@ typedef struct PxfFdwScanState
 	StringInfoData uri;
 	Relation	relation;
 	char	   *filter_str;
+	char	   *agg_type;
 #if PG_VERSION_NUM >= 90600
 	ExprState  *quals;
 #else
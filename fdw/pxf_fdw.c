@@ -13,6 +13,8 @@
 #include "pxf_filter.h"
 
 #include "access/reloptions.h"
+#include "catalog/pg_aggregate.h"
+#include "catalog/pg_namespace.h"
 #if PG_VERSION_NUM >= 90600
 #include "access/table.h"
 #endif
@@ -104,6 +106,7 @@ static void InitCopyStateForModify(PxfFdwModifyState *pxfmstate);
 static CopyState BeginCopyTo(Relation forrel, List *options);
 static void PxfBeginScanErrorCallback(void *arg);
 static void PxfCopyFromErrorCallback(void *arg);
+static char *GetPushdownAggType(PlannerInfo *root, RelOptInfo *baserel);
 
 /*
  * Foreign-data wrapper handler functions:
@@ -188,6 +191,7 @@ typedef struct PxfFdwRelationInfo
  *
  * 1) WHERE clause text to be sent to the remote server
  * 2) Integer list of attribute numbers retrieved by the SELECT
+ * 3) Name of the aggregate PXF can compute for the scan, or NULL
  *
  * These items are indexed with the enum FdwScanPrivateIndex, so an item
  * can be fetched with list_nth().  For example, to get the WHERE clauses:
@@ -198,7 +202,9 @@ enum FdwScanPrivateIndex
 	/* WHERE clauses to be sent to PXF (as a String node) */
 	FdwScanPrivateWhereClauses,
 	/* Integer list of attribute numbers retrieved by the SELECT */
-	FdwScanPrivateRetrievedAttrs
+	FdwScanPrivateRetrievedAttrs,
+	/* Aggregate to be computed by PXF (as a String node) */
+	FdwScanPrivateAggType
 };
 
 /*
@@ -354,7 +360,9 @@ pxfGetForeignPlan(PlannerInfo *root,
 	 * Build the fdw_private list that will be available to the executor.
 	 * Items in the list must match enum FdwScanPrivateIndex, above.
 	 */
-	fdw_private = list_make2(makeString(where_clauses_str), fpinfo->retrieved_attrs);
+	fdw_private = list_make3(makeString(where_clauses_str),
+							 fpinfo->retrieved_attrs,
+							 makeString(GetPushdownAggType(root, baserel)));
 
 	elog(DEBUG5, "pxf_fdw: pxfGetForeignPlan ends on segment: %d", PXF_SEGMENT_ID);
 
@@ -417,6 +425,7 @@ pxfBeginForeignScan(ForeignScanState *node, int eflags)
 	/* retrieve fdw-private information from pxfGetForeignPlan() */
 	char *filter_str              = strVal(list_nth(foreignScan->fdw_private, FdwScanPrivateWhereClauses));
 	List *retrieved_attrs = (List *) list_nth(foreignScan->fdw_private, FdwScanPrivateRetrievedAttrs);
+	char *agg_type                = strVal(list_nth(foreignScan->fdw_private, FdwScanPrivateAggType));
 
 	if (Gp_role == GP_ROLE_DISPATCH)
 	{
@@ -431,6 +440,7 @@ pxfBeginForeignScan(ForeignScanState *node, int eflags)
 	initStringInfo(&pxfsstate->uri);
 
 	pxfsstate->filter_str = filter_str;
+	pxfsstate->agg_type = agg_type;
 	pxfsstate->options = options;
 	pxfsstate->quals = quals;
 	pxfsstate->relation = relation;
@@ -1096,3 +1106,59 @@ PxfCopyFromErrorCallback(void *arg)
         }
     }
 }
+
+/*
+ * Returns the name of the aggregate PXF can compute for the scan of the
+ * foreign table, or NULL if the rows of the table have to be read.
+ *
+ * Only a query computing a single COUNT(*) of the foreign table, without
+ * any filter, grouping or other relation is supported. PXF then emits as many
+ * rows as the table has without reading them, and Greenplum still counts the
+ * emitted rows.
+ */
+static char *
+GetPushdownAggType(PlannerInfo *root, RelOptInfo *baserel)
+{
+	Query	   *parse = root->parse;
+	TargetEntry *tle;
+	Aggref	   *aggref;
+	char	   *aggname;
+
+	if (parse == NULL ||
+		parse->commandType != CMD_SELECT ||
+		!parse->hasAggs ||
+		parse->hasWindowFuncs ||
+		parse->groupClause != NIL ||
+#if PG_VERSION_NUM >= 90500
+		parse->groupingSets != NIL ||
+#endif
+		parse->havingQual != NULL ||
+		parse->distinctClause != NIL ||
+		list_length(parse->rtable) != 1 ||
+		parse->jointree == NULL ||
+		parse->jointree->quals != NULL ||
+		baserel->baserestrictinfo != NIL ||
+		list_length(parse->targetList) != 1)
+		return NULL;
+
+	tle = (TargetEntry *) linitial(parse->targetList);
+	if (tle->resjunk || !IsA(tle->expr, Aggref))
+		return NULL;
+
+	aggref = (Aggref *) tle->expr;
+	if (!aggref->aggstar ||
+		aggref->aggdistinct != NIL ||
+		aggref->aggorder != NIL ||
+		aggref->aggfilter != NULL ||
+		aggref->agglevelsup != 0 ||
+		aggref->aggkind != AGGKIND_NORMAL ||
+		get_func_namespace(aggref->aggfnoid) != PG_CATALOG_NAMESPACE)
+		return NULL;
+
+	aggname = get_func_name(aggref->aggfnoid);
+	if (aggname == NULL || strcmp(aggname, "count") != 0)
+		return NULL;
+
+	elog(DEBUG2, "pxf_fdw: COUNT(*) of the foreign table is computed by PXF");
+	return aggname;
+}
@@ -56,6 +56,7 @@ BuildHttpHeaders(CHURL_HEADERS headers,
 				 PxfOptions *options,
 				 Relation relation,
 				 char *filter_string,
+				 char *agg_type,
 				 List *retrieved_attrs,
 				 ProjectionInfo *projectionInfo)
 {
@@ -148,6 +149,14 @@ BuildHttpHeaders(CHURL_HEADERS headers,
 	else
 		churl_headers_append(headers, "X-GP-HAS-FILTER", "0");
 
+	/* aggregate computed by PXF instead of reading the rows, COUNT(*) projects no column */
+	if (agg_type && strcmp(agg_type, "") != 0)
+	{
+		churl_headers_append(headers, "X-GP-AGG-TYPE", agg_type);
+		if (retrieved_attrs == NIL)
+			churl_headers_append(headers, "X-GP-ATTRS-PROJ", "0");
+	}
+
 	// Since we only establish a single connection per segment, we can safely close the connection after
 	// the segment completes streaming data.
 	churl_headers_override(headers, "Connection", "close");
@@ -38,6 +38,7 @@ extern void BuildHttpHeaders(CHURL_HEADERS headers,
 							 PxfOptions *options,
 							 Relation relation,
 							 char *filter_string,
+							 char *agg_type,
 							 List *retrieved_attrs,
 							 ProjectionInfo *projectionInfo);
 
@@ -61,6 +61,18 @@ public class BufferWritable implements Writable {
         this.length = length;
     }
 
+    /**
+     * Sets the buffer reference (not the actual bytes) and the length of data
+     * within the buffer, so the same object can be reused for the next buffer.
+     *
+     * @param inBuf  buffer reference
+     * @param length the length of data within the buffer
+     */
+    public void set(byte[] inBuf, int length) {
+        this.buf = inBuf;
+        this.length = length;
+    }
+
     /**
      * Serializes the fields of this object to <code>out</code>.
      *
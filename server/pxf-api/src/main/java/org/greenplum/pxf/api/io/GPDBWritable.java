@@ -55,7 +55,7 @@ public class GPDBWritable implements Writable {
     /*
      * Enum of the Database type
      */
-    private enum DBType {
+    enum DBType {
         BIGINT(8, 8),
         BOOLEAN(1, 1),
         FLOAT8(8, 8),
@@ -343,32 +343,7 @@ public class GPDBWritable implements Writable {
 
         for (int i = 0; i < numCol; i++) {
             /* Get the enum type */
-            DBType coldbtype;
-            switch (DataType.get(colType[i])) {
-                case BIGINT:
-                    coldbtype = DBType.BIGINT;
-                    break;
-                case BOOLEAN:
-                    coldbtype = DBType.BOOLEAN;
-                    break;
-                case FLOAT8:
-                    coldbtype = DBType.FLOAT8;
-                    break;
-                case INTEGER:
-                    coldbtype = DBType.INTEGER;
-                    break;
-                case REAL:
-                    coldbtype = DBType.REAL;
-                    break;
-                case SMALLINT:
-                    coldbtype = DBType.SMALLINT;
-                    break;
-                case BYTEA:
-                    coldbtype = DBType.BYTEA;
-                    break;
-                default:
-                    coldbtype = DBType.TEXT;
-            }
+            DBType coldbtype = toDBType(colType[i]);
             enumType[i] = (byte) (coldbtype.ordinal());
 
             /* Get the actual value, and set the null bit */
@@ -513,6 +488,35 @@ public class GPDBWritable implements Writable {
         return bools;
     }
 
+    /**
+     * Package-private helper to get the database type the value of a column
+     * with the given type OID is serialized as. Types that are not sent in
+     * binary form are sent as TEXT.
+     *
+     * @param type the column type OID
+     * @return the database type
+     */
+    static DBType toDBType(int type) {
+        switch (DataType.get(type)) {
+            case BIGINT:
+                return DBType.BIGINT;
+            case BOOLEAN:
+                return DBType.BOOLEAN;
+            case FLOAT8:
+                return DBType.FLOAT8;
+            case INTEGER:
+                return DBType.INTEGER;
+            case REAL:
+                return DBType.REAL;
+            case SMALLINT:
+                return DBType.SMALLINT;
+            case BYTEA:
+                return DBType.BYTEA;
+            default:
+                return DBType.TEXT;
+        }
+    }
+
     /**
      * Private helper to round up alignment for the given length
      */
@@ -831,11 +835,15 @@ public class GPDBWritable implements Writable {
      * the C code uses (see gphdfs/src/protocol_formatter/common.c).
      */
     private void initializeEightByteAlignment() {
+        alignmentOfEightBytes = getEightByteAlignment();
+    }
+
+    static int getEightByteAlignment() {
         String alignment = System.getProperty("greenplum.alignment");
         if (alignment == null) {
-            return;
+            return 8;
         }
-        alignmentOfEightBytes = Integer.parseInt(alignment);
+        return Integer.parseInt(alignment);
     }
 
     /**
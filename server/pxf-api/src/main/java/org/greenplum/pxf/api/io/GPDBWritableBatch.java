@@ -0,0 +1,357 @@
+package org.greenplum.pxf.api.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serializes a batch of GPDB records in the same binary form as {@link GPDBWritable}
+ * straight into a byte buffer, without holding the values of the record as objects.
+ * The buffer grows as needed and is reused when the batch is cleared, so a resolver
+ * that reads primitive column vectors can serialize them without boxing a single value.
+ * <p>
+ * A record is written with {@link #beginRow()}, followed by exactly one setter call per
+ * column in the order of the columns, followed by {@link #endRow()}.
+ */
+public class GPDBWritableBatch implements Writable {
+
+    private static final int VERSION = 2;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /*
+     * header = total length (4 byte), Version (2 byte), Error (1 byte), #col (2 byte)
+     */
+    private static final int HEADER_LENGTH = 4 + 2 + 1 + 2;
+
+    private final int[] columnTypes;
+    private final GPDBWritable.DBType[] columnDbTypes;
+    private final Charset databaseEncoding;
+    private final boolean isUtf8Encoding;
+    private final int alignmentOfEightBytes;
+    private final int nullBitmapLength;
+    /* the header and the column types are the same for every record */
+    private final byte[] rowHeader;
+
+    private byte[] buffer;
+    private int length;
+    private int rowCount;
+    private int rowStart;
+    private int column;
+
+    /**
+     * Constructs a batch for records with the given columns
+     *
+     * @param columnTypes      the table column types
+     * @param databaseEncoding the encoding of the database
+     */
+    public GPDBWritableBatch(int[] columnTypes, Charset databaseEncoding) {
+        this.columnTypes = columnTypes;
+        this.databaseEncoding = databaseEncoding;
+        this.isUtf8Encoding = StandardCharsets.UTF_8.equals(databaseEncoding);
+        this.alignmentOfEightBytes = GPDBWritable.getEightByteAlignment();
+        this.nullBitmapLength = (columnTypes.length / 8) + (columnTypes.length % 8 != 0 ? 1 : 0);
+
+        columnDbTypes = new GPDBWritable.DBType[columnTypes.length];
+        rowHeader = new byte[HEADER_LENGTH + columnTypes.length];
+        rowHeader[5] = VERSION;
+        rowHeader[7] = (byte) (columnTypes.length >>> 8);
+        rowHeader[8] = (byte) columnTypes.length;
+        for (int i = 0; i < columnTypes.length; i++) {
+            columnDbTypes[i] = GPDBWritable.toDBType(columnTypes[i]);
+            rowHeader[HEADER_LENGTH + i] = (byte) columnDbTypes[i].ordinal();
+        }
+        buffer = new byte[INITIAL_CAPACITY];
+        column = -1;
+    }
+
+    /**
+     * Returns whether the values of the given type can be written to the column, that is
+     * the type is sent in the binary form of the column type, or both types are sent as text.
+     *
+     * @param column the column index
+     * @param type   the type of the values
+     * @return true if the values can be written to the column, false otherwise
+     */
+    public boolean isCompatible(int column, DataType type) {
+        if (columnDbTypes[column] == GPDBWritable.DBType.TEXT) {
+            return type != DataType.UNSUPPORTED_TYPE && DataType.isTextForm(type.getOID());
+        }
+        return type.getOID() == columnTypes[column];
+    }
+
+    /**
+     * @return the number of columns of the records
+     */
+    public int getColumnCount() {
+        return columnTypes.length;
+    }
+
+    /**
+     * @return the number of complete records in the batch
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of bytes of the serialized records
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Discards the records of the batch, the buffer is kept for the next batch.
+     */
+    public void clear() {
+        length = 0;
+        rowCount = 0;
+        column = -1;
+    }
+
+    /**
+     * Starts a new record.
+     */
+    public void beginRow() {
+        rowStart = length;
+        ensureCapacity(rowHeader.length + nullBitmapLength);
+        System.arraycopy(rowHeader, 0, buffer, length, rowHeader.length);
+        length += rowHeader.length;
+        Arrays.fill(buffer, length, length + nullBitmapLength, (byte) 0);
+        length += nullBitmapLength;
+        column = 0;
+    }
+
+    /**
+     * Completes the current record.
+     *
+     * @throws IOException if not all columns of the record were set
+     */
+    public void endRow() throws IOException {
+        if (column != columnTypes.length) {
+            throw new IOException("Record has " + column + " fields but the schema size is " + columnTypes.length);
+        }
+        ensureCapacity(alignmentOfEightBytes);
+        pad(8);
+        int rowLength = length - rowStart;
+        writeIntAt(rowStart, rowLength);
+        rowCount++;
+        column = -1;
+    }
+
+    /**
+     * Sets the value of the next column to NULL.
+     *
+     * @throws IOException if the record has no more columns
+     */
+    public void setNull() throws IOException {
+        checkColumn();
+        int nullByte = rowStart + rowHeader.length + (column >> 3);
+        buffer[nullByte] |= (byte) (1 << (7 - (column & 7)));
+        column++;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setLong(long value) throws IOException {
+        beginValue(GPDBWritable.DBType.BIGINT, 8);
+        writeIntAt(length, (int) (value >>> 32));
+        writeIntAt(length + 4, (int) value);
+        length += 8;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setBoolean(boolean value) throws IOException {
+        beginValue(GPDBWritable.DBType.BOOLEAN, 1);
+        buffer[length++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setDouble(double value) throws IOException {
+        long bits = Double.doubleToLongBits(value);
+        beginValue(GPDBWritable.DBType.FLOAT8, 8);
+        writeIntAt(length, (int) (bits >>> 32));
+        writeIntAt(length + 4, (int) bits);
+        length += 8;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setInt(int value) throws IOException {
+        beginValue(GPDBWritable.DBType.INTEGER, 4);
+        writeIntAt(length, value);
+        length += 4;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setFloat(float value) throws IOException {
+        beginValue(GPDBWritable.DBType.REAL, 4);
+        writeIntAt(length, Float.floatToIntBits(value));
+        length += 4;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setShort(short value) throws IOException {
+        beginValue(GPDBWritable.DBType.SMALLINT, 2);
+        buffer[length] = (byte) (value >>> 8);
+        buffer[length + 1] = (byte) value;
+        length += 2;
+    }
+
+    /**
+     * Sets the value of the next column.
+     *
+     * @param bytes  the array holding the value
+     * @param offset the offset of the value in the array
+     * @param len    the length of the value
+     * @throws IOException if the column type does not match
+     */
+    public void setBytes(byte[] bytes, int offset, int len) throws IOException {
+        beginValue(GPDBWritable.DBType.BYTEA, 4 + len);
+        writeIntAt(length, len);
+        System.arraycopy(bytes, offset, buffer, length + 4, len);
+        length += 4 + len;
+    }
+
+    /**
+     * Sets the value of the next column, the string is encoded with the database encoding.
+     *
+     * @param value the value
+     * @throws IOException if the column type does not match
+     */
+    public void setString(String value) throws IOException {
+        byte[] bytes = value.getBytes(databaseEncoding);
+        setText(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Sets the value of the next column to the UTF-8 encoded text. The bytes are copied
+     * as they are when the database encoding is UTF-8, otherwise they are re-encoded.
+     *
+     * @param bytes  the array holding the value
+     * @param offset the offset of the value in the array
+     * @param len    the length of the value
+     * @throws IOException if the column type does not match
+     */
+    public void setUtf8String(byte[] bytes, int offset, int len) throws IOException {
+        if (isUtf8Encoding) {
+            setText(bytes, offset, len);
+        } else {
+            setString(new String(bytes, offset, len, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Serializes the records of the batch to <code>out</code>.
+     *
+     * @param out <code>DataOutput</code> to serialize this object into.
+     * @throws IOException if the last record is not complete or writing failed
+     */
+    @Override
+    public void write(DataOutput out) throws IOException {
+        if (column != -1) {
+            throw new IOException("The last record of the batch is not complete");
+        }
+        out.write(buffer, 0, length);
+    }
+
+    /**
+     * Deserializing a batch is not supported, use {@link GPDBWritable} to read records.
+     *
+     * @param in <code>DataInput</code> to deserialize this object from
+     * @throws UnsupportedOperationException this function is not supported
+     */
+    @Override
+    public void readFields(DataInput in) {
+        throw new UnsupportedOperationException("GPDBWritableBatch.readFields() is not implemented");
+    }
+
+    /*
+     * Writes text already encoded in the database encoding, the value is '\0' terminated
+     */
+    private void setText(byte[] bytes, int offset, int len) throws IOException {
+        beginValue(GPDBWritable.DBType.TEXT, 4 + len + 1);
+        writeIntAt(length, len + 1);
+        System.arraycopy(bytes, offset, buffer, length + 4, len);
+        buffer[length + 4 + len] = 0;
+        length += 4 + len + 1;
+    }
+
+    /*
+     * Checks the type of the next column, makes room for the value and pads it to the alignment of the type
+     */
+    private void beginValue(GPDBWritable.DBType dbType, int valueLength) throws IOException {
+        checkColumn();
+        if (columnDbTypes[column] != dbType) {
+            throw new GPDBWritable.TypeMismatchException("Cannot set " + dbType + " to a "
+                    + GPDBWritable.getTypeName(columnTypes[column]) + " column");
+        }
+        // room for the largest padding, the value and the padding at the end of the record
+        ensureCapacity(2 * alignmentOfEightBytes + valueLength);
+        pad(dbType.getAlignment());
+        column++;
+    }
+
+    private void checkColumn() throws IOException {
+        if (column < 0 || column >= columnTypes.length) {
+            throw new IOException("Column index is out of range");
+        }
+    }
+
+    /*
+     * Pads the record with zero bytes to the alignment, offsets are relative to the start of the record
+     */
+    private void pad(int align) {
+        int commonAlignment = align == 8 ? alignmentOfEightBytes : align;
+        int offset = length - rowStart;
+        int padding = ((offset + (commonAlignment - 1)) & -commonAlignment) - offset;
+        for (int i = 0; i < padding; i++) {
+            buffer[length++] = 0;
+        }
+    }
+
+    private void writeIntAt(int position, int value) {
+        buffer[position] = (byte) (value >>> 24);
+        buffer[position + 1] = (byte) (value >>> 16);
+        buffer[position + 2] = (byte) (value >>> 8);
+        buffer[position + 3] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = length + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
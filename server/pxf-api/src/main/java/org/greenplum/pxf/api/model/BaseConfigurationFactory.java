@@ -1,5 +1,9 @@
 package org.greenplum.pxf.api.model;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -8,6 +12,7 @@ import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
@@ -16,24 +21,62 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.HADOOP_SECURITY_AUTH_TO_LOCAL;
 
+/**
+ * Creates Hadoop configuration objects for PXF servers. Parsing the server's site files on every request is
+ * expensive, so the factory keeps a cache of configuration templates keyed by the configuration directory, the
+ * server name and the user name. Every request receives a copy of a template with the request-specific properties
+ * applied on top of it. A template is reloaded when the modification time or the size of any of the files it was
+ * built from changes, or when a file is added to or removed from the server directory.
+ */
 @Component
 public class BaseConfigurationFactory implements ConfigurationFactory {
 
+    private static final long DEFAULT_CACHE_MAX_SIZE = 1000;
+    private static final Duration DEFAULT_CACHE_EXPIRATION = Duration.ofHours(1);
+
     protected final Logger LOG = LoggerFactory.getLogger(this.getClass());
 
     private final File serversConfigDirectory;
 
+    private final Cache<List<String>, ConfigurationTemplate> templateCache;
+
     @Autowired
-    public BaseConfigurationFactory(PxfServerProperties pxfServerProperties) {
-        this(new File(String.format("%s%sservers", pxfServerProperties.getBase(), File.separator)));
+    public BaseConfigurationFactory(PxfServerProperties pxfServerProperties,
+                                    @Value("${pxf.configuration-cache.enabled:true}") boolean cacheEnabled,
+                                    @Value("${pxf.configuration-cache.max-size:1000}") long cacheMaxSize,
+                                    @Value("${pxf.configuration-cache.expiration:1h}") Duration cacheExpiration) {
+        this(new File(String.format("%s%sservers", pxfServerProperties.getBase(), File.separator)),
+                cacheEnabled, cacheMaxSize, cacheExpiration);
     }
 
     BaseConfigurationFactory(File serversConfigDirectory) {
+        this(serversConfigDirectory, true, DEFAULT_CACHE_MAX_SIZE, DEFAULT_CACHE_EXPIRATION);
+    }
+
+    BaseConfigurationFactory(File serversConfigDirectory, boolean cacheEnabled, long cacheMaxSize, Duration cacheExpiration) {
         this.serversConfigDirectory = serversConfigDirectory;
+        if (cacheEnabled) {
+            LOG.info("Creating Configuration Cache with maximum size of {} and entry expiration of {} ms",
+                    cacheMaxSize, cacheExpiration.toMillis());
+            this.templateCache = CacheBuilder.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfterAccess(cacheExpiration.toMillis(), TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+        } else {
+            LOG.info("Configuration Cache is disabled");
+            this.templateCache = null;
+        }
     }
 
     /**
@@ -41,8 +84,82 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
      */
     @Override
     public Configuration initConfiguration(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties) {
-        // start with built-in Hadoop configuration that loads core-site.xml
         LOG.debug("Initializing configuration for server {}", serverName);
+        ConfigurationTemplate template = getTemplate(configDirectory, serverName, userName);
+
+        // the template already has all the server resources loaded, copying it does not parse the files again
+        Configuration configuration = new Configuration(template.configuration);
+
+        // add additional properties, if provided
+        if (additionalProperties != null) {
+            LOG.debug("Adding {} additional properties to configuration for server {}", additionalProperties.size(), serverName);
+            additionalProperties.forEach(configuration::set);
+        }
+
+        // add user configuration
+        if (template.userConfiguration != null) {
+            LOG.debug("Adding user properties for server {} and user {}", serverName, userName);
+            template.userConfiguration.forEach(entry -> configuration.set(entry.getKey(), entry.getValue()));
+        }
+
+        try {
+            // We need to set the restrict system properties to false so
+            // variables in the configuration get replaced by system property
+            // values
+            configuration.setRestrictSystemProps(false);
+        } catch (NoSuchMethodError e) {
+            // Expected exception for MapR
+        }
+
+        // Starting with Hadoop 2.10.0, the "DEFAULT" rule will throw an
+        // exception when no rules are applied while getting the principal
+        // name translation into operating system user name. See
+        // org.apache.hadoop.security.authentication.util.KerberosName#getShortName
+        // We add a default rule that will return the service name as the
+        // short name, i.e. gpadmin/_HOST@REALM will map to gpadmin
+        configuration.set(HADOOP_SECURITY_AUTH_TO_LOCAL, "RULE:[1:$1] RULE:[2:$1] DEFAULT");
+
+        return configuration;
+    }
+
+    /**
+     * Returns the cache of configuration templates, or null if caching is disabled.
+     *
+     * @return the cache of configuration templates
+     */
+    public Cache<?, ?> getConfigurationCache() {
+        return templateCache;
+    }
+
+    /**
+     * Returns a configuration template from the cache, reloading it if any of its files have changed.
+     */
+    private ConfigurationTemplate getTemplate(String configDirectory, String serverName, String userName) {
+        if (templateCache == null) {
+            return loadTemplate(configDirectory, serverName, userName);
+        }
+
+        List<String> key = Arrays.asList(configDirectory, serverName, userName);
+        // peek through the map view so that a stale entry is not counted as a cache hit
+        ConfigurationTemplate cachedTemplate = templateCache.asMap().get(key);
+        if (cachedTemplate != null && cachedTemplate.isStale()) {
+            LOG.debug("Configuration files for server {} have changed, reloading configuration", serverName);
+            templateCache.asMap().remove(key, cachedTemplate);
+        }
+
+        try {
+            return templateCache.get(key, () -> loadTemplate(configDirectory, serverName, userName));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Builds a configuration template by parsing the server's site files and the user file.
+     */
+    private ConfigurationTemplate loadTemplate(String configDirectory, String serverName, String userName) {
+        // start with built-in Hadoop configuration that loads core-site.xml
         Configuration configuration = new Configuration();
         // while implementing multiple kerberized support we noticed that non-kerberized hadoop
         // access was trying to use SASL-client authentication. Setting the fallback to simple auth
@@ -61,15 +178,20 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         // add the server name itself as a configuration property
         configuration.set(PXF_SERVER_NAME_PROPERTY, serverName);
 
+        // files whose changes invalidate the template
+        List<File> watchedFiles = new ArrayList<>();
+
         File[] serverDirectories = null;
         Path p = Paths.get(configDirectory);
 
         if (p.isAbsolute()) {
             File f = p.toFile();
+            watchedFiles.add(f);
             if (f.exists() && f.isDirectory() && f.canRead()) {
                 serverDirectories = new File[]{f};
             }
         } else {
+            watchedFiles.add(serversConfigDirectory);
             serverDirectories = serversConfigDirectory
                     .listFiles(f ->
                             f.isDirectory() &&
@@ -77,6 +199,7 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
                                     StringUtils.equalsIgnoreCase(configDirectory, f.getName()));
         }
 
+        Configuration userConfiguration = null;
         if (ArrayUtils.isEmpty(serverDirectories)) {
             LOG.debug("Directory {}{}{} does not exist or cannot be read by PXF, no configuration resources are added for server {}",
                     serversConfigDirectory, File.separator, configDirectory, serverName);
@@ -87,47 +210,30 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         } else {
             // add all site files as URL resources to the configuration, no resources will be added from the classpath
             LOG.debug("Using directory {} for server {} configuration", serverDirectories[0], serverName);
-            processServerResources(configuration, serverName, serverDirectories[0]);
-        }
+            watchedFiles.add(serverDirectories[0]);
+            processServerResources(configuration, serverName, serverDirectories[0], watchedFiles);
 
-        // add additional properties, if provided
-        if (additionalProperties != null) {
-            LOG.debug("Adding {} additional properties to configuration for server {}", additionalProperties.size(), serverName);
-            additionalProperties.forEach(configuration::set);
+            // the user file is watched even when it does not exist so that adding it invalidates the template
+            Path userResourcePath = Paths.get(String.format("%s/%s-user.xml", serverDirectories[0].toPath(), userName));
+            watchedFiles.add(userResourcePath.toFile());
+            userConfiguration = processUserResource(serverName, userName, serverDirectories[0], userResourcePath);
         }
 
-        // add user configuration
-        if (!ArrayUtils.isEmpty(serverDirectories)) {
-            processUserResource(configuration, serverName, userName, serverDirectories[0]);
-        }
+        // parse the resources now, copies of the template will share the parsed properties
+        configuration.size();
 
-        try {
-            // We need to set the restrict system properties to false so
-            // variables in the configuration get replaced by system property
-            // values
-            configuration.setRestrictSystemProps(false);
-        } catch (NoSuchMethodError e) {
-            // Expected exception for MapR
-        }
-
-        // Starting with Hadoop 2.10.0, the "DEFAULT" rule will throw an
-        // exception when no rules are applied while getting the principal
-        // name translation into operating system user name. See
-        // org.apache.hadoop.security.authentication.util.KerberosName#getShortName
-        // We add a default rule that will return the service name as the
-        // short name, i.e. gpadmin/_HOST@REALM will map to gpadmin
-        configuration.set(HADOOP_SECURITY_AUTH_TO_LOCAL, "RULE:[1:$1] RULE:[2:$1] DEFAULT");
-
-        return configuration;
+        LOG.debug("Loaded configuration template for server {} and user {}", serverName, userName);
+        return new ConfigurationTemplate(configuration, userConfiguration, watchedFiles);
     }
 
-    private void processServerResources(Configuration configuration, String serverName, File directory) {
+    private void processServerResources(Configuration configuration, String serverName, File directory, List<File> watchedFiles) {
         // add all *-site.xml files inside the server config directory as configuration resources
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath(), "*-site.xml")) {
             for (Path path : stream) {
                 URL resourceURL = path.toUri().toURL();
                 LOG.debug("Adding configuration resource for server {} from {}", serverName, resourceURL);
                 configuration.addResource(resourceURL);
+                watchedFiles.add(path.toFile());
                 // store the path to the resource in the configuration in case plugins need to access the files again
                 configuration.set(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
             }
@@ -140,21 +246,56 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         }
     }
 
-    private void processUserResource(Configuration configuration, String serverName, String userName, File directory) {
-        // add user config file as configuration resource
+    private Configuration processUserResource(String serverName, String userName, File directory, Path path) {
+        // parse user config file, its properties are applied on top of the additional properties of every request
         try {
-            Path path = Paths.get(String.format("%s/%s-user.xml", directory.toPath(), userName));
-            if (Files.exists(path)) {
-                Configuration userConfiguration = new Configuration(false);
-                URL resourceURL = path.toUri().toURL();
-                userConfiguration.addResource(resourceURL);
-                LOG.debug("Adding user properties for server {} from {}", serverName, resourceURL);
-                userConfiguration.forEach(entry -> configuration.set(entry.getKey(), entry.getValue()));
-                configuration.set(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
+            if (!Files.exists(path)) {
+                return null;
             }
+            Configuration userConfiguration = new Configuration(false);
+            URL resourceURL = path.toUri().toURL();
+            userConfiguration.addResource(resourceURL);
+            LOG.debug("Loading user properties for server {} from {}", serverName, resourceURL);
+            // the resource path is copied to the request configuration along with the user properties
+            userConfiguration.set(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
+            return userConfiguration;
         } catch (Exception e) {
             throw new RuntimeException(String.format("Unable to read user configuration for user %s using server %s from %s",
                     userName, serverName, directory.getAbsolutePath()), e);
         }
     }
+
+    /**
+     * A parsed server configuration along with the state of the files it was built from.
+     */
+    private static class ConfigurationTemplate {
+        private final Configuration configuration;
+        private final Configuration userConfiguration;
+        private final List<File> watchedFiles;
+        private final long[] fingerprint;
+
+        ConfigurationTemplate(Configuration configuration, Configuration userConfiguration, List<File> watchedFiles) {
+            this.configuration = configuration;
+            this.userConfiguration = userConfiguration;
+            this.watchedFiles = watchedFiles;
+            this.fingerprint = fingerprint(watchedFiles);
+        }
+
+        /**
+         * @return true if any of the watched files has been modified, created or deleted since the template was built
+         */
+        boolean isStale() {
+            return !Arrays.equals(fingerprint, fingerprint(watchedFiles));
+        }
+
+        private static long[] fingerprint(List<File> files) {
+            long[] fingerprint = new long[files.size() * 2];
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                fingerprint[2 * i] = file.lastModified();
+                fingerprint[2 * i + 1] = file.isDirectory() ? 0 : file.length();
+            }
+            return fingerprint;
+        }
+    }
 }
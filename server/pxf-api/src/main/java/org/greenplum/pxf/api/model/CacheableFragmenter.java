@@ -0,0 +1,19 @@
+package org.greenplum.pxf.api.model;
+
+/**
+ * Interface that a {@link Fragmenter} implements when its fragments can be cached across queries.
+ * The fragments are cached together with a fingerprint of the data source, and are reused for as long
+ * as the fingerprint does not change. Computing the fingerprint must be much cheaper than computing
+ * the fragments, for example it can use the modification times of the directories of a data source.
+ */
+public interface CacheableFragmenter {
+
+    /**
+     * Returns a fingerprint of the current state of the data source, which changes whenever
+     * the fragments of the data source could change.
+     *
+     * @return the fingerprint, or null if the fragments must not be cached
+     * @throws Exception if the state of the data source could not be retrieved
+     */
+    String getFingerprint() throws Exception;
+}
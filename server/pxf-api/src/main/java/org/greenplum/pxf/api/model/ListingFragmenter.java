@@ -0,0 +1,16 @@
+package org.greenplum.pxf.api.model;
+
+/**
+ * Interface that a {@link Fragmenter} implements when it lists the files of its
+ * data source, so that the statistics of the listing can be reported.
+ */
+public interface ListingFragmenter {
+
+    /**
+     * Returns the statistics of the listing performed by the last call to
+     * {@link Fragmenter#getFragments()}.
+     *
+     * @return the listing statistics, or null if no files were listed
+     */
+    ListingStats getListingStats();
+}
@@ -0,0 +1,41 @@
+package org.greenplum.pxf.api.model;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ListingStats holds statistics of listing the files of a data source.
+ */
+@Getter
+public class ListingStats {
+    private final long fileCount;
+    private final Duration duration;
+    private final Map<String, Duration> phaseDurations;
+
+    /**
+     * Constructs a ListingStats.
+     *
+     * @param fileCount the number of listed files
+     * @param duration  the time it took to list the files and compute their splits
+     */
+    public ListingStats(long fileCount, Duration duration) {
+        this(fileCount, duration, Collections.emptyMap());
+    }
+
+    /**
+     * Constructs a ListingStats with the time spent in each phase of the listing.
+     *
+     * @param fileCount      the number of listed files
+     * @param duration       the time it took to list the files and compute their splits
+     * @param phaseDurations the time spent in each phase, in the order of the phases
+     */
+    public ListingStats(long fileCount, Duration duration, Map<String, Duration> phaseDurations) {
+        this.fileCount = fileCount;
+        this.duration = duration;
+        this.phaseDurations = Collections.unmodifiableMap(new LinkedHashMap<>(phaseDurations));
+    }
+}
@@ -21,7 +21,9 @@ package org.greenplum.pxf.api.model;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -39,4 +41,19 @@ public interface ReadVectorizedResolver {
      */
     List<List<OneField>> getFieldsForBatch(OneRow batch);
 
+    /**
+     * Serializes the tuples of the batch straight into the output, without resolving
+     * them into fields first. Resolvers that do not support it, or do not support it
+     * for the given columns, return false before writing anything to the output, and
+     * the batch is resolved with {@link #getFieldsForBatch(OneRow)} instead.
+     *
+     * @param batch  unresolved batch
+     * @param output the batch of GPDB records to write the tuples to
+     * @return true if the tuples were written to the output, false otherwise
+     * @throws IOException if serializing the tuples failed
+     */
+    default boolean writeBatch(OneRow batch, GPDBWritableBatch output) throws IOException {
+        return false;
+    }
+
 }
@@ -565,6 +565,63 @@ public class RequestContext {
         }
     }
 
+    /**
+     * Returns a shallow copy of this context. The copy shares the configuration, tuple description and other
+     * reference-typed properties with this context, but the fragment-specific properties (data source, fragment
+     * index, fragment metadata, profile and plugins) can be changed independently, which allows several fragments
+     * of the same request to be processed concurrently.
+     *
+     * @return a copy of this context
+     */
+    public RequestContext copy() {
+        RequestContext copy = new RequestContext();
+        copy.requestType = requestType;
+        copy.accessor = accessor;
+        copy.aggType = aggType;
+        copy.config = config;
+        copy.configuration = configuration;
+        copy.dataSource = dataSource;
+        copy.fragmenter = fragmenter;
+        copy.fragmentIndex = fragmentIndex;
+        copy.fragmentMetadata = fragmentMetadata;
+        copy.filterString = filterString;
+        copy.metadata = metadata;
+        copy.outputFormat = outputFormat;
+        copy.gpCommandCount = gpCommandCount;
+        copy.gpSessionId = gpSessionId;
+        copy.host = host;
+        copy.token = token;
+        copy.statsMaxFragments = statsMaxFragments;
+        copy.statsSampleRatio = statsSampleRatio;
+        copy.numAttrsProjected = numAttrsProjected;
+        copy.pluginConf = pluginConf;
+        copy.port = port;
+        copy.profile = profile;
+        copy.profileScheme = profileScheme;
+        copy.protocol = protocol;
+        copy.resolver = resolver;
+        copy.format = format;
+        copy.greenplumCSV = greenplumCSV;
+        copy.recordkeyColumn = recordkeyColumn;
+        copy.remoteLogin = remoteLogin;
+        copy.remoteSecret = remoteSecret;
+        copy.segmentId = segmentId;
+        copy.schemaName = schemaName;
+        copy.tableName = tableName;
+        copy.transactionId = transactionId;
+        copy.serverName = serverName;
+        copy.totalSegments = totalSegments;
+        copy.tupleDescription = tupleDescription;
+        copy.user = user;
+        copy.dataEncoding = dataEncoding;
+        copy.databaseEncoding = databaseEncoding;
+        copy.clientApiVersion = clientApiVersion;
+        copy.additionalConfigProps = additionalConfigProps;
+        copy.clientPort = clientPort;
+        copy.options.putAll(options);
+        return copy;
+    }
+
     public void validate() {
         if ((statsSampleRatio > 0) != (statsMaxFragments > 0)) {
             fail("Missing parameter: STATS_SAMPLE_RATIO and STATS_MAX_FRAGMENTS must be set together");
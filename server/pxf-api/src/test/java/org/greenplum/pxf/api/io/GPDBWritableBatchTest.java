@@ -0,0 +1,218 @@
+package org.greenplum.pxf.api.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GPDBWritableBatchTest {
+
+    private static final int[] SCHEMA = {
+            DataType.INTEGER.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.BOOLEAN.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.REAL.getOID(),
+            DataType.NUMERIC.getOID(),
+            DataType.VARCHAR.getOID()
+    };
+
+    @Test
+    public void testRecordsMatchGPDBWritable() throws Exception {
+        GPDBWritableBatch batch = new GPDBWritableBatch(SCHEMA, StandardCharsets.UTF_8);
+
+        batch.beginRow();
+        batch.setInt(42);
+        batch.setString("abc");
+        batch.setBoolean(true);
+        batch.setDouble(1.5);
+        batch.setShort((short) 7);
+        batch.setBytes(new byte[]{9, 1, 2, 3}, 1, 3);
+        batch.setLong(Long.MIN_VALUE);
+        batch.setFloat(-2.25f);
+        batch.setString("123.45");
+        byte[] utf8 = "été".getBytes(StandardCharsets.UTF_8);
+        batch.setUtf8String(utf8, 0, utf8.length);
+        batch.endRow();
+
+        batch.beginRow();
+        for (int i = 0; i < SCHEMA.length; i++) {
+            batch.setNull();
+        }
+        batch.endRow();
+
+        batch.beginRow();
+        batch.setNull();
+        batch.setString("");
+        batch.setNull();
+        batch.setDouble(-0.0);
+        batch.setNull();
+        batch.setBytes(new byte[0], 0, 0);
+        batch.setNull();
+        batch.setFloat(Float.NaN);
+        batch.setNull();
+        batch.setString("x");
+        batch.endRow();
+
+        GPDBWritable first = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+        first.setInt(0, 42);
+        first.setString(1, "abc");
+        first.setBoolean(2, true);
+        first.setDouble(3, 1.5);
+        first.setShort(4, (short) 7);
+        first.setBytes(5, new byte[]{1, 2, 3});
+        first.setLong(6, Long.MIN_VALUE);
+        first.setFloat(7, -2.25f);
+        first.setString(8, "123.45");
+        first.setString(9, "été");
+
+        GPDBWritable second = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+
+        GPDBWritable third = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+        third.setString(1, "");
+        third.setDouble(3, -0.0);
+        third.setBytes(5, new byte[0]);
+        third.setFloat(7, Float.NaN);
+        third.setString(9, "x");
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream expectedOutput = new DataOutputStream(expected);
+        first.write(expectedOutput);
+        second.write(expectedOutput);
+        third.write(expectedOutput);
+
+        assertEquals(3, batch.getRowCount());
+        assertEquals(expected.size(), batch.getLength());
+        assertArrayEquals(expected.toByteArray(), serialize(batch));
+    }
+
+    @Test
+    public void testRecordsCanBeRead() throws Exception {
+        int[] schema = {DataType.TEXT.getOID(), DataType.INTEGER.getOID()};
+        GPDBWritableBatch batch = new GPDBWritableBatch(schema, StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            batch.beginRow();
+            batch.setString("row" + i);
+            batch.setInt(i);
+            batch.endRow();
+        }
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(serialize(batch)));
+        for (int i = 0; i < 3; i++) {
+            GPDBWritable record = new GPDBWritable(StandardCharsets.UTF_8);
+            record.readFields(input);
+            assertEquals("row" + i, record.getString(0));
+            assertEquals(i, record.getInt(1));
+        }
+        GPDBWritable record = new GPDBWritable(StandardCharsets.UTF_8);
+        record.readFields(input);
+        assertTrue(record.isEmpty());
+    }
+
+    @Test
+    public void testClearReusesBuffer() throws Exception {
+        int[] schema = {DataType.BIGINT.getOID()};
+        GPDBWritableBatch batch = new GPDBWritableBatch(schema, StandardCharsets.UTF_8);
+        // the batch grows beyond its initial capacity
+        for (int i = 0; i < 10_000; i++) {
+            batch.beginRow();
+            batch.setLong(i);
+            batch.endRow();
+        }
+        assertEquals(10_000, batch.getRowCount());
+        assertEquals(10_000 * 24, batch.getLength());
+
+        batch.clear();
+        assertEquals(0, batch.getRowCount());
+        assertEquals(0, batch.getLength());
+
+        batch.beginRow();
+        batch.setLong(5L);
+        batch.endRow();
+
+        GPDBWritable expected = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        expected.setLong(0, 5L);
+        assertArrayEquals(serialize(expected), serialize(batch));
+    }
+
+    @Test
+    public void testUtf8StringIsReencoded() throws Exception {
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        int[] schema = {DataType.TEXT.getOID()};
+        GPDBWritableBatch batch = new GPDBWritableBatch(schema, latin1);
+        byte[] utf8 = "café".getBytes(StandardCharsets.UTF_8);
+        batch.beginRow();
+        batch.setUtf8String(utf8, 0, utf8.length);
+        batch.endRow();
+
+        GPDBWritable expected = new GPDBWritable(schema, latin1);
+        expected.setString(0, "café");
+        assertArrayEquals(serialize(expected), serialize(batch));
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        GPDBWritableBatch batch = new GPDBWritableBatch(SCHEMA, StandardCharsets.UTF_8);
+        batch.beginRow();
+
+        Exception e = assertThrows(GPDBWritable.TypeMismatchException.class, () -> batch.setLong(1L));
+        assertEquals("Cannot set BIGINT to a INTEGER column", e.getMessage());
+    }
+
+    @Test
+    public void testTooManyColumns() throws Exception {
+        GPDBWritableBatch batch = new GPDBWritableBatch(new int[]{DataType.INTEGER.getOID()}, StandardCharsets.UTF_8);
+        batch.beginRow();
+        batch.setInt(1);
+
+        Exception e = assertThrows(IOException.class, batch::setNull);
+        assertEquals("Column index is out of range", e.getMessage());
+    }
+
+    @Test
+    public void testIncompleteRecord() throws Exception {
+        GPDBWritableBatch batch = new GPDBWritableBatch(SCHEMA, StandardCharsets.UTF_8);
+        batch.beginRow();
+        batch.setInt(1);
+
+        Exception e = assertThrows(IOException.class, batch::endRow);
+        assertEquals("Record has 1 fields but the schema size is 10", e.getMessage());
+        e = assertThrows(IOException.class, () -> serialize(batch));
+        assertEquals("The last record of the batch is not complete", e.getMessage());
+    }
+
+    @Test
+    public void testIsCompatible() {
+        GPDBWritableBatch batch = new GPDBWritableBatch(SCHEMA, StandardCharsets.UTF_8);
+
+        assertTrue(batch.isCompatible(0, DataType.INTEGER));
+        assertFalse(batch.isCompatible(0, DataType.BIGINT));
+        assertFalse(batch.isCompatible(0, DataType.TEXT));
+        assertTrue(batch.isCompatible(1, DataType.TEXT));
+        assertTrue(batch.isCompatible(1, DataType.DATE));
+        assertFalse(batch.isCompatible(1, DataType.INTEGER));
+        assertTrue(batch.isCompatible(5, DataType.BYTEA));
+        assertTrue(batch.isCompatible(8, DataType.TEXT));
+        assertFalse(batch.isCompatible(8, DataType.UNSUPPORTED_TYPE));
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
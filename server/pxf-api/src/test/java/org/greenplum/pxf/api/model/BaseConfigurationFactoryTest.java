@@ -3,12 +3,16 @@ package org.greenplum.pxf.api.model;
 import org.apache.hadoop.conf.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -17,8 +21,10 @@ import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_CONFIG_RESOUR
 import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY;
 import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SESSION_USER_PROPERTY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -198,4 +204,67 @@ public class BaseConfigurationFactoryTest {
         assertEquals("dummy", configuration.get(PXF_SESSION_USER_PROPERTY));
     }
 
+    @Test
+    public void testConfigurationTemplateIsCachedAndCopied() {
+        additionalProperties.put("test.red", "purple");
+        Configuration first = factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        first.set("test.blue", "changed");
+        Configuration second = factory.initConfiguration("default", "default", "dummy", null);
+
+        assertNotSame(first, second);
+        assertEquals("blue", second.get("test.blue"));
+        assertEquals("red", second.get("test.red"));
+        assertEquals("uservalue", second.get("test.user.key"));
+        assertEquals(1, factory.getConfigurationCache().stats().missCount());
+        assertEquals(1, factory.getConfigurationCache().stats().hitCount());
+    }
+
+    @Test
+    public void testConfigurationTemplateIsCachedPerUser() {
+        Configuration configuration = factory.initConfiguration("default", "default", "dummy", null);
+        Configuration otherConfiguration = factory.initConfiguration("default", "default", "other", null);
+
+        assertEquals("dummy", configuration.get(PXF_SESSION_USER_PROPERTY));
+        assertEquals("uservalue", configuration.get("test.user.key"));
+        assertEquals("other", otherConfiguration.get(PXF_SESSION_USER_PROPERTY));
+        assertNull(otherConfiguration.get("test.user.key"));
+        assertEquals(2, factory.getConfigurationCache().stats().missCount());
+    }
+
+    @Test
+    public void testConfigurationTemplateIsReloadedWhenFilesChange(@TempDir File tempDir) throws IOException {
+        File serverDirectory = new File(tempDir, "changing");
+        assertTrue(serverDirectory.mkdir());
+        File siteFile = new File(serverDirectory, "test-site.xml");
+        writeSiteFile(siteFile, "test.key", "old");
+        factory = new BaseConfigurationFactory(tempDir);
+
+        assertEquals("old", factory.initConfiguration("changing", "changing", "dummy", null).get("test.key"));
+        assertEquals("old", factory.initConfiguration("changing", "changing", "dummy", null).get("test.key"));
+
+        writeSiteFile(siteFile, "test.key", "brand-new");
+        assertEquals("brand-new", factory.initConfiguration("changing", "changing", "dummy", null).get("test.key"));
+
+        // adding a user file invalidates the template as well
+        writeSiteFile(new File(serverDirectory, "dummy-user.xml"), "test.key", "from-user");
+        assertEquals("from-user", factory.initConfiguration("changing", "changing", "dummy", null).get("test.key"));
+        assertEquals(3, factory.getConfigurationCache().stats().missCount());
+    }
+
+    @Test
+    public void testConfigurationCacheDisabled() {
+        factory = new BaseConfigurationFactory(serversDirectory, false, 10, Duration.ofMinutes(1));
+        Configuration configuration = factory.initConfiguration("default", "default", "dummy", null);
+
+        assertNull(factory.getConfigurationCache());
+        assertEquals("blue", configuration.get("test.blue"));
+        assertEquals("uservalue", configuration.get("test.user.key"));
+    }
+
+    private void writeSiteFile(File file, String name, String value) throws IOException {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<configuration>\n" +
+                "    <property>\n        <name>" + name + "</name>\n        <value>" + value + "</value>\n    </property>\n" +
+                "</configuration>\n";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
 }
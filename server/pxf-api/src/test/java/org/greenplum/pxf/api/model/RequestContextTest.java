@@ -7,6 +7,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -232,4 +233,28 @@ public class RequestContextTest {
         context.setConfig("foo/bar");
         assertEquals("foo/bar", context.getConfig());
     }
+
+    @Test
+    public void testCopyIsIndependentFromFragmentChanges() {
+        context.setServerName("foo");
+        context.setConfig("bar");
+        context.setDataSource("/path/one");
+        context.setFragmentIndex(1);
+        context.setProfile("hdfs:text");
+        context.addOption("key", "value");
+
+        RequestContext copy = context.copy();
+        copy.setDataSource("/path/two");
+        copy.setFragmentIndex(2);
+        copy.setProfile("hdfs:parquet");
+        copy.addOption("other", "value");
+
+        assertEquals("foo", copy.getServerName());
+        assertEquals("bar", copy.getConfig());
+        assertEquals("value", copy.getOption("key"));
+        assertEquals("/path/one", context.getDataSource());
+        assertEquals(1, context.getFragmentIndex());
+        assertEquals("hdfs:text", context.getProfile());
+        assertNull(context.getOption("other"));
+    }
 }
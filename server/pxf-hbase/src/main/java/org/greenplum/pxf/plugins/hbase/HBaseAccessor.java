@@ -23,16 +23,16 @@ package org.greenplum.pxf.plugins.hbase;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
-import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.Filter;
-import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.filter.FilterList;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.FilterParser;
+import org.greenplum.pxf.api.filter.InOperatorTransformer;
 import org.greenplum.pxf.api.filter.Node;
 import org.greenplum.pxf.api.filter.Operator;
 import org.greenplum.pxf.api.filter.TreeTraverser;
@@ -40,13 +40,19 @@ import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseConnectionCache;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseLookupCache;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseRowKeyRange;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
-import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 
 /**
  * Accessor for HBase.
@@ -57,9 +63,19 @@ import java.util.EnumSet;
  * For each region, a Scan object is used to describe the requested rows.
  * <p>
  * The class supports filters using the {@link HBaseFilterBuilder}.
- * Regions can be filtered out according to input from {@link HBaseFilterBuilder}.
+ * Regions can be filtered out according to input from {@link HBaseFilterBuilder}:
+ * a region is only scanned if it intersects the row key ranges of the filter,
+ * so that point lookups (e.g. {@code IN} lists of row keys) only touch the regions
+ * of the requested rows.
+ * <p>
+ * The HBase connection is leased from the {@link HBaseConnectionCache}, so that the fragments
+ * of a table share the connection to their server. The regions of a segment can be scanned
+ * concurrently by setting {@code pxf.read.fragment.concurrency} in the server configuration.
+ * <p>
+ * Reloading the profile closes the cached connections and invalidates the cached lookup table
+ * mappings of the server.
  */
-public class HBaseAccessor extends BasePlugin implements Accessor {
+public class HBaseAccessor extends BasePlugin implements Accessor, Reloader {
 
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
@@ -86,10 +102,25 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
             );
 
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
+    private static final TreeVisitor IN_OPERATOR_TRANSFORMER = new InOperatorTransformer();
     private static final String UNSUPPORTED_ERR_MESSAGE = "HBase accessor does not support write operation.";
 
+    /**
+     * Number of rows fetched from the region server by each call of the scanner
+     */
+    static final String SCAN_CACHING_PROPERTY = "pxf.hbase.scan.caching";
+
+    /**
+     * Whether the blocks read by the scan are kept in the block cache of the region server
+     */
+    static final String SCAN_CACHE_BLOCKS_PROPERTY = "pxf.hbase.scan.cache-blocks";
+
+    private static final int DEFAULT_SCAN_CACHING = 1000;
+
+    private final HBaseLookupCache lookupCache;
+    private final HBaseConnectionCache connectionCache;
     private HBaseTupleDescription tupleDescription;
-    private Connection connection;
+    private HBaseConnectionCache.Lease connectionLease;
     private Table table;
     private SplitBoundary split;
     private TreeVisitor pruner;
@@ -97,6 +128,7 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
     private ResultScanner currentScanner;
     private byte[] scanStartKey;
     private byte[] scanEndKey;
+    private List<HBaseRowKeyRange> scanRanges;
 
     /**
      * The class represents a single split of a table
@@ -120,6 +152,16 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         }
     }
 
+    public HBaseAccessor() {
+        this(SpringContext.getNullableBean(HBaseLookupCache.class),
+                SpringContext.getBean(HBaseConnectionCache.class));
+    }
+
+    HBaseAccessor(HBaseLookupCache lookupCache, HBaseConnectionCache connectionCache) {
+        this.lookupCache = lookupCache;
+        this.connectionCache = connectionCache;
+    }
+
     /**
      * Initializes HBaseAccessor based on GPDB table description and
      * initializes the scan start and end keys of the HBase table to default values.
@@ -130,6 +172,7 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         split = null;
         scanStartKey = HConstants.EMPTY_START_ROW;
         scanEndKey = HConstants.EMPTY_END_ROW;
+        scanRanges = HBaseRowKeyRange.ALL;
         pruner = new HbaseFilterPruner(tupleDescription, SUPPORTED_DATA_TYPES, SUPPORTED_OPERATORS);
     }
 
@@ -153,8 +196,35 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
      */
     @Override
     public void closeForRead() throws Exception {
-        table.close();
-        HBaseUtilities.closeConnection(null, connection);
+        try {
+            if (table != null) {
+                table.close();
+            }
+        } finally {
+            if (connectionLease != null) {
+                connectionLease.close();
+                connectionLease = null;
+            }
+        }
+    }
+
+    @Override
+    public void reloadAll() {
+        connectionCache.evict(null);
+        if (lookupCache != null) {
+            lookupCache.invalidate(null);
+        }
+    }
+
+    @Override
+    public void reload(String server) {
+        if (server == null || server.isBlank()) {
+            throw new PxfRuntimeException("Failed to reload profile. Parameter server is blank.");
+        }
+        connectionCache.evict(server);
+        if (lookupCache != null) {
+            lookupCache.invalidate(server);
+        }
     }
 
     /**
@@ -203,11 +273,11 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
     }
 
     /**
-     * Load hbase table object using ConnectionFactory
+     * Load hbase table object using the connection leased from the {@link HBaseConnectionCache}
      */
     private void openTable() throws IOException {
-        connection = ConnectionFactory.createConnection(HBaseConfiguration.create(configuration));
-        table = connection.getTable(TableName.valueOf(context.getDataSource()));
+        connectionLease = connectionCache.lease(context.getServerName(), HBaseConfiguration.create(configuration));
+        table = connectionLease.getConnection().getTable(TableName.valueOf(context.getDataSource()));
     }
 
     /**
@@ -240,20 +310,15 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
     }
 
     /**
-     * Returns true if given start/end key pair is within the scan range.
+     * Returns true if given start/end key pair intersects one of the row key ranges of the scan.
      */
     private boolean withinScanRange(byte[] startKey, byte[] endKey) {
-
-        // startKey <= scanStartKey
-        if (Bytes.compareTo(startKey, scanStartKey) <= 0) {
-            // endKey == table's end or endKey >= scanStartKey
-            return Bytes.equals(endKey, HConstants.EMPTY_END_ROW) ||
-                    Bytes.compareTo(endKey, scanStartKey) >= 0;
-        } else { // startKey > scanStartKey
-            // scanEndKey == table's end or startKey <= scanEndKey
-            return Bytes.equals(scanEndKey, HConstants.EMPTY_END_ROW) ||
-                    Bytes.compareTo(startKey, scanEndKey) <= 0;
+        for (HBaseRowKeyRange range : scanRanges) {
+            if (range.intersects(startKey, endKey)) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -265,6 +330,9 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         scanDetails = new Scan();
         // Return only one version (latest)
         scanDetails.setMaxVersions(1);
+        // A full scan of the region should not evict the hot blocks from the block cache
+        scanDetails.setCacheBlocks(configuration.getBoolean(SCAN_CACHE_BLOCKS_PROPERTY, false));
+        scanDetails.setCaching(configuration.getInt(SCAN_CACHING_PROPERTY, DEFAULT_SCAN_CACHING));
 
         addColumns();
         addFilters();
@@ -272,15 +340,23 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
 
     /**
      * Opens the region of the fragment to be scanned.
-     * Updates the Scan object to retrieve only rows from that region.
+     * Updates the Scan object to retrieve only rows from that region
+     * that are within the scan range.
      */
     private boolean openCurrentRegion() throws IOException {
         if (split == null) {
             return false;
         }
 
-        scanDetails.setStartRow(split.startKey());
-        scanDetails.setStopRow(split.endKey());
+        List<HBaseRowKeyRange> regionRanges = HBaseRowKeyRange.intersect(
+                Collections.singletonList(new HBaseRowKeyRange(split.startKey(), split.endKey())),
+                Collections.singletonList(new HBaseRowKeyRange(scanStartKey, scanEndKey)));
+        if (regionRanges.isEmpty()) {
+            return false;
+        }
+
+        scanDetails.setStartRow(regionRanges.get(0).getStartKey());
+        scanDetails.setStopRow(regionRanges.get(0).getEndKey());
 
         currentScanner = table.getScanner(scanDetails);
         return true;
@@ -305,7 +381,9 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
      * HBase {@link Filter} object. The result is added as a filter to the
      * Scan object.
      * <p>
-     * Uses row key ranges to limit split count.
+     * Uses row key ranges to limit split count, and a
+     * {@link org.apache.hadoop.hbase.filter.MultiRowRangeFilter} to skip
+     * the row keys between disjoint ranges.
      */
     private void addFilters() throws Exception {
         if (!context.hasFilter()) {
@@ -316,15 +394,22 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         HBaseFilterBuilder hBaseFilterBuilder = new HBaseFilterBuilder(tupleDescription);
         // Parse the filter string into a expression tree Node
         Node root = new FilterParser().parse(context.getFilterString());
-        // Prune the parsed tree with valid supported operators and then
-        // traverse the tree with the hBaseFilterBuilder to produce a filter
-        TRAVERSER.traverse(root, pruner, hBaseFilterBuilder);
+        // Transform the IN operators into chains of ORs, prune the parsed tree
+        // with valid supported operators and then traverse the tree with the
+        // hBaseFilterBuilder to produce a filter
+        TRAVERSER.traverse(root, IN_OPERATOR_TRANSFORMER, pruner, hBaseFilterBuilder);
 
-        // Retrieve the built filter
+        // Retrieve the built filter, the row key range filter goes first
+        // so that the region server seeks to the next range
         Filter filter = hBaseFilterBuilder.build();
+        Filter rangeFilter = hBaseFilterBuilder.getRowKeyRangeFilter();
+        if (rangeFilter != null) {
+            filter = filter == null ? rangeFilter : new FilterList(FilterList.Operator.MUST_PASS_ALL, rangeFilter, filter);
+        }
         scanDetails.setFilter(filter);
 
         scanStartKey = hBaseFilterBuilder.getStartKey();
         scanEndKey = hBaseFilterBuilder.getEndKey();
+        scanRanges = hBaseFilterBuilder.getRowKeyRanges();
     }
 }
@@ -31,6 +31,8 @@ import org.apache.hadoop.hbase.client.RegionLocator;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.utilities.SpringContext;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseLookupCache;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseLookupTable;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
 
@@ -50,8 +52,17 @@ import java.util.Map;
  */
 public class HBaseDataFragmenter extends BaseFragmenter {
 
+    private final HBaseLookupCache lookupCache;
     private Connection connection;
 
+    public HBaseDataFragmenter() {
+        this(SpringContext.getNullableBean(HBaseLookupCache.class));
+    }
+
+    HBaseDataFragmenter(HBaseLookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
     @Override
     public void afterPropertiesSet() {
         configuration = HBaseConfiguration.create(configuration);
@@ -94,12 +105,16 @@ public class HBaseDataFragmenter extends BaseFragmenter {
 
     /**
      * Serializes lookup table mapping into byte array.
+     * The mapping is read from the {@link HBaseLookupCache} when it is available.
      *
      * @return serialized lookup table mapping
      * @throws IOException when connection to lookup table fails
      *                     or serialization fails
      */
     private Map<String, byte[]> prepareUserData() throws Exception {
+        if (lookupCache != null) {
+            return lookupCache.getMappings(context.getServerName(), context.getDataSource(), configuration);
+        }
         HBaseLookupTable lookupTable = new HBaseLookupTable(configuration);
         Map<String, byte[]> mappings = lookupTable.getMappings(context.getDataSource());
         lookupTable.close();
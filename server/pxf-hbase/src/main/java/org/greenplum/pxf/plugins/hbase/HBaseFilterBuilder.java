@@ -19,14 +19,15 @@ package org.greenplum.pxf.plugins.hbase;
  * under the License.
  */
 
-import lombok.Getter;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.ByteArrayComparable;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.NullComparator;
+import org.apache.hadoop.hbase.filter.PrefixFilter;
 import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -41,13 +42,16 @@ import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseDoubleComparator;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseFloatComparator;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseIntegerComparator;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseRowKeyRange;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
 
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.greenplum.pxf.api.io.DataType.TEXT;
 
@@ -62,8 +66,12 @@ import static org.greenplum.pxf.api.io.DataType.TEXT;
  * <p>
  * HBase row key column is a special case.
  * If the user defined row key column as TEXT and used {@code <,>,<=,>=,=}
- * operators, the startKey ({@code >/>=}) and the endKey ({@code </<=}) are
- * stored in addition to the created filter.
+ * operators, or {@code LIKE} with a prefix pattern, the ranges of the row
+ * keys that satisfy the expression are computed in addition to the created
+ * filter, combining the ranges of {@code AND} and {@code OR} expressions.
+ * The scan is bounded by the startKey and the endKey of the ranges, and
+ * the disjoint ranges (e.g. of an {@code IN} list) can be skipped with the
+ * {@link MultiRowRangeFilter} of {@link #getRowKeyRangeFilter()}.
  * <p>
  * This is an addition on top of regular filters and does not replace
  * any logic in HBase filter objects.
@@ -85,33 +93,85 @@ public class HBaseFilterBuilder implements TreeVisitor {
                 put(Operator.OR, FilterList.Operator.MUST_PASS_ONE);
             }});
 
-    private boolean endKeyAssigned = false;
-    private boolean startKeyAssigned = false;
-    /**
-     *  Returns the endKey for scanning the HBase table.
-     *  If the user specified an operation
-     *  on a textual row key column, this value will be returned.
-     *  Otherwise, the end of table.
-     */
-    @Getter
-    private byte[] endKey;
-    /**
-     *  Returns the startKey for scanning the HBase table.
-     *  If the user specified an operation
-     *  on a textual row key column, this value will be returned.
-     *  Otherwise, the start of table.
-     */
-    @Getter
-    private byte[] startKey;
     private final Deque<Filter> filterQueue;
     private Filter currentFilter;
     private final HBaseTupleDescription tupleDescription;
+    private final Deque<RangeFrame> rangeFrames;
+    private List<HBaseRowKeyRange> rowKeyRanges;
 
     public HBaseFilterBuilder(HBaseTupleDescription tupleDescription) {
         this.filterQueue = new LinkedList<>();
         this.tupleDescription = tupleDescription;
-        this.startKey = HConstants.EMPTY_START_ROW;
-        this.endKey = HConstants.EMPTY_END_ROW;
+        this.rangeFrames = new LinkedList<>();
+        this.rowKeyRanges = HBaseRowKeyRange.ALL;
+    }
+
+    /**
+     * Returns the startKey for scanning the HBase table.
+     * If the user specified an operation
+     * on a textual row key column, the start of the first range of row keys will be returned.
+     * Otherwise, the start of table.
+     *
+     * @return the start key
+     */
+    public byte[] getStartKey() {
+        return rowKeyRanges.isEmpty() ? HConstants.EMPTY_START_ROW : rowKeyRanges.get(0).getStartKey();
+    }
+
+    /**
+     * Returns the endKey for scanning the HBase table.
+     * If the user specified an operation
+     * on a textual row key column, the end of the last range of row keys will be returned.
+     * Otherwise, the end of table.
+     *
+     * @return the end key
+     */
+    public byte[] getEndKey() {
+        return rowKeyRanges.isEmpty() ? HConstants.EMPTY_END_ROW : rowKeyRanges.get(rowKeyRanges.size() - 1).getEndKey();
+    }
+
+    /**
+     * Returns the sorted and disjoint ranges of the row keys that can satisfy the expression,
+     * {@link HBaseRowKeyRange#ALL} if the expression does not restrict the row keys, or an empty
+     * list if no row key can satisfy the expression.
+     *
+     * @return the ranges of the row keys
+     */
+    public List<HBaseRowKeyRange> getRowKeyRanges() {
+        return rowKeyRanges;
+    }
+
+    /**
+     * Returns a {@link MultiRowRangeFilter} that skips the row keys between the ranges of
+     * {@link #getRowKeyRanges()}, or null if there are less than two ranges.
+     *
+     * @return the filter of the row key ranges
+     */
+    public Filter getRowKeyRangeFilter() {
+        if (rowKeyRanges.size() < 2) {
+            return null;
+        }
+        return new MultiRowRangeFilter(rowKeyRanges.stream()
+                .map(HBaseRowKeyRange::toRowRange)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the prefix of a {@code LIKE} pattern that matches the values starting with the prefix,
+     * e.g. {@code abc%}, or null if the pattern has other wildcards.
+     *
+     * @param pattern the LIKE pattern
+     * @return the prefix of the pattern
+     */
+    static String getLikePrefix(String pattern) {
+        if (pattern == null || pattern.length() < 2 || !pattern.endsWith("%")) {
+            return null;
+        }
+        String prefix = pattern.substring(0, pattern.length() - 1);
+        if (prefix.contains("%") || prefix.contains("_") || prefix.contains("\\")) {
+            return null;
+        }
+        return prefix;
     }
 
     @Override
@@ -123,6 +183,7 @@ public class HBaseFilterBuilder implements TreeVisitor {
                 Filter filter = new FilterList(LOGICAL_OPERATORS_MAP.get(operator));
                 processFilter(filter);
                 filterQueue.push(filter);
+                rangeFrames.push(new RangeFrame(operator));
             }
         }
         return node;
@@ -141,6 +202,10 @@ public class HBaseFilterBuilder implements TreeVisitor {
 
                 if (operator == Operator.IS_NULL || operator == Operator.IS_NOT_NULL) {
                     filter = processNullOperator(hBaseColumn, operator);
+                    processRanges(HBaseRowKeyRange.ALL);
+                } else if (operator == Operator.LIKE) {
+                    OperandNode data = operatorNode.getValueOperand();
+                    filter = processLikeOperator(hBaseColumn, data);
                 } else {
                     OperandNode data = operatorNode.getValueOperand();
                     filter = processSimpleColumnOperator(hBaseColumn, operator, data);
@@ -159,6 +224,8 @@ public class HBaseFilterBuilder implements TreeVisitor {
             Operator operator = operatorNode.getOperator();
             if (operator.isLogical()) {
                 currentFilter = filterQueue.poll();
+                RangeFrame frame = rangeFrames.poll();
+                processRanges(frame.ranges == null ? HBaseRowKeyRange.ALL : frame.ranges);
             }
         }
         return node;
@@ -222,7 +289,9 @@ public class HBaseFilterBuilder implements TreeVisitor {
          * key API in HBaseAccessor/Scan object.
          */
         if (data != null && isTextualRowKey(hBaseColumn)) {
-            storeStartEndKeys(operator, data.toString());
+            processRanges(getRowKeyRanges(operator, data.toString()));
+        } else {
+            processRanges(HBaseRowKeyRange.ALL);
         }
 
         if (hBaseColumn.isKeyColumn()) {
@@ -239,6 +308,44 @@ public class HBaseFilterBuilder implements TreeVisitor {
         }
     }
 
+    /**
+     * Handles LIKE operators with a prefix pattern on the textual row key column,
+     * the other LIKE operators are pruned by {@link HbaseFilterPruner}.
+     *
+     * @param hBaseColumn the HBase column
+     * @param data        the pattern operand
+     * @return the {@link PrefixFilter} for the prefix of the pattern
+     */
+    private Filter processLikeOperator(HBaseColumnDescriptor hBaseColumn, OperandNode data) {
+        String prefix = data == null ? null : getLikePrefix(data.toString());
+        if (prefix == null || !isTextualRowKey(hBaseColumn)) {
+            throw new IllegalArgumentException(String.format("unsupported LIKE filter on column %s", hBaseColumn.columnName()));
+        }
+        byte[] prefixBytes = Bytes.toBytes(prefix);
+        processRanges(Collections.singletonList(
+                new HBaseRowKeyRange(prefixBytes, HBaseRowKeyRange.getPrefixEndKey(prefixBytes))));
+        return new PrefixFilter(prefixBytes);
+    }
+
+    /**
+     * Combines the row key ranges of an expression with the ranges of the other children of its
+     * logical operator, or sets them as the ranges of the whole expression at the top level.
+     *
+     * @param ranges the row key ranges of the expression
+     */
+    private void processRanges(List<HBaseRowKeyRange> ranges) {
+        RangeFrame frame = rangeFrames.peek();
+        if (frame == null) {
+            rowKeyRanges = ranges;
+        } else if (frame.ranges == null) {
+            frame.ranges = ranges;
+        } else if (frame.operator == Operator.OR) {
+            frame.ranges = HBaseRowKeyRange.union(frame.ranges, ranges);
+        } else {
+            frame.ranges = HBaseRowKeyRange.intersect(frame.ranges, ranges);
+        }
+    }
+
     /**
      * Handles IS NULL and IS NOT NULL operators
      *
@@ -312,56 +419,41 @@ public class HBaseFilterBuilder implements TreeVisitor {
     }
 
     /**
-     * Sets startKey/endKey and their inclusiveness
-     * according to the operation op.
+     * Returns the ranges of the row keys that satisfy the operation op.
      */
-    private void storeStartEndKeys(Operator op, String data) {
+    private List<HBaseRowKeyRange> getRowKeyRanges(Operator op, String data) {
 
         // Adding a zero byte to endKey, makes it inclusive
         // Adding a zero byte to startKey, makes it exclusive
-        byte[] zeroByte = new byte[1];
+        byte[] key = Bytes.toBytes(data);
+        byte[] nextKey = Bytes.add(key, new byte[1]);
 
         switch (op) {
             case LESS_THAN:
-                setEndKey(Bytes.toBytes(data));
-                break;
+                return Collections.singletonList(new HBaseRowKeyRange(HConstants.EMPTY_START_ROW, key));
             case GREATER_THAN:
-                setStartKey(Bytes.add(Bytes.toBytes(data), zeroByte));
-                break;
+                return Collections.singletonList(new HBaseRowKeyRange(nextKey, HConstants.EMPTY_END_ROW));
             case LESS_THAN_OR_EQUAL:
-                setEndKey(Bytes.add(Bytes.toBytes(data), zeroByte));
-                break;
+                return Collections.singletonList(new HBaseRowKeyRange(HConstants.EMPTY_START_ROW, nextKey));
             case GREATER_THAN_OR_EQUAL:
-                setStartKey(Bytes.toBytes(data));
-                break;
+                return Collections.singletonList(new HBaseRowKeyRange(key, HConstants.EMPTY_END_ROW));
             case EQUALS:
-                setStartKey(Bytes.toBytes(data));
-                setEndKey(Bytes.add(Bytes.toBytes(data), zeroByte));
-                break;
+                return Collections.singletonList(new HBaseRowKeyRange(key, nextKey));
+            default:
+                return HBaseRowKeyRange.ALL;
         }
     }
 
     /**
-     * Sets the start key. Only allows for setting the start key during the
-     * first call. Subsequent calls trying to set the start key will be ignored
-     *
-     * @param startKey the start key
+     * A logical operator being visited and the row key ranges of its children visited so far,
+     * null when no child has been visited yet.
      */
-    private void setStartKey(byte[] startKey) {
-        if (startKeyAssigned) return;
-        this.startKey = startKey;
-        this.startKeyAssigned = true;
-    }
+    private static class RangeFrame {
+        private final Operator operator;
+        private List<HBaseRowKeyRange> ranges;
 
-    /**
-     * Sets the end key. Only allows for setting the end key during the
-     * first call. Subsequent calls trying to set the end key will be ignored
-     *
-     * @param endKey the end key
-     */
-    private void setEndKey(byte[] endKey) {
-        if (endKeyAssigned) return;
-        this.endKey = endKey;
-        this.endKeyAssigned = true;
+        RangeFrame(Operator operator) {
+            this.operator = operator;
+        }
     }
 }
@@ -39,8 +39,27 @@ public class HbaseFilterPruner extends SupportedOperatorPruner {
                             columnDescriptor.columnIndex(), columnDescriptor.columnName());
                     return null;
                 }
+                if (operator == Operator.LIKE) {
+                    if (isRowKeyPrefix(columnDescriptor, operatorNode.getValueOperand())) {
+                        return node;
+                    }
+                    log.debug("LIKE filter on column=(index:{} name:{}) is not a prefix of the textual row key",
+                            columnDescriptor.columnIndex(), columnDescriptor.columnName());
+                    return null;
+                }
             }
         }
         return super.visit(node, level);
     }
+
+    /**
+     * LIKE is not one of the supported operators, but the LIKE filters matching a prefix
+     * of the textual row key are pushed down, as they can be answered by a range of row keys.
+     */
+    private boolean isRowKeyPrefix(ColumnDescriptor column, OperandNode operand) {
+        return column.isKeyColumn()
+                && column.getDataType() == DataType.TEXT
+                && operand != null
+                && HBaseFilterBuilder.getLikePrefix(operand.toString()) != null;
+    }
 }
@@ -0,0 +1,54 @@
+package org.greenplum.pxf.plugins.hbase;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+@Configuration
+@ConfigurationProperties(prefix = PxfHBaseProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+public class PxfHBaseProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "pxf.hbase";
+
+    /**
+     * Customizable settings for the cache of the lookup table mappings
+     */
+    private Lookup lookup = new Lookup();
+
+    @Getter
+    @Setter
+    @Validated
+    public static class Lookup {
+
+        /**
+         * Defines the amount of time after which the cached mappings of a
+         * table are refreshed in the background. The stale mappings are used
+         * until the refresh completes. Zero disables the cache.
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration cacheTtl = Duration.ofMinutes(5);
+
+        /**
+         * Defines the amount of time after which the mappings of a table
+         * that is not queried are removed from the cache.
+         */
+        @DurationUnit(ChronoUnit.MINUTES)
+        private Duration cacheExpiration = Duration.ofHours(1);
+
+        /**
+         * Defines the maximum number of tables whose mappings are cached.
+         */
+        private long cacheSize = 1000;
+    }
+}
@@ -0,0 +1,343 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of HBase connections, shared by the requests of the same user to the same server.
+ * <p>
+ * An HBase {@link Connection} is heavy-weight and thread-safe: creating it looks up ZooKeeper and the meta table.
+ * Accessors and the lookup table cache lease the connection of their server from this cache instead of creating
+ * a connection for every fragment or lookup. The leases are reference-counted, and a connection that is not
+ * leased is closed once it has been idle for the number of milliseconds set by
+ * {@link #CONNECTION_IDLE_TIMEOUT_PROPERTY}.
+ * <p>
+ * Connections are created outside the lock of the cache: the first lease of a key publishes a placeholder,
+ * creates the connection and completes the placeholder, the other leases of the key wait for it. A server that
+ * is slow or unreachable only blocks the leases of its own connection.
+ */
+@Component
+public class HBaseConnectionCache implements DisposableBean {
+
+    /**
+     * Whether the HBase connections are shared, when false every lease creates and closes its own connection
+     */
+    public static final String CONNECTION_CACHE_ENABLED_PROPERTY = "pxf.hbase.connection.cache.enabled";
+
+    /**
+     * Number of milliseconds a connection that is not leased is kept open
+     */
+    public static final String CONNECTION_IDLE_TIMEOUT_PROPERTY = "pxf.hbase.connection.idle-timeout";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseConnectionCache.class);
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long EVICTION_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ConnectionCreator connectionCreator;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService evictor;
+    private final Map<String, CachedConnection> connections = new HashMap<>();
+
+    /**
+     * Creates connections from HBase configurations
+     */
+    interface ConnectionCreator {
+        Connection create(Configuration configuration) throws IOException;
+    }
+
+    public HBaseConnectionCache() {
+        this(ConnectionFactory::createConnection, System::currentTimeMillis);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                EVICTION_PERIOD_MILLIS, EVICTION_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    HBaseConnectionCache(ConnectionCreator connectionCreator, LongSupplier clock) {
+        this.connectionCreator = connectionCreator;
+        this.clock = clock;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("pxf-hbase-connection-evictor-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Leases the connection to the given server for the current user, creating it if it is not cached.
+     * The lease must be closed when the connection is no longer used.
+     *
+     * @param serverName    the name of the server
+     * @param configuration the HBase configuration of the server
+     * @return the lease of the connection
+     * @throws IOException if the connection could not be created
+     */
+    public Lease lease(String serverName, Configuration configuration) throws IOException {
+        if (!configuration.getBoolean(CONNECTION_CACHE_ENABLED_PROPERTY, true)) {
+            return new Lease(this, null, connectionCreator.create(configuration));
+        }
+
+        String key = getKey(serverName, configuration);
+        long idleTimeout = configuration.getLong(CONNECTION_IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_MILLIS);
+        CachedConnection cached;
+        boolean create = false;
+        synchronized (this) {
+            cached = connections.get(key);
+            Connection connection = cached == null ? null : cached.connection.getNow(null);
+            if (connection != null && (connection.isClosed() || connection.isAborted())) {
+                LOG.debug("Replacing HBase connection {} that is closed or aborted", key);
+                evict(key, cached);
+                cached = null;
+            }
+            if (cached == null) {
+                cached = new CachedConnection(serverName);
+                connections.put(key, cached);
+                create = true;
+            }
+            cached.references++;
+            cached.idleTimeout = idleTimeout;
+        }
+
+        if (create) {
+            createConnection(key, cached, configuration);
+        }
+        try {
+            return new Lease(this, cached, cached.connection.get());
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                cached.references--;
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            release(cached, null);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for HBase connection " + key);
+        }
+    }
+
+    /**
+     * Closes the connections that are not leased and have been idle for longer than their idle timeout.
+     */
+    public void evictIdleConnections() {
+        List<Connection> idleConnections = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            Iterator<Map.Entry<String, CachedConnection>> iterator = connections.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CachedConnection> entry = iterator.next();
+                CachedConnection cached = entry.getValue();
+                if (cached.references == 0 && now - cached.releasedAt >= cached.idleTimeout) {
+                    LOG.debug("Closing HBase connection {} idle for {} ms", entry.getKey(), now - cached.releasedAt);
+                    iterator.remove();
+                    idleConnections.add(cached.connection.getNow(null));
+                }
+            }
+        }
+        idleConnections.forEach(HBaseConnectionCache::close);
+    }
+
+    /**
+     * Removes the connections of the given server from the cache, or all the connections if the server is null,
+     * so that the next leases create connections with the current configuration of the server. The connections
+     * are closed once they are released by their current leases.
+     *
+     * @param serverName the name of the server, or null for all the servers
+     */
+    public synchronized void evict(String serverName) {
+        List<Map.Entry<String, CachedConnection>> evicted = new ArrayList<>();
+        for (Map.Entry<String, CachedConnection> entry : connections.entrySet()) {
+            if (serverName == null || serverName.equals(entry.getValue().serverName)) {
+                evicted.add(entry);
+            }
+        }
+        evicted.forEach(entry -> evict(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Stops the eviction of idle connections and closes the connections, the leased ones are closed once released.
+     */
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        evict(null);
+    }
+
+    /**
+     * @return the number of cached connections
+     */
+    synchronized int size() {
+        return connections.size();
+    }
+
+    /*
+     * Creates the connection of a placeholder published by lease(), the leases waiting for the placeholder
+     * get the connection or the failure to create it
+     */
+    private void createConnection(String key, CachedConnection cached, Configuration configuration) {
+        LOG.debug("Creating HBase connection {}", key);
+        Connection connection;
+        try {
+            connection = connectionCreator.create(configuration);
+        } catch (Throwable t) {
+            synchronized (this) {
+                // the next lease of the key tries to create the connection again
+                if (connections.get(key) == cached) {
+                    connections.remove(key);
+                }
+                cached.evicted = true;
+            }
+            cached.connection.completeExceptionally(t);
+            return;
+        }
+        cached.connection.complete(connection);
+    }
+
+    private void release(CachedConnection cached, Connection connection) {
+        if (cached == null) {
+            close(connection);
+            return;
+        }
+        boolean closeConnection;
+        synchronized (this) {
+            cached.references--;
+            cached.releasedAt = clock.getAsLong();
+            closeConnection = cached.evicted && cached.references == 0;
+        }
+        if (closeConnection) {
+            close(cached);
+        }
+    }
+
+    private void evict(String key, CachedConnection cached) {
+        connections.remove(key);
+        cached.evicted = true;
+        if (cached.references == 0) {
+            close(cached);
+        }
+    }
+
+    /*
+     * A connection that is not leased has been created, the creating lease holds a reference until it is done
+     */
+    private static void close(CachedConnection cached) {
+        Connection connection = cached.connection.getNow(null);
+        if (connection != null) {
+            close(connection);
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close HBase connection", e);
+        }
+    }
+
+    /**
+     * Connections are only shared by the users of the same server, as the connection is authenticated
+     * with the user that creates it, and the configuration of the server may be changed between the requests.
+     */
+    private static String getKey(String serverName, Configuration configuration) throws IOException {
+        return String.join("|",
+                String.valueOf(serverName),
+                UserGroupInformation.getCurrentUser().getUserName(),
+                String.valueOf(configuration.get(HConstants.ZOOKEEPER_QUORUM)),
+                String.valueOf(configuration.get(HConstants.ZOOKEEPER_CLIENT_PORT)),
+                String.valueOf(configuration.get(HConstants.ZOOKEEPER_ZNODE_PARENT)));
+    }
+
+    private static class CachedConnection {
+        private final String serverName;
+        private final CompletableFuture<Connection> connection = new CompletableFuture<>();
+        private int references;
+        private long releasedAt;
+        private long idleTimeout;
+        private boolean evicted;
+
+        CachedConnection(String serverName) {
+            this.serverName = serverName;
+        }
+    }
+
+    /**
+     * A lease of a connection, closing the lease releases the connection.
+     */
+    public static class Lease implements Closeable {
+        private final HBaseConnectionCache cache;
+        private final CachedConnection cached;
+        private final Connection connection;
+        private boolean released;
+
+        private Lease(HBaseConnectionCache cache, CachedConnection cached, Connection connection) {
+            this.cache = cache;
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        /**
+         * @return the leased connection, it must not be closed by the caller
+         */
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Releases the connection, closing it if it is not shared.
+         */
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                cache.release(cached, connection);
+            }
+        }
+    }
+}
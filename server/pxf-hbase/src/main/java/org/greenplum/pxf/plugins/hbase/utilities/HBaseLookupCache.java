@@ -0,0 +1,161 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.plugins.hbase.PxfHBaseProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the mappings of the {@link HBaseLookupTable}, keyed by server and table name.
+ * <p>
+ * The mappings of a table are loaded from the lookup table by the first query of the table, and are refreshed
+ * in the background once they are older than the TTL, so that the following queries never wait for the lookup
+ * table. The mappings of a server are invalidated when its profile is reloaded. The lookup table is read with
+ * the connection of the server leased from the {@link HBaseConnectionCache}.
+ */
+@Component
+public class HBaseLookupCache implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseLookupCache.class);
+
+    private final MappingLoader mappingLoader;
+    private final ExecutorService refreshExecutor;
+    private final LoadingCache<LookupKey, Map<String, byte[]>> mappings;
+
+    /**
+     * Loads the mappings of a table from the lookup table
+     */
+    interface MappingLoader {
+        Map<String, byte[]> load(String serverName, Configuration configuration, String tableName) throws Exception;
+    }
+
+    public HBaseLookupCache(PxfHBaseProperties properties, HBaseConnectionCache connectionCache) {
+        this(properties.getLookup().getCacheTtl(),
+                properties.getLookup().getCacheExpiration(),
+                properties.getLookup().getCacheSize(),
+                (serverName, configuration, tableName) -> loadFromLookupTable(connectionCache, serverName, configuration, tableName));
+    }
+
+    HBaseLookupCache(Duration ttl, Duration expiration, long size, MappingLoader mappingLoader) {
+        this.mappingLoader = mappingLoader;
+        if (ttl.isZero() || ttl.isNegative()) {
+            this.refreshExecutor = null;
+            this.mappings = null;
+            return;
+        }
+        this.refreshExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("pxf-hbase-lookup-refresh-%d")
+                .setDaemon(true)
+                .build());
+        this.mappings = CacheBuilder.newBuilder()
+                .refreshAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                .expireAfterAccess(Math.max(expiration.toMillis(), ttl.toMillis()), TimeUnit.MILLISECONDS)
+                .maximumSize(size)
+                .build(CacheLoader.asyncReloading(new CacheLoader<LookupKey, Map<String, byte[]>>() {
+                    @Override
+                    public Map<String, byte[]> load(LookupKey key) throws Exception {
+                        LOG.debug("Loading lookup table mappings of table {} of server {}", key.tableName, key.serverName);
+                        Map<String, byte[]> tableMappings = mappingLoader.load(key.serverName, key.configuration, key.tableName);
+                        return tableMappings == null ? Collections.emptyMap() : tableMappings;
+                    }
+                }, refreshExecutor));
+    }
+
+    /**
+     * Returns the mappings between the GPDB column names and the HBase column names of the given table,
+     * or null if the table has no mappings.
+     *
+     * @param serverName    the name of the server
+     * @param tableName     the HBase table name
+     * @param configuration the HBase configuration of the server
+     * @return the mappings of the table
+     * @throws Exception if the mappings could not be loaded
+     */
+    public Map<String, byte[]> getMappings(String serverName, String tableName, Configuration configuration) throws Exception {
+        if (mappings == null) {
+            return mappingLoader.load(serverName, configuration, tableName);
+        }
+
+        Map<String, byte[]> tableMappings;
+        try {
+            tableMappings = mappings.get(new LookupKey(serverName, tableName, configuration));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        return tableMappings.isEmpty() ? null : tableMappings;
+    }
+
+    /**
+     * Invalidates the cached mappings of the given server, or of all the servers if the server is null.
+     *
+     * @param serverName the name of the server, or null for all the servers
+     */
+    public void invalidate(String serverName) {
+        if (mappings == null) {
+            return;
+        }
+        if (serverName == null) {
+            mappings.invalidateAll();
+        } else {
+            mappings.asMap().keySet().removeIf(key -> serverName.equals(key.serverName));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private static Map<String, byte[]> loadFromLookupTable(HBaseConnectionCache connectionCache, String serverName,
+                                                           Configuration configuration, String tableName) throws Exception {
+        try (HBaseConnectionCache.Lease lease = connectionCache.lease(serverName, configuration);
+             HBaseLookupTable lookupTable = new HBaseLookupTable(lease.getConnection())) {
+            return lookupTable.getMappings(tableName);
+        }
+    }
+
+    /**
+     * The key of the mappings of a table, the configuration used to load the mappings is not part of the key
+     */
+    private static class LookupKey {
+        private final String serverName;
+        private final String tableName;
+        private final Configuration configuration;
+
+        LookupKey(String serverName, String tableName, Configuration configuration) {
+            this.serverName = serverName;
+            this.tableName = tableName;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LookupKey that = (LookupKey) o;
+            return Objects.equals(serverName, that.serverName) && Objects.equals(tableName, that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverName, tableName);
+        }
+    }
+}
@@ -68,6 +68,7 @@ public class HBaseLookupTable implements Closeable {
     private static final Log LOG = LogFactory.getLog(HBaseLookupTable.class);
 
     private final Connection connection;
+    private final boolean ownsConnection;
     private final Admin admin;
     private Map<byte[], byte[]> rawTableMapping;
     private Table lookupTable;
@@ -80,11 +81,29 @@ public class HBaseLookupTable implements Closeable {
      * @throws IOException when initializing HBaseAdmin fails
      */
     public HBaseLookupTable(Configuration conf) throws Exception {
-        connection = ConnectionFactory.createConnection(conf);
+        this(ConnectionFactory.createConnection(conf), true);
+    }
+
+    /**
+     * Constructs a connector to HBase lookup table using the given connection,
+     * which is not closed by {@link #close()}.
+     *
+     * @param connection the HBase connection
+     * @throws IOException when initializing HBaseAdmin fails
+     */
+    public HBaseLookupTable(Connection connection) throws IOException {
+        this(connection, false);
+    }
+
+    private HBaseLookupTable(Connection connection, boolean ownsConnection) throws IOException {
+        this.connection = connection;
+        this.ownsConnection = ownsConnection;
         admin = connection.getAdmin();
-        ClusterStatus cs = admin.getClusterStatus();
-        LOG.debug("HBase cluster has " + cs.getServersSize()
-                + " region servers " + "(" + cs.getDeadServers() + " dead)");
+        if (LOG.isDebugEnabled()) {
+            ClusterStatus cs = admin.getClusterStatus();
+            LOG.debug("HBase cluster has " + cs.getServersSize()
+                    + " region servers " + "(" + cs.getDeadServers() + " dead)");
+        }
     }
 
     /**
@@ -117,7 +136,7 @@ public class HBaseLookupTable implements Closeable {
      */
     @Override
     public void close() throws IOException {
-        admin.close();
+        HBaseUtilities.closeConnection(admin, ownsConnection ? connection : null);
     }
 
     /**
@@ -202,7 +221,6 @@ public class HBaseLookupTable implements Closeable {
 
     private void closeLookupTable() throws IOException {
         lookupTable.close();
-        HBaseUtilities.closeConnection(admin, connection);
     }
 
     private String lowerCase(byte[] key) {
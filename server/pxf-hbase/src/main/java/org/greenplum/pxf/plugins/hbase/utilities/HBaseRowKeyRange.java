@@ -0,0 +1,199 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A range of HBase row keys, from an inclusive start key to an exclusive end key.
+ * An empty start key is the start of the table, an empty end key is the end of the table.
+ * <p>
+ * Lists of ranges are kept sorted and disjoint by {@link #union(List, List)} and
+ * {@link #intersect(List, List)}. The list {@link #ALL} has the single range of the whole
+ * table, and the empty list has no rows at all.
+ */
+public class HBaseRowKeyRange {
+
+    /**
+     * The ranges of the whole table
+     */
+    public static final List<HBaseRowKeyRange> ALL = Collections.singletonList(
+            new HBaseRowKeyRange(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW));
+
+    private final byte[] startKey;
+    private final byte[] endKey;
+
+    public HBaseRowKeyRange(byte[] startKey, byte[] endKey) {
+        this.startKey = startKey;
+        this.endKey = endKey;
+    }
+
+    /**
+     * @return the inclusive start key of the range
+     */
+    public byte[] getStartKey() {
+        return startKey;
+    }
+
+    /**
+     * @return the exclusive end key of the range
+     */
+    public byte[] getEndKey() {
+        return endKey;
+    }
+
+    /**
+     * Returns true if the range has no rows.
+     *
+     * @return whether the range is empty
+     */
+    public boolean isEmpty() {
+        return !isEndOfTable(endKey) && Bytes.compareTo(startKey, endKey) >= 0;
+    }
+
+    /**
+     * Returns true if the range has rows from the range between the given start and end keys,
+     * e.g. the keys of a region.
+     *
+     * @param otherStartKey the inclusive start key
+     * @param otherEndKey   the exclusive end key, or empty for the end of the table
+     * @return whether the ranges intersect
+     */
+    public boolean intersects(byte[] otherStartKey, byte[] otherEndKey) {
+        return !new HBaseRowKeyRange(max(startKey, otherStartKey), minEnd(endKey, otherEndKey)).isEmpty();
+    }
+
+    /**
+     * @return the range for a {@link MultiRowRangeFilter}
+     */
+    public MultiRowRangeFilter.RowRange toRowRange() {
+        return new MultiRowRangeFilter.RowRange(startKey, true, endKey, false);
+    }
+
+    /**
+     * Returns the sorted and disjoint ranges of the rows in either of the given ranges.
+     *
+     * @param left  the first list of ranges
+     * @param right the second list of ranges
+     * @return the union of the ranges
+     */
+    public static List<HBaseRowKeyRange> union(List<HBaseRowKeyRange> left, List<HBaseRowKeyRange> right) {
+        List<HBaseRowKeyRange> ranges = new ArrayList<>(left.size() + right.size());
+        ranges.addAll(left);
+        ranges.addAll(right);
+        ranges.sort((a, b) -> Bytes.compareTo(a.startKey, b.startKey));
+
+        List<HBaseRowKeyRange> merged = new ArrayList<>(ranges.size());
+        HBaseRowKeyRange current = null;
+        for (HBaseRowKeyRange range : ranges) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            if (current == null) {
+                current = range;
+            } else if (isEndOfTable(current.endKey) || Bytes.compareTo(range.startKey, current.endKey) <= 0) {
+                current = new HBaseRowKeyRange(current.startKey, maxEnd(current.endKey, range.endKey));
+            } else {
+                merged.add(current);
+                current = range;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the sorted and disjoint ranges of the rows in both of the given ranges.
+     *
+     * @param left  the first list of ranges
+     * @param right the second list of ranges
+     * @return the intersection of the ranges
+     */
+    public static List<HBaseRowKeyRange> intersect(List<HBaseRowKeyRange> left, List<HBaseRowKeyRange> right) {
+        List<HBaseRowKeyRange> ranges = new ArrayList<>();
+        for (HBaseRowKeyRange l : left) {
+            for (HBaseRowKeyRange r : right) {
+                HBaseRowKeyRange range = new HBaseRowKeyRange(max(l.startKey, r.startKey), minEnd(l.endKey, r.endKey));
+                if (!range.isEmpty()) {
+                    ranges.add(range);
+                }
+            }
+        }
+        return union(ranges, Collections.emptyList());
+    }
+
+    /**
+     * Returns the first row key after all the row keys that start with the given prefix,
+     * or the end of the table if there is none.
+     *
+     * @param prefix the prefix of the row keys
+     * @return the exclusive end key of the rows with the prefix
+     */
+    public static byte[] getPrefixEndKey(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] endKey = new byte[i + 1];
+                System.arraycopy(prefix, 0, endKey, 0, i + 1);
+                endKey[i]++;
+                return endKey;
+            }
+        }
+        return HConstants.EMPTY_END_ROW;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + Bytes.toStringBinary(startKey) + ", " + Bytes.toStringBinary(endKey) + ")";
+    }
+
+    private static boolean isEndOfTable(byte[] endKey) {
+        return Bytes.equals(endKey, HConstants.EMPTY_END_ROW);
+    }
+
+    private static byte[] max(byte[] a, byte[] b) {
+        return Bytes.compareTo(a, b) >= 0 ? a : b;
+    }
+
+    private static byte[] minEnd(byte[] a, byte[] b) {
+        if (isEndOfTable(a)) {
+            return b;
+        }
+        if (isEndOfTable(b)) {
+            return a;
+        }
+        return Bytes.compareTo(a, b) <= 0 ? a : b;
+    }
+
+    private static byte[] maxEnd(byte[] a, byte[] b) {
+        if (isEndOfTable(a) || isEndOfTable(b)) {
+            return HConstants.EMPTY_END_ROW;
+        }
+        return Bytes.compareTo(a, b) >= 0 ? a : b;
+    }
+}
@@ -20,13 +20,19 @@ package org.greenplum.pxf.plugins.hbase.utilities;
  */
 
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.plugins.hbase.HBaseFragmentMetadata;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The class extends the tuple description provided by {@link RequestContext}
@@ -34,8 +40,17 @@ import java.util.Map;
  * <p>
  * This class also loads lookup table sent (optionally) by the
  * fragmenter.
+ * <p>
+ * The column descriptions are cached by table, columns and mappings,
+ * so that the accessors and resolvers of the fragments of a table
+ * share them instead of parsing them for every fragment.
  */
 public class HBaseTupleDescription {
+    private static final Cache<String, List<HBaseColumnDescriptor>> TUPLE_DESCRIPTIONS = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     private Map<String, byte[]> tableMapping;
     private List<HBaseColumnDescriptor> tupleDescription;
     private final RequestContext context;
@@ -70,9 +85,39 @@ public class HBaseTupleDescription {
     }
 
     private void parseHBaseTupleDescription() {
-        tupleDescription = new ArrayList<>();
         loadUserData();
-        createTupleDescription();
+        String key = getCacheKey();
+        tupleDescription = TUPLE_DESCRIPTIONS.getIfPresent(key);
+        if (tupleDescription == null) {
+            tupleDescription = new ArrayList<>();
+            createTupleDescription();
+            tupleDescription = Collections.unmodifiableList(tupleDescription);
+            TUPLE_DESCRIPTIONS.put(key, tupleDescription);
+        }
+    }
+
+    /**
+     * Returns the key of the tuple description in the cache, made of the table name,
+     * the columns of the query and the lookup table mappings.
+     */
+    private String getCacheKey() {
+        StringBuilder key = new StringBuilder()
+                .append(context.getServerName()).append('|')
+                .append(context.getDataSource());
+        for (int i = 0; i < context.getColumns(); ++i) {
+            ColumnDescriptor column = context.getColumn(i);
+            key.append('|').append(column.columnName())
+                    .append(':').append(column.columnTypeCode())
+                    .append(':').append(column.columnIndex())
+                    .append(':').append(column.isProjected());
+        }
+        if (tableMapping != null) {
+            for (Map.Entry<String, byte[]> mapping : new TreeMap<>(tableMapping).entrySet()) {
+                key.append('|').append(mapping.getKey())
+                        .append('=').append(Bytes.toStringBinary(mapping.getValue()));
+            }
+        }
+        return key.toString();
     }
 
     /**
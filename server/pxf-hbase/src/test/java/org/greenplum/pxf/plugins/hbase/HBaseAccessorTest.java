@@ -79,7 +79,7 @@ public class HBaseAccessorTest {
     @Test
     public void construction() {
         prepareConstruction();
-        HBaseAccessor accessor = new HBaseAccessor();
+        HBaseAccessor accessor = new HBaseAccessor(null, mock(HBaseConnectionCache.class));
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
     }
@@ -98,7 +98,7 @@ public class HBaseAccessorTest {
         prepareTableOpen();
         prepareEmptyScanner();
 
-        accessor = new HBaseAccessor();
+        accessor = new HBaseAccessor(null, mock(HBaseConnectionCache.class));
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
 
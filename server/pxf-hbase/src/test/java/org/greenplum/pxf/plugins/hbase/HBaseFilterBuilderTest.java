@@ -22,9 +22,13 @@ package org.greenplum.pxf.plugins.hbase;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.NullComparator;
+import org.apache.hadoop.hbase.filter.PrefixFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.greenplum.pxf.api.filter.FilterParser;
+import org.greenplum.pxf.api.filter.InOperatorTransformer;
 import org.greenplum.pxf.api.filter.Node;
 import org.greenplum.pxf.api.filter.SupportedOperatorPruner;
 import org.greenplum.pxf.api.filter.TreeTraverser;
@@ -32,10 +36,13 @@ import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseIntegerComparator;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseRowKeyRange;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.greenplum.pxf.plugins.hbase.HBaseAccessor.SUPPORTED_OPERATORS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -50,6 +57,7 @@ public class HBaseFilterBuilderTest {
 
     private static final TreeVisitor PRUNER = new SupportedOperatorPruner(SUPPORTED_OPERATORS);
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
+    private static final TreeVisitor IN_OPERATOR_TRANSFORMER = new InOperatorTransformer();
 
     private HBaseTupleDescription tupleDescription;
     private final byte[][] families = new byte[][]{
@@ -262,4 +270,90 @@ public class HBaseFilterBuilderTest {
         TRAVERSER.traverse(root, PRUNER, hBaseFilterBuilder);
         return hBaseFilterBuilder.build();
     }
+
+    @Test
+    public void testRowKeyInListIsScannedAsRanges() throws Exception {
+        // _0_ IN (row5, row1)
+        HBaseFilterBuilder builder = rowKeyHelper("a0m1009s4drow5s4drow1o10");
+
+        List<HBaseRowKeyRange> ranges = builder.getRowKeyRanges();
+        assertEquals(2, ranges.size());
+        assertRange("row1", "row1\\x00", ranges.get(0));
+        assertRange("row5", "row5\\x00", ranges.get(1));
+        assertEquals("row1", Bytes.toString(builder.getStartKey()));
+        assertEquals("row5\0", Bytes.toString(builder.getEndKey()));
+        assertTrue(builder.getRowKeyRangeFilter() instanceof MultiRowRangeFilter);
+    }
+
+    @Test
+    public void testRowKeyRangesOfAndOperator() throws Exception {
+        // _0_ >= row1 AND _0_ < row5
+        HBaseFilterBuilder builder = rowKeyHelper("a0c25s4drow1o4a0c25s4drow5o1l0");
+
+        List<HBaseRowKeyRange> ranges = builder.getRowKeyRanges();
+        assertEquals(1, ranges.size());
+        assertRange("row1", "row5", ranges.get(0));
+        assertNull(builder.getRowKeyRangeFilter());
+    }
+
+    @Test
+    public void testRowKeyRangesOfOrOperatorWithOtherColumn() throws Exception {
+        // _0_ = row1 OR _1_ = seq
+        HBaseFilterBuilder builder = rowKeyHelper("a0c25s4drow1o5a1c25s3dseqo5l1");
+
+        assertSame(HBaseRowKeyRange.ALL, builder.getRowKeyRanges());
+        assertNull(builder.getRowKeyRangeFilter());
+    }
+
+    @Test
+    public void testDisjointRowKeyRangesOfAndOperator() throws Exception {
+        // _0_ = row1 AND _0_ = row5
+        HBaseFilterBuilder builder = rowKeyHelper("a0c25s4drow1o5a0c25s4drow5o5l0");
+
+        assertTrue(builder.getRowKeyRanges().isEmpty());
+    }
+
+    @Test
+    public void testRowKeyLikePrefix() throws Exception {
+        // _0_ LIKE row%
+        HBaseFilterBuilder builder = rowKeyHelper("a0c25s4drow%o7");
+
+        assertTrue(builder.build() instanceof PrefixFilter);
+        List<HBaseRowKeyRange> ranges = builder.getRowKeyRanges();
+        assertEquals(1, ranges.size());
+        assertRange("row", "rox", ranges.get(0));
+    }
+
+    @Test
+    public void testGetLikePrefix() {
+        assertEquals("row", HBaseFilterBuilder.getLikePrefix("row%"));
+        assertNull(HBaseFilterBuilder.getLikePrefix("%"));
+        assertNull(HBaseFilterBuilder.getLikePrefix("row"));
+        assertNull(HBaseFilterBuilder.getLikePrefix("r_w%"));
+        assertNull(HBaseFilterBuilder.getLikePrefix("r%w%"));
+        assertNull(HBaseFilterBuilder.getLikePrefix("r\\%w%"));
+    }
+
+    private HBaseFilterBuilder rowKeyHelper(String filterString) throws Exception {
+        HBaseTupleDescription rowKeyDescription = mock(HBaseTupleDescription.class);
+        HBaseColumnDescriptor rowKey = mock(HBaseColumnDescriptor.class);
+        when(rowKeyDescription.getColumn(0)).thenReturn(rowKey);
+        when(rowKey.isKeyColumn()).thenReturn(true);
+        when(rowKey.columnTypeCode()).thenReturn(DataType.TEXT.getOID());
+        HBaseColumnDescriptor column = mock(HBaseColumnDescriptor.class);
+        when(rowKeyDescription.getColumn(1)).thenReturn(column);
+        when(column.columnFamilyBytes()).thenReturn(families[1]);
+        when(column.qualifierBytes()).thenReturn(qualifiers[1]);
+        when(column.columnTypeCode()).thenReturn(DataType.TEXT.getOID());
+
+        HBaseFilterBuilder hBaseFilterBuilder = new HBaseFilterBuilder(rowKeyDescription);
+        Node root = new FilterParser().parse(filterString);
+        TRAVERSER.traverse(root, IN_OPERATOR_TRANSFORMER, hBaseFilterBuilder);
+        return hBaseFilterBuilder;
+    }
+
+    private void assertRange(String startKey, String endKey, HBaseRowKeyRange range) {
+        assertEquals(startKey, Bytes.toStringBinary(range.getStartKey()));
+        assertEquals(endKey, Bytes.toStringBinary(range.getEndKey()));
+    }
 }
@@ -0,0 +1,185 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseConnectionCacheTest {
+
+    private AtomicLong clock;
+    private HBaseConnectionCache cache;
+    private Configuration configuration;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong();
+        cache = new HBaseConnectionCache(conf -> mock(Connection.class), clock::get);
+        configuration = new Configuration(false);
+        configuration.set("hbase.zookeeper.quorum", "zk1");
+        configuration.setLong(HBaseConnectionCache.CONNECTION_IDLE_TIMEOUT_PROPERTY, 1000);
+    }
+
+    @Test
+    public void testLeasesShareConnectionOfServer() throws IOException {
+        HBaseConnectionCache.Lease first = cache.lease("default", configuration);
+        HBaseConnectionCache.Lease second = cache.lease("default", configuration);
+
+        assertSame(first.getConnection(), second.getConnection());
+        assertEquals(1, cache.size());
+
+        first.close();
+        second.close();
+        verify(first.getConnection(), never()).close();
+    }
+
+    @Test
+    public void testServersDoNotShareConnections() throws IOException {
+        Configuration otherConfiguration = new Configuration(configuration);
+        otherConfiguration.set("hbase.zookeeper.quorum", "zk2");
+
+        HBaseConnectionCache.Lease first = cache.lease("default", configuration);
+        HBaseConnectionCache.Lease second = cache.lease("other", configuration);
+        HBaseConnectionCache.Lease third = cache.lease("default", otherConfiguration);
+
+        assertNotSame(first.getConnection(), second.getConnection());
+        assertNotSame(first.getConnection(), third.getConnection());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testIdleConnectionIsClosed() throws IOException {
+        HBaseConnectionCache.Lease lease = cache.lease("default", configuration);
+        Connection connection = lease.getConnection();
+        lease.close();
+        // closing the lease again does not release the connection twice
+        lease.close();
+
+        clock.set(999);
+        cache.evictIdleConnections();
+        verify(connection, never()).close();
+        assertEquals(1, cache.size());
+
+        clock.set(1000);
+        cache.evictIdleConnections();
+        verify(connection).close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeasedConnectionIsNotClosed() throws IOException {
+        HBaseConnectionCache.Lease lease = cache.lease("default", configuration);
+
+        clock.set(10000);
+        cache.evictIdleConnections();
+
+        verify(lease.getConnection(), never()).close();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testAbortedConnectionIsReplaced() throws IOException {
+        HBaseConnectionCache.Lease first = cache.lease("default", configuration);
+        Connection aborted = first.getConnection();
+        when(aborted.isAborted()).thenReturn(true);
+
+        HBaseConnectionCache.Lease second = cache.lease("default", configuration);
+        assertNotSame(aborted, second.getConnection());
+        verify(aborted, never()).close();
+
+        first.close();
+        verify(aborted).close();
+    }
+
+    @Test
+    public void testConnectionIsNotSharedWhenCacheIsDisabled() throws IOException {
+        configuration.setBoolean(HBaseConnectionCache.CONNECTION_CACHE_ENABLED_PROPERTY, false);
+
+        HBaseConnectionCache.Lease first = cache.lease("default", configuration);
+        HBaseConnectionCache.Lease second = cache.lease("default", configuration);
+
+        assertNotSame(first.getConnection(), second.getConnection());
+        assertEquals(0, cache.size());
+
+        first.close();
+        verify(first.getConnection(), times(1)).close();
+    }
+
+    @Test
+    public void testConnectionIsCreatedOutsideTheLock() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        cache = new HBaseConnectionCache(conf -> {
+            if ("unreachable".equals(conf.get("hbase.zookeeper.quorum"))) {
+                creating.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return mock(Connection.class);
+        }, clock::get);
+        Configuration unreachableConfiguration = new Configuration(configuration);
+        unreachableConfiguration.set("hbase.zookeeper.quorum", "unreachable");
+
+        CompletableFuture<HBaseConnectionCache.Lease> first = CompletableFuture.supplyAsync(() -> lease("slow", unreachableConfiguration));
+        CompletableFuture<HBaseConnectionCache.Lease> second = CompletableFuture.supplyAsync(() -> lease("slow", unreachableConfiguration));
+        assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+        // the other servers and the evictor are not blocked by the connection being created
+        HBaseConnectionCache.Lease other = cache.lease("default", configuration);
+        cache.evictIdleConnections();
+        assertEquals(2, cache.size());
+        other.close();
+
+        unblock.countDown();
+        assertSame(first.get(10, TimeUnit.SECONDS).getConnection(), second.get(10, TimeUnit.SECONDS).getConnection());
+    }
+
+    @Test
+    public void testFailedCreationIsRetried() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        cache = new HBaseConnectionCache(conf -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("ZooKeeper is unreachable");
+            }
+            return mock(Connection.class);
+        }, clock::get);
+
+        IOException e = assertThrows(IOException.class, () -> cache.lease("default", configuration));
+        assertEquals("ZooKeeper is unreachable", e.getMessage());
+        assertEquals(0, cache.size());
+
+        HBaseConnectionCache.Lease lease = cache.lease("default", configuration);
+        assertEquals(2, attempts.get());
+        assertEquals(1, cache.size());
+        lease.close();
+    }
+
+    private HBaseConnectionCache.Lease lease(String serverName, Configuration configuration) {
+        try {
+            return cache.lease(serverName, configuration);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.greenplum.pxf.plugins.hbase.PxfHBaseProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseLookupCacheTest {
+
+    private static final Map<String, byte[]> MAPPINGS = Collections.singletonMap("name", Bytes.toBytes("cf:name"));
+
+    private AtomicInteger loads;
+    private Configuration configuration;
+    private HBaseLookupCache cache;
+
+    @BeforeEach
+    public void setup() {
+        loads = new AtomicInteger();
+        configuration = new Configuration(false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (cache != null) {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    public void testMappingsAreLoadedOnce() throws Exception {
+        cache = createCache(Duration.ofMinutes(5));
+
+        assertSame(MAPPINGS, cache.getMappings("default", "sales", configuration));
+        assertSame(MAPPINGS, cache.getMappings("default", "sales", configuration));
+        assertEquals(1, loads.get());
+
+        cache.getMappings("other", "sales", configuration);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testTableWithoutMappings() throws Exception {
+        cache = new HBaseLookupCache(Duration.ofMinutes(5), Duration.ofHours(1), 10, (server, conf, table) -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertNull(cache.getMappings("default", "sales", configuration));
+        assertNull(cache.getMappings("default", "sales", configuration));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testInvalidateServer() throws Exception {
+        cache = createCache(Duration.ofMinutes(5));
+        cache.getMappings("default", "sales", configuration);
+        cache.getMappings("other", "sales", configuration);
+
+        cache.invalidate("default");
+        cache.getMappings("default", "sales", configuration);
+        cache.getMappings("other", "sales", configuration);
+        assertEquals(3, loads.get());
+
+        cache.invalidate(null);
+        cache.getMappings("default", "sales", configuration);
+        cache.getMappings("other", "sales", configuration);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void testDisabledCacheLoadsMappingsForEveryQuery() throws Exception {
+        cache = createCache(Duration.ZERO);
+
+        cache.getMappings("default", "sales", configuration);
+        cache.getMappings("default", "sales", configuration);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoadFailureIsPropagated() {
+        cache = new HBaseLookupCache(Duration.ofMinutes(5), Duration.ofHours(1), 10, (server, conf, table) -> {
+            throw new IOException("lookup table is not available");
+        });
+
+        Exception e = assertThrows(IOException.class, () -> cache.getMappings("default", "sales", configuration));
+        assertEquals("lookup table is not available", e.getMessage());
+    }
+
+    @Test
+    public void testLookupTableIsReadWithLeasedConnection() throws Exception {
+        Connection connection = mock(Connection.class);
+        Admin admin = mock(Admin.class);
+        when(connection.getAdmin()).thenReturn(admin);
+        AtomicInteger connections = new AtomicInteger();
+        HBaseConnectionCache connectionCache = new HBaseConnectionCache(conf -> {
+            connections.incrementAndGet();
+            return connection;
+        }, System::currentTimeMillis);
+        PxfHBaseProperties properties = new PxfHBaseProperties();
+        properties.getLookup().setCacheTtl(Duration.ZERO);
+        cache = new HBaseLookupCache(properties, connectionCache);
+
+        // the lookup table does not exist
+        assertNull(cache.getMappings("default", "sales", configuration));
+        assertNull(cache.getMappings("default", "sales", configuration));
+
+        assertEquals(1, connections.get());
+        assertEquals(1, connectionCache.size());
+        verify(admin, times(2)).close();
+        verify(connection, never()).close();
+    }
+
+    private HBaseLookupCache createCache(Duration ttl) {
+        return new HBaseLookupCache(ttl, Duration.ofHours(1), 10, (server, conf, table) -> {
+            loads.incrementAndGet();
+            return MAPPINGS;
+        });
+    }
+}
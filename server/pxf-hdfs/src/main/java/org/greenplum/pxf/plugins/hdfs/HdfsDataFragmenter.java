@@ -20,20 +20,34 @@ package org.greenplum.pxf.plugins.hdfs;
  */
 
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.InvalidInputException;
 import org.apache.hadoop.mapred.JobConf;
 import org.greenplum.pxf.api.model.BaseFragmenter;
+import org.greenplum.pxf.api.model.CacheableFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.model.ListingFragmenter;
+import org.greenplum.pxf.api.model.ListingStats;
 import org.greenplum.pxf.plugins.hdfs.utilities.PxfInputFormat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Fragmenter class for HDFS data resources.
@@ -41,12 +55,31 @@ import java.util.List;
  * Given an HDFS data source (a file, directory, or wild card pattern) divide
  * the data into fragments and return a list of them along with a list of
  * host:port locations for each.
+ * <p>
+ * When the `pxf.fragmenter.listing.parallelism` property is set to more than
+ * one, the directories of the data source are listed concurrently by up to the
+ * given number of threads, and the splits of the files are computed as soon as
+ * the files are listed. The directories of object stores are only listed level
+ * by level up to the depth given by the `pxf.fragmenter.listing.prefix-depth`
+ * property, and the prefixes at that depth are listed recursively.
  */
-public class HdfsDataFragmenter extends BaseFragmenter {
+public class HdfsDataFragmenter extends BaseFragmenter implements CacheableFragmenter, ListingFragmenter {
 
     protected static final String IGNORE_MISSING_PATH_OPTION = "IGNORE_MISSING_PATH";
 
+    public static final String PXF_LISTING_PARALLELISM = "pxf.fragmenter.listing.parallelism";
+    public static final int DEFAULT_LISTING_PARALLELISM = 1;
+    public static final String PXF_LISTING_PREFIX_DEPTH = "pxf.fragmenter.listing.prefix-depth";
+    public static final int DEFAULT_LISTING_PREFIX_DEPTH = 1;
+
+    /*
+     * File systems that update the modification time of a directory when a file is added to, removed from or
+     * renamed in the directory. Object stores do not keep modification times for directories.
+     */
+    private static final Set<String> DIRECTORY_MODIFICATION_TIME_SCHEMES = Set.of("hdfs", "file");
+
     private JobConf jobConf;
+    private ListingStats listingStats;
     protected HcfsType hcfsType;
 
     @Override
@@ -107,11 +140,73 @@ public class HdfsDataFragmenter extends BaseFragmenter {
         return new FragmentStats(splits.size(), firstSplit.getLength(), totalSize);
     }
 
+    /**
+     * Returns a fingerprint of the files matching the data source URI. On file
+     * systems that maintain modification times of directories, a directory is
+     * represented by its modification time, so the directory is not listed.
+     * Otherwise, the fingerprint is computed from the path, the length and the
+     * modification time of every file of the directory.
+     * <p>
+     * Appending to a file of a directory does not change the modification time
+     * of the directory, so such changes are not detected on HDFS.
+     *
+     * @return the fingerprint, or null if the data source URI does not match any file
+     * @throws IOException if the file system could not be accessed
+     */
+    @Override
+    public String getFingerprint() throws IOException {
+        JobConf jobConf = getJobConf();
+        Path path = new Path(hcfsType.getDataUri(context));
+        FileSystem fs = path.getFileSystem(jobConf);
+        FileStatus[] statuses = fs.globStatus(path);
+        if (statuses == null || statuses.length == 0) {
+            return null;
+        }
+
+        boolean recursive = jobConf.getBoolean(FileInputFormat.INPUT_DIR_RECURSIVE, false);
+        boolean useDirectoryTimes = !recursive && DIRECTORY_MODIFICATION_TIME_SCHEMES.contains(fs.getScheme());
+        Hasher hasher = Hashing.sha256().newHasher();
+        Arrays.sort(statuses);
+        for (FileStatus status : statuses) {
+            if (status.isDirectory() && !useDirectoryTimes) {
+                RemoteIterator<LocatedFileStatus> files = fs.listFiles(status.getPath(), recursive);
+                while (files.hasNext()) {
+                    putFileStatus(hasher, files.next());
+                }
+            } else {
+                putFileStatus(hasher, status);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    @Override
+    public ListingStats getListingStats() {
+        return listingStats;
+    }
+
+    private void putFileStatus(Hasher hasher, FileStatus status) {
+        hasher.putString(status.getPath().toString(), StandardCharsets.UTF_8)
+                .putLong(status.getLen())
+                .putLong(status.getModificationTime());
+    }
+
     protected List<InputSplit> getSplits(Path path) throws IOException {
         JobConf jobConf = getJobConf();
+        int parallelism = jobConf.getInt(PXF_LISTING_PARALLELISM, DEFAULT_LISTING_PARALLELISM);
+        long startTime = System.nanoTime();
+        if (parallelism > 1) {
+            ParallelFileLister lister = new ParallelFileLister(jobConf, parallelism,
+                    jobConf.getInt(PXF_LISTING_PREFIX_DEPTH, DEFAULT_LISTING_PREFIX_DEPTH));
+            List<InputSplit> splits = lister.getSplits(path);
+            listingStats = new ListingStats(lister.getFileCount(), Duration.ofNanos(System.nanoTime() - startTime));
+            return splits;
+        }
+
         PxfInputFormat<?, ?> pxfInputFormat = new PxfInputFormat<>();
         PxfInputFormat.setInputPaths(jobConf, path);
         InputSplit[] splits = pxfInputFormat.getSplits(jobConf, 1);
+        listingStats = new ListingStats(pxfInputFormat.getListedFileCount(), Duration.ofNanos(System.nanoTime() - startTime));
         List<InputSplit> result = new ArrayList<>();
 
         /*
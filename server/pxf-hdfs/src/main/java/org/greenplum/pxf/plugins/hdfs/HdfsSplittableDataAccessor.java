@@ -31,6 +31,7 @@ import org.apache.hadoop.util.StringUtils;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.CancelableOperation;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
 
@@ -42,14 +43,26 @@ import java.io.IOException;
  * also the split size).
  * <p>
  * Accessors that require such base functionality should extend this class.
+ * <p>
+ * When the `pxf.reader.readahead.enabled` property is set to true, the records
+ * are read ahead on a background thread, so that the latency of the storage is
+ * hidden behind the serialization of the records that were already read.
  */
-public abstract class HdfsSplittableDataAccessor extends BasePlugin implements Accessor {
+public abstract class HdfsSplittableDataAccessor extends BasePlugin implements Accessor, CancelableOperation {
+    public static final String PXF_READAHEAD_ENABLED = "pxf.reader.readahead.enabled";
+    public static final boolean PXF_READAHEAD_DEFAULT = false;
+    public static final String PXF_READAHEAD_BATCHES = "pxf.reader.readahead.batches";
+    public static final int PXF_READAHEAD_BATCHES_DEFAULT = 2;
+    public static final String PXF_READAHEAD_BATCH_SIZE = "pxf.reader.readahead.batch-size";
+    public static final int PXF_READAHEAD_BATCH_SIZE_DEFAULT = 128;
+
     protected RecordReader<Object, Object> reader;
     protected InputFormat<?, ?> inputFormat;
     protected JobConf jobConf;
     protected Object key, data;
     protected FileSplit fileSplit;
     protected HcfsType hcfsType;
+    private ReadAheadBuffer readAheadBuffer;
 
     /**
      * Constructs an HdfsSplittableDataAccessor
@@ -86,9 +99,28 @@ public abstract class HdfsSplittableDataAccessor extends BasePlugin implements A
         reader = (RecordReader<Object, Object>) getReader(jobConf, fileSplit);
         key = reader.createKey();
         data = reader.createValue();
+        if (configuration.getBoolean(PXF_READAHEAD_ENABLED, PXF_READAHEAD_DEFAULT) && isReadAheadSupported()) {
+            int batches = configuration.getInt(PXF_READAHEAD_BATCHES, PXF_READAHEAD_BATCHES_DEFAULT);
+            int batchSize = configuration.getInt(PXF_READAHEAD_BATCH_SIZE, PXF_READAHEAD_BATCH_SIZE_DEFAULT);
+            LOG.debug("Reading ahead up to {} batches of {} records", batches, batchSize);
+            readAheadBuffer = new ReadAheadBuffer(reader, batches, batchSize);
+            readAheadBuffer.start();
+        }
         return true;
     }
 
+    /**
+     * Returns whether the records of the reader can be read ahead on a background
+     * thread. Only the records that own their data can be read ahead: a reader that
+     * fills the value with references to its own buffers overwrites the records that
+     * were read ahead. Accessors opt in once they have checked their reader.
+     *
+     * @return true if the records can be read ahead, false otherwise
+     */
+    protected boolean isReadAheadSupported() {
+        return false;
+    }
+
     /**
      * Specialized accessors will override this method and implement their own
      * recordReader. For example, a plain delimited text accessor may want to
@@ -118,6 +150,9 @@ public abstract class HdfsSplittableDataAccessor extends BasePlugin implements A
      */
     @Override
     public OneRow readNextObject() throws IOException {
+        if (readAheadBuffer != null) {
+            return readAheadBuffer.next();
+        }
         // if there is one more record in the current split
         if (!reader.next(key, data)) {
             return null;
@@ -137,11 +172,35 @@ public abstract class HdfsSplittableDataAccessor extends BasePlugin implements A
      */
     @Override
     public void closeForRead() throws Exception {
-        if (reader != null) {
-            reader.close();
+        try {
+            if (readAheadBuffer != null) {
+                readAheadBuffer.close();
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Stops reading the records ahead, a consumer waiting for the next record fails.
+     */
+    @Override
+    public void cancelRead() {
+        if (readAheadBuffer != null) {
+            readAheadBuffer.cancel();
         }
     }
 
+    /**
+     * Nothing to cancel for write, the output is closed by {@link #closeForWrite()}.
+     */
+    @Override
+    public void cancelWrite() {
+        LOG.debug("Accessor [{}] does not support canceling write operation", getClass().getSimpleName());
+    }
+
     /**
      * Helper routine to get compression codec by class name or alias.
      *
@@ -24,6 +24,7 @@ import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
@@ -31,6 +32,7 @@ import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.LineRecordReader;
 import org.apache.hadoop.mapred.TextInputFormat;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
 
@@ -48,6 +50,9 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
     private static final int DEFAULT_BUFFER_SIZE = 8192;
     public static final String PXF_CHUNK_RECORD_READER_ENABLED = "pxf.reader.chunk-record-reader.enabled";
     public static final boolean PXF_CHUNK_RECORD_READER_DEFAULT = false;
+    public static final String PXF_PASSTHROUGH_READER_ENABLED = "pxf.reader.passthrough.enabled";
+    public static final boolean PXF_PASSTHROUGH_READER_DEFAULT = true;
+    public static final String PXF_PASSTHROUGH_READER_BUFFER_SIZE = "pxf.reader.passthrough.buffer-size";
 
     private int skipHeaderCount;
     protected DataOutputStream dos;
@@ -89,6 +94,15 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
     protected Object getReader(JobConf jobConf, InputSplit split)
             throws IOException {
 
+        if (isPassthroughReadSupported((FileSplit) split)) {
+            int bufferSize = configuration.getInt(PXF_PASSTHROUGH_READER_BUFFER_SIZE, PassthroughRecordReader.DEFAULT_BUFFER_SIZE);
+            LOG.debug("Using PassthroughRecordReader with a buffer of size {}", bufferSize);
+            // the reader skips the header lines itself, as it does not return single lines
+            PassthroughRecordReader passthroughReader = new PassthroughRecordReader(jobConf, (FileSplit) split, skipHeaderCount, bufferSize);
+            skipHeaderCount = 0;
+            return passthroughReader;
+        }
+
         // Disable the ChunkRecordReader by default, but it can be enabled by
         // setting the `pxf.reader.chunk-record-reader.enabled` property to true
         if (configuration.getBoolean(PXF_CHUNK_RECORD_READER_ENABLED, PXF_CHUNK_RECORD_READER_DEFAULT)) {
@@ -103,6 +117,36 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
                 context.getGreenplumCSV().getNewline().getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Returns whether the lines of the split can be sent to Greenplum as they
+     * are in the file, that is the data is neither sampled nor transformed by
+     * the resolver, lines are delimited by line feeds and the file is not
+     * compressed. The passthrough read can be disabled by setting the
+     * `pxf.reader.passthrough.enabled` property to false.
+     *
+     * @param split the split to be read
+     * @return true if the split can be read with the {@link PassthroughRecordReader}
+     */
+    private boolean isPassthroughReadSupported(FileSplit split) {
+        return configuration.getBoolean(PXF_PASSTHROUGH_READER_ENABLED, PXF_PASSTHROUGH_READER_DEFAULT)
+                && getClass() == LineBreakAccessor.class
+                && context.getOutputFormat() == OutputFormat.TEXT
+                && context.getStatsSampleRatio() == 0
+                && StringPassResolver.class.getName().equals(context.getResolver())
+                && "\n".equals(context.getGreenplumCSV().getNewline())
+                && new CompressionCodecFactory(jobConf).getCodec(split.getPath()) == null;
+    }
+
+    /**
+     * The chunks of the {@link PassthroughRecordReader} share the buffer of the
+     * reader and cannot be read ahead, the reader already reads large chunks
+     * of the file at once.
+     */
+    @Override
+    protected boolean isReadAheadSupported() {
+        return !(reader instanceof PassthroughRecordReader);
+    }
+
     @Override
     public OneRow readNextObject() throws IOException {
         while (skipHeaderCount > 0) {
@@ -0,0 +1,291 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.InvalidInputException;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.plugins.hdfs.utilities.PxfInputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lists the files of a data source on a bounded pool of threads, and computes the splits
+ * of every file as soon as the file is listed.
+ * <p>
+ * The files and directories matching the path of the data source are listed concurrently.
+ * When the input directories are read recursively, every listed sub-directory becomes a new
+ * listing task. Up to the configured number of tasks run at the same time, and the pending
+ * directories are listed depth-first, so that the number of pending directories of a deep
+ * partitioned layout stays small.
+ * <p>
+ * Object stores do not have directories. Listing a directory of an object store lists the
+ * objects with the prefix of the directory one page at a time, while a recursive listing of a
+ * prefix returns all the objects below it without listing every level of the prefix. The
+ * directories of an object store are therefore only listed level by level up to the configured
+ * prefix depth, and every prefix at that depth is listed recursively by a single task.
+ * <p>
+ * The files are listed the same way as {@link FileInputFormat#listStatus(JobConf)}: hidden files
+ * and directories are ignored, and sub-directories of the input directories are not allowed
+ * unless the input directories are read recursively.
+ */
+class ParallelFileLister {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelFileLister.class);
+
+    private static final Set<String> OBJECT_STORE_SCHEMES = Set.of(
+            "s3", "s3a", "s3n", "gs", "wasb", "wasbs", "abfs", "abfss", "adl", "oss", "cosn");
+
+    /* same as the hidden file filter of FileInputFormat */
+    private static final PathFilter HIDDEN_FILE_FILTER = p -> !isHidden(p.getName());
+
+    private final JobConf jobConf;
+    private final int parallelism;
+    private final int prefixDepth;
+    private final boolean recursive;
+    private final boolean ignoreSubdirectories;
+    private final PxfInputFormat<?, ?> inputFormat = new PxfInputFormat<>();
+    private final Queue<InputSplit> splits = new ConcurrentLinkedQueue<>();
+    private final AtomicLong fileCount = new AtomicLong();
+    private final AtomicLong directoryCount = new AtomicLong();
+
+    /**
+     * Creates a lister of the files of a data source.
+     *
+     * @param jobConf     the job configuration
+     * @param parallelism the maximum number of directories listed at the same time
+     * @param prefixDepth the depth up to which the directories of an object store are listed level by level
+     */
+    ParallelFileLister(JobConf jobConf, int parallelism, int prefixDepth) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "the listing parallelism (%d) must be positive", parallelism));
+        }
+        this.jobConf = jobConf;
+        this.parallelism = parallelism;
+        this.prefixDepth = Math.max(prefixDepth, 0);
+        this.recursive = jobConf.getBoolean(FileInputFormat.INPUT_DIR_RECURSIVE, false);
+        this.ignoreSubdirectories = !recursive && jobConf.getBoolean(FileInputFormat.INPUT_DIR_NONRECURSIVE_IGNORE_SUBDIRS, false);
+    }
+
+    /**
+     * Lists the files matching the path and returns their non-empty splits, ordered by path and start.
+     *
+     * @param path the path of the data source, can contain wildcards
+     * @return the splits of the files
+     * @throws IOException if the path does not match any file or the files could not be listed
+     */
+    List<InputSplit> getSplits(Path path) throws IOException {
+        FileSystem fs = path.getFileSystem(jobConf);
+        Path qualifiedPath = fs.makeQualified(path);
+        FileStatus[] matches = fs.globStatus(qualifiedPath, HIDDEN_FILE_FILTER);
+        if (matches == null) {
+            throw new InvalidInputException(Collections.singletonList(
+                    new IOException("Input path does not exist: " + qualifiedPath)));
+        } else if (matches.length == 0) {
+            throw new InvalidInputException(Collections.singletonList(
+                    new IOException("Input Pattern " + qualifiedPath + " matches 0 files")));
+        }
+
+        boolean objectStore = OBJECT_STORE_SCHEMES.contains(fs.getScheme());
+        Deque<Entry> pending = new ArrayDeque<>();
+        for (FileStatus match : matches) {
+            pending.addLast(new Entry(match, 0));
+        }
+
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, newThreadFactory());
+        try {
+            CompletionService<List<Entry>> completionService = new ExecutorCompletionService<>(executor);
+            int running = 0;
+            while (!pending.isEmpty() || running > 0) {
+                while (running < parallelism && !pending.isEmpty()) {
+                    Entry entry = pending.pollFirst();
+                    completionService.submit(() -> {
+                        if (mdcContext != null) {
+                            MDC.setContextMap(mdcContext);
+                        }
+                        try {
+                            return ugi.doAs((PrivilegedExceptionAction<List<Entry>>) () -> list(entry, objectStore));
+                        } finally {
+                            MDC.clear();
+                        }
+                    });
+                    running++;
+                }
+                List<Entry> subdirectories = completionService.take().get();
+                running--;
+                // the first sub-directory of the directory is listed next
+                ListIterator<Entry> iterator = subdirectories.listIterator(subdirectories.size());
+                while (iterator.hasPrevious()) {
+                    pending.addFirst(iterator.previous());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while listing the files of " + qualifiedPath);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<InputSplit> result = new ArrayList<>(splits);
+        result.sort(Comparator.comparing((InputSplit split) -> ((FileSplit) split).getPath())
+                .thenComparingLong(split -> ((FileSplit) split).getStart()));
+        LOG.debug("Listed {} files in {} directories of {} using {} threads",
+                fileCount.get(), directoryCount.get(), qualifiedPath, parallelism);
+        return result;
+    }
+
+    /**
+     * Returns the number of files listed by {@link #getSplits(Path)}.
+     *
+     * @return the number of listed files
+     */
+    long getFileCount() {
+        return fileCount.get();
+    }
+
+    /**
+     * Returns the number of directories listed by {@link #getSplits(Path)}.
+     *
+     * @return the number of listed directories
+     */
+    long getDirectoryCount() {
+        return directoryCount.get();
+    }
+
+    /**
+     * Lists a directory and computes the splits of its files, or computes the splits of a file.
+     *
+     * @param entry       the file or directory
+     * @param objectStore true if the file system is an object store
+     * @return the sub-directories that are still to be listed
+     * @throws IOException if the directory could not be listed
+     */
+    private List<Entry> list(Entry entry, boolean objectStore) throws IOException {
+        FileStatus status = entry.status;
+        if (!status.isDirectory()) {
+            addSplits(status);
+            return Collections.emptyList();
+        }
+
+        Path directory = status.getPath();
+        FileSystem fs = directory.getFileSystem(jobConf);
+        directoryCount.incrementAndGet();
+        if (recursive && objectStore && entry.depth >= prefixDepth) {
+            RemoteIterator<LocatedFileStatus> files = fs.listFiles(directory, true);
+            while (files.hasNext()) {
+                LocatedFileStatus file = files.next();
+                if (!isHidden(directory, file.getPath())) {
+                    addSplits(file);
+                }
+            }
+            return Collections.emptyList();
+        }
+
+        List<Entry> subdirectories = new ArrayList<>();
+        RemoteIterator<LocatedFileStatus> children = fs.listLocatedStatus(directory);
+        while (children.hasNext()) {
+            LocatedFileStatus child = children.next();
+            if (isHidden(child.getPath().getName())) {
+                continue;
+            }
+            if (!child.isDirectory()) {
+                addSplits(child);
+            } else if (recursive) {
+                subdirectories.add(new Entry(child, entry.depth + 1));
+            } else if (!ignoreSubdirectories) {
+                throw new IOException("Not a file: " + child.getPath());
+            }
+        }
+        return subdirectories;
+    }
+
+    private void addSplits(FileStatus file) throws IOException {
+        fileCount.incrementAndGet();
+        splits.addAll(inputFormat.getSplits(jobConf, file));
+    }
+
+    /*
+     * A file listed recursively is hidden when any path component below the listed directory is hidden
+     */
+    private static boolean isHidden(Path directory, Path file) {
+        Path path = file;
+        for (int i = file.depth() - directory.depth(); i > 0 && path != null; i--) {
+            if (isHidden(path.getName())) {
+                return true;
+            }
+            path = path.getParent();
+        }
+        return false;
+    }
+
+    private static boolean isHidden(String name) {
+        return name.startsWith("_") || name.startsWith(".");
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        String prefix = Thread.currentThread().getName() + "-listing-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A file or directory to be listed, with its depth below the path of the data source.
+     */
+    private static class Entry {
+        private final FileStatus status;
+        private final int depth;
+
+        private Entry(FileStatus status, int depth) {
+            this.status = status;
+            this.depth = depth;
+        }
+    }
+}
@@ -330,7 +330,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalFieldsMap a map of field names to types
      * @return the parquet record filter for the given filter string
      */
-    private FilterCompat.Filter getRecordFilter(String filterString, Map<String, Type> originalFieldsMap) {
+    FilterCompat.Filter getRecordFilter(String filterString, Map<String, Type> originalFieldsMap) {
         if (StringUtils.isBlank(filterString)) {
             return FilterCompat.NOOP;
         }
@@ -378,7 +378,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @return the original schema from the parquet file
      * @throws IOException when there's an IOException while reading the schema
      */
-    private MessageType getSchema(Path parquetFile, FileSplit fileSplit) throws IOException {
+    MessageType getSchema(Path parquetFile, FileSplit fileSplit) throws IOException {
 
         final long then = System.nanoTime();
         ParquetMetadataConverter.MetadataFilter filter = ParquetMetadataConverter.range(
@@ -413,7 +413,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalSchema the original schema of the parquet file
      * @return a map of field names to types
      */
-    private Map<String, Type> getOriginalFieldsMap(MessageType originalSchema) {
+    Map<String, Type> getOriginalFieldsMap(MessageType originalSchema) {
         Map<String, Type> originalFields = new HashMap<>(originalSchema.getFieldCount() * 2);
 
         // We need to add the original name and lower cased name to
@@ -436,7 +436,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalFields a map of field names to types
      * @param originalSchema the original read schema
      */
-    private MessageType buildReadSchema(Map<String, Type> originalFields, MessageType originalSchema) {
+    MessageType buildReadSchema(Map<String, Type> originalFields, MessageType originalSchema) {
         List<Type> projectedFields = context.getTupleDescription().stream()
                 .filter(ColumnDescriptor::isProjected)
                 .map(c -> {
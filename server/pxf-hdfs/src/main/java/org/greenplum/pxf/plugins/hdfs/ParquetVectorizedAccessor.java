@@ -0,0 +1,182 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetRowBatch;
+import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.parquet.schema.Type.Repetition.REPEATED;
+
+/**
+ * Parquet file accessor that reads the column chunks of every row group page by page into primitive
+ * column vectors, instead of assembling a {@link org.apache.parquet.example.data.Group} for every record.
+ * Unit of operation is a {@link ParquetRowBatch} of up to {@code pxf.parquet.read.batch.size} rows, which
+ * is resolved by the {@link ParquetVectorizedResolver}.
+ * <p>
+ * Supports column projection and uses the predicates pushed down by Greengage to skip row groups based on
+ * their statistics and dictionaries. Rows of the row groups that are read are not filtered, Greengage applies
+ * the predicates to them. Only columns of primitive types are supported, tables with LIST columns need to use
+ * the row-based {@link ParquetFileAccessor}.
+ */
+public class ParquetVectorizedAccessor extends ParquetFileAccessor {
+
+    public static final String READ_BATCH_SIZE_PROPERTY = "pxf.parquet.read.batch.size";
+    public static final int DEFAULT_READ_BATCH_SIZE = 1024;
+
+    private ParquetFileReader fileReader;
+    private MessageType readSchema;
+    private String createdBy;
+    private ColumnReader[] columnReaders;
+    private ParquetRowBatch batch;
+    private int batchSize;
+    private int batchIndex;
+    private long rowsRemainingInRowGroup;
+    private long totalRowsRead;
+    private long totalReadTimeInNanos;
+
+    /**
+     * Opens the resource for read.
+     *
+     * @throws IOException if opening the resource failed
+     */
+    @Override
+    public boolean openForRead() throws IOException {
+        Path file = new Path(context.getDataSource());
+        FileSplit fileSplit = HdfsUtilities.parseFileSplit(context.getDataSource(), context.getFragmentMetadata());
+
+        // Read the original schema from the parquet file
+        MessageType originalSchema = getSchema(file, fileSplit);
+        // Get a map of the column name to Types for the given schema
+        Map<String, Type> originalFieldsMap = getOriginalFieldsMap(originalSchema);
+        // Get the read schema, which only contains the projected columns
+        readSchema = buildReadSchema(originalFieldsMap, originalSchema);
+        validateReadSchema(readSchema);
+        // Get the record filter in case of predicate push-down, it is used to skip row groups
+        FilterCompat.Filter recordFilter = getRecordFilter(context.getFilterString(), originalFieldsMap);
+
+        batchSize = configuration.getInt(READ_BATCH_SIZE_PROPERTY, DEFAULT_READ_BATCH_SIZE);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Property %s has invalid value %d, it must be greater than 0", READ_BATCH_SIZE_PROPERTY, batchSize));
+        }
+
+        final long then = System.nanoTime();
+        ParquetReadOptions parquetReadOptions = HadoopReadOptions
+                .builder(configuration)
+                .withRange(fileSplit.getStart(), fileSplit.getStart() + fileSplit.getLength())
+                .withRecordFilter(recordFilter)
+                .build();
+        fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(file, configuration), parquetReadOptions);
+        fileReader.setRequestedSchema(readSchema);
+        createdBy = fileReader.getFileMetaData().getCreatedBy();
+        totalReadTimeInNanos += System.nanoTime() - then;
+
+        List<org.apache.parquet.column.ColumnDescriptor> columns = readSchema.getColumns();
+        ParquetColumnVector[] vectors = new ParquetColumnVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = new ParquetColumnVector(columns.get(i), batchSize);
+        }
+        columnReaders = new ColumnReader[vectors.length];
+        batch = new ParquetRowBatch(vectors);
+
+        LOG.debug("{}-{}: Reading {} row groups with {} records from file {} in batches of {} rows",
+                context.getTransactionId(), context.getSegmentId(), fileReader.getRowGroups().size(),
+                fileReader.getFilteredRecordCount(), file.getName(), batchSize);
+
+        context.setMetadata(readSchema);
+        return true;
+    }
+
+    /**
+     * Reads the next batch of rows, a batch never spans multiple row groups.
+     *
+     * @return the next batch in OneRow format, the key is the batch number, and data is the batch
+     * @throws IOException if unable to read
+     */
+    @Override
+    public OneRow readNextObject() throws IOException {
+        final long then = System.nanoTime();
+        try {
+            while (rowsRemainingInRowGroup == 0) {
+                PageReadStore rowGroup = fileReader.readNextRowGroup();
+                if (rowGroup == null) {
+                    return null; // all row groups are exhausted
+                }
+                ColumnReadStoreImpl columnReadStore = new ColumnReadStoreImpl(rowGroup,
+                        new GroupRecordConverter(readSchema).getRootConverter(), readSchema, createdBy);
+                List<org.apache.parquet.column.ColumnDescriptor> columns = readSchema.getColumns();
+                for (int i = 0; i < columnReaders.length; i++) {
+                    columnReaders[i] = columnReadStore.getColumnReader(columns.get(i));
+                }
+                rowsRemainingInRowGroup = rowGroup.getRowCount();
+            }
+
+            int size = (int) Math.min(batchSize, rowsRemainingInRowGroup);
+            ParquetColumnVector[] vectors = batch.getColumns();
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i].read(columnReaders[i], size);
+            }
+            batch.setSize(size);
+            rowsRemainingInRowGroup -= size;
+            totalRowsRead += size;
+            return new OneRow(new LongWritable(batchIndex++), batch);
+        } finally {
+            totalReadTimeInNanos += System.nanoTime() - then;
+        }
+    }
+
+    /**
+     * Closes the resource for read.
+     *
+     * @throws IOException if closing the resource failed
+     */
+    @Override
+    public void closeForRead() throws IOException {
+        logReadStats(totalRowsRead, totalReadTimeInNanos);
+        if (fileReader != null) {
+            fileReader.close();
+        }
+    }
+
+    /**
+     * Writing is not supported by the vectorized accessor.
+     */
+    @Override
+    public boolean openForWrite() {
+        throw new UnsupportedOperationException("Writing Parquet files is not supported by the vectorized accessor, use the parquet profile instead");
+    }
+
+    /**
+     * Makes sure all columns of the read schema can be read into column vectors
+     *
+     * @param readSchema the read schema
+     */
+    private void validateReadSchema(MessageType readSchema) {
+        for (Type type : readSchema.getFields()) {
+            if (!type.isPrimitive() || type.getRepetition() == REPEATED) {
+                throw new UnsupportedTypeException(String.format(
+                        "Column %s of type %s is not supported by the vectorized Parquet reader, use the parquet profile instead",
+                        type.getName(), type.isPrimitive() ? "repeated " + type.asPrimitiveType().getPrimitiveTypeName() : "group"));
+            }
+        }
+    }
+}
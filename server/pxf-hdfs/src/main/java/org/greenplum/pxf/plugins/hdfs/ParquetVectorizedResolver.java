@@ -0,0 +1,354 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
+import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetConfig;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetRowBatch;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTypeConverterFactory;
+import org.greenplum.pxf.plugins.hdfs.parquet.converters.ParquetTypeConverter;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor.DEFAULT_USE_LOCAL_PXF_TIMEZONE_WRITE;
+import static org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor.USE_LOCAL_PXF_TIMEZONE_WRITE_NAME;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.USE_LOCAL_PXF_TIMEZONE_READ_NAME;
+
+/**
+ * Resolves the {@link ParquetRowBatch} produced by the {@link ParquetVectorizedAccessor} into Greengage rows.
+ * The values are converted with the same {@link ParquetTypeConverter} instances as the row-based
+ * {@link ParquetResolver} uses, so both resolvers produce the same fields for the same data.
+ * <p>
+ * When the output is sent in the GPDBWritable format, the batch is serialized straight from the
+ * column vectors, values of the primitive types and UTF-8 strings are written without boxing them.
+ */
+public class ParquetVectorizedResolver extends BasePlugin implements ReadVectorizedResolver, Resolver {
+
+    private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
+
+    private List<ColumnDescriptor> columnDescriptors;
+    private ParquetTypeConverterFactory parquetTypeConverterFactory;
+
+    /**
+     * Converters for the columns of the read schema, one per projected column.
+     */
+    private ParquetTypeConverter[] converters;
+
+    /**
+     * Greengage type OIDs for the columns of the read schema, one per projected column.
+     */
+    private int[] typeOids;
+
+    /**
+     * How the values of the columns of the read schema are written to a GPDBWritable batch,
+     * null if the batch can't be written directly.
+     */
+    private BatchValueType[] batchValueTypes;
+    private boolean isWriteBatchChecked;
+
+    private List<List<OneField>> cachedBatch;
+
+    /**
+     * The ways the values of a column vector are written to a {@link GPDBWritableBatch}
+     */
+    private enum BatchValueType {
+        INTEGER, SMALLINT, BIGINT, REAL, FLOAT8, BOOLEAN, BYTEA, UTF8_STRING, STRING
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        columnDescriptors = context.getTupleDescription();
+        DecimalOverflowOption decimalOverflowOption = DecimalOverflowOption.valueOf(configuration.get(PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME, DecimalOverflowOption.ROUND.name()).toUpperCase());
+        ParquetConfig parquetConfig = ParquetConfig.builder()
+                .useLocalPxfTimezoneWrite(configuration.getBoolean(USE_LOCAL_PXF_TIMEZONE_WRITE_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_WRITE))
+                .useLocalPxfTimezoneRead(configuration.getBoolean(USE_LOCAL_PXF_TIMEZONE_READ_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ))
+                .decimalUtilities(new DecimalUtilities(decimalOverflowOption, true))
+                .build();
+        parquetTypeConverterFactory = new ParquetTypeConverterFactory(parquetConfig);
+    }
+
+    /**
+     * Returns the resolved list of lists of OneFields given a ParquetRowBatch
+     *
+     * @param batch unresolved batch
+     * @return the resolved batch mapped to the Greengage type
+     */
+    @Override
+    public List<List<OneField>> getFieldsForBatch(OneRow batch) {
+        ensureConvertersAreInitialized();
+        ParquetRowBatch rowBatch = (ParquetRowBatch) batch.getData();
+        ParquetColumnVector[] vectors = rowBatch.getColumns();
+        int batchSize = rowBatch.getSize();
+        List<List<OneField>> resolvedBatch = prepareResolvedBatch(batchSize);
+
+        // index to the projected columns
+        int columnIndex = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (!columnDescriptor.isProjected()) {
+                int typeOid = columnDescriptor.columnTypeCode();
+                for (int row = 0; row < batchSize; row++) {
+                    resolvedBatch.get(row).add(new OneField(typeOid, null));
+                }
+            } else {
+                ParquetColumnVector vector = vectors[columnIndex];
+                ParquetTypeConverter converter = converters[columnIndex];
+                int typeOid = typeOids[columnIndex];
+                for (int row = 0; row < batchSize; row++) {
+                    Object value = vector.isNull(row) ? null : converter.read(vector, row);
+                    resolvedBatch.get(row).add(new OneField(typeOid, value));
+                }
+                columnIndex++;
+            }
+        }
+        return resolvedBatch;
+    }
+
+    /**
+     * Serializes the ParquetRowBatch straight into the GPDBWritable batch. The values
+     * of the primitive types are copied from the column vectors and the UTF-8 strings
+     * are copied as bytes when the database encoding is UTF-8, other values are
+     * converted to their string form with the converters.
+     *
+     * @param batch  unresolved batch
+     * @param output the batch of GPDB records to write the rows to
+     * @return true if the rows were written, false if the types of the columns do not
+     * allow writing them directly
+     * @throws IOException if serializing the rows failed
+     */
+    @Override
+    public boolean writeBatch(OneRow batch, GPDBWritableBatch output) throws IOException {
+        ensureConvertersAreInitialized();
+        if (!isWriteBatchChecked) {
+            batchValueTypes = getBatchValueTypes(output);
+            isWriteBatchChecked = true;
+        }
+        if (batchValueTypes == null) {
+            return false;
+        }
+
+        ParquetRowBatch rowBatch = (ParquetRowBatch) batch.getData();
+        ParquetColumnVector[] vectors = rowBatch.getColumns();
+        int batchSize = rowBatch.getSize();
+        int columnCount = columnDescriptors.size();
+        for (int row = 0; row < batchSize; row++) {
+            output.beginRow();
+            // index to the projected columns
+            int columnIndex = 0;
+            for (int i = 0; i < columnCount; i++) {
+                if (!columnDescriptors.get(i).isProjected()) {
+                    output.setNull();
+                    continue;
+                }
+                ParquetColumnVector vector = vectors[columnIndex];
+                if (vector.isNull(row)) {
+                    output.setNull();
+                } else {
+                    writeValue(output, vector, columnIndex, row);
+                }
+                columnIndex++;
+            }
+            output.endRow();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<OneField> getFields(OneRow row) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OneRow setFields(List<OneField> record) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * Creates the converters for the columns of the read schema the accessor stored in the request context.
+     */
+    private void ensureConvertersAreInitialized() {
+        if (converters != null) return;
+        if (!(context.getMetadata() instanceof MessageType))
+            throw new PxfRuntimeException("No schema detected in request context");
+
+        MessageType readSchema = (MessageType) context.getMetadata();
+        converters = new ParquetTypeConverter[readSchema.getFieldCount()];
+        typeOids = new int[readSchema.getFieldCount()];
+        int i = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (columnDescriptor.isProjected()) {
+                converters[i] = parquetTypeConverterFactory.create(readSchema.getType(i), columnDescriptor.getDataType());
+                typeOids[i] = converters[i].getDataType().getOID();
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Writes the value of the row of the column vector to the next column of the output
+     *
+     * @param output      the batch of GPDB records
+     * @param vector      the column vector
+     * @param columnIndex the index of the column in the read schema
+     * @param row         the row of the column vector
+     * @throws IOException if the value can't be written
+     */
+    private void writeValue(GPDBWritableBatch output, ParquetColumnVector vector, int columnIndex, int row) throws IOException {
+        switch (batchValueTypes[columnIndex]) {
+            case INTEGER:
+                output.setInt(vector.getInt(row));
+                break;
+            case SMALLINT:
+                output.setShort((short) vector.getInt(row));
+                break;
+            case BIGINT:
+                output.setLong(vector.getLong(row));
+                break;
+            case REAL:
+                output.setFloat(vector.getFloat(row));
+                break;
+            case FLOAT8:
+                output.setDouble(vector.getDouble(row));
+                break;
+            case BOOLEAN:
+                output.setBoolean(vector.getBoolean(row));
+                break;
+            case BYTEA: {
+                Binary binary = vector.getBinary(row);
+                ByteBuffer buffer = binary.toByteBuffer();
+                if (buffer.hasArray()) {
+                    output.setBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                } else {
+                    byte[] bytes = binary.getBytes();
+                    output.setBytes(bytes, 0, bytes.length);
+                }
+                break;
+            }
+            case UTF8_STRING: {
+                Binary binary = vector.getBinary(row);
+                ByteBuffer buffer = binary.toByteBuffer();
+                if (buffer.hasArray()) {
+                    output.setUtf8String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                } else {
+                    output.setString(binary.toStringUsingUTF8());
+                }
+                break;
+            }
+            default: {
+                Object value = converters[columnIndex].read(vector, row);
+                if (value == null) {
+                    output.setNull();
+                } else {
+                    output.setString(value.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines how the values of the columns of the read schema are written to the batch.
+     * Returns null when a column has a type that doesn't match the type of the table column,
+     * those batches are resolved into fields, and rejected with the same error as the rows
+     * of the row-based resolver.
+     *
+     * @param output the batch of GPDB records
+     * @return the way to write each column of the read schema, or null
+     */
+    private BatchValueType[] getBatchValueTypes(GPDBWritableBatch output) {
+        if (output.getColumnCount() != columnDescriptors.size()) {
+            return null;
+        }
+        BatchValueType[] valueTypes = new BatchValueType[converters.length];
+        int columnIndex = 0;
+        for (int i = 0; i < columnDescriptors.size(); i++) {
+            if (!columnDescriptors.get(i).isProjected()) {
+                continue;
+            }
+            DataType dataType = converters[columnIndex].getDataType();
+            if (!output.isCompatible(i, dataType)) {
+                return null;
+            }
+            PrimitiveTypeName typeName = ((MessageType) context.getMetadata()).getType(columnIndex)
+                    .asPrimitiveType().getPrimitiveTypeName();
+            BatchValueType valueType = getBatchValueType(dataType, typeName);
+            if (valueType == null) {
+                return null;
+            }
+            valueTypes[columnIndex++] = valueType;
+        }
+        return valueTypes;
+    }
+
+    private BatchValueType getBatchValueType(DataType dataType, PrimitiveTypeName typeName) {
+        switch (dataType) {
+            case INTEGER:
+                return typeName == PrimitiveTypeName.INT32 ? BatchValueType.INTEGER : null;
+            case SMALLINT:
+                return typeName == PrimitiveTypeName.INT32 ? BatchValueType.SMALLINT : null;
+            case BIGINT:
+                return typeName == PrimitiveTypeName.INT64 ? BatchValueType.BIGINT : null;
+            case REAL:
+                return typeName == PrimitiveTypeName.FLOAT ? BatchValueType.REAL : null;
+            case FLOAT8:
+                return typeName == PrimitiveTypeName.DOUBLE ? BatchValueType.FLOAT8 : null;
+            case BOOLEAN:
+                return typeName == PrimitiveTypeName.BOOLEAN ? BatchValueType.BOOLEAN : null;
+            case BYTEA:
+                return typeName == PrimitiveTypeName.BINARY || typeName == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY
+                        ? BatchValueType.BYTEA : null;
+            case TEXT:
+            case BPCHAR:
+            case JSON:
+                if (typeName == PrimitiveTypeName.BINARY) {
+                    return BatchValueType.UTF8_STRING;
+                }
+                return BatchValueType.STRING;
+            default:
+                // the other types are sent in their string form
+                return DataType.isTextForm(dataType.getOID()) ? BatchValueType.STRING : null;
+        }
+    }
+
+    /**
+     * Returns the list of rows for the resolved batch, the lists are reused between batches
+     *
+     * @param batchSize the number of rows in the batch
+     * @return the list of empty rows
+     */
+    private List<List<OneField>> prepareResolvedBatch(int batchSize) {
+        if (cachedBatch == null || cachedBatch.size() != batchSize) {
+            cachedBatch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                cachedBatch.add(new ArrayList<>(columnDescriptors.size()));
+            }
+        } else {
+            for (List<OneField> row : cachedBatch) {
+                row.clear();
+            }
+        }
+        return cachedBatch;
+    }
+}
@@ -0,0 +1,188 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.RecordReader;
+import org.greenplum.pxf.api.io.BufferWritable;
+
+import java.io.IOException;
+
+/**
+ * Reads the lines of a split of an uncompressed, line feed delimited text file
+ * as raw byte ranges, without looking for the line breaks inside of the split.
+ * The bytes are read from the file into a single buffer that is reused for
+ * every chunk, and the chunk is handed over to the output as it is.
+ * <p>
+ * The split is aligned on line boundaries the same way as the
+ * {@link org.apache.hadoop.mapred.LineRecordReader} does: when the split does
+ * not start at the beginning of the file, the first (partial) line belongs to
+ * the previous split and is skipped, and the last line that starts within the
+ * split is read up to its line feed, even when it crosses the end of the split.
+ * A line feed is added when the file does not end with one.
+ */
+public class PassthroughRecordReader implements RecordReader<LongWritable, BufferWritable> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte[] LINE_FEED_BYTES = {LINE_FEED};
+
+    private final FSDataInputStream fileIn;
+    private final byte[] buffer;
+    private final long start;
+    private final long end;
+    private long pos;
+    /* the unread bytes of the buffer are in the [offset, limit) range */
+    private int offset;
+    private int limit;
+    private boolean lineOpen;
+    private boolean finished;
+
+    /**
+     * Constructs a PassthroughRecordReader.
+     *
+     * @param job             the job configuration
+     * @param split           contains the file name, begin byte of the split and the bytes length
+     * @param skipHeaderCount the number of lines to skip at the beginning of the split
+     * @param bufferSize      the size of the buffer the chunks are read into
+     * @throws IOException if an I/O error occurs when accessing the file
+     */
+    public PassthroughRecordReader(Configuration job, FileSplit split, int skipHeaderCount, int bufferSize)
+            throws IOException {
+        final Path file = split.getPath();
+        final FileSystem fs = file.getFileSystem(job);
+
+        buffer = new byte[bufferSize];
+        start = split.getStart();
+        end = start + split.getLength();
+        fileIn = fs.open(file, bufferSize);
+        fileIn.seek(start);
+        pos = start;
+
+        // the first line belongs to the previous split, unless it is the beginning of the file
+        boolean hasLine = start == 0 || skipLine();
+        for (int i = 0; hasLine && i < skipHeaderCount; i++) {
+            hasLine = skipLine();
+        }
+        // none of the lines starts within the split
+        finished = !hasLine || pos > end;
+    }
+
+    @Override
+    public LongWritable createKey() {
+        return new LongWritable();
+    }
+
+    @Override
+    public BufferWritable createValue() {
+        return new BufferWritable(buffer, 0);
+    }
+
+    /**
+     * Fetches the next chunk of the split. The value points to the internal
+     * buffer of the reader and is only valid until the next call.
+     *
+     * @param key   output parameter, the position of the chunk in the file
+     * @param value output parameter, the bytes of the chunk
+     * @return false when the end of the split was reached
+     * @throws IOException if an I/O error occurred while reading the file
+     */
+    @Override
+    public boolean next(LongWritable key, BufferWritable value) throws IOException {
+        if (finished) {
+            return false;
+        }
+        key.set(pos);
+
+        if (offset == limit && !fill()) {
+            finished = true;
+            if (lineOpen) {
+                // the text file does not end with a line feed
+                lineOpen = false;
+                value.set(LINE_FEED_BYTES, 1);
+                return true;
+            }
+            return false;
+        }
+        // chunks always start at the beginning of the buffer
+        if (offset > 0) {
+            System.arraycopy(buffer, offset, buffer, 0, limit - offset);
+            limit -= offset;
+            offset = 0;
+        }
+
+        int length;
+        if (pos < end) {
+            length = (int) Math.min(limit, end - pos);
+        } else {
+            // the last line started within the split, read it up to its line feed
+            int i = 0;
+            while (i < limit && buffer[i] != LINE_FEED) {
+                i++;
+            }
+            if (i < limit) {
+                i++;
+                finished = true;
+            }
+            length = i;
+        }
+
+        lineOpen = buffer[length - 1] != LINE_FEED;
+        offset = length;
+        pos += length;
+        value.set(buffer, length);
+        return true;
+    }
+
+    @Override
+    public long getPos() {
+        return pos;
+    }
+
+    @Override
+    public float getProgress() {
+        if (start == end) {
+            return 0.0f;
+        }
+        return Math.min(1.0f, (pos - start) / (float) (end - start));
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileIn.close();
+    }
+
+    /*
+     * Skips the bytes up to and including the next line feed, returns false if the end of the file was reached
+     */
+    private boolean skipLine() throws IOException {
+        while (offset < limit || fill()) {
+            for (int i = offset; i < limit; i++) {
+                if (buffer[i] == LINE_FEED) {
+                    pos += i + 1 - offset;
+                    offset = i + 1;
+                    return true;
+                }
+            }
+            pos += limit - offset;
+            offset = limit;
+        }
+        return false;
+    }
+
+    /*
+     * Reads the next bytes of the file into the buffer, returns false if the end of the file was reached
+     */
+    private boolean fill() throws IOException {
+        int n = fileIn.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        offset = 0;
+        limit = n;
+        return true;
+    }
+}
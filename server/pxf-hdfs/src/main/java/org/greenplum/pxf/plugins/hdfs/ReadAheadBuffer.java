@@ -0,0 +1,210 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.OneRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Reads the records of a {@link RecordReader} ahead of the consumer on a background thread.
+ * <p>
+ * The records are read in batches into a fixed pool of batches, each holding its own key and
+ * value objects created by the record reader. The background thread fills a free batch and
+ * hands it over to the consumer, and waits when all the batches are full until the consumer
+ * releases one. A batch is released when the consumer asks for the record following its last
+ * one, so a record returned by {@link #next()} is valid until the next call.
+ */
+class ReadAheadBuffer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadAheadBuffer.class);
+    private static final long TERMINATION_TIMEOUT_MILLIS = 10_000;
+
+    private final RecordReader<Object, Object> reader;
+    private final int batchSize;
+    /* batches that can be filled by the background thread */
+    private final BlockingQueue<Batch> freeBatches;
+    /* batches that were filled and not yet consumed, in the order they were read */
+    private final BlockingQueue<Batch> filledBatches = new LinkedBlockingQueue<>();
+    private Thread thread;
+    private volatile boolean cancelled;
+    private Batch current;
+    private int index;
+
+    /**
+     * Creates a read-ahead buffer for the record reader.
+     *
+     * @param reader    the record reader
+     * @param batches   the number of batches that can be read ahead of the consumer
+     * @param batchSize the number of records in a batch
+     */
+    ReadAheadBuffer(RecordReader<Object, Object> reader, int batches, int batchSize) {
+        if (batches <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "the number of read-ahead batches (%d) and the batch size (%d) must be positive", batches, batchSize));
+        }
+        this.reader = reader;
+        this.batchSize = batchSize;
+        // one more batch for the one being consumed
+        freeBatches = new ArrayBlockingQueue<>(batches + 1);
+        for (int i = 0; i <= batches; i++) {
+            freeBatches.add(new Batch(reader, batchSize));
+        }
+    }
+
+    /**
+     * Starts reading the records on a background thread, with the identity and the logging context of the caller.
+     *
+     * @throws IOException if the current user cannot be determined
+     */
+    void start() throws IOException {
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        thread = new Thread(() -> {
+            if (mdcContext != null) {
+                MDC.setContextMap(mdcContext);
+            }
+            try {
+                ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+                    readRecords();
+                    return null;
+                });
+            } catch (Exception | Error e) {
+                filledBatches.add(Batch.failed(e));
+            } finally {
+                MDC.clear();
+            }
+        }, Thread.currentThread().getName() + "-readahead");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the next record, waits for the background thread if the record was not read yet.
+     *
+     * @return the next record, or null if all the records were read
+     * @throws IOException if the background thread failed to read the records or the read was cancelled
+     */
+    OneRow next() throws IOException {
+        while (current == null || index == current.size) {
+            if (current != null) {
+                if (current.last) {
+                    return null;
+                }
+                freeBatches.add(current);
+            }
+            try {
+                current = filledBatches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the records to be read");
+            }
+            index = 0;
+            if (current.error != null) {
+                Throwable error = current.error;
+                if (error instanceof IOException) {
+                    throw (IOException) error;
+                } else if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                } else if (error instanceof Error) {
+                    throw (Error) error;
+                }
+                throw new IOException(error);
+            }
+        }
+        int i = index++;
+        return new OneRow(current.keys[i], current.values[i]);
+    }
+
+    /**
+     * Stops the background thread and wakes up the consumer, which fails if it was waiting for records.
+     */
+    void cancel() {
+        cancelled = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        filledBatches.add(Batch.failed(new IOException("Read-ahead of the records was cancelled")));
+    }
+
+    /**
+     * Stops the background thread and waits for it to terminate, so that the record reader can be closed.
+     *
+     * @throws InterruptedException if interrupted while waiting for the thread
+     */
+    void close() throws InterruptedException {
+        cancelled = true;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TERMINATION_TIMEOUT_MILLIS);
+            if (thread.isAlive()) {
+                LOG.warn("Timed out waiting for the read-ahead thread {} to terminate", thread.getName());
+            }
+        }
+    }
+
+    private void readRecords() throws IOException {
+        try {
+            while (!cancelled) {
+                Batch batch = freeBatches.take();
+                batch.size = 0;
+                while (batch.size < batchSize && !cancelled
+                        && reader.next(batch.keys[batch.size], batch.values[batch.size])) {
+                    batch.size++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                batch.last = batch.size < batchSize;
+                filledBatches.add(batch);
+                if (batch.last) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // the read was cancelled, the consumer is not waiting for more records
+            LOG.debug("Read-ahead thread {} was interrupted", Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Records read by the background thread, the key and value objects are reused for every batch.
+     */
+    private static class Batch {
+        private final Object[] keys;
+        private final Object[] values;
+        private int size;
+        private boolean last;
+        private Throwable error;
+
+        private Batch(int batchSize) {
+            keys = new Object[batchSize];
+            values = new Object[batchSize];
+        }
+
+        private Batch(RecordReader<Object, Object> reader, int batchSize) {
+            this(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                keys[i] = reader.createKey();
+                values[i] = reader.createValue();
+            }
+        }
+
+        private static Batch failed(Throwable error) {
+            Batch batch = new Batch(0);
+            batch.error = error;
+            batch.last = true;
+            return batch;
+        }
+    }
+}
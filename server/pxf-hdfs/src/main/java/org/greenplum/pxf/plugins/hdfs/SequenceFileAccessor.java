@@ -72,6 +72,14 @@ public class SequenceFileAccessor extends HdfsSplittableDataAccessor {
         return new SequenceFileRecordReader<>(jobConf, (FileSplit) split);
     }
 
+    /**
+     * The reader deserializes the records into the given key and value.
+     */
+    @Override
+    protected boolean isReadAheadSupported() {
+        return true;
+    }
+
     @Override
     public boolean openForWrite() throws Exception {
         LOG.debug("openForWrite");
@@ -22,6 +22,7 @@ package org.greenplum.pxf.plugins.hdfs;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.InputStreamHandler;
 import org.greenplum.pxf.api.model.Resolver;
@@ -63,6 +64,9 @@ public class StringPassResolver extends BasePlugin implements Resolver {
         Object data = onerow.getData();
         if (data instanceof ChunkWritable) {
             record.add(new OneField(BYTEA.getOID(), ((ChunkWritable) data).box));
+        } else if (data instanceof BufferWritable) {
+            // raw chunk of lines from the PassthroughRecordReader, it is sent as it is
+            record.add(new OneField(BYTEA.getOID(), data));
         } else {
             record.add(new OneField(VARCHAR.getOID(), data));
         }
@@ -4,6 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import lombok.Data;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.hadoop.io.LongWritable;
@@ -13,9 +14,11 @@ import org.apache.orc.OrcConf;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.RecordReader;
+import org.apache.orc.StripeInformation;
 import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.StatsAccessor;
 import org.greenplum.pxf.api.filter.*;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
@@ -37,7 +40,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
-public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
+/**
+ * Accessor that reads and writes ORC files in batches. COUNT queries without a filter are
+ * answered from the row counts of the stripes, without decoding them.
+ */
+public class ORCVectorizedAccessor extends BasePlugin implements Accessor, StatsAccessor {
 
     static final EnumSet<DataType> SUPPORTED_DATATYPES =
             EnumSet.of(
@@ -95,6 +102,15 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
     private RecordReader recordReader;
     private VectorizedRowBatch batch;
     private List<ColumnDescriptor> columnDescriptors;
+    private FileSplit fileSplit;
+    private TypeDescription readSchema;
+
+    // aggregate pushdown
+    private boolean useStats;
+    private boolean statsInitialized;
+    private long count;
+    private long objectsEmitted;
+    private OneRow rowToEmitCount;
 
     /**
      * A POJO capturing the state and the context of ORC file writing operation.
@@ -112,12 +128,13 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
         super.afterPropertiesSet();
         columnDescriptors = context.getTupleDescription();
         positionalAccess = context.getOption(MAP_BY_POSITION_OPTION, false);
+        useStats = Utilities.aggregateOptimizationsSupported(context);
     }
 
     @Override
     public boolean openForRead() throws IOException {
         Path file = new Path(context.getDataSource());
-        FileSplit fileSplit = HdfsUtilities.parseFileSplit(context.getDataSource(), context.getFragmentMetadata());
+        fileSplit = HdfsUtilities.parseFileSplit(context.getDataSource(), context.getFragmentMetadata());
 
         fileReader = OrcFile.createReader(file, OrcFile
                 .readerOptions(configuration)
@@ -126,7 +143,12 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
         // The original schema from the file
         TypeDescription schema = fileReader.getSchema();
         // Add column projection to the Reader.Options
-        TypeDescription readSchema = buildReadSchema(schema);
+        readSchema = buildReadSchema(schema);
+        if (useStats) {
+            // the rows are counted from the statistics of the stripes, which are not decoded
+            context.setMetadata(readSchema);
+            return true;
+        }
         // Get the record filter in case of predicate push-down
         SearchArgument searchArgument = getSearchArgument(context.getFilterString(), schema);
 
@@ -166,6 +188,48 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
         return null; // all batches are exhausted
     }
 
+    /**
+     * Counts the rows of the fragment from the row counts of the stripes that start in the split
+     */
+    @Override
+    public void retrieveStats() {
+        if (!useStats) {
+            throw new IllegalStateException("Accessor is not using statistics in current context.");
+        }
+        objectsEmitted = 0;
+        count = fileReader.getStripes().stream()
+                .filter(stripe -> stripe.getOffset() >= fileSplit.getStart()
+                        && stripe.getOffset() < fileSplit.getStart() + fileSplit.getLength())
+                .mapToLong(StripeInformation::getNumberOfRows)
+                .sum();
+        // Greenplum counts the emitted rows, their values are not used
+        VectorizedRowBatch row = readSchema.createRowBatch(1);
+        for (ColumnVector column : row.cols) {
+            column.noNulls = false;
+            column.isNull[0] = true;
+        }
+        row.size = 1;
+        rowToEmitCount = new OneRow(new LongWritable(0), row);
+        statsInitialized = true;
+    }
+
+    /**
+     * Emits a row for each row counted from the statistics of the stripes
+     *
+     * @return the next row, null when all rows were emitted
+     */
+    @Override
+    public OneRow emitAggObject() {
+        if (!statsInitialized) {
+            throw new IllegalStateException("retrieveStats() should be called before calling emitAggObject()");
+        }
+        if (objectsEmitted >= count) {
+            return null;
+        }
+        objectsEmitted++;
+        return rowToEmitCount;
+    }
+
     @Override
     public void closeForRead() throws IOException {
         logReadStats(totalRowsRead, totalReadTimeInNanos);
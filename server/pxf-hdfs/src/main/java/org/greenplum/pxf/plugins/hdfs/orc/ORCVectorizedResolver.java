@@ -1,6 +1,9 @@
 package org.greenplum.pxf.plugins.hdfs.orc;
 
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.orc.OrcFile;
 import org.apache.orc.TypeDescription;
@@ -12,6 +15,7 @@ import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.function.TriFunction;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.Resolver;
 import org.greenplum.pxf.api.model.WriteVectorizedResolver;
@@ -20,6 +24,7 @@ import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
 import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
 import org.springframework.util.CollectionUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -58,7 +63,8 @@ import static org.greenplum.pxf.api.io.DataType.VARCHARARRAY;
 import static org.greenplum.pxf.plugins.hdfs.orc.ORCVectorizedAccessor.MAP_BY_POSITION_OPTION;
 
 /**
- * Resolves ORC VectorizedRowBatch into lists of List<OneField>. Currently,
+ * Resolves ORC VectorizedRowBatch into lists of List<OneField>, or serializes it
+ * straight into GPDBWritable records when the output format allows. Currently,
  * Timestamp and Timestamp with TimeZone are not supported. The supported
  * scalar mapping is as follows:
  * <p>
@@ -146,6 +152,30 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
     private VectorizedRowBatch vectorizedRowBatch;
     private DecimalUtilities decimalUtilities;
 
+    /**
+     * How the values of the table columns are written to a GPDBWritable batch,
+     * null if the batch can't be written directly.
+     */
+    private BatchValueType[] batchValueTypes;
+    private boolean isWriteBatchChecked;
+
+    /**
+     * The indexes of the column vectors of the table columns, -1 for the columns without a vector.
+     */
+    private int[] batchVectorIndexes;
+
+    /**
+     * The resolved values of the table columns that are written in their string form.
+     */
+    private OneField[][] batchColumnFields;
+
+    /**
+     * The ways the values of a column vector are written to a {@link GPDBWritableBatch}
+     */
+    private enum BatchValueType {
+        NULL, BOOLEAN, SMALLINT, INTEGER, BIGINT, REAL, FLOAT8, BYTEA, UTF8_STRING, STRING
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -218,6 +248,50 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         return resolvedBatch;
     }
 
+    /**
+     * Serializes the VectorizedRowBatch straight into the GPDBWritable batch. The values of
+     * the numeric and boolean columns are copied from the column vectors, and strings and
+     * binaries are copied as bytes. Values of the other types are resolved by the same
+     * functions as {@link #getFieldsForBatch(OneRow)} uses and written in their string form.
+     *
+     * @param batch  unresolved batch
+     * @param output the batch of GPDB records to write the rows to
+     * @return true if the rows were written, false if the types of the columns do not
+     * allow writing them directly
+     * @throws IOException if serializing the rows failed
+     */
+    @Override
+    public boolean writeBatch(OneRow batch, GPDBWritableBatch output) throws IOException {
+        ensureReadFunctionsAreInitialized();
+        if (!isWriteBatchChecked) {
+            batchValueTypes = getBatchValueTypes(output);
+            isWriteBatchChecked = true;
+        }
+        if (batchValueTypes == null) {
+            return false;
+        }
+
+        VectorizedRowBatch vectorizedBatch = (VectorizedRowBatch) batch.getData();
+        int batchSize = vectorizedBatch.size;
+        int columnCount = batchValueTypes.length;
+        for (int i = 0; i < columnCount; i++) {
+            if (batchValueTypes[i] == BatchValueType.STRING) {
+                int columnIndex = batchVectorIndexes[i];
+                batchColumnFields[i] = readFunctions[columnIndex]
+                        .apply(vectorizedBatch, vectorizedBatch.cols[columnIndex], typeOidMappings[columnIndex]);
+            }
+        }
+
+        for (int row = 0; row < batchSize; row++) {
+            output.beginRow();
+            for (int i = 0; i < columnCount; i++) {
+                writeValue(output, vectorizedBatch, i, row);
+            }
+            output.endRow();
+        }
+        return true;
+    }
+
     @Override
     public int getBatchSize() {
         return VectorizedRowBatch.DEFAULT_SIZE;
@@ -268,11 +342,18 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
     }
 
     /**
-     * {@inheritDoc}
+     * Resolves the single row batches the accessor synthesizes for aggregate queries
+     *
+     * @param row a batch with a single row
+     * @return the fields of the row
      */
     @Override
     public List<OneField> getFields(OneRow row) {
-        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        VectorizedRowBatch vectorizedBatch = (VectorizedRowBatch) row.getData();
+        if (vectorizedBatch == null || vectorizedBatch.size != 1) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+        return getFieldsForBatch(row).get(0);
     }
 
     /**
@@ -408,6 +489,139 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         }
     }
 
+    /**
+     * Writes the value of the row of the table column to the output
+     *
+     * @param output          the batch of GPDB records
+     * @param vectorizedBatch the batch of column vectors
+     * @param column          the index of the table column
+     * @param row             the row of the batch
+     * @throws IOException if the value can't be written
+     */
+    private void writeValue(GPDBWritableBatch output, VectorizedRowBatch vectorizedBatch, int column, int row) throws IOException {
+        BatchValueType valueType = batchValueTypes[column];
+        if (valueType == BatchValueType.NULL) {
+            output.setNull();
+            return;
+        }
+        if (valueType == BatchValueType.STRING) {
+            Object value = batchColumnFields[column][row].val;
+            if (value == null) {
+                output.setNull();
+            } else {
+                output.setString(value.toString());
+            }
+            return;
+        }
+
+        ColumnVector columnVector = vectorizedBatch.cols[batchVectorIndexes[column]];
+        int rowId = columnVector == null || columnVector.isRepeating ? 0 : row;
+        if (columnVector == null || (!columnVector.noNulls && columnVector.isNull[rowId])) {
+            output.setNull();
+            return;
+        }
+        switch (valueType) {
+            case BOOLEAN:
+                output.setBoolean(((LongColumnVector) columnVector).vector[rowId] == 1);
+                break;
+            case SMALLINT:
+                output.setShort((short) ((LongColumnVector) columnVector).vector[rowId]);
+                break;
+            case INTEGER:
+                output.setInt((int) ((LongColumnVector) columnVector).vector[rowId]);
+                break;
+            case BIGINT:
+                output.setLong(((LongColumnVector) columnVector).vector[rowId]);
+                break;
+            case REAL:
+                output.setFloat((float) ((DoubleColumnVector) columnVector).vector[rowId]);
+                break;
+            case FLOAT8:
+                output.setDouble(((DoubleColumnVector) columnVector).vector[rowId]);
+                break;
+            case BYTEA: {
+                BytesColumnVector bcv = (BytesColumnVector) columnVector;
+                output.setBytes(bcv.vector[rowId], bcv.start[rowId], bcv.length[rowId]);
+                break;
+            }
+            default: {
+                BytesColumnVector bcv = (BytesColumnVector) columnVector;
+                output.setUtf8String(bcv.vector[rowId], bcv.start[rowId], bcv.length[rowId]);
+            }
+        }
+    }
+
+    /**
+     * Determines how the values of the table columns are written to the batch. Returns null when
+     * a column has a type that doesn't match the type of the table column, or is not supported,
+     * those batches are resolved into fields, and rejected with the same error.
+     *
+     * @param output the batch of GPDB records
+     * @return the way to write each table column, or null
+     */
+    private BatchValueType[] getBatchValueTypes(GPDBWritableBatch output) {
+        int columnCount = columnDescriptors.size();
+        if (output.getColumnCount() != columnCount) {
+            return null;
+        }
+        BatchValueType[] valueTypes = new BatchValueType[columnCount];
+        batchVectorIndexes = new int[columnCount];
+        batchColumnFields = new OneField[columnCount][];
+
+        // index to the projected columns, follows getFieldsForBatch
+        int columnIndex = 0;
+        for (int i = 0; i < columnCount; i++) {
+            ColumnDescriptor columnDescriptor = columnDescriptors.get(i);
+            valueTypes[i] = BatchValueType.NULL;
+            batchVectorIndexes[i] = -1;
+            if (!columnDescriptor.isProjected()) {
+                continue;
+            }
+            TypeDescription orcColumn = positionalAccess
+                    ? columnIndex < orcSchema.getChildren().size() ? orcSchema.getChildren().get(columnIndex) : null
+                    : readFields.get(columnDescriptor.columnName());
+            if (orcColumn == null) {
+                continue;
+            }
+            if (!orcColumn.getCategory().isPrimitive() && orcColumn.getCategory() != TypeDescription.Category.LIST) {
+                return null;
+            }
+            if (!output.isCompatible(i, DataType.get(typeOidMappings[columnIndex]))) {
+                return null;
+            }
+            valueTypes[i] = getBatchValueType(orcColumn.getCategory());
+            batchVectorIndexes[i] = columnIndex++;
+        }
+        return valueTypes;
+    }
+
+    private BatchValueType getBatchValueType(TypeDescription.Category category) {
+        switch (category) {
+            case BOOLEAN:
+                return BatchValueType.BOOLEAN;
+            case BYTE:
+            case SHORT:
+                return BatchValueType.SMALLINT;
+            case INT:
+                return BatchValueType.INTEGER;
+            case LONG:
+                return BatchValueType.BIGINT;
+            case FLOAT:
+                return BatchValueType.REAL;
+            case DOUBLE:
+                return BatchValueType.FLOAT8;
+            case BINARY:
+                return BatchValueType.BYTEA;
+            case STRING:
+            case VARCHAR:
+            case CHAR:
+                return BatchValueType.UTF8_STRING;
+            default:
+                // dates, timestamps, decimals and lists are sent in their string form
+                return BatchValueType.STRING;
+        }
+    }
+
     private List<List<OneField>> prepareResolvedBatch(int batchSize) {
 
         if (cachedBatch == null) {
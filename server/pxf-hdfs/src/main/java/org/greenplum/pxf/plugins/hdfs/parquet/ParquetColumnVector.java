@@ -0,0 +1,150 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * Values of a single primitive Parquet column for a batch of rows. The values are decoded from the pages of the
+ * column chunk straight into an array of the physical type of the column, without materializing records.
+ * <p>
+ * {@link Binary} values may reference the buffers of the row group they were read from, so a vector must be
+ * consumed before the next row group is read.
+ */
+public class ParquetColumnVector {
+
+    private final PrimitiveTypeName typeName;
+    private final int maxDefinitionLevel;
+    private final boolean[] isNull;
+    private int[] intValues;
+    private long[] longValues;
+    private float[] floatValues;
+    private double[] doubleValues;
+    private boolean[] booleanValues;
+    private Binary[] binaryValues;
+
+    /**
+     * Creates a vector for the given column.
+     *
+     * @param descriptor the descriptor of a non-repeated primitive column
+     * @param capacity   the maximum number of rows in a batch
+     */
+    public ParquetColumnVector(ColumnDescriptor descriptor, int capacity) {
+        this.typeName = descriptor.getPrimitiveType().getPrimitiveTypeName();
+        this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+        this.isNull = new boolean[capacity];
+        switch (typeName) {
+            case INT32:
+                intValues = new int[capacity];
+                break;
+            case INT64:
+                longValues = new long[capacity];
+                break;
+            case FLOAT:
+                floatValues = new float[capacity];
+                break;
+            case DOUBLE:
+                doubleValues = new double[capacity];
+                break;
+            case BOOLEAN:
+                booleanValues = new boolean[capacity];
+                break;
+            default:
+                // BINARY, FIXED_LEN_BYTE_ARRAY and INT96
+                binaryValues = new Binary[capacity];
+        }
+    }
+
+    /**
+     * Reads the next {@code count} values of the column into the vector, replacing the values of the previous batch.
+     *
+     * @param reader the reader of the column chunk
+     * @param count  the number of values to read
+     */
+    public void read(ColumnReader reader, int count) {
+        switch (typeName) {
+            case INT32:
+                for (int i = 0; i < count; i++) {
+                    if (!(isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel)) {
+                        intValues[i] = reader.getInteger();
+                    }
+                    reader.consume();
+                }
+                break;
+            case INT64:
+                for (int i = 0; i < count; i++) {
+                    if (!(isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel)) {
+                        longValues[i] = reader.getLong();
+                    }
+                    reader.consume();
+                }
+                break;
+            case FLOAT:
+                for (int i = 0; i < count; i++) {
+                    if (!(isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel)) {
+                        floatValues[i] = reader.getFloat();
+                    }
+                    reader.consume();
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < count; i++) {
+                    if (!(isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel)) {
+                        doubleValues[i] = reader.getDouble();
+                    }
+                    reader.consume();
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < count; i++) {
+                    if (!(isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel)) {
+                        booleanValues[i] = reader.getBoolean();
+                    }
+                    reader.consume();
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    if (isNull[i] = reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        binaryValues[i] = null;
+                    } else {
+                        binaryValues[i] = reader.getBinary();
+                    }
+                    reader.consume();
+                }
+        }
+    }
+
+    public PrimitiveTypeName getTypeName() {
+        return typeName;
+    }
+
+    public boolean isNull(int row) {
+        return isNull[row];
+    }
+
+    public int getInt(int row) {
+        return intValues[row];
+    }
+
+    public long getLong(int row) {
+        return longValues[row];
+    }
+
+    public float getFloat(int row) {
+        return floatValues[row];
+    }
+
+    public double getDouble(int row) {
+        return doubleValues[row];
+    }
+
+    public boolean getBoolean(int row) {
+        return booleanValues[row];
+    }
+
+    public Binary getBinary(int row) {
+        return binaryValues[row];
+    }
+}
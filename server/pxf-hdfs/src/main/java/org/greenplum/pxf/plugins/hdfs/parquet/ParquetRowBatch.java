@@ -0,0 +1,21 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A batch of rows read by the vectorized Parquet accessor, one {@link ParquetColumnVector} per column of the
+ * read schema. The batch is reused between reads, so it must be resolved before the next batch is read.
+ */
+@Getter
+public class ParquetRowBatch {
+
+    private final ParquetColumnVector[] columns;
+
+    @Setter
+    private int size;
+
+    public ParquetRowBatch(ParquetColumnVector[] columns) {
+        this.columns = columns;
+    }
+}
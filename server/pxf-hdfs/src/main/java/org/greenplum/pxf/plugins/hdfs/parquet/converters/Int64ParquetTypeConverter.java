@@ -6,6 +6,7 @@ import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTimestampUtilities;
 
 import java.math.BigDecimal;
@@ -51,7 +52,15 @@ public class Int64ParquetTypeConverter implements ParquetTypeConverter {
 
     @Override
     public Object read(Group group, int columnIndex, int repeatIndex) {
-        long value = group.getLong(columnIndex, repeatIndex);
+        return readValue(group.getLong(columnIndex, repeatIndex));
+    }
+
+    @Override
+    public Object read(ParquetColumnVector vector, int row) {
+        return readValue(vector.getLong(row));
+    }
+
+    private Object readValue(long value) {
         if (detectedDataType == DataType.NUMERIC) {
             return bigDecimalFromLong((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation(), value);
         } else if (detectedDataType == DataType.TIMESTAMP || detectedDataType == DataType.TIMESTAMP_WITH_TIME_ZONE) {
@@ -3,6 +3,7 @@ package org.greenplum.pxf.plugins.hdfs.parquet.converters;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.parquet.example.data.Group;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTimestampUtilities;
 
 import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.TIMESTAMP_PATTERN;
@@ -26,8 +27,17 @@ public class Int96ParquetTypeConverter implements ParquetTypeConverter {
 
     @Override
     public String read(Group group, int columnIndex, int repeatIndex) {
+        return readValue(group.getInt96(columnIndex, repeatIndex).getBytes());
+    }
+
+    @Override
+    public String read(ParquetColumnVector vector, int row) {
+        return readValue(vector.getBinary(row).getBytes());
+    }
+
+    private String readValue(byte[] bytes) {
         return ParquetTimestampUtilities.bytesToTimestamp(
-                group.getInt96(columnIndex, repeatIndex).getBytes(),
+                bytes,
                 useLocalPxfTimezoneRead,
                 dataType == DataType.TIMESTAMP_WITH_TIME_ZONE);
     }
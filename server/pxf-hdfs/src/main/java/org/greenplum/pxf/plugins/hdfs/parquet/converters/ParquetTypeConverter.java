@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.parquet.example.data.Group;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 
 import java.nio.charset.StandardCharsets;
 
@@ -17,6 +19,19 @@ public interface ParquetTypeConverter {
 
     Object read(Group group, int columnIndex, int repeatIndex);
 
+    /**
+     * Get the value of a row from a column vector filled by the vectorized reader, converted the same way
+     * as {@link #read(Group, int, int)} converts the value of a Group
+     *
+     * @param vector    contains the decoded values of a primitive column for a batch of rows
+     * @param row       is the index of the row in the batch, the value of the row must not be null
+     * @return the converted value
+     */
+    default Object read(ParquetColumnVector vector, int row) {
+        throw new UnsupportedTypeException(String.format("Parquet type %s is not supported by the vectorized reader",
+                vector.getTypeName()));
+    }
+
     void write(Group group, int columnIndex, Object fieldValue);
 
     default Object filterValue(String val) {
@@ -19,8 +19,10 @@ package org.greenplum.pxf.plugins.hdfs.utilities;
  * under the License.
  */
 
+import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.CompressionCodecFactory;
@@ -30,8 +32,11 @@ import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.net.NetworkTopology;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * PxfInputFormat is not intended to read a specific format, hence it implements
@@ -42,6 +47,11 @@ import java.io.IOException;
  */
 public class PxfInputFormat<K, V> extends FileInputFormat<K, V> {
 
+    /* same as FileInputFormat, the last split of a file can be up to 10% larger than the split size */
+    private static final double SPLIT_SLOP = 1.1;
+
+    private int listedFileCount;
+
     @Override
     public RecordReader<K, V> getRecordReader(InputSplit split,
                                         JobConf conf,
@@ -51,7 +61,66 @@ public class PxfInputFormat<K, V> extends FileInputFormat<K, V> {
 
     @Override
     public FileStatus[] listStatus(JobConf job) throws IOException {
-        return super.listStatus(job);
+        FileStatus[] files = super.listStatus(job);
+        listedFileCount = files.length;
+        return files;
+    }
+
+    /**
+     * Returns the number of files listed by the last call to {@link #listStatus(JobConf)}.
+     *
+     * @return the number of listed files
+     */
+    public int getListedFileCount() {
+        return listedFileCount;
+    }
+
+    /**
+     * Returns the splits of a single file, the same way {@link #getSplits(JobConf, int)}
+     * splits every listed file when a single split is requested. It allows the splits of
+     * the files to be computed as soon as the files are listed. Empty files have no splits.
+     * <p>
+     * When a single split is requested, the goal size of a split is the total size of all
+     * the files, which is never smaller than the size of a block of a file unless the file
+     * fits in a single split anyway. The goal size can therefore be ignored.
+     *
+     * @param job  the job configuration
+     * @param file the status of the file, with the block locations of the file if available
+     * @return the splits of the file
+     * @throws IOException if the block locations of the file could not be retrieved
+     */
+    public List<InputSplit> getSplits(JobConf job, FileStatus file) throws IOException {
+        List<InputSplit> splits = new ArrayList<>();
+        Path path = file.getPath();
+        long length = file.getLen();
+        if (length == 0) {
+            return splits;
+        }
+
+        FileSystem fs = path.getFileSystem(job);
+        BlockLocation[] blkLocations = file instanceof LocatedFileStatus
+                ? ((LocatedFileStatus) file).getBlockLocations()
+                : fs.getFileBlockLocations(file, 0, length);
+        NetworkTopology clusterMap = new NetworkTopology();
+        if (isSplitable(fs, path)) {
+            long minSize = Math.max(job.getLong(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.SPLIT_MINSIZE, 1), 1);
+            long splitSize = computeSplitSize(Long.MAX_VALUE, minSize, file.getBlockSize());
+
+            long bytesRemaining = length;
+            while (((double) bytesRemaining) / splitSize > SPLIT_SLOP) {
+                String[] hosts = getSplitHosts(blkLocations, length - bytesRemaining, splitSize, clusterMap);
+                splits.add(makeSplit(path, length - bytesRemaining, splitSize, hosts));
+                bytesRemaining -= splitSize;
+            }
+            if (bytesRemaining != 0) {
+                String[] hosts = getSplitHosts(blkLocations, length - bytesRemaining, bytesRemaining, clusterMap);
+                splits.add(makeSplit(path, length - bytesRemaining, bytesRemaining, hosts));
+            }
+        } else {
+            String[] hosts = getSplitHosts(blkLocations, 0, length, clusterMap);
+            splits.add(makeSplit(path, 0, length, hosts));
+        }
+        return splits;
     }
 
     /**
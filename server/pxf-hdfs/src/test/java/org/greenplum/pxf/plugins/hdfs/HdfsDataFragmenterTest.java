@@ -1,18 +1,27 @@
 package org.greenplum.pxf.plugins.hdfs;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.InvalidInputException;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
+import org.greenplum.pxf.api.model.ListingStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class HdfsDataFragmenterTest {
@@ -84,6 +93,93 @@ public class HdfsDataFragmenterTest {
         assertEquals(0, fragmentList.size());
     }
 
+    @Test
+    public void testParallelListingReturnsSameFragments() throws Exception {
+        String path = Objects.requireNonNull(this.getClass().getClassLoader().getResource("csv/")).getPath();
+
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource(path);
+
+        List<Fragment> expected = getFragmenter(context).getFragments();
+        context.getConfiguration().setInt(HdfsDataFragmenter.PXF_LISTING_PARALLELISM, 4);
+        HdfsDataFragmenter fragmenter = (HdfsDataFragmenter) getFragmenter(context);
+        List<Fragment> fragmentList = fragmenter.getFragments();
+
+        assertEquals(8, fragmentList.size());
+        // the fragments are ordered by path
+        assertEquals(sourceNames(expected).stream().sorted().collect(Collectors.toList()), sourceNames(fragmentList));
+        ListingStats listingStats = fragmenter.getListingStats();
+        assertNotNull(listingStats);
+        // empty.csv is listed but has no fragments
+        assertEquals(9, listingStats.getFileCount());
+    }
+
+    @Test
+    public void testParallelListingOfNestedDirectories(@TempDir File directory) throws Exception {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                writeFile(new File(directory, "year=" + i + "/month=" + j + "/part-0.csv"));
+                writeFile(new File(directory, "year=" + i + "/month=" + j + "/part-1.csv"));
+            }
+        }
+        writeFile(new File(directory, "top.csv"));
+        writeFile(new File(directory, "year=0/_SUCCESS"));
+        writeFile(new File(directory, "year=1/.hidden/part-0.csv"));
+        writeFile(new File(directory, "_temporary/part-0.csv"));
+
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource(directory.getAbsolutePath());
+        context.getConfiguration().setBoolean(FileInputFormat.INPUT_DIR_RECURSIVE, true);
+
+        List<Fragment> expected = getFragmenter(context).getFragments();
+        context.getConfiguration().setInt(HdfsDataFragmenter.PXF_LISTING_PARALLELISM, 3);
+        HdfsDataFragmenter fragmenter = (HdfsDataFragmenter) getFragmenter(context);
+        List<Fragment> fragmentList = fragmenter.getFragments();
+
+        assertEquals(19, fragmentList.size());
+        assertEquals(sourceNames(expected).stream().sorted().collect(Collectors.toList()), sourceNames(fragmentList));
+        assertEquals(19, fragmenter.getListingStats().getFileCount());
+    }
+
+    @Test
+    public void testParallelListingFailsOnSubdirectoryWhenNotRecursive(@TempDir File directory) throws Exception {
+        writeFile(new File(directory, "top.csv"));
+        writeFile(new File(directory, "nested/part-0.csv"));
+
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource(directory.getAbsolutePath());
+        context.getConfiguration().setInt(HdfsDataFragmenter.PXF_LISTING_PARALLELISM, 2);
+
+        Fragmenter fragmenter = getFragmenter(context);
+        Exception e = assertThrows(IOException.class, fragmenter::getFragments);
+        assertTrue(e.getMessage().startsWith("Not a file: "));
+    }
+
+    @Test
+    public void testParallelListingInvalidInputPath() {
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource("/tmp/non-existent-path-on-disk/*.csv");
+        context.getConfiguration().setInt(HdfsDataFragmenter.PXF_LISTING_PARALLELISM, 2);
+
+        Fragmenter fragmenter = getFragmenter(context);
+        Exception e = assertThrows(InvalidInputException.class,
+                fragmenter::getFragments);
+        assertEquals("Input Pattern file:/tmp/non-existent-path-on-disk/*.csv matches 0 files", e.getMessage());
+    }
+
+    private void writeFile(File file) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), "a,b,c\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> sourceNames(List<Fragment> fragments) {
+        return fragments.stream().map(Fragment::getSourceName).collect(Collectors.toList());
+    }
+
     private Fragmenter getFragmenter(RequestContext context) {
         HdfsDataFragmenter fragmenter = new HdfsDataFragmenter();
         fragmenter.setRequestContext(context);
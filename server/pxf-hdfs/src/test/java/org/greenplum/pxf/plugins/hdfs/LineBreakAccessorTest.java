@@ -3,19 +3,25 @@ package org.greenplum.pxf.plugins.hdfs;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LineBreakAccessorTest {
 
@@ -273,6 +279,116 @@ public class LineBreakAccessorTest {
         accessor.closeForRead();
     }
 
+    @Test
+    public void testReadAhead() throws Exception {
+        prepareTest("csv/csv_with_header.csv");
+        context.getConfiguration().setBoolean(HdfsSplittableDataAccessor.PXF_READAHEAD_ENABLED, true);
+        context.getConfiguration().setInt(HdfsSplittableDataAccessor.PXF_READAHEAD_BATCH_SIZE, 2);
+        context.addOption("SKIP_HEADER_COUNT", "1");
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        OneRow oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertEquals("line2,header1,header2,header3", oneRow.getData().toString());
+
+        oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertEquals("line3,value1,value2,value3", oneRow.getData().toString());
+
+        oneRow = accessor.readNextObject();
+        assertNull(oneRow);
+
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testPassthroughRead() throws Exception {
+        prepareTest("csv/csv_with_line_feed.csv");
+        preparePassthrough();
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        OneRow oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertTrue(oneRow.getData() instanceof BufferWritable);
+        assertEquals("this,file\nhas,line feeds\nas,new line delimiter\nLF,0x0A\n", toString(oneRow));
+
+        oneRow = accessor.readNextObject();
+        assertNull(oneRow);
+
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testPassthroughReadSkipHeaderCountTwo() throws Exception {
+        prepareTest("csv/csv_with_header.csv");
+        preparePassthrough();
+        context.addOption("SKIP_HEADER_COUNT", "2");
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        OneRow oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertEquals("line3,value1,value2,value3\n", toString(oneRow));
+
+        oneRow = accessor.readNextObject();
+        assertNull(oneRow);
+
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testPassthroughReadDisabled() throws Exception {
+        prepareTest("csv/csv_with_line_feed.csv");
+        preparePassthrough();
+        context.getConfiguration().setBoolean(LineBreakAccessor.PXF_PASSTHROUGH_READER_ENABLED, false);
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        OneRow oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertEquals("this,file", oneRow.getData().toString());
+
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testNoPassthroughReadWhenSampling() throws Exception {
+        prepareTest("csv/csv_with_line_feed.csv");
+        preparePassthrough();
+        context.setStatsSampleRatio(0.5f);
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        OneRow oneRow = accessor.readNextObject();
+        assertNotNull(oneRow);
+        assertEquals("this,file", oneRow.getData().toString());
+
+        accessor.closeForRead();
+    }
+
+    private void preparePassthrough() {
+        context.setOutputFormat(OutputFormat.TEXT);
+        context.setResolver(StringPassResolver.class.getName());
+        context.getGreenplumCSV().withNewline("\n");
+    }
+
+    private String toString(OneRow oneRow) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ((BufferWritable) oneRow.getData()).write(new DataOutputStream(bytes));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
     private void prepareTest(String resourceName) throws IOException, URISyntaxException {
         String filepath = Objects.requireNonNull(this.getClass().getClassLoader()
                 .getResource(resourceName)).toURI().toString();
@@ -0,0 +1,138 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.LineRecordReader;
+import org.greenplum.pxf.api.io.BufferWritable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PassthroughRecordReaderTest {
+
+    private static final String CONTENT = "first line\nsecond\n\nfourth line is a bit longer\r\nx\nlast line";
+
+    @TempDir
+    File tempDir;
+
+    private final JobConf jobConf = new JobConf(new Configuration());
+
+    @Test
+    public void testReadWholeFile() throws Exception {
+        Path file = createFile(CONTENT);
+
+        assertEquals(CONTENT + "\n", readPassthrough(file, 0, CONTENT.length(), 0, 4));
+    }
+
+    @Test
+    public void testSplitsMatchLineRecordReader() throws Exception {
+        for (String content : new String[]{CONTENT, CONTENT + "\n", "\n\n\n", "a"}) {
+            Path file = createFile(content);
+            int length = content.length();
+            for (int splitLength = 1; splitLength <= length; splitLength++) {
+                for (int bufferSize : new int[]{1, 3, 1024}) {
+                    StringBuilder all = new StringBuilder();
+                    for (int start = 0; start < length; start += splitLength) {
+                        int len = Math.min(splitLength, length - start);
+                        String expected = readLines(file, start, len);
+                        String actual = readPassthrough(file, start, len, 0, bufferSize);
+                        assertEquals(expected, actual, String.format("content '%s', split [%d, %d), buffer %d",
+                                content, start, start + len, bufferSize));
+                        all.append(actual);
+                    }
+                    assertEquals(readLines(file, 0, length), all.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSkipHeaders() throws Exception {
+        Path file = createFile(CONTENT);
+
+        assertEquals("\nfourth line is a bit longer\r\nx\nlast line\n",
+                readPassthrough(file, 0, CONTENT.length(), 2, 8));
+        assertEquals("", readPassthrough(file, 0, CONTENT.length(), 10, 8));
+        // the header lines span over the end of the split
+        assertEquals("", readPassthrough(file, 0, 12, 2, 8));
+    }
+
+    @Test
+    public void testBufferIsReused() throws Exception {
+        Path file = createFile(CONTENT);
+        PassthroughRecordReader reader = new PassthroughRecordReader(jobConf,
+                new FileSplit(file, 0, CONTENT.length(), (String[]) null), 0, 16);
+        LongWritable key = reader.createKey();
+        BufferWritable value = reader.createValue();
+
+        assertTrue(reader.next(key, value));
+        assertEquals(0, key.get());
+        assertEquals("first line\nsecon", toString(value));
+        assertTrue(reader.next(key, value));
+        assertEquals(16, key.get());
+        assertEquals("d\n\nfourth line i", toString(value));
+        reader.close();
+    }
+
+    @Test
+    public void testEmptySplit() throws Exception {
+        Path file = createFile("");
+        PassthroughRecordReader reader = new PassthroughRecordReader(jobConf,
+                new FileSplit(file, 0, 0, (String[]) null), 0, 16);
+
+        assertFalse(reader.next(reader.createKey(), reader.createValue()));
+        reader.close();
+    }
+
+    private String readPassthrough(Path file, long start, long length, int skipHeaderCount, int bufferSize) throws IOException {
+        PassthroughRecordReader reader = new PassthroughRecordReader(jobConf,
+                new FileSplit(file, start, length, (String[]) null), skipHeaderCount, bufferSize);
+        LongWritable key = reader.createKey();
+        BufferWritable value = reader.createValue();
+        StringBuilder result = new StringBuilder();
+        while (reader.next(key, value)) {
+            result.append(toString(value));
+        }
+        reader.close();
+        return result.toString();
+    }
+
+    private String readLines(Path file, long start, long length) throws IOException {
+        LineRecordReader reader = new LineRecordReader(jobConf, new FileSplit(file, start, length, (String[]) null),
+                "\n".getBytes(StandardCharsets.UTF_8));
+        LongWritable key = reader.createKey();
+        Text value = reader.createValue();
+        StringBuilder result = new StringBuilder();
+        while (reader.next(key, value)) {
+            result.append(value).append('\n');
+        }
+        reader.close();
+        return result.toString();
+    }
+
+    private String toString(BufferWritable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        value.write(new DataOutputStream(bytes));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path createFile(String content) throws IOException {
+        File file = new File(tempDir, "data.txt");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new Path(file.toURI());
+    }
+}
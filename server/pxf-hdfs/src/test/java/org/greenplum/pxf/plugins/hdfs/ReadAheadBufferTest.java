@@ -0,0 +1,155 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.RecordReader;
+import org.greenplum.pxf.api.OneRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadAheadBufferTest {
+
+    @Test
+    public void testReadsAllRecordsInOrder() throws Exception {
+        for (int records : new int[]{0, 1, 9, 10, 11, 100}) {
+            ReadAheadBuffer buffer = new ReadAheadBuffer(reader(new TestRecordReader(records, -1)), 2, 10);
+            buffer.start();
+            for (int i = 0; i < records; i++) {
+                OneRow row = buffer.next();
+                assertNotNull(row);
+                assertEquals(i, ((LongWritable) row.getKey()).get());
+                assertEquals("line" + i, row.getData().toString());
+            }
+            assertNull(buffer.next());
+            assertNull(buffer.next());
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void testReadsAheadOfTheConsumer() throws Exception {
+        TestRecordReader recordReader = new TestRecordReader(100, -1);
+        ReadAheadBuffer buffer = new ReadAheadBuffer(reader(recordReader), 2, 10);
+        buffer.start();
+
+        assertNotNull(buffer.next());
+        // the batch being consumed and the two batches read ahead
+        assertTrue(recordReader.awaitRecords(30));
+        Thread.sleep(100);
+        assertEquals(30, recordReader.records);
+        buffer.close();
+    }
+
+    @Test
+    public void testReadFailureIsPropagated() throws Exception {
+        ReadAheadBuffer buffer = new ReadAheadBuffer(reader(new TestRecordReader(100, 15)), 2, 10);
+        buffer.start();
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(buffer.next());
+        }
+        Exception e = assertThrows(IOException.class, buffer::next);
+        assertEquals("failed to read record 15", e.getMessage());
+        buffer.close();
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        TestRecordReader recordReader = new TestRecordReader(100, -1);
+        ReadAheadBuffer buffer = new ReadAheadBuffer(reader(recordReader), 1, 10);
+        buffer.start();
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(buffer.next());
+        }
+        assertTrue(recordReader.awaitRecords(20));
+
+        buffer.cancel();
+        // the batch that was already read can be consumed
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(buffer.next());
+        }
+        Exception e = assertThrows(IOException.class, buffer::next);
+        assertEquals("Read-ahead of the records was cancelled", e.getMessage());
+        buffer.close();
+    }
+
+    @Test
+    public void testInvalidSize() {
+        Exception e = assertThrows(IllegalArgumentException.class,
+                () -> new ReadAheadBuffer(reader(new TestRecordReader(1, -1)), 0, 10));
+        assertEquals("the number of read-ahead batches (0) and the batch size (10) must be positive", e.getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecordReader<Object, Object> reader(TestRecordReader recordReader) {
+        return (RecordReader<Object, Object>) (RecordReader<?, ?>) recordReader;
+    }
+
+    private static class TestRecordReader implements RecordReader<LongWritable, Text> {
+        private final int total;
+        private final int failAt;
+        private final CountDownLatch latch;
+        private volatile int records;
+
+        TestRecordReader(int total, int failAt) {
+            this.total = total;
+            this.failAt = failAt;
+            this.latch = new CountDownLatch(total);
+        }
+
+        boolean awaitRecords(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (records < count && System.nanoTime() < deadline) {
+                latch.await(10, TimeUnit.MILLISECONDS);
+            }
+            return records >= count;
+        }
+
+        @Override
+        public boolean next(LongWritable key, Text value) throws IOException {
+            if (records == failAt) {
+                throw new IOException("failed to read record " + records);
+            }
+            if (records == total) {
+                return false;
+            }
+            key.set(records);
+            value.set("line" + records);
+            records++;
+            latch.countDown();
+            return true;
+        }
+
+        @Override
+        public LongWritable createKey() {
+            return new LongWritable();
+        }
+
+        @Override
+        public Text createValue() {
+            return new Text();
+        }
+
+        @Override
+        public long getPos() {
+            return records;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public float getProgress() {
+            return records / (float) total;
+        }
+    }
+}
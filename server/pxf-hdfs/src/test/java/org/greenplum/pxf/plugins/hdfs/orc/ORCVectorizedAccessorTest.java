@@ -2,23 +2,34 @@ package org.greenplum.pxf.plugins.hdfs.orc;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.orc.CompressionKind;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.orc.StripeInformation;
 import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
+import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.EnumAggregationType;
 import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
@@ -38,6 +49,9 @@ class ORCVectorizedAccessorTest extends ORCVectorizedBaseTest {
     private ORCVectorizedAccessor accessor;
     private RequestContext context;
 
+    @TempDir
+    File temp; // must be non-private
+
     @BeforeEach
     public void setup() {
         super.setup();
@@ -199,6 +213,19 @@ class ORCVectorizedAccessorTest extends ORCVectorizedBaseTest {
         verify(mockWriter).close();
     }
 
+    @Test
+    public void testCountFromStripeStatistics() throws Exception {
+        String path = writeStripes(new long[]{1, 2, 3}, new long[]{4, 5}, new long[]{6});
+        context.setAggType(EnumAggregationType.COUNT);
+        context.setTupleDescription(aggregateColumns());
+
+        assertEquals(6, emitAggregate(path, null).size());
+
+        // a split with the second stripe only
+        StripeInformation stripe = getStripes(path).get(1);
+        assertEquals(2, emitAggregate(path, new HcfsFragmentMetadata(stripe.getOffset(), stripe.getLength())).size());
+    }
+
     private void runTestScenario_OpenForWrite(CompressionKind expectedCompression, boolean utcTimezone) throws IOException {
         File tempDirBase = FileUtils.getTempDirectory();
         File writeDir = new File(tempDirBase, "pxf_orc_write");
@@ -243,6 +270,71 @@ class ORCVectorizedAccessorTest extends ORCVectorizedBaseTest {
         assertEquals(exceptionMessage, e.getMessage());
     }
 
+    /**
+     * Writes a file with columns id bigint and name text, with a stripe for each array of ids
+     */
+    private String writeStripes(long[]... stripes) throws IOException {
+        TypeDescription schema = TypeDescription.fromString("struct<id:bigint,name:string>");
+        Path path = new Path(new File(temp, "stripes.orc").getAbsolutePath());
+        try (Writer writer = OrcFile.createWriter(path, OrcFile.writerOptions(new Configuration()).setSchema(schema))) {
+            VectorizedRowBatch batch = schema.createRowBatch();
+            for (long[] ids : stripes) {
+                for (long id : ids) {
+                    int row = batch.size++;
+                    ((LongColumnVector) batch.cols[0]).vector[row] = id;
+                    ((BytesColumnVector) batch.cols[1]).setVal(row, ("name_" + id).getBytes(StandardCharsets.UTF_8));
+                }
+                writer.addRowBatch(batch);
+                batch.reset();
+                writer.writeIntermediateFooter();
+            }
+        }
+        return path.toString();
+    }
+
+    private List<StripeInformation> getStripes(String path) throws IOException {
+        try (Reader reader = OrcFile.createReader(new Path(path), OrcFile.readerOptions(new Configuration()))) {
+            return reader.getStripes();
+        }
+    }
+
+    private List<ColumnDescriptor> aggregateColumns() {
+        List<ColumnDescriptor> columns = new ArrayList<>();
+        columns.add(new ColumnDescriptor("id", DataType.BIGINT.getOID(), 0, "int8", null, false));
+        columns.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null, false));
+        return columns;
+    }
+
+    /**
+     * Emits the rows of the aggregate as the aggregate bridge does and resolves them
+     *
+     * @return the resolved rows
+     */
+    private List<List<OneField>> emitAggregate(String path, HcfsFragmentMetadata metadata) throws Exception {
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setAccessor(ORCVectorizedAccessor.class.getName());
+        context.setNumAttrsProjected(0);
+        context.setDataSource(path);
+        context.setFragmentMetadata(metadata != null ? metadata : new HcfsFragmentMetadata(0, new File(path).length()));
+        context.setMetadata(null);
+        accessor = new ORCVectorizedAccessor();
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        ORCVectorizedResolver resolver = new ORCVectorizedResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertTrue(accessor.openForRead());
+        accessor.retrieveStats();
+        List<List<OneField>> rows = new ArrayList<>();
+        OneRow row;
+        while ((row = accessor.emitAggObject()) != null) {
+            rows.add(resolver.getFields(row));
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
     private void runTestScenario_ReadOrcTypesFile(int expectedNumCols) throws IOException {
         context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
         String path = Objects.requireNonNull(getClass().getClassLoader().getResource("orc/orc_types.orc")).getPath();
@@ -15,12 +15,19 @@ import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -30,7 +37,9 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -328,6 +337,65 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertDataReturned(ORC_TYPES_DATASET, fields);
     }
 
+    @Test
+    public void testWriteBatchPrimitive() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertWriteBatchMatchesFields(new OneRow(readOrcFile("orc_types.orc", 25, schema)));
+    }
+
+    @Test
+    public void testWriteBatchRepeatedPrimitive() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertWriteBatchMatchesFields(new OneRow(readOrcFile("orc_types_repeated.orc", 3, schema)));
+    }
+
+    @Test
+    public void testWriteBatchPrimitiveWithProjectionInMultipleBatches() throws IOException {
+        IntStream.range(0, columnDescriptors.size()).forEach(idx ->
+                columnDescriptors.get(idx).setProjected(idx == 0 || idx == 4 || idx == 8 || idx == 15));
+        TypeDescription schema = TypeDescription.fromString("struct<t1:string,dec1:decimal(38,18),bg:bigint,bin:binary>");
+        context.setMetadata(schema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        for (VectorizedRowBatch batch : readBatchesFromOrcFile("orc_types.orc", 24, 2, schema)) {
+            assertWriteBatchMatchesFields(new OneRow(batch));
+        }
+    }
+
+    @Test
+    public void testWriteBatchCompound() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA_COMPOUND);
+        context.setMetadata(schema);
+        context.setTupleDescription(columnDescriptorsCompound);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertWriteBatchMatchesFields(new OneRow(readOrcFile("orc_types_compound.orc", 6, schema)));
+    }
+
+    @Test
+    public void testWriteBatchIsNotSupportedForMismatchedTypes() throws IOException {
+        // num1 is an int in the ORC file
+        columnDescriptors.set(2, new ColumnDescriptor("num1", DataType.BIGINT.getOID(), 2, "int8", null));
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        GPDBWritableBatch output = new GPDBWritableBatch(getSchema(), StandardCharsets.UTF_8);
+        assertFalse(resolver.writeBatch(new OneRow(readOrcFile("orc_types.orc", 25, schema)), output));
+        assertEquals(0, output.getLength());
+    }
+
     @Test
     public void testUnsupportedFunctionality() {
         Exception e = assertThrows(UnsupportedOperationException.class, () -> resolver.getFields(new OneRow()));
@@ -337,6 +405,60 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertEquals("Current operation is not supported", e.getMessage());
     }
 
+    private int[] getSchema() {
+        return context.getTupleDescription().stream().mapToInt(ColumnDescriptor::columnTypeCode).toArray();
+    }
+
+    /**
+     * Writes the batch straight into GPDBWritable records and compares them with the fields the batch is resolved to
+     */
+    private void assertWriteBatchMatchesFields(OneRow batchOfRows) throws IOException {
+        List<List<OneField>> expected = new ArrayList<>();
+        resolver.getFieldsForBatch(batchOfRows).forEach(row -> expected.add(new ArrayList<>(row)));
+
+        GPDBWritableBatch output = new GPDBWritableBatch(getSchema(), StandardCharsets.UTF_8);
+        assertTrue(resolver.writeBatch(batchOfRows, output));
+        assertEquals(expected.size(), output.getRowCount());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.write(new DataOutputStream(bytes));
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        List<ColumnDescriptor> tupleDescription = context.getTupleDescription();
+        for (int rowNum = 0; rowNum < expected.size(); rowNum++) {
+            GPDBWritable record = new GPDBWritable(StandardCharsets.UTF_8);
+            record.readFields(input);
+            for (int colNum = 0; colNum < tupleDescription.size(); colNum++) {
+                Object expectedValue = expected.get(rowNum).get(colNum).val;
+                String message = "Row " + rowNum + ", COL" + (colNum + 1);
+                switch (DataType.get(tupleDescription.get(colNum).columnTypeCode())) {
+                    case INTEGER:
+                        assertEquals(expectedValue, record.getInt(colNum), message);
+                        break;
+                    case BIGINT:
+                        assertEquals(expectedValue, record.getLong(colNum), message);
+                        break;
+                    case SMALLINT:
+                        assertEquals(expectedValue, record.getShort(colNum), message);
+                        break;
+                    case REAL:
+                        assertEquals(expectedValue, record.getFloat(colNum), message);
+                        break;
+                    case FLOAT8:
+                        assertEquals(expectedValue, record.getDouble(colNum), message);
+                        break;
+                    case BOOLEAN:
+                        assertEquals(expectedValue, record.getBoolean(colNum), message);
+                        break;
+                    case BYTEA:
+                        assertArrayEquals((byte[]) expectedValue, record.getBytes(colNum), message);
+                        break;
+                    default:
+                        assertEquals(expectedValue == null ? null : expectedValue.toString(), record.getString(colNum), message);
+                }
+            }
+        }
+    }
+
     private void assertDataReturned(Object[][] expected, List<List<OneField>> fieldsForBatch) {
         for (int rowNum = 0; rowNum < fieldsForBatch.size(); rowNum++) {
             List<OneField> row = fieldsForBatch.get(rowNum);
@@ -0,0 +1,210 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
+import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
+import org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor;
+import org.greenplum.pxf.plugins.hdfs.ParquetResolver;
+import org.greenplum.pxf.plugins.hdfs.ParquetVectorizedAccessor;
+import org.greenplum.pxf.plugins.hdfs.ParquetVectorizedResolver;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the throughput of the row-based Parquet read path ({@link ParquetFileAccessor} and
+ * {@link ParquetResolver}) with the vectorized one ({@link ParquetVectorizedAccessor} and
+ * {@link ParquetVectorizedResolver}) on a generated file, with the batches either resolved into fields or
+ * serialized straight into GPDBWritable records. Skipped unless enabled, run it with:
+ * <pre>
+ * ./gradlew :pxf-hdfs:test --tests '*ParquetReadBenchmark' -Dpxf.parquet.benchmark=true [-Dpxf.parquet.benchmark.rows=N]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "pxf.parquet.benchmark", matches = "true")
+public class ParquetReadBenchmark {
+
+    private static final int ROWS = Integer.getInteger("pxf.parquet.benchmark.rows", 2_000_000);
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message benchmark {\n" +
+            "  optional int32 id;\n" +
+            "  optional binary name (UTF8);\n" +
+            "  optional int32 cdate (DATE);\n" +
+            "  optional double amt;\n" +
+            "  optional boolean b;\n" +
+            "  optional int64 bg;\n" +
+            "  optional float r;\n" +
+            "}");
+
+    @TempDir
+    static File tempDir;
+    private static File file;
+
+    @BeforeAll
+    public static void generateFile() throws Exception {
+        file = new File(tempDir, "benchmark.parquet");
+        SimpleGroupFactory groupFactory = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(file.getAbsolutePath()))
+                .withType(SCHEMA)
+                .withConf(new Configuration())
+                .build()) {
+            for (int i = 0; i < ROWS; i++) {
+                Group group = groupFactory.newGroup()
+                        .append("id", i)
+                        .append("name", "name_" + (i % 10_000))
+                        .append("cdate", 18_000 + i % 365)
+                        .append("b", i % 2 == 0)
+                        .append("bg", (long) i * 31)
+                        .append("r", i / 7f);
+                // every 10th amount is null
+                if (i % 10 != 0) {
+                    group.append("amt", i * 1.5);
+                }
+                writer.write(group);
+            }
+        }
+    }
+
+    @Test
+    public void compareReadPaths() throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readRowBased();
+            readVectorized();
+            writeVectorized();
+        }
+        long rowBasedNanos = 0, vectorizedNanos = 0, serializedNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            assertEquals(ROWS, readRowBased());
+            rowBasedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals(ROWS, readVectorized());
+            vectorizedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals(ROWS, writeVectorized());
+            serializedNanos += System.nanoTime() - start;
+        }
+        report("row-based", rowBasedNanos);
+        report("vectorized", vectorizedNanos);
+        report("vectorized GPDBWritable", serializedNanos);
+    }
+
+    private long readRowBased() throws Exception {
+        RequestContext context = createContext();
+        ParquetFileAccessor accessor = new ParquetFileAccessor();
+        ParquetResolver resolver = new ParquetResolver();
+        initialize(context, accessor);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        long rows = 0;
+        accessor.openForRead();
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            List<OneField> fields = resolver.getFields(row);
+            rows += fields.isEmpty() ? 0 : 1;
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
+    private long readVectorized() throws Exception {
+        RequestContext context = createContext();
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        initialize(context, accessor);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        long rows = 0;
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            rows += resolver.getFieldsForBatch(batch).size();
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
+    private long writeVectorized() throws Exception {
+        RequestContext context = createContext();
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        initialize(context, accessor);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        int[] schema = context.getTupleDescription().stream().mapToInt(ColumnDescriptor::columnTypeCode).toArray();
+        GPDBWritableBatch output = new GPDBWritableBatch(schema, StandardCharsets.UTF_8);
+        long rows = 0;
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            output.clear();
+            assertTrue(resolver.writeBatch(batch, output));
+            rows += output.getRowCount();
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
+    private void initialize(RequestContext context, Accessor accessor) {
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+    }
+
+    private RequestContext createContext() {
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null));
+        columnDescriptors.add(new ColumnDescriptor("cdate", DataType.DATE.getOID(), 2, "date", null));
+        columnDescriptors.add(new ColumnDescriptor("amt", DataType.FLOAT8.getOID(), 3, "float8", null));
+        columnDescriptors.add(new ColumnDescriptor("b", DataType.BOOLEAN.getOID(), 4, "bool", null));
+        columnDescriptors.add(new ColumnDescriptor("bg", DataType.BIGINT.getOID(), 5, "int8", null));
+        columnDescriptors.add(new ColumnDescriptor("r", DataType.REAL.getOID(), 6, "real", null));
+
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setServerName("default");
+        context.setUser("test-user");
+        context.setProfileScheme("localfile");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setDataSource(file.getAbsolutePath());
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, file.length()));
+        context.setTupleDescription(columnDescriptors);
+        context.setConfiguration(new Configuration());
+        return context;
+    }
+
+    private void report(String readPath, long totalNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(totalNanos / MEASURED_ITERATIONS);
+        System.out.printf("Parquet %s read of %d rows: %d ms per iteration, %d rows/ms%n",
+                readPath, ROWS, millis, millis == 0 ? 0 : ROWS / millis);
+    }
+}
@@ -0,0 +1,312 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
+import org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor;
+import org.greenplum.pxf.plugins.hdfs.ParquetResolver;
+import org.greenplum.pxf.plugins.hdfs.ParquetVectorizedAccessor;
+import org.greenplum.pxf.plugins.hdfs.ParquetVectorizedResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParquetVectorizedReadTest extends ParquetBaseTest {
+
+    private Configuration configuration;
+    private List<Integer> batchSizes;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        configuration = new Configuration();
+        batchSizes = new ArrayList<>();
+    }
+
+    @Test
+    public void testReadAllColumns() throws Exception {
+        List<List<OneField>> rows = readVectorized(null);
+
+        assertEquals(25, rows.size());
+        assertRowsEqual(readRowBased(null), rows);
+    }
+
+    @Test
+    public void testReadProjectedColumns() throws Exception {
+        columnDescriptors.forEach(d -> d.setProjected(false));
+        columnDescriptors.get(0).setProjected(true);
+        columnDescriptors.get(1).setProjected(true);
+        columnDescriptors.get(7).setProjected(true);
+        columnDescriptors.get(13).setProjected(true);
+
+        List<List<OneField>> rows = readVectorized(null);
+
+        assertEquals(25, rows.size());
+        assertRowsEqual(readRowBased(null), rows);
+        assertEquals(1, rows.get(0).get(0).val);
+        assertEquals("row1", rows.get(0).get(1).val);
+        assertNull(rows.get(0).get(2).val);
+        assertEquals(2147483647L, rows.get(0).get(7).val);
+    }
+
+    @Test
+    public void testReadWithoutProjectedColumns() throws Exception {
+        columnDescriptors.forEach(d -> d.setProjected(false));
+
+        List<List<OneField>> rows = readVectorized(null);
+
+        assertEquals(25, rows.size());
+        rows.forEach(row -> {
+            assertEquals(columnDescriptors.size(), row.size());
+            row.forEach(field -> assertNull(field.val));
+        });
+    }
+
+    @Test
+    public void testReadInSmallBatches() throws Exception {
+        configuration.setInt(ParquetVectorizedAccessor.READ_BATCH_SIZE_PROPERTY, 7);
+
+        List<List<OneField>> rows = readVectorized(null);
+
+        assertRowsEqual(readRowBased(null), rows);
+        assertEquals(List.of(7, 7, 7, 4), batchSizes);
+    }
+
+    @Test
+    public void testRowGroupIsSkippedByFilter() throws Exception {
+        // id = 100, the statistics of the only row group show that no row matches
+        assertEquals(0, readVectorized("a0c20s3d100o5").size());
+        assertEquals(0, batchSizes.size());
+    }
+
+    @Test
+    public void testRowGroupIsReadWhenFilterMatches() throws Exception {
+        // id = 5, rows are not filtered, Greengage applies the predicate
+        assertEquals(25, readVectorized("a0c20s1d5o5").size());
+    }
+
+    @Test
+    public void testInvalidBatchSize() {
+        configuration.setInt(ParquetVectorizedAccessor.READ_BATCH_SIZE_PROPERTY, 0);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> readVectorized(null));
+        assertEquals("Property pxf.parquet.read.batch.size has invalid value 0, it must be greater than 0", e.getMessage());
+    }
+
+    @Test
+    public void testWriteBatch() throws Exception {
+        List<GPDBWritable> records = writeVectorized();
+
+        assertRecordsEqual(readRowBased(null), records);
+    }
+
+    @Test
+    public void testWriteBatchWithProjectedColumnsInSmallBatches() throws Exception {
+        configuration.setInt(ParquetVectorizedAccessor.READ_BATCH_SIZE_PROPERTY, 7);
+        columnDescriptors.forEach(d -> d.setProjected(false));
+        columnDescriptors.get(1).setProjected(true);
+        columnDescriptors.get(8).setProjected(true);
+        columnDescriptors.get(14).setProjected(true);
+
+        List<GPDBWritable> records = writeVectorized();
+
+        assertRecordsEqual(readRowBased(null), records);
+        assertEquals(List.of(7, 7, 7, 4), batchSizes);
+    }
+
+    @Test
+    public void testWriteBatchIsNotSupportedForMismatchedTypes() throws Exception {
+        // the id column is INT32 in the file
+        columnDescriptors.set(0, new ColumnDescriptor("id", DataType.BIGINT.getOID(), 0, "int8", null));
+        RequestContext context = createContext(null);
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        accessor.openForRead();
+        GPDBWritableBatch output = new GPDBWritableBatch(getSchema(), StandardCharsets.UTF_8);
+        assertFalse(resolver.writeBatch(accessor.readNextObject(), output));
+        assertEquals(0, output.getLength());
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testWriteIsNotSupported() {
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        accessor.setRequestContext(createContext(null));
+        assertThrows(UnsupportedOperationException.class, accessor::openForWrite);
+    }
+
+    private List<List<OneField>> readVectorized(String filterString) throws Exception {
+        RequestContext context = createContext(filterString);
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> rows = new ArrayList<>();
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            List<List<OneField>> resolvedBatch = resolver.getFieldsForBatch(batch);
+            batchSizes.add(resolvedBatch.size());
+            // the resolver reuses the lists of the batch
+            resolvedBatch.forEach(row -> rows.add(new ArrayList<>(row)));
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
+    private List<GPDBWritable> writeVectorized() throws Exception {
+        RequestContext context = createContext(null);
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        GPDBWritableBatch output = new GPDBWritableBatch(getSchema(), StandardCharsets.UTF_8);
+        List<GPDBWritable> records = new ArrayList<>();
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            output.clear();
+            assertTrue(resolver.writeBatch(batch, output));
+            batchSizes.add(output.getRowCount());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            output.write(new DataOutputStream(bytes));
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            for (int i = 0; i < output.getRowCount(); i++) {
+                GPDBWritable record = new GPDBWritable(StandardCharsets.UTF_8);
+                record.readFields(input);
+                records.add(record);
+            }
+        }
+        accessor.closeForRead();
+        return records;
+    }
+
+    private List<List<OneField>> readRowBased(String filterString) throws Exception {
+        RequestContext context = createContext(filterString);
+        ParquetFileAccessor accessor = new ParquetFileAccessor();
+        ParquetResolver resolver = new ParquetResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> rows = new ArrayList<>();
+        accessor.openForRead();
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            rows.add(resolver.getFields(row));
+        }
+        accessor.closeForRead();
+        return rows;
+    }
+
+    private RequestContext createContext(String filterString) {
+        String path = Objects.requireNonNull(getClass().getClassLoader().getResource("parquet/parquet_types.parquet")).getPath();
+
+        RequestContext context = new RequestContext();
+        context.setConfig("fakeConfig");
+        context.setServerName("fakeServerName");
+        context.setUser("test-user");
+        context.setProfileScheme("localfile");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setDataSource(path);
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 4196));
+        context.setTupleDescription(columnDescriptors);
+        context.setFilterString(filterString);
+        context.setConfiguration(configuration);
+        return context;
+    }
+
+    private int[] getSchema() {
+        return columnDescriptors.stream().mapToInt(ColumnDescriptor::columnTypeCode).toArray();
+    }
+
+    private void assertRecordsEqual(List<List<OneField>> expected, List<GPDBWritable> actual) throws Exception {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            GPDBWritable record = actual.get(i);
+            for (int j = 0; j < columnDescriptors.size(); j++) {
+                ColumnDescriptor column = columnDescriptors.get(j);
+                Object expectedValue = column.isProjected() ? expected.get(i).get(j).val : null;
+                String message = "value of column " + column.columnName() + " in row " + i;
+                switch (DataType.get(column.columnTypeCode())) {
+                    case INTEGER:
+                        assertEquals(expectedValue, record.getInt(j), message);
+                        break;
+                    case BIGINT:
+                        assertEquals(expectedValue, record.getLong(j), message);
+                        break;
+                    case SMALLINT:
+                        assertEquals(expectedValue, record.getShort(j), message);
+                        break;
+                    case REAL:
+                        assertEquals(expectedValue, record.getFloat(j), message);
+                        break;
+                    case FLOAT8:
+                        assertEquals(expectedValue, record.getDouble(j), message);
+                        break;
+                    case BOOLEAN:
+                        assertEquals(expectedValue, record.getBoolean(j), message);
+                        break;
+                    case BYTEA:
+                        assertArrayEquals((byte[]) expectedValue, record.getBytes(j), message);
+                        break;
+                    default:
+                        assertEquals(expectedValue == null ? null : expectedValue.toString(), record.getString(j), message);
+                }
+            }
+        }
+    }
+
+    private void assertRowsEqual(List<List<OneField>> expected, List<List<OneField>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).size(), actual.get(i).size());
+            for (int j = 0; j < expected.get(i).size(); j++) {
+                OneField expectedField = expected.get(i).get(j);
+                OneField actualField = actual.get(i).get(j);
+                ColumnDescriptor column = columnDescriptors.get(j);
+                assertEquals(expectedField.type, actualField.type, "type of column " + column.columnName() + " in row " + i);
+                if (expectedField.val instanceof byte[]) {
+                    assertArrayEquals((byte[]) expectedField.val, (byte[]) actualField.val,
+                            "value of column " + column.columnName() + " in row " + i);
+                } else {
+                    assertEquals(expectedField.val, actualField.val, "value of column " + column.columnName() + " in row " + i);
+                }
+            }
+        }
+    }
+}
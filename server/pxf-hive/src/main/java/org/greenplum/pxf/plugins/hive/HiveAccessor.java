@@ -26,6 +26,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.ql.io.IOConstants;
+import org.apache.hadoop.hive.ql.io.orc.OrcInputFormat;
 import org.apache.hadoop.hive.ql.io.sarg.ConvertAstToSearchArg;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.hadoop.hive.serde.serdeConstants;
@@ -33,7 +34,10 @@ import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.SequenceFileInputFormat;
+import org.apache.hadoop.mapred.TextInputFormat;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.ColumnIndexOperandNode;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.Node;
@@ -45,6 +49,7 @@ import org.greenplum.pxf.api.filter.SupportedOperatorPruner;
 import org.greenplum.pxf.api.filter.ToStringTreeVisitor;
 import org.greenplum.pxf.api.filter.TreeTraverser;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.api.utilities.SerializationService;
@@ -64,10 +69,8 @@ import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Properties;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Set;
 
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_INPUT_FORMAT;
@@ -91,8 +94,11 @@ import static org.greenplum.pxf.plugins.hive.HiveDataFragmenter.PXF_META_TABLE_P
  * HiveAccessor will also enforce Hive partition filtering by filtering-out a
  * split which does not belong to a partition filter. Naturally, the partition
  * filtering will be done only for Hive tables that are partitioned.
+ * <p>
+ * Reloading the profile closes the pooled Metastore clients and invalidates the cached
+ * table metadata of the server.
  */
-public class HiveAccessor extends HdfsSplittableDataAccessor {
+public class HiveAccessor extends HdfsSplittableDataAccessor implements Reloader {
 
     private static final Logger LOG = LoggerFactory.getLogger(HiveAccessor.class);
     private static final String PXF_PPD_HIVE = "pxf.ppd.hive";
@@ -182,6 +188,12 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
 
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
 
+    /**
+     * The input formats whose readers copy the records into the given key and value, their records can be read ahead
+     */
+    private static final Set<Class<?>> READ_AHEAD_INPUT_FORMATS =
+            Set.of(TextInputFormat.class, SequenceFileInputFormat.class, OrcInputFormat.class);
+
     /**
      * Constructs a HiveAccessor
      */
@@ -239,11 +251,16 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         }
 
         Properties properties;
+        HiveTableDescriptor descriptor;
         try {
             HiveFragmentMetadata metadata = context.getFragmentMetadata();
+            descriptor = metadata.getDescriptor();
             // clone properties from the fragment metadata as they are shared across fragments and
             // properties for the current fragment will be modified by Hive Resolvers and SerDe classes
-            properties = (Properties) metadata.getProperties().clone();
+            properties = (Properties) descriptor.getProperties().clone();
+            if (metadata.getPartitionValues() != null) {
+                properties.put(PXF_META_TABLE_PARTITION_COLUMN_VALUES, metadata.getPartitionValues());
+            }
             if (inputFormat == null) {
                 String inputFormatClassName = properties.getProperty(FILE_INPUT_FORMAT);
                 this.inputFormat = hiveUtilities.makeInputFormat(inputFormatClassName, jobConf);
@@ -254,7 +271,7 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
 
         initPartitionFields(properties);
         skipHeaderCount = Integer.parseInt(properties.getProperty(HEADER_COUNT, "0"));
-        hiveIndexes = buildHiveIndexes(properties);
+        hiveIndexes = buildHiveIndexes(descriptor.getColumnIndexes());
         hiveColumnsString = properties.getProperty(META_TABLE_COLUMNS);
         hiveColumnTypesString = properties.getProperty(META_TABLE_COLUMN_TYPES);
 
@@ -308,6 +325,19 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         return super.readNextObject();
     }
 
+    @Override
+    public void reloadAll() {
+        reloadMetastoreState(null);
+    }
+
+    @Override
+    public void reload(String server) {
+        if (server == null || server.isBlank()) {
+            throw new PxfRuntimeException("Failed to reload profile. Parameter server is blank.");
+        }
+        reloadMetastoreState(server);
+    }
+
     /**
      * Opens the resource for write.
      *
@@ -351,6 +381,15 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         return inputFormat.getRecordReader(split, jobConf, Reporter.NULL);
     }
 
+    /**
+     * The records are read ahead only for the input formats known to copy them into the given value,
+     * the readers of other formats such as RCFile return references to their reused buffers.
+     */
+    @Override
+    protected boolean isReadAheadSupported() {
+        return inputFormat != null && READ_AHEAD_INPUT_FORMATS.contains(inputFormat.getClass());
+    }
+
     /**
      * Specifies whether column projection and predicate pushdown information should be added to
      * the JobConfig so that it is accessible to the RecordReader.
@@ -395,21 +434,12 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
      * Builds a list of indexes corresponding to the matching columns in
      * Greengage, ordered by the Greengage schema order.
      *
-     * @param properties the metadata properties
+     * @param columnNameToColsIndexMap the index of each Hive column by name
      * @return the hive indexes
      */
-    private List<Integer> buildHiveIndexes(Properties properties) {
+    private List<Integer> buildHiveIndexes(Map<String, Integer> columnNameToColsIndexMap) {
         List<Integer> indexes = new ArrayList<>();
 
-        String delimiter = properties.getProperty(serdeConstants.COLUMN_NAME_DELIMITER, ",");
-        String columns = Objects.requireNonNull(properties.getProperty(META_TABLE_COLUMNS), "The \"columns\" property cannot be null");
-        List<String> hiveColumns = Arrays.asList(columns.trim().split(delimiter));
-
-        Map<String, Integer> columnNameToColsIndexMap =
-                IntStream.range(0, hiveColumns.size())
-                        .boxed()
-                        .collect(Collectors.toMap(hiveColumns::get, i -> i));
-
         for (ColumnDescriptor cd : context.getTupleDescription()) {
             // The index of the column on the Hive schema
             Integer index = defaultIfNull(columnNameToColsIndexMap.get(cd.columnName()),
@@ -686,4 +716,15 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         out.close();
         return Base64.encodeBase64String(out.toBytes());
     }
+
+    private void reloadMetastoreState(String server) {
+        HiveMetastoreClientPool clientPool = SpringContext.getNullableBean(HiveMetastoreClientPool.class);
+        if (clientPool != null) {
+            clientPool.evict(server);
+        }
+        HiveMetadataCache metadataCache = SpringContext.getNullableBean(HiveMetadataCache.class);
+        if (metadataCache != null) {
+            metadataCache.invalidate(server);
+        }
+    }
 }
@@ -37,12 +37,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Consumer;
 
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_OUTPUT_FORMAT;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_LOCATION;
 import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_CONFIG_RESOURCE_PATH_PROPERTY;
-import static org.greenplum.pxf.plugins.hive.HiveDataFragmenter.HIVE_PARTITIONS_DELIM;
-import static org.greenplum.pxf.plugins.hive.HiveDataFragmenter.PXF_META_TABLE_PARTITION_COLUMN_VALUES;
 
 @Component
 public class HiveClientWrapper {
@@ -60,6 +59,7 @@ public class HiveClientWrapper {
     private HiveClientFactory hiveClientFactory;
     private HiveUtilities hiveUtilities;
     private SecureLogin secureLogin;
+    private HiveMetastoreClientPool clientPool;
 
     /**
      * Sets the {@link HiveClientFactory} object
@@ -91,13 +91,39 @@ public class HiveClientWrapper {
         this.secureLogin = secureLogin;
     }
 
+    /**
+     * Sets the {@link HiveMetastoreClientPool} object
+     *
+     * @param clientPool the pool of Metastore clients
+     */
+    @Autowired
+    public void setClientPool(HiveMetastoreClientPool clientPool) {
+        this.clientPool = clientPool;
+    }
+
     /**
      * Initializes the IMetaStoreClient
-     * Uses classpath configuration files to locate the MetaStore
+     * Uses classpath configuration files to locate the MetaStore.
+     * The client is borrowed from the {@link HiveMetastoreClientPool} of the server and user
+     * when there is one, and is returned to the pool when the holder is closed.
      *
      * @return initialized client
      */
     public MetaStoreClientHolder initHiveClient(RequestContext context, Configuration configuration) {
+        if (clientPool == null) {
+            return openHiveClient(context, configuration);
+        }
+        try {
+            return clientPool.borrow(context.getServerName(), context.getUser(),
+                    () -> openHiveClient(context, configuration).getClient());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed connecting to Hive MetaStore service: " + e.getMessage(), e);
+        }
+    }
+
+    private MetaStoreClientHolder openHiveClient(RequestContext context, Configuration configuration) {
         HiveConf hiveConf = getHiveConf(configuration);
         try {
             if (Utilities.isSecurityEnabled(configuration)) {
@@ -168,7 +194,8 @@ public class HiveClientWrapper {
     }
 
     /**
-     * The method which serializes fragment-related attributes, needed for reading and resolution to string
+     * Builds the fragment-related properties needed for reading and resolution. The values of the
+     * partition keys are not included, they are kept by each fragment.
      *
      * @param fragmenterClassName fragmenter class name
      * @param partData            partition data
@@ -187,7 +214,6 @@ public class HiveClientWrapper {
         }
 
         Properties properties = partData.properties;
-        addPartitionValuesInformation(properties, partData);
         removeUnusedProperties(properties);
         return properties;
     }
@@ -323,14 +349,6 @@ public class HiveClientWrapper {
         return hiveConf;
     }
 
-    /* Turns the partition values into a string and adds them to the properties */
-    private void addPartitionValuesInformation(Properties properties, HiveTablePartition partData) {
-        if (partData.partition != null) {
-            properties.put(PXF_META_TABLE_PARTITION_COLUMN_VALUES,
-                    String.join(HIVE_PARTITIONS_DELIM, partData.partition.getValues()));
-        }
-    }
-
     /**
      * Removes properties that are not used by PXF or Hive's serde
      */
@@ -397,11 +415,12 @@ public class HiveClientWrapper {
      * Holder of a MetaStoreClient that implements AutoCloseable interface that allows it to be used in
      * try-with-resources block and be automatically closed when no longer required.
      * The class just wraps the real client, it does not delegate any methods to the real client as there would be
-     * too many methods to override.
+     * too many methods to override. A pooled client is returned to its pool instead of being closed.
      */
-    @Getter
     public static class MetaStoreClientHolder implements AutoCloseable {
+        @Getter
         private final IMetaStoreClient client;
+        private final Consumer<IMetaStoreClient> closer;
 
         /**
          * Creates a new holder of the provided Metastore client.
@@ -409,12 +428,23 @@ public class HiveClientWrapper {
          * @param client a client to hold
          */
         MetaStoreClientHolder(IMetaStoreClient client) {
+            this(client, IMetaStoreClient::close);
+        }
+
+        /**
+         * Creates a new holder of the provided Metastore client, that is released with the given closer.
+         *
+         * @param client a client to hold
+         * @param closer closes the client or returns it to its pool
+         */
+        MetaStoreClientHolder(IMetaStoreClient client, Consumer<IMetaStoreClient> closer) {
             this.client = client;
+            this.closer = closer;
         }
 
         @Override
         public void close() {
-            client.close();
+            closer.accept(client);
         }
     }
 }
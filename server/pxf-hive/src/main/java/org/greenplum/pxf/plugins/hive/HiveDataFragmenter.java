@@ -33,6 +33,8 @@ import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.thrift.TException;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.Node;
@@ -41,6 +43,7 @@ import org.greenplum.pxf.api.filter.TreeTraverser;
 import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.model.ListingStats;
 import org.greenplum.pxf.api.model.Metadata;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.api.utilities.SpringContext;
@@ -49,14 +52,34 @@ import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
 import org.greenplum.pxf.plugins.hive.utilities.ProfileFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import org.slf4j.MDC;
+
+import java.io.InterruptedIOException;
+import java.security.PrivilegedExceptionAction;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -72,12 +95,25 @@ import java.util.stream.Stream;
  * <li>userData:
  * file_input_format_name_DELIM_serde_name_DELIM_serialization_properties</li>
  * </ol>
+ * <p>
+ * The partitions of a table without a partition filter are fetched from the Metastore in
+ * batches of `pxf.hive.partition.batch-size` partition names. When the
+ * `pxf.fragmenter.listing.parallelism` property is set to more than one, the splits of the
+ * partitions are computed concurrently by up to the given number of threads. The time spent
+ * fetching the table, its partitions and computing the splits is reported with the listing
+ * statistics.
+ * <p>
+ * The properties of the table are kept in a {@link HiveTableDescriptor} shared by all the
+ * fragments of the partitions with the same storage and schema, each fragment only has its
+ * split range, the path of its file and the values of its partition keys.
  */
 public class HiveDataFragmenter extends HdfsDataFragmenter {
     private static final short ALL_PARTS = -1;
 
     public static final String HIVE_PARTITIONS_DELIM = "!HPAD!";
     public static final String PXF_META_TABLE_PARTITION_COLUMN_VALUES = "pxf.pcv";
+    public static final String PXF_HIVE_PARTITION_BATCH_SIZE = "pxf.hive.partition.batch-size";
+    public static final int DEFAULT_PARTITION_BATCH_SIZE = 1000;
 
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
@@ -97,19 +133,32 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     protected final HiveUtilities hiveUtilities;
 
     private final HiveClientWrapper hiveClientWrapper;
+    private final HiveMetadataCache metadataCache;
 
     // Data structure to hold hive partition names if exist, to be used by
     // partition filtering
     private final Set<String> setPartitions = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, String> partitionKeyTypes = new HashMap<>();
+    // descriptors of the distinct properties of the partitions
+    private final Map<Properties, HiveTableDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    private final Map<String, Duration> phaseDurations = new LinkedHashMap<>();
+    private final AtomicLong listedFileCount = new AtomicLong();
+    private ListingStats listingStats;
 
     public HiveDataFragmenter() {
-        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class));
+        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class),
+                SpringContext.getNullableBean(HiveMetadataCache.class));
     }
 
     HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper) {
+        this(hiveUtilities, hiveClientWrapper, null);
+    }
+
+    HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper, HiveMetadataCache metadataCache) {
         this.hiveClientWrapper = hiveClientWrapper;
         this.hiveUtilities = hiveUtilities;
+        this.metadataCache = metadataCache;
     }
 
     /**
@@ -119,19 +168,37 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     public List<Fragment> getFragments() throws Exception {
         Metadata.Item tblDesc = hiveClientWrapper.extractTableFromName(context.getDataSource());
 
+        long startTime = System.nanoTime();
         try (HiveClientWrapper.MetaStoreClientHolder clientHolder = hiveClientWrapper.initHiveClient(context, configuration)) {
             fetchTableMetaData(tblDesc, clientHolder.getClient());
         }
+        listingStats = new ListingStats(listedFileCount.get(), Duration.ofNanos(System.nanoTime() - startTime), phaseDurations);
         return fragments;
     }
 
+    @Override
+    public ListingStats getListingStats() {
+        return listingStats;
+    }
+
+    /**
+     * The data source of a Hive table is not a path, the fragments of the table are not cached.
+     *
+     * @return null
+     */
+    @Override
+    public String getFingerprint() {
+        return null;
+    }
+
     /*
      * Goes over the table partitions metadata and extracts the splits and the
      * InputFormat and Serde per split.
      */
     private void fetchTableMetaData(Metadata.Item tblDesc, IMetaStoreClient client) throws Exception {
 
-        Table tbl = hiveClientWrapper.getHiveTable(client, tblDesc);
+        long phaseStartTime = System.nanoTime();
+        Table tbl = getHiveTable(client, tblDesc);
 
         Metadata metadata = new Metadata(tblDesc);
         hiveClientWrapper.getSchema(tbl, metadata);
@@ -183,8 +250,11 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table, that matches the partition filters
             // Defined in filterStringForHive.
-            partitions = client.listPartitionsByFilter(tblDesc.getPath(),
-                    tblDesc.getName(), filterStringForHive, ALL_PARTS);
+            String filter = filterStringForHive;
+            phaseStartTime = endPhase("table", phaseStartTime);
+            partitions = getPartitions(tbl, filter, () -> client.listPartitionsByFilter(tblDesc.getPath(),
+                    tblDesc.getName(), filter, ALL_PARTS));
+            phaseStartTime = endPhase("partitions", phaseStartTime);
 
             // No matched partitions for the filter, no fragments to return.
             if (partitions == null || partitions.isEmpty()) {
@@ -200,29 +270,157 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         } else {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table (no filtering)
-            partitions = client.listPartitions(tblDesc.getPath(),
-                    tblDesc.getName(), ALL_PARTS);
+            phaseStartTime = endPhase("table", phaseStartTime);
+            partitions = tbl.getPartitionKeysSize() == 0 ? Collections.emptyList() :
+                    getPartitions(tbl, "", () -> listPartitions(client, tblDesc));
+            phaseStartTime = endPhase("partitions", phaseStartTime);
         }
 
         StorageDescriptor descTable = tbl.getSd();
-        Properties props;
+        JobConf jobConf = getJobConf();
 
         if (partitions.isEmpty()) {
-            props = getSchema(tbl);
-            fetchMetaDataForSimpleTable(descTable, props, hasComplexTypes);
+            Properties props = getSchema(tbl);
+            fragments.addAll(fetchMetaData(new HiveTablePartition(descTable, props, null, null, null),
+                    hasComplexTypes, jobConf));
         } else {
-            List<FieldSchema> partitionKeys = tbl.getPartitionKeys();
-
-            for (Partition partition : partitions) {
-                StorageDescriptor descPartition = partition.getSd();
-                props = MetaStoreUtils.getSchema(descPartition, descTable,
-                        null,
-                        tblDesc.getPath(), tblDesc.getName(),
-                        partitionKeys);
-                fetchMetaDataForPartitionedTable(descPartition, props, partition,
-                        partitionKeys, tblDesc.getName(), hasComplexTypes);
+            int parallelism = jobConf.getInt(PXF_LISTING_PARALLELISM, DEFAULT_LISTING_PARALLELISM);
+            if (parallelism > 1 && partitions.size() > 1) {
+                fetchMetaDataInParallel(tblDesc, tbl, partitions, hasComplexTypes, parallelism);
+            } else {
+                for (Partition partition : partitions) {
+                    fragments.addAll(fetchMetaData(getTablePartition(tblDesc, tbl, partition), hasComplexTypes, jobConf));
+                }
             }
         }
+        endPhase("splits", phaseStartTime);
+    }
+
+    /**
+     * Lists all the partitions of the table. When the `pxf.hive.partition.batch-size` property is positive,
+     * the names of the partitions are listed first, and the partitions are then fetched in batches of the
+     * given number of names, so that a table with many partitions is not returned in a single Metastore
+     * response.
+     *
+     * @param client  the Metastore client
+     * @param tblDesc the database and table name
+     * @return the partitions of the table
+     * @throws TException if the partitions could not be listed
+     */
+    List<Partition> listPartitions(IMetaStoreClient client, Metadata.Item tblDesc) throws TException {
+        int batchSize = getJobConf().getInt(PXF_HIVE_PARTITION_BATCH_SIZE, DEFAULT_PARTITION_BATCH_SIZE);
+        if (batchSize <= 0) {
+            return client.listPartitions(tblDesc.getPath(), tblDesc.getName(), ALL_PARTS);
+        }
+
+        List<String> partitionNames = client.listPartitionNames(tblDesc.getPath(), tblDesc.getName(), ALL_PARTS);
+        List<Partition> partitions = new ArrayList<>(partitionNames.size());
+        for (int start = 0; start < partitionNames.size(); start += batchSize) {
+            List<String> batch = partitionNames.subList(start, Math.min(start + batchSize, partitionNames.size()));
+            partitions.addAll(client.getPartitionsByNames(tblDesc.getPath(), tblDesc.getName(), batch));
+        }
+        LOG.debug("Table - {}.{} fetched {} partitions in batches of {}",
+                tblDesc.getPath(), tblDesc.getName(), partitions.size(), batchSize);
+        return partitions;
+    }
+
+    /*
+     * Computes the splits of the partitions on a bounded pool of threads. At most twice as many partitions
+     * as threads are pending at any time, and the fragments of the partitions are added in the order of the
+     * partitions as soon as they are computed.
+     */
+    private void fetchMetaDataInParallel(Metadata.Item tblDesc, Table tbl, List<Partition> partitions,
+                                         boolean hasComplexTypes, int parallelism) throws Exception {
+        JobConf jobConf = getJobConf();
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, partitions.size()), newThreadFactory());
+        try {
+            Deque<Future<List<Fragment>>> pending = new ArrayDeque<>();
+            Iterator<Partition> iterator = partitions.iterator();
+            while (iterator.hasNext() || !pending.isEmpty()) {
+                while (iterator.hasNext() && pending.size() < 2 * parallelism) {
+                    Partition partition = iterator.next();
+                    pending.addLast(executor.submit(() -> {
+                        if (mdcContext != null) {
+                            MDC.setContextMap(mdcContext);
+                        }
+                        try {
+                            // every partition sets its own input paths, the job configuration is not shared
+                            return ugi.doAs((PrivilegedExceptionAction<List<Fragment>>) () ->
+                                    fetchMetaData(getTablePartition(tblDesc, tbl, partition), hasComplexTypes, new JobConf(jobConf)));
+                        } finally {
+                            MDC.clear();
+                        }
+                    }));
+                }
+                fragments.addAll(pending.pollFirst().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing the splits of " + tblDesc);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HiveTablePartition getTablePartition(Metadata.Item tblDesc, Table tbl, Partition partition) {
+        StorageDescriptor descPartition = partition.getSd();
+        Properties props = MetaStoreUtils.getSchema(descPartition, tbl.getSd(),
+                null,
+                tblDesc.getPath(), tblDesc.getName(),
+                tbl.getPartitionKeys());
+        return new HiveTablePartition(descPartition, props, partition, tbl.getPartitionKeys(), tblDesc.getName());
+    }
+
+    /*
+     * Records the time spent in a phase of the fragmentation since the given start time,
+     * and returns the start time of the next phase.
+     */
+    private long endPhase(String phase, long phaseStartTime) {
+        long now = System.nanoTime();
+        phaseDurations.put(phase, Duration.ofNanos(now - phaseStartTime));
+        return now;
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        String prefix = Thread.currentThread().getName() + "-hive-splits-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns the table from the {@link HiveMetadataCache}, or from the Metastore if there is no cache.
+     */
+    private Table getHiveTable(IMetaStoreClient client, Metadata.Item tblDesc) throws Exception {
+        if (metadataCache == null) {
+            return hiveClientWrapper.getHiveTable(client, tblDesc);
+        }
+        return metadataCache.getTable(context.getServerName(), context.getUser(), tblDesc,
+                () -> hiveClientWrapper.getHiveTable(client, tblDesc));
+    }
+
+    /**
+     * Returns the partitions of the table that match the filter from the {@link HiveMetadataCache},
+     * or from the Metastore if there is no cache.
+     */
+    private List<Partition> getPartitions(Table tbl, String filter, Callable<List<Partition>> loader) throws Exception {
+        if (metadataCache == null) {
+            return loader.call();
+        }
+        return metadataCache.getPartitions(context.getServerName(), context.getUser(), tbl, filter, loader);
     }
 
     /**
@@ -256,36 +454,9 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
                 table.getPartitionKeys());
     }
 
-    private void fetchMetaDataForSimpleTable(StorageDescriptor stdsc,
-                                             Properties props,
-                                             boolean hasComplexTypes) throws Exception {
-        fetchMetaDataForSimpleTable(stdsc, props, null, hasComplexTypes);
-    }
-
-    private void fetchMetaDataForSimpleTable(StorageDescriptor stdsc,
-                                             Properties props,
-                                             String tableName,
-                                             boolean hasComplexTypes)
-            throws Exception {
-        fetchMetaData(new HiveTablePartition(stdsc, props, null, null,
-                tableName), hasComplexTypes);
-    }
-
-    private void fetchMetaDataForPartitionedTable(StorageDescriptor stdsc,
-                                                  Properties props,
-                                                  Partition partition,
-                                                  List<FieldSchema> partitionKeys,
-                                                  String tableName,
-                                                  boolean hasComplexTypes)
+    /* Returns the fragments of a table partition */
+    private List<Fragment> fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes, JobConf jobConf)
             throws Exception {
-        fetchMetaData(new HiveTablePartition(stdsc, props, partition, partitionKeys, tableName),
-                hasComplexTypes);
-    }
-
-    /* Fills a table partition */
-    private void fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes)
-            throws Exception {
-        JobConf jobConf = getJobConf();
         InputFormat<?, ?> fformat = hiveUtilities.makeInputFormat(tablePartition.storageDesc.getInputFormat(), jobConf);
         String profile = null;
         String userProfile = context.getProfile();
@@ -309,22 +480,37 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             splits = fformat.getSplits(jobConf, 1);
         } catch (org.apache.hadoop.mapred.InvalidInputException e) {
             LOG.debug("getSplits failed on {}", e.getMessage());
-            return;
+            return Collections.emptyList();
         }
 
-        // the same properties object will be reused by all fragments (splits) for a given partition
-        // or the whole table if it is not partitioned. This is to avoid excessive memory consumption
-        // when there are a lot of splits (files) backing up the Hive table (partition).
-        // Care must be taken by fragment processors to not modify this object or make a clone of it, if needed.
+        // the same descriptor will be reused by all fragments (splits) of the partitions with the same
+        // properties, or of the whole table if it is not partitioned. This is to avoid excessive memory
+        // consumption when there are a lot of splits (files) backing up the Hive table (partition).
+        // Care must be taken by fragment processors to not modify its properties or make a clone of them, if needed.
         Properties properties = hiveClientWrapper.buildFragmentProperties(fragmenterForProfile, tablePartition);
+        HiveTableDescriptor descriptor = descriptors.computeIfAbsent(properties, HiveTableDescriptor::new);
+        String partitionValues = tablePartition.partition != null
+                ? String.join(HIVE_PARTITIONS_DELIM, tablePartition.partition.getValues())
+                : null;
+        List<Fragment> partitionFragments = new ArrayList<>(splits.length);
+        Set<Path> files = new HashSet<>();
+        Path path = null;
+        String filepath = null;
         for (InputSplit split : splits) {
             FileSplit fileSplit = (FileSplit) split;
-            String filepath = fileSplit.getPath().toString();
+            // the splits of a file are consecutive, they share the path string
+            if (!fileSplit.getPath().equals(path)) {
+                path = fileSplit.getPath();
+                filepath = path.toString();
+                files.add(path);
+            }
 
-            HiveFragmentMetadata metadata = new HiveFragmentMetadata(fileSplit, properties);
+            HiveFragmentMetadata metadata = new HiveFragmentMetadata(fileSplit, descriptor, partitionValues);
             Fragment fragment = new Fragment(filepath, metadata, profile);
-            fragments.add(fragment);
+            partitionFragments.add(fragment);
         }
+        listedFileCount.addAndGet(files.size());
+        return partitionFragments;
     }
 
     /**
@@ -335,7 +521,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         Metadata.Item tblDesc = hiveClientWrapper.extractTableFromName(context.getDataSource());
         Table tbl;
         try (HiveClientWrapper.MetaStoreClientHolder holder = hiveClientWrapper.initHiveClient(context, configuration)) {
-            tbl = hiveClientWrapper.getHiveTable(holder.getClient(), tblDesc);
+            tbl = getHiveTable(holder.getClient(), tblDesc);
         }
         Metadata metadata = new Metadata(tblDesc);
         hiveClientWrapper.getSchema(tbl, metadata);
@@ -8,22 +8,44 @@ import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
 import java.util.Properties;
 
 /**
- * Fragment Metadata for Hive
+ * Fragment Metadata for Hive. The properties of the table are kept in a
+ * {@link HiveTableDescriptor} shared with the other fragments of the table,
+ * a fragment only has its split range and the values of its partition keys.
  */
 @Getter
 @NoArgsConstructor
 public class HiveFragmentMetadata extends HcfsFragmentMetadata {
     /**
-     * Properties needed for SerDe initialization
+     * The properties shared with the other fragments of the table
      */
-    private Properties properties;
+    private HiveTableDescriptor descriptor;
+
+    /**
+     * The values of the partition keys of the fragment delimited by
+     * {@link HiveDataFragmenter#HIVE_PARTITIONS_DELIM}, null when the table is not partitioned
+     */
+    private String partitionValues;
 
     /**
      * Default constructor for JSON serialization
      */
     public HiveFragmentMetadata(long start, long length, Properties properties) {
+        this(start, length, new HiveTableDescriptor(properties), null);
+    }
+
+    /**
+     * Constructs a {@link HiveFragmentMetadata} object with the given split
+     * range, the shared {@code descriptor} and the values of the partition keys.
+     *
+     * @param start           the start of the split
+     * @param length          the length of the split
+     * @param descriptor      the descriptor shared by the fragments of the table
+     * @param partitionValues the values of the partition keys, or null
+     */
+    public HiveFragmentMetadata(long start, long length, HiveTableDescriptor descriptor, String partitionValues) {
         super(start, length);
-        this.properties = properties;
+        this.descriptor = descriptor;
+        this.partitionValues = partitionValues;
     }
 
     /**
@@ -34,7 +56,29 @@ public class HiveFragmentMetadata extends HcfsFragmentMetadata {
      * @param properties the properties
      */
     public HiveFragmentMetadata(FileSplit fileSplit, Properties properties) {
-        super(fileSplit);
-        this.properties = properties;
+        this(fileSplit, new HiveTableDescriptor(properties), null);
+    }
+
+    /**
+     * Constructs a {@link HiveFragmentMetadata} object with the given
+     * {@code fileSplit}, the shared {@code descriptor} and the values of the
+     * partition keys.
+     *
+     * @param fileSplit       the {@link FileSplit} object.
+     * @param descriptor      the descriptor shared by the fragments of the table
+     * @param partitionValues the values of the partition keys, or null
+     */
+    public HiveFragmentMetadata(FileSplit fileSplit, HiveTableDescriptor descriptor, String partitionValues) {
+        this(fileSplit.getStart(), fileSplit.getLength(), descriptor, partitionValues);
+    }
+
+    /**
+     * Returns the properties needed for SerDe initialization, which are shared
+     * with the other fragments of the table and must not be modified
+     *
+     * @return the properties
+     */
+    public Properties getProperties() {
+        return descriptor.getProperties();
     }
 }
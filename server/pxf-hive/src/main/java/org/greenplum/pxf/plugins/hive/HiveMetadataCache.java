@@ -0,0 +1,240 @@
+package org.greenplum.pxf.plugins.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.greenplum.pxf.api.model.Metadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of Hive {@link Table} objects and of their partition lists, keyed by server, user, database and table,
+ * and by the partition filter for the partition lists.
+ * <p>
+ * Tables are fetched from the Metastore again once they are older than the TTL. A cached partition list is only
+ * used while the {@code transient_lastDdlTime} of the table it was listed for is the one of the current table, so
+ * that partition lists are refreshed as soon as a DDL change of the table is seen. Partitions added without a DDL
+ * change of the table are seen once the partition list is older than the TTL. The metadata of a server is
+ * invalidated when its profile is reloaded.
+ * <p>
+ * The cached objects are shared by concurrent requests and must not be modified.
+ */
+@Component
+public class HiveMetadataCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveMetadataCache.class);
+
+    static final String DDL_TIME_PARAMETER = "transient_lastDdlTime";
+
+    private final Cache<TableKey, Table> tables;
+    private final Cache<PartitionsKey, CachedPartitions> partitions;
+    private final Counter tableHits;
+    private final Counter tableMisses;
+    private final Counter partitionHits;
+    private final Counter partitionMisses;
+
+    public HiveMetadataCache(PxfHiveProperties properties) {
+        this(properties.getMetadataCache().getTtl(),
+                properties.getMetadataCache().getSize(),
+                Metrics.globalRegistry);
+    }
+
+    HiveMetadataCache(Duration ttl, long size, MeterRegistry registry) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            this.tables = null;
+            this.partitions = null;
+        } else {
+            this.tables = CacheBuilder.newBuilder()
+                    .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                    .maximumSize(size)
+                    .build();
+            this.partitions = CacheBuilder.newBuilder()
+                    .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                    .maximumSize(size)
+                    .build();
+        }
+        this.tableHits = counter(registry, "table", "hit");
+        this.tableMisses = counter(registry, "table", "miss");
+        this.partitionHits = counter(registry, "partitions", "hit");
+        this.partitionMisses = counter(registry, "partitions", "miss");
+    }
+
+    /**
+     * Returns the cached table, or loads it with the given loader.
+     *
+     * @param serverName the name of the server
+     * @param userName   the name of the user
+     * @param item       the database and table name
+     * @param loader     fetches the table from the Metastore
+     * @return the table
+     * @throws Exception if the table could not be loaded
+     */
+    public Table getTable(String serverName, String userName, Metadata.Item item, Callable<Table> loader) throws Exception {
+        if (tables == null) {
+            return loader.call();
+        }
+
+        TableKey key = new TableKey(serverName, userName, item.getPath(), item.getName());
+        boolean[] loaded = new boolean[1];
+        Table table = get(tables, key, () -> {
+            loaded[0] = true;
+            LOG.debug("Fetching Hive table {}.{} of server {}", key.dbName, key.tableName, serverName);
+            return loader.call();
+        });
+        (loaded[0] ? tableMisses : tableHits).increment();
+        return table;
+    }
+
+    /**
+     * Returns the cached partitions of the table that match the given filter, or loads them with the given loader.
+     * The cached partitions are only returned if they were listed for the same DDL time as the given table.
+     *
+     * @param serverName the name of the server
+     * @param userName   the name of the user
+     * @param table      the current table
+     * @param filter     the partition filter, or an empty string for all the partitions
+     * @param loader     lists the partitions in the Metastore
+     * @return the partitions of the table that match the filter
+     * @throws Exception if the partitions could not be loaded
+     */
+    public List<Partition> getPartitions(String serverName, String userName, Table table, String filter,
+                                         Callable<List<Partition>> loader) throws Exception {
+        if (partitions == null) {
+            return loader.call();
+        }
+
+        PartitionsKey key = new PartitionsKey(
+                new TableKey(serverName, userName, table.getDbName(), table.getTableName()), filter);
+        String ddlTime = getDdlTime(table);
+        CachedPartitions cached = partitions.getIfPresent(key);
+        if (cached != null && Objects.equals(cached.ddlTime, ddlTime)) {
+            partitionHits.increment();
+            return cached.partitions;
+        }
+
+        partitionMisses.increment();
+        LOG.debug("Listing partitions of Hive table {}.{} of server {} for filter '{}'",
+                key.table.dbName, key.table.tableName, serverName, filter);
+        List<Partition> tablePartitions = loader.call();
+        tablePartitions = tablePartitions == null ? Collections.emptyList() : Collections.unmodifiableList(tablePartitions);
+        partitions.put(key, new CachedPartitions(ddlTime, tablePartitions));
+        return tablePartitions;
+    }
+
+    /**
+     * Invalidates the cached metadata of the given server, or of all the servers if the server is null.
+     *
+     * @param serverName the name of the server, or null for all the servers
+     */
+    public void invalidate(String serverName) {
+        if (tables == null) {
+            return;
+        }
+        if (serverName == null) {
+            tables.invalidateAll();
+            partitions.invalidateAll();
+        } else {
+            tables.asMap().keySet().removeIf(key -> serverName.equals(key.serverName));
+            partitions.asMap().keySet().removeIf(key -> serverName.equals(key.table.serverName));
+        }
+    }
+
+    private static String getDdlTime(Table table) {
+        return table.getParameters() == null ? null : table.getParameters().get(DDL_TIME_PARAMETER);
+    }
+
+    private static <K, V> V get(Cache<K, V> cache, K key, Callable<V> loader) throws Exception {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (UncheckedExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("pxf.hive.metadata.cache")
+                .description("Number of lookups of Hive metadata in the cache")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static class TableKey {
+        private final String serverName;
+        private final String userName;
+        private final String dbName;
+        private final String tableName;
+
+        TableKey(String serverName, String userName, String dbName, String tableName) {
+            this.serverName = serverName;
+            this.userName = userName;
+            this.dbName = dbName;
+            this.tableName = tableName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TableKey that = (TableKey) o;
+            return Objects.equals(serverName, that.serverName) &&
+                    Objects.equals(userName, that.userName) &&
+                    Objects.equals(dbName, that.dbName) &&
+                    Objects.equals(tableName, that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverName, userName, dbName, tableName);
+        }
+    }
+
+    private static class PartitionsKey {
+        private final TableKey table;
+        private final String filter;
+
+        PartitionsKey(TableKey table, String filter) {
+            this.table = table;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PartitionsKey that = (PartitionsKey) o;
+            return table.equals(that.table) && Objects.equals(filter, that.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, filter);
+        }
+    }
+
+    private static class CachedPartitions {
+        private final String ddlTime;
+        private final List<Partition> partitions;
+
+        CachedPartitions(String ddlTime, List<Partition> partitions) {
+            this.ddlTime = ddlTime;
+            this.partitions = partitions;
+        }
+    }
+}
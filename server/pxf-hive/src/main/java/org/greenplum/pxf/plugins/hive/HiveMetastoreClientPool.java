@@ -0,0 +1,200 @@
+package org.greenplum.pxf.plugins.hive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+
+/**
+ * Pool of Hive Metastore clients, keyed by server and user.
+ * <p>
+ * Opening a Metastore client connects to the Thrift service and, with Kerberos, runs a SASL handshake.
+ * Fragmenters and metadata fetchers borrow a client from this pool instead, and closing the
+ * {@link HiveClientWrapper.MetaStoreClientHolder} returns the client to the pool. At most
+ * {@link PxfHiveProperties.Metastore#getClientPoolSize()} idle clients are kept for each key, clients borrowed
+ * above that are closed when they are returned. Idle clients are closed once they have been idle for longer than
+ * {@link PxfHiveProperties.Metastore#getClientIdleTimeout()}.
+ */
+@Component
+public class HiveMetastoreClientPool implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveMetastoreClientPool.class);
+
+    private final int poolSize;
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+    private final Map<String, Deque<IdleClient>> idleClients = new HashMap<>();
+    private long evictions;
+    private final Counter createdClients;
+    private final Counter reusedClients;
+
+    public HiveMetastoreClientPool(PxfHiveProperties properties) {
+        this(properties.getMetastore().getClientPoolSize(),
+                properties.getMetastore().getClientIdleTimeout().toMillis(),
+                System::currentTimeMillis,
+                Metrics.globalRegistry);
+    }
+
+    HiveMetastoreClientPool(int poolSize, long idleTimeoutMillis, LongSupplier clock, MeterRegistry registry) {
+        this.poolSize = poolSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+        this.createdClients = Counter.builder("pxf.hive.metastore.clients")
+                .description("Number of Hive Metastore clients opened or reused from the pool")
+                .tag("result", "created")
+                .register(registry);
+        this.reusedClients = Counter.builder("pxf.hive.metastore.clients")
+                .description("Number of Hive Metastore clients opened or reused from the pool")
+                .tag("result", "reused")
+                .register(registry);
+        Gauge.builder("pxf.hive.metastore.clients.idle", this, HiveMetastoreClientPool::getIdleCount)
+                .description("Number of idle Hive Metastore clients kept in the pool")
+                .register(registry);
+    }
+
+    /**
+     * Borrows an idle client of the given server and user, or opens a new one with the given creator.
+     * The returned holder must be closed to return the client to the pool.
+     *
+     * @param serverName the name of the server
+     * @param userName   the name of the user
+     * @param creator    opens a new client, called outside of any lock
+     * @return the holder of the borrowed client
+     * @throws Exception if a new client could not be opened
+     */
+    public HiveClientWrapper.MetaStoreClientHolder borrow(String serverName, String userName,
+                                                          Callable<IMetaStoreClient> creator) throws Exception {
+        if (poolSize <= 0) {
+            return new HiveClientWrapper.MetaStoreClientHolder(creator.call());
+        }
+
+        String key = getKey(serverName, userName);
+        long borrowedAt = getEvictions();
+        IMetaStoreClient client = pollIdleClient(key);
+        if (client != null) {
+            reusedClients.increment();
+        } else {
+            LOG.debug("Opening Hive Metastore client {}", key);
+            client = creator.call();
+            createdClients.increment();
+        }
+        return new HiveClientWrapper.MetaStoreClientHolder(client, c -> release(key, c, borrowedAt));
+    }
+
+    /**
+     * Closes the idle clients of the given server, or of all the servers if the server is null,
+     * so that the next requests open clients with the current configuration of the server.
+     *
+     * @param serverName the name of the server, or null for all the servers
+     */
+    public void evict(String serverName) {
+        List<IMetaStoreClient> evicted = new ArrayList<>();
+        synchronized (this) {
+            evictions++;
+            Iterator<Map.Entry<String, Deque<IdleClient>>> iterator = idleClients.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Deque<IdleClient>> entry = iterator.next();
+                if (serverName == null || entry.getKey().startsWith(serverName + ":")) {
+                    entry.getValue().forEach(idle -> evicted.add(idle.client));
+                    iterator.remove();
+                }
+            }
+        }
+        LOG.debug("Closing {} idle Hive Metastore clients of server {}", evicted.size(), serverName);
+        evicted.forEach(HiveMetastoreClientPool::close);
+    }
+
+    @Override
+    public void destroy() {
+        evict(null);
+    }
+
+    /**
+     * @return the number of idle clients in the pool
+     */
+    synchronized int getIdleCount() {
+        return idleClients.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the most recently used idle client of the key that has not timed out,
+     * closing the idle clients of the key that have timed out.
+     */
+    private IMetaStoreClient pollIdleClient(String key) {
+        List<IMetaStoreClient> expired = new ArrayList<>();
+        IMetaStoreClient client = null;
+        synchronized (this) {
+            Deque<IdleClient> clients = idleClients.get(key);
+            long now = clock.getAsLong();
+            while (clients != null && !clients.isEmpty()) {
+                IdleClient idle = clients.pollFirst();
+                if (now - idle.releasedAt < idleTimeoutMillis) {
+                    client = idle.client;
+                    break;
+                }
+                expired.add(idle.client);
+            }
+        }
+        if (!expired.isEmpty()) {
+            LOG.debug("Closing {} Hive Metastore clients {} idle for longer than {} ms", expired.size(), key, idleTimeoutMillis);
+            expired.forEach(HiveMetastoreClientPool::close);
+        }
+        return client;
+    }
+
+    /**
+     * Returns the client to the pool of the key, or closes it if the pool is full or
+     * clients were evicted while it was borrowed, as it may use a stale configuration.
+     */
+    private void release(String key, IMetaStoreClient client, long borrowedAt) {
+        synchronized (this) {
+            Deque<IdleClient> clients = idleClients.computeIfAbsent(key, k -> new ArrayDeque<>());
+            if (evictions == borrowedAt && clients.size() < poolSize) {
+                clients.addFirst(new IdleClient(client, clock.getAsLong()));
+                return;
+            }
+        }
+        close(client);
+    }
+
+    private static void close(IMetaStoreClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOG.warn("Failed to close Hive Metastore client", e);
+        }
+    }
+
+    private static String getKey(String serverName, String userName) {
+        return serverName + ":" + userName;
+    }
+
+    private static class IdleClient {
+        private final IMetaStoreClient client;
+        private final long releasedAt;
+
+        IdleClient(IMetaStoreClient client, long releasedAt) {
+            this.client = client;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
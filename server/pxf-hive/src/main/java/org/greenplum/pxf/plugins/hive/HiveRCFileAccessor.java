@@ -45,16 +45,28 @@ public class HiveRCFileAccessor extends HiveAccessor {
      * Constructs a HiveRCFileAccessor.
      */
     public HiveRCFileAccessor() {
-        super(new RCFileInputFormat<>(),
-                SpringContext.getBean(HiveUtilities.class),
+        this(SpringContext.getBean(HiveUtilities.class),
                 SpringContext.getBean(SerializationService.class));
     }
 
+    HiveRCFileAccessor(HiveUtilities hiveUtilities, SerializationService serializationService) {
+        super(new RCFileInputFormat<>(), hiveUtilities, serializationService);
+    }
+
     @Override
     protected Object getReader(JobConf jobConf, InputSplit split) throws IOException {
         return new RCFileRecordReader<>(jobConf, (FileSplit) split);
     }
 
+    /**
+     * The {@link org.apache.hadoop.hive.serde2.columnar.BytesRefArrayWritable} of a record references
+     * the column buffers of the reader, which are overwritten when the next row group is loaded.
+     */
+    @Override
+    protected boolean isReadAheadSupported() {
+        return false;
+    }
+
     @Override
     protected EnumSet<Operator> getSupportedOperatorsForPushdown() {
         return ORC_SUPPORTED_OPERATORS; // RC same as ORC
@@ -105,7 +105,7 @@ public class HiveResolver extends BasePlugin implements Resolver {
 
     @Getter
     private int numberOfPartitions;
-    private Map<String, OneField> partitionColumnNames;
+    protected Map<String, OneField> partitionColumnNames;
     private String hiveDefaultPartName;
 
     public HiveResolver() {
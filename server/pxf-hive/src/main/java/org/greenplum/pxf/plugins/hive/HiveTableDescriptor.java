@@ -0,0 +1,64 @@
+package org.greenplum.pxf.plugins.hive;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.apache.hadoop.hive.serde.serdeConstants;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMNS;
+
+/**
+ * The properties shared by the fragments of a Hive table, or of the partitions of a table that
+ * have the same storage and schema. The fragmenter creates one descriptor for all of them, so a
+ * query with many splits keeps the SerDe and schema properties once, and every fragment only
+ * references them. Values that the accessors derive from the properties are computed once per
+ * descriptor.
+ * <p>
+ * The properties are shared, they must not be modified, make a copy of them instead.
+ */
+@NoArgsConstructor
+public class HiveTableDescriptor {
+
+    /**
+     * Properties needed for SerDe initialization
+     */
+    @Getter
+    private Properties properties;
+
+    /**
+     * Index of each Hive column by name, computed on first use
+     */
+    private transient volatile Map<String, Integer> columnIndexes;
+
+    public HiveTableDescriptor(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the index of each column of the Hive table by its name
+     *
+     * @return the map of column names to column indexes
+     */
+    public Map<String, Integer> getColumnIndexes() {
+        Map<String, Integer> indexes = columnIndexes;
+        if (indexes == null) {
+            String delimiter = properties.getProperty(serdeConstants.COLUMN_NAME_DELIMITER, ",");
+            String columns = Objects.requireNonNull(properties.getProperty(META_TABLE_COLUMNS), "The \"columns\" property cannot be null");
+            List<String> hiveColumns = Arrays.asList(columns.trim().split(delimiter));
+
+            indexes = Collections.unmodifiableMap(IntStream.range(0, hiveColumns.size())
+                    .boxed()
+                    .collect(Collectors.toMap(hiveColumns::get, i -> i)));
+            columnIndexes = indexes;
+        }
+        return indexes;
+    }
+}
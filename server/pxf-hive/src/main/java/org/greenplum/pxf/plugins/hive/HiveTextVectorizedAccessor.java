@@ -0,0 +1,58 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneRow;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Specialization of {@link HiveLineBreakAccessor} that reads the lines of a Hive table stored as Text files
+ * in batches of up to {@code pxf.hive.text.read.batch.size} lines. The data of a batch is a list of the
+ * lines, which are reused between reads, so a batch must be resolved before the next one is read.
+ * Use together with {@link HiveInputFormatFragmenter}/{@link HiveTextVectorizedResolver}.
+ */
+public class HiveTextVectorizedAccessor extends HiveLineBreakAccessor {
+
+    public static final String READ_BATCH_SIZE_PROPERTY = "pxf.hive.text.read.batch.size";
+    public static final int DEFAULT_READ_BATCH_SIZE = 1024;
+
+    private Text[] lines;
+    private int batchIndex;
+
+    @Override
+    public boolean openForRead() throws Exception {
+        int batchSize = configuration.getInt(READ_BATCH_SIZE_PROPERTY, DEFAULT_READ_BATCH_SIZE);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Property %s has invalid value %d, it must be greater than 0", READ_BATCH_SIZE_PROPERTY, batchSize));
+        }
+        lines = new Text[batchSize];
+        return super.openForRead();
+    }
+
+    /**
+     * Reads the next batch of lines of the split, skipping the header lines of the first fragment.
+     *
+     * @return the next batch in OneRow format, the key is the batch number, and data is the list of lines
+     * @throws IOException if unable to read
+     */
+    @Override
+    public OneRow readNextObject() throws IOException {
+        int size = 0;
+        OneRow row;
+        while (size < lines.length && (row = super.readNextObject()) != null) {
+            if (lines[size] == null) {
+                lines[size] = new Text();
+            }
+            // the record reader reuses its value, copy the line into the batch
+            lines[size++].set((Text) row.getData());
+        }
+        if (size == 0) {
+            return null;
+        }
+        batchIndex++;
+        return new OneRow(new LongWritable(batchIndex), Arrays.asList(lines).subList(0, size));
+    }
+}
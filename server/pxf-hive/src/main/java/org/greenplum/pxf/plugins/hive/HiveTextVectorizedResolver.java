@@ -0,0 +1,448 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.hive.common.type.HiveChar;
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.common.type.HiveVarchar;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.lazy.LazyByte;
+import org.apache.hadoop.hive.serde2.lazy.LazyInteger;
+import org.apache.hadoop.hive.serde2.lazy.LazyLong;
+import org.apache.hadoop.hive.serde2.lazy.LazyShort;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.hive.serde2.lazy.LazyUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.BaseCharTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.DecimalTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.SpringContext;
+import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Resolves the batches of lines read by the {@link HiveTextVectorizedAccessor} from Hive tables serialized with
+ * the {@link LazySimpleSerDe}, without deserializing the lines into Hive objects.
+ * <p>
+ * The lines of a batch are first split into the byte ranges of the fields that are read, honoring the field
+ * delimiter, the escape character and the null sequence of the table, and the fields are then converted one
+ * column at a time, with the same semantics as the lazy objects of the SerDe. Values that cannot be parsed
+ * are returned as nulls, like the SerDe does.
+ * <p>
+ * Tables with a different SerDe, with custom timestamp formats or encodings, or with projected columns of
+ * complex types are resolved one line at a time by the {@link HiveResolver}.
+ */
+public class HiveTextVectorizedResolver extends HiveResolver implements ReadVectorizedResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveTextVectorizedResolver.class);
+
+    private static final int MISSING = -1;
+
+    private boolean vectorized;
+    private byte separator;
+    private boolean escaped;
+    private byte escapeChar;
+    private boolean escapeCrlf;
+    private byte[] nullSequence;
+
+    // the fields of a row that are read, in the order of the Hive schema
+    private int[] fieldSlots;
+    private int lastField;
+    // per Greengage column, either a field of every row or a parser of the column read from the file
+    private OneField[] constantFields;
+    private int[] columnSlots;
+    private int[] columnTypes;
+    private FieldParser[] columnParsers;
+    // per slot and row, the byte range of the field in the line
+    private int[][] fieldStarts;
+    private int[][] fieldLengths;
+
+    public HiveTextVectorizedResolver() {
+        this(SpringContext.getBean(HiveUtilities.class));
+    }
+
+    HiveTextVectorizedResolver(HiveUtilities hiveUtilities) {
+        super(hiveUtilities);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        Properties properties = metadata.getProperties();
+        vectorized = isVectorizable(properties);
+        if (!vectorized) {
+            return;
+        }
+
+        separator = LazyUtils.getByte(properties.getProperty(serdeConstants.FIELD_DELIM,
+                properties.getProperty(serdeConstants.SERIALIZATION_FORMAT)), (byte) 1);
+        String escapeProperty = properties.getProperty(serdeConstants.ESCAPE_CHAR);
+        escaped = escapeProperty != null;
+        escapeChar = LazyUtils.getByte(escapeProperty, (byte) '\\');
+        escapeCrlf = Boolean.parseBoolean(properties.getProperty(serdeConstants.SERIALIZATION_ESCAPE_CRLF));
+        nullSequence = properties.getProperty(serdeConstants.SERIALIZATION_NULL_FORMAT, nullChar)
+                .getBytes(StandardCharsets.UTF_8);
+        initColumns(getColumnTypes(properties));
+    }
+
+    @Override
+    public List<List<OneField>> getFieldsForBatch(OneRow batch) throws Exception {
+        @SuppressWarnings("unchecked")
+        List<Text> lines = (List<Text>) batch.getData();
+        List<List<OneField>> resolvedBatch = new ArrayList<>(lines.size());
+
+        if (!vectorized) {
+            for (Text line : lines) {
+                resolvedBatch.add(getFields(new OneRow(null, line)));
+            }
+            return resolvedBatch;
+        }
+
+        int size = lines.size();
+        ensureCapacity(size);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            splitFields(lines.get(rowIndex), rowIndex);
+        }
+
+        List<OneField> templateRow = Collections.nCopies(columnSlots.length, null);
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            resolvedBatch.add(new ArrayList<>(templateRow));
+        }
+        for (int columnIndex = 0; columnIndex < columnSlots.length; columnIndex++) {
+            if (constantFields[columnIndex] != null) {
+                for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+                    resolvedBatch.get(rowIndex).set(columnIndex, constantFields[columnIndex]);
+                }
+            } else {
+                resolveColumn(columnIndex, lines, resolvedBatch);
+            }
+        }
+        return resolvedBatch;
+    }
+
+    /**
+     * Returns true if the lines of the table can be parsed without the SerDe.
+     */
+    private boolean isVectorizable(Properties properties) {
+        String reason = null;
+        if (!LazySimpleSerDe.class.getName().equals(serdeClassName)) {
+            reason = "SerDe " + serdeClassName;
+        } else if (Boolean.parseBoolean(properties.getProperty(serdeConstants.SERIALIZATION_LAST_COLUMN_TAKES_REST))) {
+            reason = "property " + serdeConstants.SERIALIZATION_LAST_COLUMN_TAKES_REST;
+        } else if (StringUtils.isNotBlank(properties.getProperty(serdeConstants.TIMESTAMP_FORMATS))) {
+            reason = "property " + serdeConstants.TIMESTAMP_FORMATS;
+        } else if (StringUtils.isNotBlank(properties.getProperty(serdeConstants.SERIALIZATION_ENCODING)) &&
+                !StandardCharsets.UTF_8.name().equalsIgnoreCase(properties.getProperty(serdeConstants.SERIALIZATION_ENCODING))) {
+            reason = "encoding " + properties.getProperty(serdeConstants.SERIALIZATION_ENCODING);
+        } else {
+            List<TypeInfo> types = getColumnTypes(properties);
+            List<ColumnDescriptor> tupleDescription = context.getTupleDescription();
+            for (int columnIndex = 0; columnIndex < tupleDescription.size(); columnIndex++) {
+                ColumnDescriptor columnDescriptor = tupleDescription.get(columnIndex);
+                Integer hiveIndex = hiveIndexes.get(columnIndex);
+                if (columnDescriptor.isProjected() && hiveIndex != null && hiveIndex < types.size()
+                        && !isPartitionColumn(columnDescriptor) && getParser(types.get(hiveIndex)) == null) {
+                    reason = "column " + columnDescriptor.columnName() + " of type " + types.get(hiveIndex).getTypeName();
+                    break;
+                }
+            }
+        }
+        if (reason != null) {
+            LOG.debug("Resolving Hive text lines one at a time with the SerDe because of the {}", reason);
+            return false;
+        }
+        return true;
+    }
+
+    private List<TypeInfo> getColumnTypes(Properties properties) {
+        return TypeInfoUtils.getTypeInfosFromTypeString(properties.getProperty(serdeConstants.LIST_COLUMN_TYPES));
+    }
+
+    private boolean isPartitionColumn(ColumnDescriptor columnDescriptor) {
+        return partitionColumnNames.containsKey(StringUtils.lowerCase(columnDescriptor.columnName()));
+    }
+
+    /**
+     * Plans how each Greengage column is resolved, and which fields of the lines are read for it.
+     */
+    private void initColumns(List<TypeInfo> types) {
+        List<ColumnDescriptor> tupleDescription = context.getTupleDescription();
+        int columns = tupleDescription.size();
+        constantFields = new OneField[columns];
+        columnSlots = new int[columns];
+        columnTypes = new int[columns];
+        columnParsers = new FieldParser[columns];
+        fieldSlots = new int[types.size()];
+        Arrays.fill(fieldSlots, MISSING);
+        lastField = MISSING;
+
+        int slots = 0;
+        for (int columnIndex = 0; columnIndex < columns; columnIndex++) {
+            ColumnDescriptor columnDescriptor = tupleDescription.get(columnIndex);
+            Integer hiveIndex = hiveIndexes.get(columnIndex);
+            OneField partitionField = partitionColumnNames.get(StringUtils.lowerCase(columnDescriptor.columnName()));
+            columnSlots[columnIndex] = MISSING;
+
+            if (partitionField != null) {
+                constantFields[columnIndex] = partitionField;
+            } else if (hiveIndex == null || hiveIndex >= types.size()) {
+                // This is a column not present in the file, but defined in greenplum.
+                LOG.warn("Column {} is not present in the source file, but it is defined in the table", columnDescriptor.columnName());
+                constantFields[columnIndex] = new OneField(columnDescriptor.getDataType().getOID(), null);
+            } else if (!columnDescriptor.isProjected()) {
+                // Non-projected fields will be sent as null values.
+                constantFields[columnIndex] = new OneField(getDataType(types.get(hiveIndex)).getOID(), null);
+            } else {
+                if (fieldSlots[hiveIndex] == MISSING) {
+                    fieldSlots[hiveIndex] = slots++;
+                }
+                columnSlots[columnIndex] = fieldSlots[hiveIndex];
+                columnTypes[columnIndex] = getDataType(types.get(hiveIndex)).getOID();
+                columnParsers[columnIndex] = getParser(types.get(hiveIndex));
+                lastField = Math.max(lastField, hiveIndex);
+            }
+        }
+        fieldStarts = new int[slots][0];
+        fieldLengths = new int[slots][0];
+    }
+
+    private void ensureCapacity(int size) {
+        for (int slot = 0; slot < fieldStarts.length; slot++) {
+            if (fieldStarts[slot].length < size) {
+                fieldStarts[slot] = new int[size];
+                fieldLengths[slot] = new int[size];
+            }
+        }
+    }
+
+    /**
+     * Records the byte ranges of the fields of the line that are read, up to the last one.
+     * Like the SerDe, an escaped separator does not end a field, and fields missing at the end
+     * of the line are nulls.
+     */
+    private void splitFields(Text line, int rowIndex) {
+        byte[] bytes = line.getBytes();
+        int end = line.getLength();
+        int field = 0;
+        int fieldStart = 0;
+        for (int i = 0; i <= end && field <= lastField; i++) {
+            if (i == end || bytes[i] == separator) {
+                int slot = fieldSlots[field];
+                if (slot != MISSING) {
+                    fieldStarts[slot][rowIndex] = fieldStart;
+                    fieldLengths[slot][rowIndex] = i - fieldStart;
+                }
+                field++;
+                fieldStart = i + 1;
+            } else if (escaped && bytes[i] == escapeChar && i + 1 < end) {
+                i++;
+            }
+        }
+        for (; field <= lastField; field++) {
+            int slot = fieldSlots[field];
+            if (slot != MISSING) {
+                fieldLengths[slot][rowIndex] = MISSING;
+            }
+        }
+    }
+
+    private void resolveColumn(int columnIndex, List<Text> lines, List<List<OneField>> resolvedBatch) {
+        int slot = columnSlots[columnIndex];
+        int type = columnTypes[columnIndex];
+        FieldParser parser = columnParsers[columnIndex];
+        int[] starts = fieldStarts[slot];
+        int[] lengths = fieldLengths[slot];
+        for (int rowIndex = 0; rowIndex < resolvedBatch.size(); rowIndex++) {
+            byte[] bytes = lines.get(rowIndex).getBytes();
+            Object value = null;
+            if (!isNull(bytes, starts[rowIndex], lengths[rowIndex])) {
+                try {
+                    value = parser.parse(bytes, starts[rowIndex], lengths[rowIndex]);
+                } catch (IllegalArgumentException e) {
+                    // the SerDe returns nulls for values it cannot parse
+                    value = null;
+                }
+            }
+            resolvedBatch.get(rowIndex).set(columnIndex, new OneField(type, value));
+        }
+    }
+
+    private boolean isNull(byte[] bytes, int start, int length) {
+        if (length == MISSING) {
+            return true;
+        }
+        if (length != nullSequence.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[start + i] != nullSequence[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the parser of a field of the given type, or null if the type is not supported.
+     */
+    private FieldParser getParser(TypeInfo typeInfo) {
+        if (typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            return null;
+        }
+        switch (((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory()) {
+            case BOOLEAN:
+                return HiveTextVectorizedResolver::parseBoolean;
+            case BYTE:
+                return (bytes, start, length) -> (short) LazyByte.parseByte(bytes, start, length);
+            case SHORT:
+                return LazyShort::parseShort;
+            case INT:
+                return LazyInteger::parseInt;
+            case LONG:
+                return LazyLong::parseLong;
+            case FLOAT:
+                return (bytes, start, length) -> Float.parseFloat(decode(bytes, start, length));
+            case DOUBLE:
+                return (bytes, start, length) -> Double.parseDouble(decode(bytes, start, length));
+            case DECIMAL: {
+                DecimalTypeInfo decimalTypeInfo = (DecimalTypeInfo) typeInfo;
+                return (bytes, start, length) -> {
+                    HiveDecimal decimal = HiveDecimal.create(decode(bytes, start, length));
+                    if (decimal != null) {
+                        decimal = HiveDecimal.enforcePrecisionScale(decimal, decimalTypeInfo.precision(), decimalTypeInfo.scale());
+                    }
+                    return decimal == null ? null : decimal.bigDecimalValue().toString();
+                };
+            }
+            case STRING:
+                return this::parseString;
+            case VARCHAR: {
+                int maxLength = ((BaseCharTypeInfo) typeInfo).getLength();
+                return (bytes, start, length) -> new HiveVarchar(parseString(bytes, start, length), maxLength).getValue();
+            }
+            case CHAR: {
+                int maxLength = ((BaseCharTypeInfo) typeInfo).getLength();
+                return (bytes, start, length) -> new HiveChar(parseString(bytes, start, length), maxLength).toString();
+            }
+            case BINARY:
+                return HiveTextVectorizedResolver::parseBinary;
+            case DATE:
+                return (bytes, start, length) -> Date.valueOf(decode(bytes, start, length));
+            case TIMESTAMP:
+                return HiveTextVectorizedResolver::parseTimestamp;
+            default:
+                return null;
+        }
+    }
+
+    private DataType getDataType(TypeInfo typeInfo) {
+        if (typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            return DataType.TEXT;
+        }
+        switch (((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory()) {
+            case BOOLEAN:
+                return DataType.BOOLEAN;
+            case BYTE:
+            case SHORT:
+                return DataType.SMALLINT;
+            case INT:
+                return DataType.INTEGER;
+            case LONG:
+                return DataType.BIGINT;
+            case FLOAT:
+                return DataType.REAL;
+            case DOUBLE:
+                return DataType.FLOAT8;
+            case DECIMAL:
+                return DataType.NUMERIC;
+            case VARCHAR:
+                return DataType.VARCHAR;
+            case CHAR:
+                return DataType.BPCHAR;
+            case BINARY:
+                return DataType.BYTEA;
+            case DATE:
+                return DataType.DATE;
+            case TIMESTAMP:
+                return DataType.TIMESTAMP;
+            default:
+                return DataType.TEXT;
+        }
+    }
+
+    /**
+     * Decodes a string field, removing the escape characters if the table is escaped.
+     */
+    private String parseString(byte[] bytes, int start, int length) {
+        if (!escaped) {
+            return decode(bytes, start, length);
+        }
+        byte[] unescaped = new byte[length];
+        int unescapedLength = 0;
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == escapeChar && i + 1 < end) {
+                b = bytes[++i];
+                if (escapeCrlf && b == 'r') {
+                    b = '\r';
+                } else if (escapeCrlf && b == 'n') {
+                    b = '\n';
+                }
+            }
+            unescaped[unescapedLength++] = b;
+        }
+        return decode(unescaped, 0, unescapedLength);
+    }
+
+    private static Boolean parseBoolean(byte[] bytes, int start, int length) {
+        String value = decode(bytes, start, length);
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static byte[] parseBinary(byte[] bytes, int start, int length) {
+        byte[] value = Arrays.copyOfRange(bytes, start, start + length);
+        return Base64.isBase64(value) ? Base64.decodeBase64(value) : value;
+    }
+
+    private static Timestamp parseTimestamp(byte[] bytes, int start, int length) {
+        String value = new String(bytes, start, length, StandardCharsets.US_ASCII);
+        return "NULL".equals(value) ? null : Timestamp.valueOf(value);
+    }
+
+    private static String decode(byte[] bytes, int start, int length) {
+        return new String(bytes, start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the value of a field from its bytes in a line.
+     */
+    @FunctionalInterface
+    private interface FieldParser {
+        Object parse(byte[] bytes, int start, int length);
+    }
+}
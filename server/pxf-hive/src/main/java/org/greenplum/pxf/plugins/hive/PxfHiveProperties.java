@@ -0,0 +1,73 @@
+package org.greenplum.pxf.plugins.hive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+@Configuration
+@ConfigurationProperties(prefix = PxfHiveProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+public class PxfHiveProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "pxf.hive";
+
+    /**
+     * Customizable settings for the pool of Hive Metastore clients
+     */
+    private Metastore metastore = new Metastore();
+
+    /**
+     * Customizable settings for the cache of Hive table and partition metadata
+     */
+    private MetadataCache metadataCache = new MetadataCache();
+
+    @Getter
+    @Setter
+    @Validated
+    public static class Metastore {
+
+        /**
+         * Defines the maximum number of idle Metastore clients kept open for
+         * each server and user. Zero disables the pool, every request then
+         * opens and closes its own client.
+         */
+        private int clientPoolSize = 4;
+
+        /**
+         * Defines the amount of time after which an idle Metastore client is
+         * closed instead of being reused.
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration clientIdleTimeout = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    public static class MetadataCache {
+
+        /**
+         * Defines the amount of time a table and its partition lists are
+         * served from the cache before they are fetched from the Metastore
+         * again. Zero disables the cache.
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration ttl = Duration.ofMinutes(1);
+
+        /**
+         * Defines the maximum number of tables, and separately of partition
+         * lists, that are cached.
+         */
+        private long size = 1000;
+    }
+}
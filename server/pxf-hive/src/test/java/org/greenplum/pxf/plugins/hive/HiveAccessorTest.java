@@ -18,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
@@ -224,6 +225,31 @@ class HiveAccessorTest {
         assertEquals("string:decimal(38,18)", jobConf.get("columns.types"));
     }
 
+    @Test
+    public void testPartitionValuesOfFragmentsSharingDescriptor() {
+        properties.put("columns", "name,dec1");
+        properties.put("columns.types", "string:decimal(38,18)");
+        properties.put(META_TABLE_PARTITION_COLUMNS, "id");
+        properties.put(META_TABLE_PARTITION_COLUMN_TYPES, "int");
+        HiveTableDescriptor descriptor = new HiveTableDescriptor(properties);
+
+        for (String partitionValue : new String[]{"1", "2"}) {
+            context.setFragmentMetadata(new HiveFragmentMetadata(0, 0, descriptor, partitionValue));
+            accessor = new HiveAccessor(null, new HiveUtilities(), serializationService);
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+
+            HiveMetadata metadata = (HiveMetadata) context.getMetadata();
+            assertEquals(1, metadata.getPartitions().size());
+            assertEquals("id", metadata.getPartitions().get(0).getName());
+            assertEquals(partitionValue, metadata.getPartitions().get(0).getValue());
+            assertEquals(partitionValue, metadata.getProperties().getProperty("pxf.pcv"));
+            assertEquals(Arrays.asList(null, 0, 1), metadata.getHiveIndexes());
+        }
+        // the shared properties are not modified
+        assertNull(properties.getProperty("pxf.pcv"));
+    }
+
     // ---------- Predicate Pushdown Setup tests ----------
     @Test
     public void testPPDEnabledNoFilter() throws Exception {
@@ -21,6 +21,7 @@ package org.greenplum.pxf.plugins.hive;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.Partition;
 import org.greenplum.pxf.api.model.Metadata;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
@@ -30,9 +31,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -109,4 +117,37 @@ public class HiveDataFragmenterTest {
         verify(mockHiveClient).close();
     }
 
+    @Test
+    public void listsPartitionsInBatches() throws Exception {
+        configuration.setInt(HiveDataFragmenter.PXF_HIVE_PARTITION_BATCH_SIZE, 2);
+        List<String> names = Arrays.asList("year=2019", "year=2020", "year=2021");
+        Partition p2019 = new Partition();
+        Partition p2020 = new Partition();
+        Partition p2021 = new Partition();
+        when(mockHiveClient.listPartitionNames("default", "sales", (short) -1)).thenReturn(names);
+        when(mockHiveClient.getPartitionsByNames("default", "sales", names.subList(0, 2))).thenReturn(Arrays.asList(p2019, p2020));
+        when(mockHiveClient.getPartitionsByNames("default", "sales", names.subList(2, 3))).thenReturn(Collections.singletonList(p2021));
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        List<Partition> partitions = fragmenter.listPartitions(mockHiveClient, new Metadata.Item("default", "sales"));
+
+        assertEquals(Arrays.asList(p2019, p2020, p2021), partitions);
+        verify(mockHiveClient, never()).listPartitions(anyString(), anyString(), anyShort());
+    }
+
+    @Test
+    public void listsPartitionsAtOnceWithoutBatchSize() throws Exception {
+        configuration.setInt(HiveDataFragmenter.PXF_HIVE_PARTITION_BATCH_SIZE, 0);
+        List<Partition> expected = Collections.singletonList(new Partition());
+        when(mockHiveClient.listPartitions("default", "sales", (short) -1)).thenReturn(expected);
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+
+        assertEquals(expected, fragmenter.listPartitions(mockHiveClient, new Metadata.Item("default", "sales")));
+        verify(mockHiveClient, never()).listPartitionNames(anyString(), anyString(), anyShort());
+    }
 }
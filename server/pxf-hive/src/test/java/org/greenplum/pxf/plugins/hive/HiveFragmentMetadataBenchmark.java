@@ -0,0 +1,168 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_PARTITION_COLUMNS;
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_PARTITION_COLUMN_TYPES;
+import static org.greenplum.pxf.plugins.hive.HiveDataFragmenter.PXF_META_TABLE_PARTITION_COLUMN_VALUES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the fragments of a partitioned Hive table when every partition has its own copy of
+ * the table properties, which include the values of its partition keys, and when the fragments
+ * share a {@link HiveTableDescriptor} and only keep the values of their partition keys. The heap
+ * retained by the fragment list and the time {@link HiveAccessor} takes to initialize for a
+ * fragment are reported. Skipped unless enabled, run it with:
+ * <pre>
+ * ./gradlew :pxf-hive:test --tests '*HiveFragmentMetadataBenchmark' -Dpxf.hive.benchmark=true \
+ *     [-Dpxf.hive.benchmark.partitions=N] [-Dpxf.hive.benchmark.splits=N] [-Dpxf.hive.benchmark.columns=N]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "pxf.hive.benchmark", matches = "true")
+public class HiveFragmentMetadataBenchmark {
+
+    private static final int PARTITIONS = Integer.getInteger("pxf.hive.benchmark.partitions", 1_000);
+    private static final int SPLITS_PER_PARTITION = Integer.getInteger("pxf.hive.benchmark.splits", 100);
+    private static final int COLUMNS = Integer.getInteger("pxf.hive.benchmark.columns", 200);
+    private static final int STARTUP_FRAGMENTS = 10_000;
+    private static final int SPLITS_PER_FILE = 4;
+
+    @Test
+    public void compareFragmentLists() throws Exception {
+        report("per partition properties", this::buildFragmentsWithPartitionProperties);
+        report("shared descriptor", this::buildFragmentsWithSharedDescriptor);
+    }
+
+    /*
+     * The layout of the fragments before the descriptor, the properties of every partition are
+     * a copy of the table properties with the values of its partition keys, and the fragments
+     * of the partition share them
+     */
+    private List<Fragment> buildFragmentsWithPartitionProperties() {
+        List<Fragment> fragments = new ArrayList<>(PARTITIONS * SPLITS_PER_PARTITION);
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            Properties properties = createTableProperties();
+            properties.put(PXF_META_TABLE_PARTITION_COLUMN_VALUES, String.valueOf(partition));
+            for (int split = 0; split < SPLITS_PER_PARTITION; split++) {
+                fragments.add(new Fragment(getPath(partition, split),
+                        new HiveFragmentMetadata(split * 1024L, 1024L, properties)));
+            }
+        }
+        return fragments;
+    }
+
+    /*
+     * The layout of the fragments built by the fragmenter, the fragments share the descriptor,
+     * the values of the partition keys of their partition and the path of their file
+     */
+    private List<Fragment> buildFragmentsWithSharedDescriptor() {
+        HiveTableDescriptor descriptor = new HiveTableDescriptor(createTableProperties());
+        List<Fragment> fragments = new ArrayList<>(PARTITIONS * SPLITS_PER_PARTITION);
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            String partitionValues = String.valueOf(partition);
+            String path = null;
+            for (int split = 0; split < SPLITS_PER_PARTITION; split++) {
+                if (split % SPLITS_PER_FILE == 0) {
+                    path = getPath(partition, split);
+                }
+                fragments.add(new Fragment(path,
+                        new HiveFragmentMetadata(split * 1024L, 1024L, descriptor, partitionValues)));
+            }
+        }
+        return fragments;
+    }
+
+    private void report(String layout, Supplier<List<Fragment>> builder) throws Exception {
+        long heapBefore = usedHeap();
+        List<Fragment> fragments = builder.get();
+        long heapAfter = usedHeap();
+        assertEquals(PARTITIONS * SPLITS_PER_PARTITION, fragments.size());
+
+        int sample = Math.min(STARTUP_FRAGMENTS, fragments.size());
+        initializeAccessors(fragments, sample); // warm up
+        long start = System.nanoTime();
+        initializeAccessors(fragments, sample);
+        long startupNanos = System.nanoTime() - start;
+
+        long retained = heapAfter - heapBefore;
+        System.out.printf("%s: %d fragments retain %d KB (%d bytes per fragment), accessor startup %d us per fragment%n",
+                layout, fragments.size(), retained / 1024, retained / fragments.size(),
+                TimeUnit.NANOSECONDS.toMicros(startupNanos) / sample);
+    }
+
+    private void initializeAccessors(List<Fragment> fragments, int count) {
+        RequestContext context = createContext();
+        for (int i = 0; i < count; i++) {
+            context.setFragmentMetadata(fragments.get(i).getMetadata());
+            HiveAccessor accessor = new HiveAccessor(new TextInputFormat(), null, null);
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+        }
+    }
+
+    private RequestContext createContext() {
+        Configuration configuration = new Configuration();
+        configuration.set("pxf.fs.basePath", "/");
+
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        columnDescriptors.add(new ColumnDescriptor("dt", DataType.INTEGER.getOID(), 0, "int4", null));
+        for (int i = 0; i < COLUMNS; i++) {
+            columnDescriptors.add(new ColumnDescriptor("col" + i, DataType.TEXT.getOID(), i + 1, "text", null));
+        }
+
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource("/warehouse/table");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setConfiguration(configuration);
+        context.setTupleDescription(columnDescriptors);
+        return context;
+    }
+
+    private static Properties createTableProperties() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder types = new StringBuilder();
+        for (int i = 0; i < COLUMNS; i++) {
+            columns.append(i == 0 ? "" : ",").append("col").append(i);
+            types.append(i == 0 ? "" : ":").append("string");
+        }
+        Properties properties = new Properties();
+        properties.put("name", "default.table");
+        properties.put("columns", columns.toString());
+        properties.put("columns.types", types.toString());
+        properties.put("serialization.lib", "org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe");
+        properties.put("serialization.format", "1");
+        properties.put("field.delim", ",");
+        properties.put("file.inputformat", TextInputFormat.class.getName());
+        properties.put(META_TABLE_PARTITION_COLUMNS, "dt");
+        properties.put(META_TABLE_PARTITION_COLUMN_TYPES, "int");
+        return properties;
+    }
+
+    private static String getPath(int partition, int split) {
+        return "hdfs://namenode:8020/warehouse/table/dt=" + partition + "/part-" + (split / SPLITS_PER_FILE);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,6 +29,24 @@ class HiveFragmentMetadataTest {
         assertEquals(5L, metadata.getStart());
         assertEquals(25L, metadata.getLength());
         assertSame(properties, metadata.getProperties());
+        assertNull(metadata.getPartitionValues());
+    }
+
+    @Test
+    public void testFragmentsShareDescriptor() {
+        properties.put("columns", "id,name,amt");
+        HiveTableDescriptor descriptor = new HiveTableDescriptor(properties);
+
+        HiveFragmentMetadata first = new HiveFragmentMetadata(0L, 10L, descriptor, "1");
+        HiveFragmentMetadata second = new HiveFragmentMetadata(10L, 10L, descriptor, "2");
+
+        assertSame(properties, first.getProperties());
+        assertSame(properties, second.getProperties());
+        assertEquals("1", first.getPartitionValues());
+        assertEquals("2", second.getPartitionValues());
+        assertEquals(2, first.getDescriptor().getColumnIndexes().get("amt"));
+        // the column indexes are computed once for all the fragments
+        assertSame(first.getDescriptor().getColumnIndexes(), second.getDescriptor().getColumnIndexes());
     }
 
     @Test
@@ -0,0 +1,117 @@
+package org.greenplum.pxf.plugins.hive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.greenplum.pxf.api.model.Metadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HiveMetadataCacheTest {
+
+    private static final Metadata.Item ITEM = new Metadata.Item("default", "sales");
+
+    private AtomicInteger loads;
+    private SimpleMeterRegistry registry;
+    private HiveMetadataCache cache;
+
+    @BeforeEach
+    public void setup() {
+        loads = new AtomicInteger();
+        registry = new SimpleMeterRegistry();
+        cache = new HiveMetadataCache(Duration.ofMinutes(1), 10, registry);
+    }
+
+    @Test
+    public void testTableIsLoadedOnce() throws Exception {
+        Table table = createTable("1");
+
+        assertSame(table, cache.getTable("default", "alice", ITEM, () -> load(table)));
+        assertSame(table, cache.getTable("default", "alice", ITEM, () -> load(table)));
+        assertEquals(1, loads.get());
+
+        cache.getTable("default", "bob", ITEM, () -> load(table));
+        assertEquals(2, loads.get());
+        assertEquals(1.0, registry.get("pxf.hive.metadata.cache").tag("cache", "table").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.get("pxf.hive.metadata.cache").tag("cache", "table").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void testPartitionsAreCachedByFilter() throws Exception {
+        Table table = createTable("1");
+        List<Partition> partitions = Collections.singletonList(new Partition());
+
+        assertEquals(partitions, cache.getPartitions("default", "alice", table, "", () -> load(partitions)));
+        assertEquals(partitions, cache.getPartitions("default", "alice", table, "", () -> load(partitions)));
+        assertEquals(1, loads.get());
+
+        cache.getPartitions("default", "alice", table, "year = 2020", () -> load(partitions));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testPartitionsAreReloadedWhenDdlTimeChanges() throws Exception {
+        List<Partition> partitions = Collections.singletonList(new Partition());
+
+        cache.getPartitions("default", "alice", createTable("1"), "", () -> load(partitions));
+        cache.getPartitions("default", "alice", createTable("2"), "", () -> load(partitions));
+        assertEquals(2, loads.get());
+        assertEquals(2.0, registry.get("pxf.hive.metadata.cache").tag("cache", "partitions").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void testInvalidateServer() throws Exception {
+        Table table = createTable("1");
+        cache.getTable("default", "alice", ITEM, () -> load(table));
+        cache.getTable("other", "alice", ITEM, () -> load(table));
+
+        cache.invalidate("default");
+
+        cache.getTable("default", "alice", ITEM, () -> load(table));
+        cache.getTable("other", "alice", ITEM, () -> load(table));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() throws Exception {
+        cache = new HiveMetadataCache(Duration.ZERO, 10, registry);
+        Table table = createTable("1");
+
+        cache.getTable("default", "alice", ITEM, () -> load(table));
+        cache.getTable("default", "alice", ITEM, () -> load(table));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoadFailureIsNotCached() throws Exception {
+        assertThrows(UnsupportedOperationException.class, () -> cache.getTable("default", "alice", ITEM, () -> {
+            throw new UnsupportedOperationException("PXF does not support Hive views");
+        }));
+
+        Table table = createTable("1");
+        assertSame(table, cache.getTable("default", "alice", ITEM, () -> load(table)));
+    }
+
+    private <T> T load(T value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private static Table createTable(String ddlTime) {
+        Table table = new Table();
+        table.setDbName("default");
+        table.setTableName("sales");
+        table.setParameters(new HashMap<>(Collections.singletonMap(HiveMetadataCache.DDL_TIME_PARAMETER, ddlTime)));
+        return table;
+    }
+}
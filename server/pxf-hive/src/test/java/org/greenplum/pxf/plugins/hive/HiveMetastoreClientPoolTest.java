@@ -0,0 +1,125 @@
+package org.greenplum.pxf.plugins.hive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class HiveMetastoreClientPoolTest {
+
+    private static final long IDLE_TIMEOUT = 1000;
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry registry;
+    private HiveMetastoreClientPool pool;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong();
+        registry = new SimpleMeterRegistry();
+        pool = new HiveMetastoreClientPool(1, IDLE_TIMEOUT, clock::get, registry);
+    }
+
+    @Test
+    public void testClientIsReusedAfterRelease() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+
+        HiveClientWrapper.MetaStoreClientHolder holder = pool.borrow("default", "alice", () -> client);
+        holder.close();
+        verify(client, never()).close();
+        assertEquals(1, pool.getIdleCount());
+
+        try (HiveClientWrapper.MetaStoreClientHolder reused = pool.borrow("default", "alice", () -> mock(IMetaStoreClient.class))) {
+            assertSame(client, reused.getClient());
+        }
+        assertEquals(1.0, registry.get("pxf.hive.metastore.clients").tag("result", "created").counter().count());
+        assertEquals(1.0, registry.get("pxf.hive.metastore.clients").tag("result", "reused").counter().count());
+    }
+
+    @Test
+    public void testClientsAreKeyedByServerAndUser() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        pool.borrow("default", "alice", () -> client).close();
+
+        try (HiveClientWrapper.MetaStoreClientHolder holder = pool.borrow("default", "bob", () -> mock(IMetaStoreClient.class))) {
+            assertNotSame(client, holder.getClient());
+        }
+        try (HiveClientWrapper.MetaStoreClientHolder holder = pool.borrow("other", "alice", () -> mock(IMetaStoreClient.class))) {
+            assertNotSame(client, holder.getClient());
+        }
+    }
+
+    @Test
+    public void testClientsAbovePoolSizeAreClosed() throws Exception {
+        IMetaStoreClient first = mock(IMetaStoreClient.class);
+        IMetaStoreClient second = mock(IMetaStoreClient.class);
+
+        HiveClientWrapper.MetaStoreClientHolder firstHolder = pool.borrow("default", "alice", () -> first);
+        HiveClientWrapper.MetaStoreClientHolder secondHolder = pool.borrow("default", "alice", () -> second);
+        firstHolder.close();
+        secondHolder.close();
+
+        verify(first, never()).close();
+        verify(second).close();
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testIdleClientIsClosedAfterTimeout() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        pool.borrow("default", "alice", () -> client).close();
+
+        clock.addAndGet(IDLE_TIMEOUT);
+        IMetaStoreClient newClient = mock(IMetaStoreClient.class);
+        try (HiveClientWrapper.MetaStoreClientHolder holder = pool.borrow("default", "alice", () -> newClient)) {
+            assertSame(newClient, holder.getClient());
+        }
+        verify(client).close();
+    }
+
+    @Test
+    public void testEvictClosesIdleClientsOfServer() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        IMetaStoreClient otherClient = mock(IMetaStoreClient.class);
+        pool.borrow("default", "alice", () -> client).close();
+        pool.borrow("other", "alice", () -> otherClient).close();
+
+        pool.evict("default");
+
+        verify(client).close();
+        verify(otherClient, never()).close();
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testClientBorrowedBeforeEvictIsClosedOnRelease() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        HiveClientWrapper.MetaStoreClientHolder holder = pool.borrow("default", "alice", () -> client);
+
+        pool.evict(null);
+        holder.close();
+
+        verify(client).close();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testDisabledPoolClosesClients() throws Exception {
+        pool = new HiveMetastoreClientPool(0, IDLE_TIMEOUT, clock::get, registry);
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+
+        pool.borrow("default", "alice", () -> client).close();
+
+        verify(client).close();
+        assertEquals(0, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,128 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.io.RCFile;
+import org.apache.hadoop.hive.ql.io.RCFileInputFormat;
+import org.apache.hadoop.hive.serde2.columnar.BytesRefArrayWritable;
+import org.apache.hadoop.hive.serde2.columnar.BytesRefWritable;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.SerializationService;
+import org.greenplum.pxf.plugins.hdfs.HdfsSplittableDataAccessor;
+import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HiveRCFileAccessorTest {
+
+    private static final int ROWS = 25;
+    private static final int ROWS_PER_GROUP = 10;
+
+    @TempDir
+    File tempDir;
+
+    private Configuration configuration;
+    private RequestContext context;
+
+    @BeforeEach
+    public void setup() {
+        configuration = new Configuration();
+        configuration.set("pxf.fs.basePath", "/");
+
+        context = new RequestContext();
+        context.setAccessor(HiveRCFileAccessor.class.getName());
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setConfiguration(configuration);
+        context.setTupleDescription(Arrays.asList(
+                new ColumnDescriptor("id", DataType.TEXT.getOID(), 0, "text", null),
+                new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null)));
+    }
+
+    @Test
+    public void testReadAheadEnabledKeepsRowsOfAllRowGroups() throws Exception {
+        // the rows of the file span 3 row groups, the buffers of the reader are reused for each of them
+        Path path = writeRCFile();
+        configuration.setBoolean(HdfsSplittableDataAccessor.PXF_READAHEAD_ENABLED, true);
+        configuration.setInt(HdfsSplittableDataAccessor.PXF_READAHEAD_BATCH_SIZE, 4);
+
+        Properties properties = new Properties();
+        properties.put("columns", "id,name");
+        properties.put("columns.types", "string:string");
+        properties.put("file.inputformat", RCFileInputFormat.class.getName());
+        properties.put("serialization.lib", "org.apache.hadoop.hive.serde2.columnar.ColumnarSerDe");
+        context.setDataSource(path.toString());
+        context.setFragmentMetadata(new HiveFragmentMetadata(0, new File(path.toString()).length(), properties));
+
+        HiveRCFileAccessor accessor = new HiveRCFileAccessor(new HiveUtilities(), new SerializationService());
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+        List<String> rows = new ArrayList<>();
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            rows.add(toString((BytesRefArrayWritable) row.getData()));
+        }
+        accessor.closeForRead();
+
+        assertEquals(expectedRows(), rows);
+    }
+
+    private Path writeRCFile() throws Exception {
+        Configuration writerConfiguration = new Configuration();
+        writerConfiguration.setInt(RCFile.COLUMN_NUMBER_CONF_STR, 2);
+        writerConfiguration.setInt(HiveConf.ConfVars.HIVE_RCFILE_RECORD_INTERVAL.varname, ROWS_PER_GROUP);
+        Path path = new Path(new File(tempDir, "table.rc").getAbsolutePath());
+        FileSystem fs = FileSystem.getLocal(writerConfiguration);
+
+        RCFile.Writer writer = new RCFile.Writer(fs, writerConfiguration, path, null, null);
+        try {
+            for (String expected : expectedRows()) {
+                String[] values = expected.split(",");
+                BytesRefArrayWritable record = new BytesRefArrayWritable(values.length);
+                for (int i = 0; i < values.length; i++) {
+                    byte[] bytes = values[i].getBytes(StandardCharsets.UTF_8);
+                    record.set(i, new BytesRefWritable(bytes, 0, bytes.length));
+                }
+                writer.append(record);
+            }
+        } finally {
+            writer.close();
+        }
+        return path;
+    }
+
+    private static List<String> expectedRows() {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(i + ",name" + i);
+        }
+        return rows;
+    }
+
+    private static String toString(BytesRefArrayWritable record) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < record.size(); i++) {
+            BytesRefWritable column = record.get(i);
+            sb.append(i == 0 ? "" : ",")
+                    .append(new String(column.getData(), column.getStart(), column.getLength(), StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
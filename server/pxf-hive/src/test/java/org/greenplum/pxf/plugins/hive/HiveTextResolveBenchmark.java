@@ -0,0 +1,148 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput of resolving delimited Hive text lines with the {@link HiveResolver}, which
+ * deserializes every line with the SerDe and walks its object inspectors, and with the
+ * {@link HiveTextVectorizedResolver}, which parses batches of lines directly. The lines are generated in
+ * memory, so only the resolution is measured. Skipped unless enabled, run it with:
+ * <pre>
+ * ./gradlew :pxf-hive:test --tests '*HiveTextResolveBenchmark' -Dpxf.hive.benchmark=true [-Dpxf.hive.benchmark.rows=N]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "pxf.hive.benchmark", matches = "true")
+public class HiveTextResolveBenchmark {
+
+    private static final int ROWS = Integer.getInteger("pxf.hive.benchmark.rows", 1_000_000);
+    private static final int BATCH_SIZE = HiveTextVectorizedAccessor.DEFAULT_READ_BATCH_SIZE;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static final String COLUMNS = "id,name,cdate,amt,b,bg,r,dec,s1,s2,s3,s4";
+    private static final String COLUMN_TYPES =
+            "int:string:date:double:boolean:bigint:float:decimal(10,2):string:string:string:string";
+
+    private static List<List<Text>> batches;
+
+    @BeforeAll
+    public static void generateLines() {
+        batches = new ArrayList<>();
+        List<Text> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < ROWS; i++) {
+            // every 10th amount is null
+            String amount = i % 10 == 0 ? "\\N" : String.valueOf(i * 1.5);
+            batch.add(new Text(String.join("\u0001",
+                    String.valueOf(i),
+                    "name_" + (i % 10_000),
+                    "2020-01-" + (10 + i % 20),
+                    amount,
+                    String.valueOf(i % 2 == 0),
+                    String.valueOf((long) i * 31),
+                    String.valueOf(i / 7f),
+                    (i % 100_000) + ".25",
+                    "a", "bb", "ccc", "dddd")));
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+    }
+
+    @Test
+    public void compareResolvers() throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            resolveRowBased();
+            resolveVectorized();
+        }
+        long rowBasedNanos = 0, vectorizedNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            assertEquals(ROWS, resolveRowBased());
+            rowBasedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals(ROWS, resolveVectorized());
+            vectorizedNanos += System.nanoTime() - start;
+        }
+        report("HiveResolver", rowBasedNanos);
+        report("HiveTextVectorizedResolver", vectorizedNanos);
+    }
+
+    private long resolveRowBased() throws Exception {
+        HiveResolver resolver = new HiveResolver(null);
+        resolver.setRequestContext(createContext());
+        resolver.afterPropertiesSet();
+
+        long rows = 0;
+        for (List<Text> batch : batches) {
+            for (Text line : batch) {
+                rows += resolver.getFields(new OneRow(null, line)).isEmpty() ? 0 : 1;
+            }
+        }
+        return rows;
+    }
+
+    private long resolveVectorized() throws Exception {
+        HiveTextVectorizedResolver resolver = new HiveTextVectorizedResolver(null);
+        resolver.setRequestContext(createContext());
+        resolver.afterPropertiesSet();
+
+        long rows = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            rows += resolver.getFieldsForBatch(new OneRow(new LongWritable(i), batches.get(i))).size();
+        }
+        return rows;
+    }
+
+    private RequestContext createContext() {
+        Properties properties = new Properties();
+        properties.put(serdeConstants.SERIALIZATION_LIB, LazySimpleSerDe.class.getName());
+        properties.put(serdeConstants.LIST_COLUMNS, COLUMNS);
+        properties.put(serdeConstants.LIST_COLUMN_TYPES, COLUMN_TYPES);
+
+        DataType[] types = {DataType.INTEGER, DataType.TEXT, DataType.DATE, DataType.FLOAT8, DataType.BOOLEAN,
+                DataType.BIGINT, DataType.REAL, DataType.NUMERIC, DataType.TEXT, DataType.TEXT, DataType.TEXT, DataType.TEXT};
+        List<String> names = Arrays.asList(COLUMNS.split(","));
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        List<Integer> hiveIndexes = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            columnDescriptors.add(new ColumnDescriptor(names.get(i), types[i].getOID(), i, types[i].name().toLowerCase(), null));
+            hiveIndexes.add(i);
+        }
+
+        RequestContext context = new RequestContext();
+        context.setConfiguration(new Configuration());
+        context.setMetadata(new HiveMetadata(properties, null, hiveIndexes));
+        context.setTupleDescription(columnDescriptors);
+        return context;
+    }
+
+    private void report(String resolver, long totalNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(totalNanos / MEASURED_ITERATIONS);
+        System.out.printf("%s resolution of %d Hive text lines: %d ms per iteration, %d rows/ms%n",
+                resolver, ROWS, millis, millis == 0 ? 0 : ROWS / millis);
+    }
+}
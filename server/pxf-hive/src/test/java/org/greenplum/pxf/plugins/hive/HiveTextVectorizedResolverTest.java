@@ -0,0 +1,176 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class HiveTextVectorizedResolverTest {
+
+    @Mock
+    HiveUtilities mockHiveUtilities;
+
+    private Properties properties;
+    private List<ColumnDescriptor> columnDescriptors;
+    private List<Integer> hiveIndexes;
+    private List<HivePartition> partitions;
+
+    @BeforeEach
+    public void setup() {
+        properties = new Properties();
+        properties.put(serdeConstants.SERIALIZATION_LIB, LazySimpleSerDe.class.getName());
+        properties.put(serdeConstants.FIELD_DELIM, ",");
+        columnDescriptors = new ArrayList<>();
+        hiveIndexes = new ArrayList<>();
+        partitions = null;
+    }
+
+    @Test
+    public void testPrimitiveTypesMatchHiveResolver() throws Exception {
+        properties.put(serdeConstants.LIST_COLUMNS, "id,name,amt,tiny,flag,dec,dt,ts,code");
+        properties.put(serdeConstants.LIST_COLUMN_TYPES,
+                "int:string:double:tinyint:boolean:decimal(5,2):date:timestamp:varchar(3)");
+        addColumn("id", DataType.INTEGER, 0);
+        addColumn("name", DataType.TEXT, 1);
+        addColumn("amt", DataType.FLOAT8, 2);
+        addColumn("tiny", DataType.SMALLINT, 3);
+        addColumn("flag", DataType.BOOLEAN, 4);
+        addColumn("dec", DataType.NUMERIC, 5);
+        addColumn("dt", DataType.DATE, 6);
+        addColumn("ts", DataType.TIMESTAMP, 7);
+        addColumn("code", DataType.VARCHAR, 8);
+
+        List<Text> lines = lines(
+                "1,one,1.5,7,true,123.456,2020-01-31,2020-01-31 10:11:12.5,abcdef",
+                "2,\\N,\\N,\\N,\\N,\\N,\\N,\\N,\\N",
+                "x,,nan?,300,yes,1234.5,2020-13-45,garbage,",
+                "4,four",
+                "");
+
+        assertSameAsHiveResolver(lines);
+    }
+
+    @Test
+    public void testEscapedSeparatorAndNullFormat() throws Exception {
+        properties.put(serdeConstants.LIST_COLUMNS, "name,id");
+        properties.put(serdeConstants.LIST_COLUMN_TYPES, "string:int");
+        properties.put(serdeConstants.ESCAPE_CHAR, "\\");
+        properties.put(serdeConstants.SERIALIZATION_NULL_FORMAT, "NULL");
+        addColumn("name", DataType.TEXT, 0);
+        addColumn("id", DataType.INTEGER, 1);
+
+        List<Text> lines = lines("a\\,b,1", "NULL,NULL", "\\N,2");
+        List<List<OneField>> batch = resolveBatch(lines);
+
+        assertThat(values(batch.get(0))).containsExactly("a,b", 1);
+        assertThat(values(batch.get(1))).containsExactly(null, null);
+        assertThat(values(batch.get(2))).containsExactly("\\N", 2);
+        assertSameAsHiveResolver(lines);
+    }
+
+    @Test
+    public void testPartitionsAndNonProjectedColumns() throws Exception {
+        properties.put(serdeConstants.LIST_COLUMNS, "id,name,amt");
+        properties.put(serdeConstants.LIST_COLUMN_TYPES, "int:string:double");
+        partitions = Collections.singletonList(new HivePartition("dt", "date", "2020-01-31"));
+        addColumn("amt", DataType.FLOAT8, 2);
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null, false));
+        hiveIndexes.add(1);
+        columnDescriptors.add(new ColumnDescriptor("dt", DataType.DATE.getOID(), 2, "date", null));
+        hiveIndexes.add(null);
+
+        List<List<OneField>> batch = resolveBatch(lines("1,one,1.5", "2,two,2.5"));
+
+        assertThat(values(batch.get(0))).containsExactly(1.5, null, Date.valueOf("2020-01-31"));
+        assertThat(values(batch.get(1))).containsExactly(2.5, null, Date.valueOf("2020-01-31"));
+        assertThat(batch.get(0).get(1).type).isEqualTo(DataType.TEXT.getOID());
+    }
+
+    @Test
+    public void testComplexTypesFallBackToHiveResolver() throws Exception {
+        properties.put(serdeConstants.LIST_COLUMNS, "id,address");
+        properties.put(serdeConstants.LIST_COLUMN_TYPES, "int:struct<street:string,zipcode:bigint>");
+        addColumn("id", DataType.INTEGER, 0);
+        addColumn("address", DataType.TEXT, 1);
+
+        List<Text> lines = lines("1,plain string\u00021001");
+        List<List<OneField>> batch = resolveBatch(lines);
+
+        assertThat(batch.get(0).get(1).toString()).isEqualTo("{\"street\":\"plain string\",\"zipcode\":1001}");
+        assertSameAsHiveResolver(lines);
+    }
+
+    private void addColumn(String name, DataType type, int hiveIndex) {
+        columnDescriptors.add(new ColumnDescriptor(name, type.getOID(), columnDescriptors.size(), type.name().toLowerCase(), null));
+        hiveIndexes.add(hiveIndex);
+    }
+
+    private void assertSameAsHiveResolver(List<Text> lines) throws Exception {
+        List<List<OneField>> batch = resolveBatch(lines);
+
+        HiveResolver hiveResolver = new HiveResolver(mockHiveUtilities);
+        hiveResolver.setRequestContext(createContext());
+        hiveResolver.afterPropertiesSet();
+        for (int i = 0; i < lines.size(); i++) {
+            List<OneField> expected = hiveResolver.getFields(new OneRow(new LongWritable(i), lines.get(i)));
+            assertThat(types(batch.get(i))).as("types of line %d", i).isEqualTo(types(expected));
+            assertThat(strings(batch.get(i))).as("values of line %d", i).isEqualTo(strings(expected));
+        }
+    }
+
+    private List<List<OneField>> resolveBatch(List<Text> lines) throws Exception {
+        HiveTextVectorizedResolver resolver = new HiveTextVectorizedResolver(mockHiveUtilities);
+        resolver.setRequestContext(createContext());
+        resolver.afterPropertiesSet();
+        List<List<OneField>> batch = resolver.getFieldsForBatch(new OneRow(new LongWritable(1), lines));
+        assertThat(batch).hasSize(lines.size());
+        return batch;
+    }
+
+    private RequestContext createContext() {
+        RequestContext context = new RequestContext();
+        context.setConfiguration(new Configuration());
+        context.setMetadata(new HiveMetadata(properties, partitions, hiveIndexes));
+        context.setTupleDescription(columnDescriptors);
+        return context;
+    }
+
+    private static List<Text> lines(String... lines) {
+        return Arrays.stream(lines).map(Text::new).collect(Collectors.toList());
+    }
+
+    private static List<Object> values(List<OneField> row) {
+        return row.stream().map(field -> field.val).collect(Collectors.toList());
+    }
+
+    private static List<Integer> types(List<OneField> row) {
+        return row.stream().map(field -> field.type).collect(Collectors.toList());
+    }
+
+    private static List<String> strings(List<OneField> row) {
+        return row.stream().map(field -> field.val == null ? null : field.val.toString()).collect(Collectors.toList());
+    }
+}
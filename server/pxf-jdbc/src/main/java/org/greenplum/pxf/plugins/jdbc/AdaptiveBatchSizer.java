@@ -0,0 +1,189 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the size of the batches of a {@link JdbcWriter} from the latency and the size in bytes
+ * of the batches that were flushed.
+ * <p>
+ * The batch size is doubled while full batches are flushed in less than half of the target latency,
+ * up to the maximum batch size and the maximum number of bytes of a batch, and halved when a batch
+ * takes longer than the target latency or is larger than the maximum number of bytes, down to the
+ * minimum batch size. The batches are flushed by the threads of the writer, so the statistics can be
+ * recorded concurrently.
+ */
+@Slf4j
+class AdaptiveBatchSizer {
+
+    static final String METRIC_FLUSH = "pxf.jdbc.write.flush";
+    static final String METRIC_BATCH_ROWS = "pxf.jdbc.write.batch.rows";
+    static final String METRIC_ROWS = "pxf.jdbc.write.rows";
+    static final String METRIC_THROUGHPUT = "pxf.jdbc.write.throughput";
+
+    /* the size of a field that is not a string or binary value, such as a number or a date */
+    private static final int FIXED_FIELD_SIZE = 8;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyNanos;
+    private final long maxBatchBytes;
+    private final Timer flushTimer;
+    private final DistributionSummary batchRowsSummary;
+    private final DistributionSummary throughputSummary;
+    private final Counter rowsCounter;
+    private int batchSize;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param initialBatchSize    the size of the first batch, limited to the minimum and maximum batch sizes
+     * @param minBatchSize        the minimum batch size, greater than 1
+     * @param maxBatchSize        the maximum batch size
+     * @param targetLatencyMillis the time it should take to flush a batch, in milliseconds
+     * @param maxBatchBytes       the maximum number of bytes of a batch
+     * @param registry            the registry of the metrics of the flushed batches
+     * @param tags                the tags of the metrics
+     */
+    AdaptiveBatchSizer(int initialBatchSize,
+                       int minBatchSize,
+                       int maxBatchSize,
+                       long targetLatencyMillis,
+                       long maxBatchBytes,
+                       MeterRegistry registry,
+                       Tags tags) {
+        if (minBatchSize < 2) {
+            throw new IllegalArgumentException(String.format(
+                    "the minimum batch size (%d) must be greater than 1", minBatchSize));
+        } else if (maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException(String.format(
+                    "the maximum batch size (%d) must not be less than the minimum batch size (%d)", maxBatchSize, minBatchSize));
+        } else if (targetLatencyMillis <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "the target latency (%d) must be positive", targetLatencyMillis));
+        } else if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "the maximum number of bytes of a batch (%d) must be positive", maxBatchBytes));
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.maxBatchBytes = maxBatchBytes;
+        this.batchSize = Math.min(Math.max(initialBatchSize, minBatchSize), maxBatchSize);
+
+        flushTimer = Timer.builder(METRIC_FLUSH)
+                .description("The time it takes to flush a batch of rows to the external database")
+                .tags(tags)
+                .register(registry);
+        batchRowsSummary = DistributionSummary.builder(METRIC_BATCH_ROWS)
+                .description("The number of rows of the batches flushed to the external database")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(registry);
+        throughputSummary = DistributionSummary.builder(METRIC_THROUGHPUT)
+                .description("The number of rows per second written by the batches flushed to the external database")
+                .baseUnit("rows/s")
+                .tags(tags)
+                .register(registry);
+        rowsCounter = Counter.builder(METRIC_ROWS)
+                .description("The number of rows written to the external database in batches")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Returns the size of the next batch.
+     *
+     * @return the batch size
+     */
+    synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Records a flushed batch and adapts the size of the next batches. Only the batches that were
+     * filled up to the batch size they were created with adapt the batch size, the last batch of a
+     * write is usually smaller.
+     *
+     * @param batchSize    the size the batch was created with
+     * @param rows         the number of rows of the batch
+     * @param bytes        the estimated number of bytes of the batch
+     * @param latencyNanos the time it took to flush the batch, in nanoseconds
+     */
+    void record(int batchSize, int rows, long bytes, long latencyNanos) {
+        flushTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        batchRowsSummary.record(rows);
+        rowsCounter.increment(rows);
+        if (latencyNanos > 0) {
+            throughputSummary.record(rows * (double) TimeUnit.SECONDS.toNanos(1) / latencyNanos);
+        }
+        if (rows < batchSize || rows == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            int nextBatchSize = this.batchSize;
+            if (latencyNanos > targetLatencyNanos || bytes > maxBatchBytes) {
+                nextBatchSize = Math.max(minBatchSize, rows / 2);
+            } else if (latencyNanos < targetLatencyNanos / 2) {
+                long bytesPerRow = Math.max(bytes / rows, 1);
+                nextBatchSize = (int) Math.min(Math.min(maxBatchSize, 2L * rows), Math.max(maxBatchBytes / bytesPerRow, minBatchSize));
+            }
+            if (nextBatchSize != this.batchSize) {
+                log.debug("Changing the batch size from {} to {} after flushing {} rows ({} bytes) in {} ms",
+                        this.batchSize, nextBatchSize, rows, bytes, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+                this.batchSize = nextBatchSize;
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of bytes a row takes in a batch.
+     *
+     * @param row the row, a list of fields from {@link JdbcResolver}
+     * @return the estimated number of bytes
+     */
+    @SuppressWarnings("unchecked")
+    static long estimateSize(OneRow row) {
+        long size = 0;
+        for (OneField field : (List<OneField>) row.getData()) {
+            if (field.val instanceof String) {
+                size += ((String) field.val).length();
+            } else if (field.val instanceof byte[]) {
+                size += ((byte[]) field.val).length;
+            } else {
+                size += FIXED_FIELD_SIZE;
+            }
+        }
+        return size;
+    }
+}
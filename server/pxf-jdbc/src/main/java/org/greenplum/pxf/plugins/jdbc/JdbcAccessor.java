@@ -20,22 +20,25 @@ package org.greenplum.pxf.plugins.jdbc;
  */
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.StatsAccessor;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
-import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.CancelableOperation;
-import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.security.SecureLogin;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.greenplum.pxf.plugins.jdbc.utils.FetchSizeEstimator;
+import org.postgresql.PGConnection;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -45,15 +48,35 @@ import java.sql.Statement;
 /**
  * JDBC tables accessor
  * <p>
- * The SELECT queries are processed by {@link java.sql.Statement}
+ * The SELECT queries are processed by {@link java.sql.Statement}, the rows of the result set are
+ * fetched in batches whose size is chosen from the estimated width of the rows, unless set by the user
  * <p>
  * The INSERT queries are processed by {@link java.sql.PreparedStatement} and
- * built-in JDBC batches of arbitrary size
+ * built-in JDBC batches of arbitrary size, or by COPY ... FROM STDIN for the
+ * batches written with the PostgreSQL JDBC driver when jdbc.write.copy is enabled
+ * <p>
+ * The COUNT queries supported by {@link Utilities#aggregateOptimizationsSupported} are computed
+ * by the external database, the rows of the fragment are counted instead of being returned
  */
 @Slf4j
-public class JdbcAccessor extends JdbcBasePlugin implements Accessor, CancelableOperation {
+public class JdbcAccessor extends JdbcBasePlugin implements StatsAccessor, CancelableOperation {
 
     private static final String JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME = "jdbc.read.prepared-statement";
+    private static final String JDBC_WRITE_COPY_PROPERTY_NAME = "jdbc.write.copy";
+    private static final String JDBC_WRITE_BATCH_SIZE_ADAPTIVE_PROPERTY_NAME = "jdbc.write.batch-size.adaptive";
+    private static final String JDBC_WRITE_BATCH_SIZE_MIN_PROPERTY_NAME = "jdbc.write.batch-size.min";
+    private static final String JDBC_WRITE_BATCH_SIZE_MAX_PROPERTY_NAME = "jdbc.write.batch-size.max";
+    private static final String JDBC_WRITE_BATCH_TARGET_LATENCY_PROPERTY_NAME = "jdbc.write.batch-size.target-latency";
+    private static final String JDBC_WRITE_BATCH_MAX_BYTES_PROPERTY_NAME = "jdbc.write.batch-size.max-bytes";
+    private static final int DEFAULT_WRITE_BATCH_SIZE_MIN = 10;
+    private static final int DEFAULT_WRITE_BATCH_SIZE_MAX = 10000;
+    private static final long DEFAULT_WRITE_BATCH_TARGET_LATENCY_MILLIS = 1000;
+    private static final long DEFAULT_WRITE_BATCH_MAX_BYTES = 8L * 1024 * 1024;
+    private static final String JDBC_READ_MEMORY_BUDGET_PROPERTY_NAME = "jdbc.read.memory-budget";
+    private static final long DEFAULT_READ_MEMORY_BUDGET = 16L * 1024 * 1024;
+    private static final int MIN_AUTO_FETCH_SIZE = 10;
+    private static final int MAX_AUTO_FETCH_SIZE = 10000;
+    static final String METRIC_READ_ALLOCATED = "pxf.jdbc.read.allocated";
 
     private Statement statementRead = null;
     private ResultSet resultSetRead = null;
@@ -61,6 +84,14 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
     private JdbcWriter writer;
     private boolean isCanceled;
 
+    private boolean useStats;
+    private boolean statsInitialized;
+    private long count;
+    private long objectsEmitted;
+    private OneRow rowToEmit;
+    private Thread readThread;
+    private long readAllocatedBytes;
+
     /**
      * Creates a new instance of the JdbcAccessor
      */
@@ -78,6 +109,12 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
         super(connectionManager, secureLogin, decryptClient);
     }
 
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        useStats = Utilities.aggregateOptimizationsSupported(context);
+    }
+
     /**
      * openForRead() implementation
      * Create query, open JDBC connection, execute query and store the result into resultSet
@@ -93,6 +130,8 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
             return true;
         }
 
+        readThread = Thread.currentThread();
+        readAllocatedBytes = getThreadAllocatedBytes();
         Connection connection = getConnection();
         try {
             return openForReadInner(connection);
@@ -105,7 +144,7 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
     }
 
     private boolean openForReadInner(Connection connection) throws SQLException {
-        String queryRead = buildSelectQuery(connection);
+        String queryRead = useStats ? buildCountQuery(connection) : buildSelectQuery(connection);
         log.trace("Select query: {}", queryRead);
 
         // Execute queries
@@ -121,7 +160,8 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
                 connection.prepareStatement(queryRead) :
                 connection.createStatement();
 
-        statementRead.setFetchSize(fetchSize);
+        DbProduct dbProduct = DbProduct.getDbProduct(connection.getMetaData().getDatabaseProductName(), treatUnknownDbmsAsPostgreSql);
+        dbProduct.prepareForStreaming(connection, statementRead, getReadFetchSize());
 
         if (queryTimeout != null) {
             log.debug("Setting query timeout to {} seconds", queryTimeout);
@@ -136,21 +176,47 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
     }
 
     private String buildSelectQuery(Connection connection) throws SQLException {
-        SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData(), getQueryText());
+        // Read variables
+        return getSelectQueryBuilder(connection).buildSelectQuery();
+    }
 
-        // Build SELECT query
-        if (quoteColumns == null) {
-            sqlQueryBuilder.autoSetQuoteString();
-        } else if (quoteColumns) {
-            sqlQueryBuilder.forceSetQuoteString();
-        }
+    private String buildCountQuery(Connection connection) throws SQLException {
+        return getSelectQueryBuilder(connection).buildCountQuery();
+    }
 
-        if (wrapDateWithTime) {
-            sqlQueryBuilder.setWrapDateWithTime(true);
+    /**
+     * Reads the number of rows of the fragment counted by the external database
+     *
+     * @throws SQLException if a problem in resultSet occurs
+     */
+    @Override
+    public void retrieveStats() throws SQLException {
+        if (!useStats) {
+            throw new IllegalStateException("Accessor is not using statistics in current context.");
         }
+        objectsEmitted = 0;
+        count = resultSetRead.next() ? resultSetRead.getLong(1) : 0;
+        // Greenplum counts the emitted rows, their values are not used, the key lets the bridge resolve the row once
+        rowToEmit = new OneRow(0L, null);
+        statsInitialized = true;
+    }
 
-        // Read variables
-        return sqlQueryBuilder.buildSelectQuery();
+    /**
+     * Emits a row for each row counted by the external database
+     *
+     * @return the next row or null if all the rows were emitted
+     */
+    @Override
+    public OneRow emitAggObject() {
+        if (!statsInitialized) {
+            throw new IllegalStateException("retrieveStats() should be called before calling emitAggObject()");
+        }
+        OneRow row = null;
+        if (objectsEmitted < count) {
+            objectsEmitted++;
+            row = rowToEmit;
+        }
+        return row;
     }
 
     /**
@@ -179,7 +245,68 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
      */
     @Override
     public void closeForRead() throws SQLException {
-        closeStatementAndConnection(statementRead);
+        try {
+            closeStatementAndConnection(statementRead);
+        } finally {
+            reportReadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Returns the fetch size of the SELECT query: the fetch size set by the user, or the number of rows of
+     * the projected columns that fit in the memory budget of the request. When the width of a projected column
+     * is not known, such as a text or bytea column, the fetch size is never larger than the default one, as
+     * the rows can be much wider than estimated.
+     *
+     * @return the fetch size
+     */
+    int getReadFetchSize() {
+        // a fetch size that is not positive streams the rows of MySQL one by one
+        if (fetchSizeIsSetByUser || fetchSize <= 0) {
+            return fetchSize;
+        }
+        long memoryBudget = configuration.getLong(JDBC_READ_MEMORY_BUDGET_PROPERTY_NAME, DEFAULT_READ_MEMORY_BUDGET);
+        if (memoryBudget <= 0) {
+            return fetchSize;
+        }
+        long rowWidth = FetchSizeEstimator.estimateRowWidth(columns);
+        int maxFetchSize = FetchSizeEstimator.hasUnknownWidth(columns) ?
+                Math.max(MIN_AUTO_FETCH_SIZE, Math.min(fetchSize, MAX_AUTO_FETCH_SIZE)) :
+                MAX_AUTO_FETCH_SIZE;
+        int readFetchSize = FetchSizeEstimator.getFetchSize(memoryBudget, rowWidth, MIN_AUTO_FETCH_SIZE, maxFetchSize);
+        log.debug("Using fetchSize {} for rows of about {} bytes and memory budget of {} bytes", readFetchSize, rowWidth, memoryBudget);
+        return readFetchSize;
+    }
+
+    /*
+     * Reports the number of bytes allocated on the heap by the thread reading the result set, only available
+     * when the result set is opened and closed by the same thread
+     */
+    private void reportReadAllocatedBytes() {
+        if (readThread != Thread.currentThread() || readAllocatedBytes < 0) {
+            return;
+        }
+        long allocatedBytes = getThreadAllocatedBytes() - readAllocatedBytes;
+        readThread = null;
+        log.debug("Reading the result set allocated {} bytes", allocatedBytes);
+        DistributionSummary.builder(METRIC_READ_ALLOCATED)
+                .description("The number of bytes allocated on the heap while reading the result set of a JDBC query")
+                .baseUnit("bytes")
+                .tags("segment", String.valueOf(context.getSegmentId()),
+                        "server", StringUtils.defaultIfBlank(context.getServerName(), "default"))
+                .register(Metrics.globalRegistry)
+                .record(allocatedBytes);
+    }
+
+    private static long getThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationMXBean.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
     }
 
     /**
@@ -208,7 +335,8 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
 
         Connection connection = getConnection();
         log.debug("Accessor got connection {}", connection);
-        String queryWrite = buildInsertQuery(connection);
+        SQLQueryBuilder sqlQueryBuilder = getInsertQueryBuilder(connection);
+        String queryWrite = sqlQueryBuilder.buildInsertQuery();
         log.debug("Insert query: {}", queryWrite);
 
         // Process batchSize
@@ -222,6 +350,13 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
         // Get database product name
         DbProduct dbProduct = DbProduct.getDbProduct(connection.getMetaData().getDatabaseProductName(), treatUnknownDbmsAsPostgreSql);
 
+        // Batches are copied when enabled and the driver of the external database supports COPY
+        String queryCopy = null;
+        if (batchSize > 1 && parseJdbcWriteCopyProperty() && connection.isWrapperFor(PGConnection.class)) {
+            queryCopy = sqlQueryBuilder.buildCopyQuery();
+            log.debug("Copy query: {}", queryCopy);
+        }
+
         writer = JdbcWriter.fromProps(
                 JdbcWriterProperties.builder()
                         .terminationTimeoutSeconds(JdbcWriter.TERMINATION_TIMEOUT)
@@ -229,25 +364,26 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
                         .batchSize(batchSize)
                         .poolSize(poolSize)
                         .query(queryWrite)
+                        .copyQuery(queryCopy)
                         .plugin(this)
                         .dbProduct(dbProduct)
+                        .batchSizer(createBatchSizer())
                         .build()
         );
         closeConnection(connection);
         return true;
     }
 
-    private String buildInsertQuery(Connection connection) throws SQLException {
+    private SQLQueryBuilder getInsertQueryBuilder(Connection connection) throws SQLException {
         SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData());
 
-        // Build INSERT query
+        // Quote the columns of the INSERT and COPY queries
         if (quoteColumns == null) {
             sqlQueryBuilder.autoSetQuoteString();
         } else if (quoteColumns) {
             sqlQueryBuilder.forceSetQuoteString();
         }
-        // Write variables
-        return sqlQueryBuilder.buildInsertQuery();
+        return sqlQueryBuilder;
     }
 
     /**
@@ -294,42 +430,31 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
         }
     }
 
+    private boolean parseJdbcUsePreparedStatementProperty() {
+        return Utilities.parseBooleanProperty(configuration, JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME, false);
+    }
+
+    private boolean parseJdbcWriteCopyProperty() {
+        return Utilities.parseBooleanProperty(configuration, JDBC_WRITE_COPY_PROPERTY_NAME, false);
+    }
+
     /**
-     * Gets the text of the query by reading the file from the server configuration directory. The name of the file
-     * is expected to be the same as the name of the query provided by the user and have extension ".sql"
+     * Creates the controller of the batch size when the adaptive batch size is enabled
      *
-     * @return text of the query
+     * @return the controller of the batch size, or null if the batches have a fixed size
      */
-    private String getQueryText() {
-        if (StringUtils.isBlank(queryName)) {
+    AdaptiveBatchSizer createBatchSizer() {
+        if (batchSize <= 1 || !Utilities.parseBooleanProperty(configuration, JDBC_WRITE_BATCH_SIZE_ADAPTIVE_PROPERTY_NAME, false)) {
             return null;
         }
-        // read the contents of the file holding the text of the query with a given name
-        String serverDirectory = context.getConfiguration().get(ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY);
-        if (StringUtils.isBlank(serverDirectory)) {
-            throw new IllegalStateException("No server configuration directory found for server " + context.getServerName());
-        }
-
-        String queryText;
-        try {
-            File queryFile = new File(serverDirectory, queryName + ".sql");
-            log.debug("Reading text of query={} from {}", queryName, queryFile.getCanonicalPath());
-            queryText = FileUtils.readFileToString(queryFile, Charset.defaultCharset());
-        } catch (IOException e) {
-            throw new RuntimeException(String.format("Failed to read text of query %s : %s", queryName, e.getMessage()), e);
-        }
-        if (StringUtils.isBlank(queryText)) {
-            throw new RuntimeException(String.format("Query text file is empty for query %s", queryName));
-        }
-
-        // Remove one or more semicolons followed by optional blank space
-        // happening at the end of the query
-        queryText = queryText.replaceFirst("(;+\\s*)+$", "");
-
-        return queryText;
-    }
-
-    private boolean parseJdbcUsePreparedStatementProperty() {
-        return Utilities.parseBooleanProperty(configuration, JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME, false);
+        return new AdaptiveBatchSizer(
+                batchSize,
+                configuration.getInt(JDBC_WRITE_BATCH_SIZE_MIN_PROPERTY_NAME, DEFAULT_WRITE_BATCH_SIZE_MIN),
+                configuration.getInt(JDBC_WRITE_BATCH_SIZE_MAX_PROPERTY_NAME, DEFAULT_WRITE_BATCH_SIZE_MAX),
+                configuration.getLong(JDBC_WRITE_BATCH_TARGET_LATENCY_PROPERTY_NAME, DEFAULT_WRITE_BATCH_TARGET_LATENCY_MILLIS),
+                configuration.getLong(JDBC_WRITE_BATCH_MAX_BYTES_PROPERTY_NAME, DEFAULT_WRITE_BATCH_MAX_BYTES),
+                Metrics.globalRegistry,
+                Tags.of("segment", String.valueOf(context.getSegmentId()),
+                        "server", StringUtils.defaultIfBlank(context.getServerName(), "default")));
     }
 }
@@ -21,10 +21,12 @@ package org.greenplum.pxf.plugins.jdbc;
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.security.SecureLogin;
@@ -35,6 +37,9 @@ import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
 import org.greenplum.pxf.plugins.jdbc.utils.HiveJdbcUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.PrivilegedExceptionAction;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -100,6 +105,7 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
     private static final String HIVE_URL_PREFIX = "jdbc:hive2://";
     private static final String HIVE_DEFAULT_DRIVER_CLASS = "org.apache.hive.jdbc.HiveDriver";
     private static final String MYSQL_DRIVER_PREFIX = "com.mysql.";
+    private static final String MYSQL_USE_CURSOR_FETCH_PROPERTY_NAME = "useCursorFetch";
     private static final String JDBC_DATE_WIDE_RANGE = "jdbc.date.wideRange";
     private static final String JDBC_DATE_WIDE_RANGE_LEGACY = "jdbc.date.wide-range";
     private static final String JDBC_UNKNOWN_DBMS_AS_POSTGRESQL = "jdbc.unknownDbmsAsPostgreSql";
@@ -138,6 +144,7 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
 
     // Read batch size
     protected int fetchSize;
+    protected boolean fetchSizeIsSetByUser = false;
 
     // Thread pool size
     protected int poolSize;
@@ -266,6 +273,7 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
         // determine fetchSize for read operations, with different default values for MySQL driver and all others
         int defaultFetchSize = jdbcDriver.startsWith(MYSQL_DRIVER_PREFIX) ? DEFAULT_MYSQL_FETCH_SIZE : DEFAULT_FETCH_SIZE;
         fetchSize = configuration.getInt(JDBC_STATEMENT_FETCH_SIZE_PROPERTY_NAME, defaultFetchSize);
+        fetchSizeIsSetByUser = configuration.get(JDBC_STATEMENT_FETCH_SIZE_PROPERTY_NAME) != null;
         log.debug("Will be using fetchSize {}", fetchSize);
 
         poolSize = context.getOption("POOL_SIZE", DEFAULT_POOL_SIZE);
@@ -332,6 +340,13 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
         // Optional parameter. The default value is empty map
         connectionConfiguration.putAll(getPropsWithPrefix(configuration, JDBC_CONNECTION_PROPERTY_PREFIX));
 
+        // MySQL driver reads all data in memory with a positive fetchSize unless cursor fetch is enabled
+        if (jdbcDriver.startsWith(MYSQL_DRIVER_PREFIX) && fetchSize > 0 &&
+                connectionConfiguration.getProperty(MYSQL_USE_CURSOR_FETCH_PROPERTY_NAME) == null) {
+            log.debug("Enabling cursor fetch for fetchSize {}", fetchSize);
+            connectionConfiguration.setProperty(MYSQL_USE_CURSOR_FETCH_PROPERTY_NAME, "true");
+        }
+
         // Optional parameter. The default value depends on the database
         String transactionIsolationString = configuration.get(JDBC_CONNECTION_TRANSACTION_ISOLATION, "NOT_PROVIDED");
         transactionIsolation = TransactionIsolation.typeOf(transactionIsolationString);
@@ -584,6 +599,33 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
         }
     }
 
+    /**
+     * Returns whether the connections are obtained from a connection pool
+     *
+     * @return true if the connection pool is enabled for the server
+     */
+    boolean isConnectionPoolUsed() {
+        return isConnectionPoolUsed;
+    }
+
+    /**
+     * Returns the qualifier of the connection pool
+     *
+     * @return the qualifier, or null if a single pool is used for all the qualifiers
+     */
+    String getPoolQualifier() {
+        return poolQualifier;
+    }
+
+    /**
+     * Returns the timeout of the queries set by jdbc.statement.queryTimeout
+     *
+     * @return the timeout in seconds, or null if the queries have no timeout
+     */
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+
     /**
      * Close a JDBC connection
      *
@@ -659,6 +701,64 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
         }
     }
 
+    /**
+     * Creates the builder of the SELECT queries on the table or the named query of the request,
+     * with the column quoting and date wrapping requested by the user
+     *
+     * @param connection connection to the external database
+     * @return the query builder
+     * @throws SQLException if the metadata of the external database could not be retrieved
+     */
+    protected SQLQueryBuilder getSelectQueryBuilder(Connection connection) throws SQLException {
+        SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData(), getQueryText());
+
+        if (quoteColumns == null) {
+            sqlQueryBuilder.autoSetQuoteString();
+        } else if (quoteColumns) {
+            sqlQueryBuilder.forceSetQuoteString();
+        }
+
+        if (wrapDateWithTime) {
+            sqlQueryBuilder.setWrapDateWithTime(true);
+        }
+        return sqlQueryBuilder;
+    }
+
+    /**
+     * Gets the text of the query by reading the file from the server configuration directory. The name of the file
+     * is expected to be the same as the name of the query provided by the user and have extension ".sql"
+     *
+     * @return text of the query
+     */
+    protected String getQueryText() {
+        if (StringUtils.isBlank(queryName)) {
+            return null;
+        }
+        // read the contents of the file holding the text of the query with a given name
+        String serverDirectory = context.getConfiguration().get(ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY);
+        if (StringUtils.isBlank(serverDirectory)) {
+            throw new IllegalStateException("No server configuration directory found for server " + context.getServerName());
+        }
+
+        String queryText;
+        try {
+            File queryFile = new File(serverDirectory, queryName + ".sql");
+            log.debug("Reading text of query={} from {}", queryName, queryFile.getCanonicalPath());
+            queryText = FileUtils.readFileToString(queryFile, Charset.defaultCharset());
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to read text of query %s : %s", queryName, e.getMessage()), e);
+        }
+        if (StringUtils.isBlank(queryText)) {
+            throw new RuntimeException(String.format("Query text file is empty for query %s", queryName));
+        }
+
+        // Remove one or more semicolons followed by optional blank space
+        // happening at the end of the query
+        queryText = queryText.replaceFirst("(;+\\s*)+$", "");
+
+        return queryText;
+    }
+
     /**
      * Asserts whether a given parameter has non-empty value, throws IllegalArgumentException otherwise
      *
@@ -19,26 +19,55 @@ package org.greenplum.pxf.plugins.jdbc;
  * under the License.
  */
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
 import org.greenplum.pxf.plugins.jdbc.partitioning.JdbcFragmentMetadata;
 import org.greenplum.pxf.plugins.jdbc.partitioning.PartitionType;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * JDBC fragmenter
  * <p>
  * Splits the query to allow multiple simultaneous SELECTs
+ * <p>
+ * When a partition column of type INT, DATE or TIMESTAMP is given with RANGE 'auto' and no INTERVAL, the partitions
+ * are derived from the statistics of the partition column in the external database. The range of the partitions is
+ * the range between the MIN and MAX values of the column, split into partitions of equal width, or into partitions
+ * with a similar number of rows when PARTITION_MODE is 'quantile'. The number of partitions defaults to the number
+ * of segments, and is reduced for small tables when the external database provides an estimate of the number of
+ * rows of the table.
+ * <p>
+ * Every PXF instance computes the fragments of the query on its own and reads the fragments assigned to its
+ * segments, so the partitions are only consistent when the statistics do not change while the query starts. This
+ * is why automatic partitioning must be requested explicitly, for tables whose partition column is not modified
+ * during the queries.
  */
+@Slf4j
 public class JdbcPartitionFragmenter extends BaseFragmenter {
 
+    static final String JDBC_PARTITION_MIN_ROWS_PROPERTY_NAME = "jdbc.partition.auto.minRows";
+    static final String AUTO_RANGE = "auto";
+    private static final long DEFAULT_PARTITION_MIN_ROWS = 10000;
+
     private PartitionType partitionType;
     private String column;
     private String range;
     private String interval;
     protected boolean isDateWideRange;
+    private boolean autoPartitioning;
+    private boolean quantilePartitioning;
+    private int partitionCount;
+    private long partitionMinRows;
 
     @Override
     public void afterPropertiesSet() {
@@ -56,6 +85,28 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
         range = context.getOption("RANGE");
         interval = context.getOption("INTERVAL");
         isDateWideRange = JdbcBasePlugin.getIsDateWideRange(context);
+
+        // 'auto' is a valid value of an ENUM partition, and not a valid range of the other types
+        autoPartitioning = AUTO_RANGE.equalsIgnoreCase(range) && partitionType != PartitionType.ENUM;
+        if (autoPartitioning) {
+            if (interval != null) {
+                throw new IllegalArgumentException("The parameter 'INTERVAL' cannot be specified when 'RANGE' is 'auto'");
+            }
+            partitionCount = context.getOption("PARTITIONS", Math.max(context.getTotalSegments(), 1));
+            if (partitionCount < 1) {
+                throw new IllegalArgumentException(String.format(
+                        "The parameter 'PARTITIONS' must be at least 1, but actual is %d", partitionCount));
+            }
+            String partitionMode = context.getOption("PARTITION_MODE", "uniform");
+            if (!partitionMode.equalsIgnoreCase("uniform") && !partitionMode.equalsIgnoreCase("quantile")) {
+                throw new IllegalArgumentException(String.format(
+                        "The parameter 'PARTITION_MODE' has incorrect value '%s'. The correct values are 'uniform' and 'quantile'", partitionMode));
+            }
+            quantilePartitioning = partitionMode.equalsIgnoreCase("quantile");
+            partitionMinRows = configuration != null ?
+                    configuration.getLong(JDBC_PARTITION_MIN_ROWS_PROPERTY_NAME, DEFAULT_PARTITION_MIN_ROWS) :
+                    DEFAULT_PARTITION_MIN_ROWS;
+        }
     }
 
     /**
@@ -69,9 +120,13 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
         if (partitionType == null) {
             fragments.add(new Fragment(context.getDataSource()));
         } else {
-            List<JdbcFragmentMetadata> fragmentsMetadata = partitionType.getFragmentsMetadata(
-                    column, range, interval, isDateWideRange
-            );
+            List<JdbcFragmentMetadata> fragmentsMetadata = autoPartitioning ?
+                    getAutoFragmentsMetadata() :
+                    partitionType.getFragmentsMetadata(column, range, interval, isDateWideRange);
+            if (fragmentsMetadata.isEmpty()) {
+                // the partition column has no values, a single fragment reads all the rows
+                fragments.add(new Fragment(context.getDataSource()));
+            }
             for (JdbcFragmentMetadata fragmentMetadata : fragmentsMetadata) {
                 fragments.add(new Fragment(context.getDataSource(), fragmentMetadata));
             }
@@ -79,6 +134,102 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
         return fragments;
     }
 
+    /**
+     * Derives the partitions from the statistics of the partition column in the external database.
+     *
+     * @return a list of getFragmentsMetadata, empty if the partition column has no values
+     */
+    private List<JdbcFragmentMetadata> getAutoFragmentsMetadata() {
+        if (StringUtils.isBlank(column)) {
+            throw new RuntimeException("The column name must be provided");
+        }
+
+        JdbcBasePlugin plugin = createJdbcPlugin();
+        try {
+            Connection connection = plugin.getConnection();
+            try {
+                return getAutoFragmentsMetadata(plugin, connection);
+            } finally {
+                JdbcBasePlugin.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new PxfRuntimeException(String.format(
+                    "Failed to retrieve the statistics of the partition column %s: %s", column, e.getMessage()), e);
+        }
+    }
+
+    private List<JdbcFragmentMetadata> getAutoFragmentsMetadata(JdbcBasePlugin plugin, Connection connection) throws SQLException {
+        SQLQueryBuilder queryBuilder = plugin.getSelectQueryBuilder(connection);
+
+        List<Object> minMax = queryValues(plugin, connection, queryBuilder.buildPartitionRangeQuery(column));
+        if (minMax.size() < 2) {
+            log.debug("Partition column {} of {} has no values", column, context.getDataSource());
+            return Collections.emptyList();
+        }
+        Object min = minMax.get(0);
+        Object max = minMax.get(1);
+
+        int count = partitionCount;
+        Long rowCount = queryRowCountEstimate(plugin, connection, queryBuilder.buildRowCountEstimateQuery());
+        if (rowCount != null) {
+            count = (int) Math.max(1, Math.min(count, rowCount / Math.max(partitionMinRows, 1)));
+        }
+
+        List<Object> boundaries;
+        if (quantilePartitioning && count > 1) {
+            List<Object> quantiles = queryValues(plugin, connection, queryBuilder.buildPartitionQuantilesQuery(column, count));
+            boundaries = partitionType.getQuantileBoundaries(quantiles.isEmpty() ? List.of(min) : quantiles, max);
+        } else {
+            boundaries = partitionType.getUniformBoundaries(min, max, count);
+        }
+        log.debug("Partitioning {} by {} into {} partitions between {} and {}, estimated row count is {}",
+                context.getDataSource(), column, boundaries.size() - 1, min, max, rowCount);
+        return partitionType.getFragmentsMetadata(column, boundaries, isDateWideRange);
+    }
+
+    /*
+     * Reads the non-null values of the partition column returned by the query
+     */
+    private List<Object> queryValues(JdbcBasePlugin plugin, Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = plugin.getPreparedStatement(connection, query);
+             ResultSet result = statement.executeQuery()) {
+            return partitionType.readValues(result);
+        }
+    }
+
+    /*
+     * Reads the estimated number of rows of the table, the estimate is only used when available and valid
+     */
+    private Long queryRowCountEstimate(JdbcBasePlugin plugin, Connection connection, String query) {
+        if (query == null) {
+            return null;
+        }
+        try (PreparedStatement statement = plugin.getPreparedStatement(connection, query);
+             ResultSet result = statement.executeQuery()) {
+            if (result.next()) {
+                long rowCount = result.getLong(1);
+                if (!result.wasNull() && rowCount >= 0) {
+                    return rowCount;
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Failed to estimate the number of rows of {}: {}", context.getDataSource(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Creates the plugin connecting to the external database with the configuration of the request.
+     *
+     * @return the initialized plugin
+     */
+    JdbcBasePlugin createJdbcPlugin() {
+        JdbcBasePlugin plugin = new JdbcBasePlugin();
+        plugin.setRequestContext(context);
+        plugin.afterPropertiesSet();
+        return plugin;
+    }
+
     /**
      * @return fragment stats
      * @throws UnsupportedOperationException ANALYZE for Jdbc plugin is not supported
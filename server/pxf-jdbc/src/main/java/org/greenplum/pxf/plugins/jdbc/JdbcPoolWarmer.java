@@ -0,0 +1,139 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import io.arenadata.security.encryption.client.service.DecryptClient;
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the connection pools of the warm-up servers before they are queried, so that the first query
+ * of a segment does not wait for the connections to the external database to be established.
+ * <p>
+ * The pools are created when the application is ready, again after the servers are reloaded, and
+ * accessed periodically so that they do not expire while the servers are not queried. A pool keeps
+ * the number of idle connections set by the minimumIdle property of the server. The pools can only
+ * be created for the servers that connect to the external database as a single user, the servers with
+ * user impersonation or a pool qualifier have a pool for every user.
+ */
+@Slf4j
+@Component
+public class JdbcPoolWarmer implements DisposableBean {
+
+    static final String WARM_UP_DATA_SOURCE = "pxf_connection_pool_warm_up";
+    private static final long RELOAD_WARM_UP_DELAY_SECONDS = 1;
+
+    private final ConnectionManager connectionManager;
+    private final ConfigurationFactory configurationFactory;
+    private final SecureLogin secureLogin;
+    private final DecryptClient decryptClient;
+    private final List<String> servers;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    public JdbcPoolWarmer(ConnectionManager connectionManager,
+                          ConfigurationFactory configurationFactory,
+                          SecureLogin secureLogin,
+                          ObjectProvider<DecryptClient> decryptClientProvider,
+                          PxfJdbcProperties properties) {
+        this.connectionManager = connectionManager;
+        this.configurationFactory = configurationFactory;
+        this.secureLogin = secureLogin;
+        this.decryptClient = decryptClientProvider.getIfAvailable();
+        this.servers = properties.getConnection().getWarmUpServers();
+        this.intervalMillis = properties.getConnection().getWarmUpInterval().toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pxf-jdbc-pool-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!servers.isEmpty()) {
+            connectionManager.addReloadListener(this::onReload);
+        }
+    }
+
+    /**
+     * Creates the pools of the warm-up servers once the application is ready, and keeps them from expiring.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (servers.isEmpty()) {
+            return;
+        }
+        log.info("Warming up the connection pools of servers {} every {} ms", servers, intervalMillis);
+        executor.scheduleWithFixedDelay(() -> warmUp(servers), 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /*
+     * The profiles sharing the connection manager are reloaded one after the other, the pools are created
+     * again once all the profiles are reloaded
+     */
+    private void onReload(Set<String> reloadedServers) {
+        List<String> warmUpServers = servers.stream()
+                .filter(reloadedServers::contains)
+                .collect(Collectors.toList());
+        if (!warmUpServers.isEmpty()) {
+            executor.schedule(() -> warmUp(warmUpServers), RELOAD_WARM_UP_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void warmUp(Collection<String> servers) {
+        servers.forEach(this::warmUp);
+    }
+
+    /**
+     * Creates the connection pool of a server, if it does not exist, by obtaining a connection the same
+     * way as the JDBC plugins of the server do.
+     *
+     * @param server the name of the server
+     * @return true if the pool of the server exists
+     */
+    boolean warmUp(String server) {
+        try {
+            String user = System.getProperty("user.name");
+            RequestContext context = new RequestContext();
+            context.setConfig(server);
+            context.setServerName(server);
+            context.setUser(user);
+            context.setDataSource(WARM_UP_DATA_SOURCE);
+            context.setConfiguration(configurationFactory.initConfiguration(server, server, user, null));
+            if (context.getConfiguration().getBoolean(SecureLogin.CONFIG_KEY_SERVICE_USER_IMPERSONATION, false)) {
+                log.warn("Not warming up the connection pool of server {}: user impersonation is enabled", server);
+                return false;
+            }
+
+            JdbcBasePlugin plugin = new JdbcBasePlugin(connectionManager, secureLogin, decryptClient);
+            plugin.setRequestContext(context);
+            plugin.afterPropertiesSet();
+            if (!plugin.isConnectionPoolUsed() || plugin.getPoolQualifier() != null) {
+                log.warn("Not warming up the connection pool of server {}: the pool is disabled or qualified", server);
+                return false;
+            }
+            JdbcBasePlugin.closeConnection(plugin.getConnection());
+            log.debug("Warmed up the connection pool of server {}", server);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to warm up the connection pool of server {}: {}", server, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -40,8 +40,8 @@ import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -76,6 +76,19 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
             DataType.JSONB
     );
 
+    /**
+     * The extractors of the columns, bound to the result set they were created for. A column that is not
+     * projected has no extractor.
+     */
+    private ColumnExtractor[] extractors;
+    private ResultSet boundResultSet;
+    private List<ColumnDescriptor> boundColumns;
+
+    /**
+     * The fields of the current row, reused for every row of the result set.
+     */
+    private List<OneField> rowFields;
+
     /**
      * Creates a new instance of the JdbcResolver
      */
@@ -95,6 +108,10 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
 
     /**
      * getFields() implementation
+     * <p>
+     * The values are read by column index with an extractor that is created once per column for the
+     * result set, so that reading a row neither looks up the columns by name nor dispatches on their
+     * type. The returned list and its fields are reused for the next row of the result set.
      *
      * @param row one row
      * @throws SQLException if the provided {@link OneRow} object is invalid
@@ -102,94 +119,207 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
     @Override
     public List<OneField> getFields(OneRow row) throws SQLException {
         ResultSet result = (ResultSet) row.getData();
-        LinkedList<OneField> fields = new LinkedList<>();
+        if (result != boundResultSet || columns != boundColumns) {
+            bindExtractors(result);
+        }
 
-        for (ColumnDescriptor column : columns) {
-            String colName = column.columnName();
-            Object value;
+        for (int i = 0; i < extractors.length; i++) {
+            ColumnExtractor extractor = extractors[i];
+            if (extractor != null) {
+                rowFields.get(i).val = extractor.extract(result);
+            }
+        }
+        return rowFields;
+    }
 
-            OneField oneField = new OneField();
-            oneField.type = column.columnTypeCode();
+    /**
+     * Creates the extractors of the columns for the result set and the fields of its rows.
+     * Non-projected columns get null values, as do all the columns of the rows counted by
+     * the external database, which have no result set.
+     *
+     * @param result the result set, null for the rows counted by the external database
+     * @throws SQLException if a projected column is not in the result set
+     */
+    private void bindExtractors(ResultSet result) throws SQLException {
+        ColumnExtractor[] newExtractors = new ColumnExtractor[columns.size()];
+        List<OneField> newFields = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDescriptor column = columns.get(i);
+            newFields.add(new OneField(column.columnTypeCode(), null));
+            if (column.isProjected() && result != null) {
+                newExtractors[i] = createExtractor(column, result.findColumn(column.columnName()));
+            }
+        }
+        extractors = newExtractors;
+        rowFields = newFields;
+        boundResultSet = result;
+        boundColumns = columns;
+    }
 
-            fields.add(oneField);
+    /**
+     * Creates the extractor of a column, which reads the value of the column at the given index
+     * of the result set.
+     *
+     * @param column the column
+     * @param index  the index of the column in the result set
+     * @return the extractor
+     * @throws UnsupportedOperationException if the type of the column is not supported
+     */
+    private ColumnExtractor createExtractor(ColumnDescriptor column, int index) {
+        DataType dataType = DataType.get(column.columnTypeCode());
+        switch (dataType) {
+            case INTEGER:
+                return result -> {
+                    int value = result.getInt(index);
+                    return result.wasNull() ? null : value;
+                };
+            case FLOAT8:
+                return result -> {
+                    double value = result.getDouble(index);
+                    return result.wasNull() ? null : value;
+                };
+            case REAL:
+                return result -> {
+                    float value = result.getFloat(index);
+                    return result.wasNull() ? null : value;
+                };
+            case BIGINT:
+                return result -> {
+                    long value = result.getLong(index);
+                    return result.wasNull() ? null : value;
+                };
+            case SMALLINT:
+                return result -> {
+                    short value = result.getShort(index);
+                    return result.wasNull() ? null : value;
+                };
+            case BOOLEAN:
+                return result -> {
+                    boolean value = result.getBoolean(index);
+                    return result.wasNull() ? null : value;
+                };
+            case BYTEA:
+                return result -> result.getBytes(index);
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case NUMERIC:
+            case JSONB:
+            case JSON:
+                return result -> result.getString(index);
+            case DATE:
+                if (isDateWideRange) {
+                    return result -> {
+                        LocalDate localDate = result.getObject(index, LocalDate.class);
+                        return localDate != null ? localDate.format(LOCAL_DATE_FORMATTER) : null;
+                    };
+                }
+                return result -> {
+                    Date date = result.getDate(index);
+                    return date != null ? formatDate(date.toLocalDate()) : null;
+                };
+            case TIMESTAMP:
+                if (isDateWideRange) {
+                    return result -> {
+                        LocalDateTime localDateTime = result.getObject(index, LocalDateTime.class);
+                        return localDateTime != null ? localDateTime.format(LOCAL_DATE_TIME_FORMATTER) : null;
+                    };
+                }
+                return result -> {
+                    Timestamp timestamp = result.getTimestamp(index);
+                    return timestamp != null ? formatDateTime(timestamp.toLocalDateTime()) : null;
+                };
+            case TIMESTAMP_WITH_TIME_ZONE:
+                if (isDateWideRange) {
+                    return result -> {
+                        OffsetDateTime offsetDateTime = result.getObject(index, OffsetDateTime.class);
+                        return offsetDateTime != null ? offsetDateTime.format(OFFSET_DATE_TIME_FORMATTER) : null;
+                    };
+                }
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported. Try to use the property DATE_WIDE_RANGE=true",
+                                dataType,
+                                column));
+            case UUID:
+                return result -> result.getObject(index, java.util.UUID.class);
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported",
+                                dataType,
+                                column));
+        }
+    }
 
-            /*
-             * Non-projected columns get null values
-             */
-            if (!column.isProjected()) continue;
+    /**
+     * Formats a date the same way as {@link org.greenplum.pxf.api.GreenplumDateTime#DATE_FORMATTER}, without
+     * going through the formatter for the years that are written with four digits.
+     *
+     * @param date the date
+     * @return the formatted date
+     */
+    static String formatDate(LocalDate date) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            return date.format(DATE_FORMATTER);
+        }
+        char[] chars = new char[10];
+        writeDate(chars, year, date.getMonthValue(), date.getDayOfMonth());
+        return new String(chars);
+    }
 
-            switch (DataType.get(oneField.type)) {
-                case INTEGER:
-                    value = result.getInt(colName);
-                    break;
-                case FLOAT8:
-                    value = result.getDouble(colName);
-                    break;
-                case REAL:
-                    value = result.getFloat(colName);
-                    break;
-                case BIGINT:
-                    value = result.getLong(colName);
-                    break;
-                case SMALLINT:
-                    value = result.getShort(colName);
-                    break;
-                case BOOLEAN:
-                    value = result.getBoolean(colName);
-                    break;
-                case BYTEA:
-                    value = result.getBytes(colName);
-                    break;
-                case VARCHAR:
-                case BPCHAR:
-                case TEXT:
-                case NUMERIC:
-                case JSONB:
-                case JSON:
-                    value = result.getString(colName);
-                    break;
-                case DATE:
-                    if (isDateWideRange) {
-                        LocalDate localDate = result.getObject(colName, LocalDate.class);
-                        value = localDate != null ? localDate.format(LOCAL_DATE_FORMATTER) : null;
-                    } else {
-                        Date date = result.getDate(colName);
-                        value = date != null ? date.toLocalDate().format(DATE_FORMATTER) : null;
-                    }
-                    break;
-                case TIMESTAMP:
-                    if (isDateWideRange) {
-                        LocalDateTime localDateTime = result.getObject(colName, LocalDateTime.class);
-                        value = localDateTime != null ? localDateTime.format(LOCAL_DATE_TIME_FORMATTER) : null;
-                    } else {
-                        Timestamp timestamp = result.getTimestamp(colName);
-                        value = timestamp != null ? timestamp.toLocalDateTime().format(DATETIME_FORMATTER) : null;
-                    }
-                    break;
-                case TIMESTAMP_WITH_TIME_ZONE:
-                    if (isDateWideRange) {
-                        OffsetDateTime offsetDateTime = result.getObject(colName, OffsetDateTime.class);
-                        value = offsetDateTime != null ? offsetDateTime.format(OFFSET_DATE_TIME_FORMATTER) : null;
-                    } else {
-                        throw new UnsupportedOperationException(
-                                String.format("Field type '%s' (column '%s') is not supported. Try to use the property DATE_WIDE_RANGE=true",
-                                        DataType.get(oneField.type),
-                                        column));
-                    }
-                    break;
-                case UUID:
-                    value = result.getObject(colName, java.util.UUID.class);
-                    break;
-                default:
-                    throw new UnsupportedOperationException(
-                            String.format("Field type '%s' (column '%s') is not supported",
-                                    DataType.get(oneField.type),
-                                    column));
+    /**
+     * Formats a date time the same way as {@link org.greenplum.pxf.api.GreenplumDateTime#DATETIME_FORMATTER},
+     * without going through the formatter for the years that are written with four digits. The fraction
+     * of the second is written without its trailing zeros.
+     *
+     * @param dateTime the date time
+     * @return the formatted date time
+     */
+    static String formatDateTime(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return dateTime.format(DATETIME_FORMATTER);
+        }
+        int nanos = dateTime.getNano();
+        int fractionDigits = 0;
+        if (nanos != 0) {
+            fractionDigits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                fractionDigits--;
             }
+        }
+        char[] chars = new char[fractionDigits == 0 ? 19 : 20 + fractionDigits];
+        writeDate(chars, year, dateTime.getMonthValue(), dateTime.getDayOfMonth());
+        chars[10] = ' ';
+        writeDigits(chars, 11, dateTime.getHour(), 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, dateTime.getMinute(), 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, dateTime.getSecond(), 2);
+        if (fractionDigits != 0) {
+            chars[19] = '.';
+            writeDigits(chars, 20, nanos, fractionDigits);
+        }
+        return new String(chars);
+    }
+
+    private static void writeDate(char[] chars, int year, int month, int day) {
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+    }
 
-            oneField.val = result.wasNull() ? null : value;
+    /*
+     * Writes the given number of the lowest decimal digits of the value, padded with zeros
+     */
+    private static void writeDigits(char[] chars, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
         }
-        return fields;
     }
 
     /**
@@ -401,4 +531,12 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
             }
         }
     }
+
+    /**
+     * Reads the value of a column from the current row of a result set.
+     */
+    @FunctionalInterface
+    private interface ColumnExtractor {
+        Object extract(ResultSet result) throws SQLException;
+    }
 }
@@ -30,6 +30,7 @@ import org.greenplum.pxf.plugins.jdbc.writercallable.WriterCallableFactory;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -48,19 +49,25 @@ public class JdbcWriter {
     private final ExecutorService writerExecutor;
     private final int terminationTimeoutSeconds;
     private final Semaphore semaphore;
+    private final AdaptiveBatchSizer batchSizer;
     private WriterCallable writerCallable = null;
+    private int writerBatchSize;
+    private int writerRows;
+    private long writerBytes;
     private boolean isCanceled;
 
     JdbcWriter(JdbcBasePlugin plugin,
                int batchSize,
                int batchTimeout,
                String query,
+               String copyQuery,
                int poolSize,
                int terminationTimeoutSeconds,
-               DbProduct dbProduct
+               DbProduct dbProduct,
+               AdaptiveBatchSizer batchSizer
     ) {
-        log.debug("Creating JdbcWriter with batchSize={}, batchTimeout={}, query={}, poolSize={}, terminationTimeoutSeconds={}",
-                batchSize, batchTimeout, query, poolSize, terminationTimeoutSeconds);
+        log.debug("Creating JdbcWriter with batchSize={}, batchTimeout={}, query={}, copyQuery={}, poolSize={}, terminationTimeoutSeconds={}",
+                batchSize, batchTimeout, query, copyQuery, poolSize, terminationTimeoutSeconds);
         this.terminationTimeoutSeconds = terminationTimeoutSeconds == 0 ? TERMINATION_TIMEOUT : terminationTimeoutSeconds;
         // Process poolSize
         if (poolSize < 1) {
@@ -79,9 +86,11 @@ public class JdbcWriter {
         semaphore = new Semaphore(poolSize);
         poolTasks = new ConcurrentLinkedQueue<>();
         firstException = new AtomicReference<>();
+        // the batch size is only adapted when batching is enabled
+        this.batchSizer = batchSize > 1 ? batchSizer : null;
 
         // Setup WriterCallableFactory
-        writerCallableFactory = new WriterCallableFactory(plugin, query, batchSize, semaphore::release, dbProduct);
+        writerCallableFactory = new WriterCallableFactory(plugin, query, copyQuery, batchSize, semaphore::release, dbProduct);
         log.debug("JdbcWriter is created with batchSize={}, batchTimeout={}, query={}, poolSize={}, terminationTimeoutSeconds={}",
                 batchSize, batchTimeout, query, poolSize, terminationTimeoutSeconds);
     }
@@ -92,9 +101,11 @@ public class JdbcWriter {
                 props.getBatchSize(),
                 props.getBatchTimeout(),
                 props.getQuery(),
+                props.getCopyQuery(),
                 props.getPoolSize(),
                 props.getTerminationTimeoutSeconds(),
-                props.getDbProduct()
+                props.getDbProduct(),
+                props.getBatchSizer()
         );
     }
 
@@ -103,11 +114,14 @@ public class JdbcWriter {
         if (writerCallableFactory == null) {
             throwException(new IllegalStateException("The JDBC connection was not properly initialized: writerCallableFactory is null"));
         } else if (writerCallable == null) {
-            writerCallable = writerCallableFactory.get();
-            log.trace("Created new writer {}", writerCallable);
+            createWriterCallable();
         }
 
         writerCallable.supply(row);
+        if (batchSizer != null) {
+            writerRows++;
+            writerBytes += AdaptiveBatchSizer.estimateSize(row);
+        }
         if (writerCallable.isCallRequired()) {
             if (log.isTraceEnabled()) {
                 log.trace("Accessor try to acquire semaphore to submit the task for writer {}", writerCallable);
@@ -119,11 +133,10 @@ public class JdbcWriter {
             // Semaphore#release runs as onComplete.run() in a 'finally' statement of WriterCallable#call
             semaphore.acquire();
             checkCanceled();
-            Future<SQLException> future = writerExecutor.submit(writerCallable);
+            Future<SQLException> future = writerExecutor.submit(getTask());
             poolTasks.add(future);
             log.trace("Accessor submitted the task for writer {} with future result {}", writerCallable, future);
-            writerCallable = writerCallableFactory.get();
-            log.trace("Created new writer {}", writerCallable);
+            createWriterCallable();
             // Check results for tasks that has already done
             checkWriteNextObjectResults();
         }
@@ -141,7 +154,7 @@ public class JdbcWriter {
                 if (writerCallable != null) {
                     // Send data that is left
                     checkCanceled();
-                    Future<SQLException> future = writerExecutor.submit(writerCallable);
+                    Future<SQLException> future = writerExecutor.submit(getTask());
                     poolTasks.add(future);
                     log.trace("Accessor submitted the last task for writer {} with future result {}", writerCallable, future);
                     checkCloseForWriteResults();
@@ -167,6 +180,42 @@ public class JdbcWriter {
         }
     }
 
+    /*
+     * The next batch is filled by the accessor while the previous batches are flushed by the threads of the pool
+     */
+    private void createWriterCallable() {
+        if (batchSizer == null) {
+            writerCallable = writerCallableFactory.get();
+        } else {
+            writerBatchSize = batchSizer.getBatchSize();
+            writerRows = 0;
+            writerBytes = 0;
+            writerCallable = writerCallableFactory.get(writerBatchSize);
+        }
+        log.trace("Created new writer {}", writerCallable);
+    }
+
+    /*
+     * Returns the task flushing the current writer, which records the flushed batch when the batch size is adapted
+     */
+    private Callable<SQLException> getTask() {
+        if (batchSizer == null) {
+            return writerCallable;
+        }
+        WriterCallable callable = writerCallable;
+        int batchSize = writerBatchSize;
+        int rows = writerRows;
+        long bytes = writerBytes;
+        return () -> {
+            long start = System.nanoTime();
+            SQLException exception = callable.call();
+            if (exception == null) {
+                batchSizer.record(batchSize, rows, bytes, System.nanoTime() - start);
+            }
+            return exception;
+        };
+    }
+
     private void checkCanceled() throws Exception {
         if (isCanceled) {
             String message = "The write operation was canceled";
@@ -30,7 +30,9 @@ public class JdbcWriterProperties {
     private final Integer batchSize;
     private final int batchTimeout;
     private final String query;
+    private final String copyQuery;
     private final int poolSize;
     private final int terminationTimeoutSeconds;
     private final DbProduct dbProduct;
+    private final AdaptiveBatchSizer batchSizer;
 }
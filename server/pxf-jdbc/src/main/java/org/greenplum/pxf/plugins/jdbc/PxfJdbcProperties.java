@@ -9,6 +9,8 @@ import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = PxfJdbcProperties.PROPERTY_PREFIX)
@@ -53,5 +55,21 @@ public class PxfJdbcProperties {
          */
         @DurationUnit(ChronoUnit.HOURS)
         private Duration poolExpirationTimeout = Duration.ofHours(6);
+
+        /**
+         * Defines the servers whose connection pools are created at startup
+         * and after the servers are reloaded, so that the first query does
+         * not wait for the connections to be established. The pools keep
+         * the minimumIdle connections configured for the server.
+         */
+        private List<String> warmUpServers = new ArrayList<>();
+
+        /**
+         * Defines the interval at which the connection pools of the warm-up
+         * servers are accessed, so that they are not expired when the
+         * servers are not queried.
+         */
+        @DurationUnit(ChronoUnit.MINUTES)
+        private Duration warmUpInterval = Duration.ofHours(1);
     }
 }
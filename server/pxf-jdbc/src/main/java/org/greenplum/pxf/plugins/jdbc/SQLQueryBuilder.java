@@ -160,6 +160,89 @@ public class SQLQueryBuilder {
         return query;
     }
 
+    /**
+     * Build a query counting the rows matching the "WHERE" and partition constraints.
+     *
+     * @return SQL query returning a single row with the number of rows
+     */
+    public String buildCountQuery() {
+        StringBuilder sb = new StringBuilder("SELECT COUNT(*) FROM ")
+                .append(getSource());
+
+        // Insert regular WHERE constraints
+        buildWhereSQL(sb);
+
+        // Insert partition constraints
+        buildFragmenterSql(context, dbProduct, quoteString, sb);
+
+        String query = sb.toString();
+        LOG.debug("buildCountQuery: {}", query);
+        return query;
+    }
+
+    /**
+     * Build a query returning the minimum and the maximum values of the partition column
+     * among the rows matching the "WHERE" constraints of the query.
+     *
+     * @param column the partition column
+     * @return SQL query returning a single row with the minimum and the maximum values
+     */
+    public String buildPartitionRangeQuery(String column) {
+        String quotedColumn = quoteString + column + quoteString;
+        StringBuilder sb = new StringBuilder("SELECT MIN(")
+                .append(quotedColumn)
+                .append("), MAX(")
+                .append(quotedColumn)
+                .append(") FROM ")
+                .append(getSource());
+
+        buildWhereSQL(sb);
+
+        String query = sb.toString();
+        LOG.debug("buildPartitionRangeQuery: {}", query);
+        return query;
+    }
+
+    /**
+     * Build a query splitting the rows matching the "WHERE" constraints of the query into the given number
+     * of groups of the same size, ordered by the partition column, and returning the smallest value of
+     * the partition column of every group in ascending order.
+     *
+     * @param column the partition column
+     * @param count  the number of groups
+     * @return SQL query returning the smallest value of every group, null for the groups of null values
+     */
+    public String buildPartitionQuantilesQuery(String column, int count) {
+        String quotedColumn = quoteString + column + quoteString;
+        StringBuilder sb = new StringBuilder("SELECT MIN(pxf_value) FROM (SELECT ")
+                .append(quotedColumn)
+                .append(" pxf_value, NTILE(")
+                .append(count)
+                .append(") OVER (ORDER BY ")
+                .append(quotedColumn)
+                .append(") pxf_tile FROM ")
+                .append(getSource());
+
+        buildWhereSQL(sb);
+
+        sb.append(") pxftiles GROUP BY pxf_tile ORDER BY pxf_tile");
+
+        String query = sb.toString();
+        LOG.debug("buildPartitionQuantilesQuery: {}", query);
+        return query;
+    }
+
+    /**
+     * Build a query returning the number of rows of the table estimated by the statistics
+     * of the external database.
+     *
+     * @return SQL query returning a single row with the estimated number of rows, or null if the source
+     * is not a table or the external database does not provide an estimate
+     */
+    public String buildRowCountEstimateQuery() {
+        return subQueryUsed ? null : dbProduct.buildRowCountEstimateQuery(source);
+    }
+
     /**
      * Build INSERT query template (field values are replaced by placeholders '?')
      *
@@ -196,6 +279,21 @@ public class SQLQueryBuilder {
         return sb.toString();
     }
 
+    /**
+     * Build COPY query streaming the values of all the columns from the client in the text format
+     *
+     * @return SQL query copying rows into the table
+     */
+    public String buildCopyQuery() {
+        String query = "COPY " + source + "(" +
+                columns.stream()
+                        .map(c -> quoteString + c.columnName() + quoteString)
+                        .collect(Collectors.joining(", ")) +
+                ") FROM STDIN";
+        LOG.debug("buildCopyQuery: {}", query);
+        return query;
+    }
+
     /**
      * Check whether column names must be quoted and set quoteString if so.
      * <p>
@@ -23,8 +23,14 @@ import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.plugins.jdbc.Interval;
 import org.greenplum.pxf.plugins.jdbc.IntervalType;
 
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -69,6 +75,22 @@ public enum PartitionType {
         String getValidIntervalFormat() {
             return "Integer";
         }
+
+        @Override
+        Object getValue(ResultSet result, int index) throws SQLException {
+            long value = result.getLong(index);
+            return result.wasNull() ? null : value;
+        }
+
+        @Override
+        long toLong(Object value) {
+            return (long) value;
+        }
+
+        @Override
+        Object fromLong(long value) {
+            return value;
+        }
     },
     DATE {
         @Override
@@ -112,6 +134,22 @@ public enum PartitionType {
         String getValidIntervalFormat() {
             return "yyyy-mm-dd";
         }
+
+        @Override
+        Object getValue(ResultSet result, int index) throws SQLException {
+            Date value = result.getDate(index);
+            return value == null ? null : value.toLocalDate();
+        }
+
+        @Override
+        long toLong(Object value) {
+            return ((LocalDate) value).toEpochDay();
+        }
+
+        @Override
+        Object fromLong(long value) {
+            return LocalDate.ofEpochDay(value);
+        }
     },
     TIMESTAMP {
         @Override
@@ -161,6 +199,25 @@ public enum PartitionType {
         String getValidIntervalFormat() {
             return "yyyyMMddTHHmmss";
         }
+
+        @Override
+        Object getValue(ResultSet result, int index) throws SQLException {
+            Timestamp value = result.getTimestamp(index);
+            return value == null ? null : value.toLocalDateTime();
+        }
+
+        /**
+         * The timestamps are partitioned by whole seconds.
+         */
+        @Override
+        long toLong(Object value) {
+            return ((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC);
+        }
+
+        @Override
+        Object fromLong(long value) {
+            return LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+        }
     },
     ENUM {
         private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
@@ -219,6 +276,21 @@ public enum PartitionType {
         String getValidIntervalFormat() {
             throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
         }
+
+        @Override
+        Object getValue(ResultSet result, int index) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
+        @Override
+        long toLong(Object value) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
+        @Override
+        Object fromLong(long value) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
     };
 
     protected List<JdbcFragmentMetadata> generate(String column, String range, String interval,
@@ -292,6 +364,142 @@ public enum PartitionType {
      */
     abstract String getValidIntervalFormat();
 
+    /**
+     * Read a value of the partition column from a result set
+     *
+     * @param result the result set positioned at a row
+     * @param index  the index of the column in the result set
+     * @return the value, or null if the value is SQL NULL
+     * @throws SQLException if the value could not be read
+     */
+    abstract Object getValue(ResultSet result, int index) throws SQLException;
+
+    /**
+     * Convert a value of the partition column to a number, values of the same partition type
+     * are ordered the same way as their numbers
+     *
+     * @param value the value
+     * @return the number of the value
+     */
+    abstract long toLong(Object value);
+
+    /**
+     * @param value the number of a value, as returned by {@link #toLong(Object)}
+     * @return the value
+     */
+    abstract Object fromLong(long value);
+
+    /**
+     * Read the values of the partition column in all the columns of all the rows of a result set,
+     * ignoring SQL NULL values.
+     *
+     * @param result the result set
+     * @return the values, in the order of the rows and the columns
+     * @throws SQLException if the values could not be read
+     */
+    public List<Object> readValues(ResultSet result) throws SQLException {
+        int columnCount = result.getMetaData().getColumnCount();
+        List<Object> values = new ArrayList<>();
+        while (result.next()) {
+            for (int i = 1; i <= columnCount; i++) {
+                Object value = getValue(result, i);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Compute the boundaries of partitions of equal width covering all the values between the given minimum and
+     * maximum values. There are fewer partitions than requested when there are fewer distinct values.
+     *
+     * @param min   the minimum value of the partition column
+     * @param max   the maximum value of the partition column
+     * @param count the requested number of partitions
+     * @return the increasing boundaries of the partitions, starting at the minimum value
+     */
+    public List<Object> getUniformBoundaries(Object min, Object max, int count) {
+        BigInteger start = BigInteger.valueOf(toLong(min));
+        BigInteger width = BigInteger.valueOf(getEnd(max)).subtract(start);
+        BigInteger parts = BigInteger.valueOf(count);
+
+        List<Long> boundaries = new ArrayList<>(count + 1);
+        for (int i = 0; i <= count; i++) {
+            boundaries.add(start.add(width.multiply(BigInteger.valueOf(i)).divide(parts)).longValueExact());
+        }
+        return toBoundaries(boundaries);
+    }
+
+    /**
+     * Compute the boundaries of partitions starting at the given values, the last partition ending after the
+     * maximum value. Equal values start a single partition.
+     *
+     * @param starts the increasing values starting the partitions, such as the quantiles of the partition column
+     * @param max    the maximum value of the partition column
+     * @return the increasing boundaries of the partitions, starting at the first of the given values
+     */
+    public List<Object> getQuantileBoundaries(List<Object> starts, Object max) {
+        List<Long> boundaries = new ArrayList<>(starts.size() + 1);
+        for (Object start : starts) {
+            boundaries.add(toLong(start));
+        }
+        boundaries.add(getEnd(max));
+        return toBoundaries(boundaries);
+    }
+
+    /**
+     * Form a list of getFragmentsMetadata for the partitions between the given boundaries, which are usually
+     * computed from the statistics of the partition column rather than provided by the user. The values before
+     * the first boundary, the values after the last boundary and the NULL values get partitions of their own,
+     * so that all the rows are read even if the statistics are outdated.
+     *
+     * @param column          the partition column name
+     * @param boundaries      the increasing boundaries of the partitions, at least two
+     * @param isDateWideRange determine if the year might contain more than 4 digits
+     * @return a list of getFragmentsMetadata (of various concrete types)
+     */
+    public List<JdbcFragmentMetadata> getFragmentsMetadata(String column, List<Object> boundaries,
+                                                           boolean isDateWideRange) {
+        if (StringUtils.isBlank(column)) {
+            throw new RuntimeException("The column name must be provided");
+        }
+        if (boundaries.size() < 2) {
+            throw new IllegalArgumentException("At least two partition boundaries must be provided");
+        }
+
+        List<JdbcFragmentMetadata> partitions = new ArrayList<>();
+        partitions.add(createPartition(column, null, boundaries.get(0), isDateWideRange));
+        partitions.add(createPartition(column, boundaries.get(boundaries.size() - 1), null, isDateWideRange));
+        for (int i = 1; i < boundaries.size(); i++) {
+            partitions.add(createPartition(column, boundaries.get(i - 1), boundaries.get(i), isDateWideRange));
+        }
+        partitions.add(new NullPartition(column));
+        return partitions;
+    }
+
+    /*
+     * The number of the value following the maximum value, as partitions do not include their end
+     */
+    private long getEnd(Object max) {
+        long end = toLong(max);
+        // the largest value falls into the partition after the last boundary
+        return end == Long.MAX_VALUE ? end : end + 1;
+    }
+
+    private List<Object> toBoundaries(List<Long> numbers) {
+        List<Object> boundaries = new ArrayList<>(numbers.size());
+        Long previous = null;
+        for (Long number : numbers) {
+            if (previous == null || number > previous) {
+                boundaries.add(fromLong(number));
+                previous = number;
+            }
+        }
+        return boundaries;
+    }
+
     /**
      * Analyze the user-provided parameters (column name, RANGE and INTERVAL values) and form a list of getFragmentsMetadata for this partition according to those parameters.
      *
@@ -6,10 +6,13 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalListeners;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
@@ -24,15 +27,23 @@ import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * Responsible for obtaining and maintaining JDBC connections to databases. If configured for a given server,
- * uses Hikari Connection Pool to pool database connections.
+ * uses Hikari Connection Pool to pool database connections. The pools report their metrics to Micrometer,
+ * tagged with the name of the pool.
  */
 @Slf4j
 @Component
@@ -42,6 +53,7 @@ public class ConnectionManager {
 
     private final LoadingCache<PoolDescriptor, HikariDataSource> dataSources;
     private final DriverManagerWrapper driverManagerWrapper;
+    private final List<Consumer<Set<String>>> reloadListeners = new CopyOnWriteArrayList<>();
 
     public ConnectionManager(DataSourceFactory factory, Ticker ticker, PxfJdbcProperties properties, DriverManagerWrapper driverManagerWrapper) {
         this.driverManagerWrapper = driverManagerWrapper;
@@ -81,16 +93,39 @@ public class ConnectionManager {
     }
 
     public void reloadCache() {
-        dataSources.asMap().forEach(this::invalidateAndCloseDaraSource);
+        reloadCacheIf(poolDescriptor -> true);
     }
 
     public void reloadCacheIf(Predicate<PoolDescriptor> poolDescriptorFilter) {
+        Set<String> servers = new HashSet<>();
         dataSources.asMap()
                 .forEach((poolDescriptor, hikariDataSource) -> {
                     if (poolDescriptorFilter.test(poolDescriptor)) {
                         invalidateAndCloseDaraSource(poolDescriptor, hikariDataSource);
+                        servers.add(poolDescriptor.getServer());
                     }
                 });
+        if (!servers.isEmpty()) {
+            reloadListeners.forEach(listener -> listener.accept(servers));
+        }
+    }
+
+    /**
+     * Registers a listener that is called with the names of the servers whose pools were closed by a reload.
+     *
+     * @param listener the listener
+     */
+    public void addReloadListener(Consumer<Set<String>> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Returns the live connection pools, without counting as an access of the pools.
+     *
+     * @return the pools by their descriptors
+     */
+    Map<PoolDescriptor, HikariDataSource> getDataSources() {
+        return ImmutableMap.copyOf(dataSources.asMap());
     }
 
     private void invalidateAndCloseDaraSource(PoolDescriptor poolDescriptor, HikariDataSource hds) {
@@ -183,6 +218,19 @@ public class ConnectionManager {
     @Component
     public static class DataSourceFactory {
 
+        private static final String POOL_NAME_PROPERTY_NAME = "poolName";
+
+        private final AtomicInteger poolNumber = new AtomicInteger();
+        private final MeterRegistry meterRegistry;
+
+        public DataSourceFactory() {
+            this(Metrics.globalRegistry);
+        }
+
+        DataSourceFactory(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
         /**
          * Creates a new datasource instance based on parameters contained in PoolDescriptor.
          *
@@ -196,6 +244,12 @@ public class ConnectionManager {
             Properties configProperties = poolDescriptor.getPoolConfig() != null ? poolDescriptor.getPoolConfig() : new Properties();
             HikariConfig config = new HikariConfig(configProperties);
 
+            // name the pools after their server, the name tags the metrics of the pool and must be unique,
+            // a pool name set for the server is shared by the pools of all its users and qualifiers
+            String poolName = configProperties.getProperty(POOL_NAME_PROPERTY_NAME, "pxf-" + poolDescriptor.getServer());
+            config.setPoolName(String.format("%s-%d", poolName, poolNumber.incrementAndGet()));
+            config.setMetricRegistry(meterRegistry);
+
             // overwrite jdbcUrl / userName / password with the values provided explicitly
             config.setJdbcUrl(poolDescriptor.getJdbcUrl());
             config.setUsername(poolDescriptor.getUser());
@@ -21,9 +21,13 @@ package org.greenplum.pxf.plugins.jdbc.utils;
 
 import lombok.NonNull;
 import org.greenplum.pxf.plugins.jdbc.utils.oracle.OracleJdbcUtils;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -60,6 +64,12 @@ public enum DbProduct {
                         String.format("The value '%s' cannot be converted to the Microsoft SQL Server 'DATETIMEOFFSET' type", val));
             }
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String table) {
+            return "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(" + quoteLiteral(table) +
+                    ") AND index_id IN (0, 1)";
+        }
     },
 
     MYSQL {
@@ -67,6 +77,14 @@ public enum DbProduct {
         public String wrapDate(String val) {
             return "DATE('" + val + "')";
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String table) {
+            int index = table.lastIndexOf('.');
+            String schema = index < 0 ? "DATABASE()" : quoteLiteral(table.substring(0, index));
+            return "SELECT table_rows FROM information_schema.tables WHERE table_schema = " + schema +
+                    " AND table_name = " + quoteLiteral(table.substring(index + 1));
+        }
     },
 
     ORACLE {
@@ -102,6 +120,18 @@ public enum DbProduct {
         public String buildSessionQuery(String key, String value) {
             return OracleJdbcUtils.buildSessionQuery(key, value);
         }
+
+        /**
+         * Oracle stores the names of the tables that were not quoted in upper case.
+         */
+        @Override
+        public String buildRowCountEstimateQuery(String table) {
+            String upperCaseTable = table.toUpperCase();
+            int index = upperCaseTable.lastIndexOf('.');
+            String owner = index < 0 ? "USER" : quoteLiteral(upperCaseTable.substring(0, index));
+            return "SELECT num_rows FROM all_tables WHERE owner = " + owner +
+                    " AND table_name = " + quoteLiteral(upperCaseTable.substring(index + 1));
+        }
     },
 
     POSTGRES {
@@ -124,6 +154,28 @@ public enum DbProduct {
         public String wrapTimestampWithTZ(String val) {
             return "'" + val + "'";
         }
+
+        /**
+         * The number of rows is negative for the tables that were never analyzed.
+         */
+        @Override
+        public String buildRowCountEstimateQuery(String table) {
+            return "SELECT reltuples FROM pg_class WHERE oid = to_regclass(" + quoteLiteral(table) + ")";
+        }
+
+        /**
+         * The PostgreSQL driver only fetches the rows with a cursor when autocommit is off,
+         * otherwise it reads the whole result set in memory regardless of the fetch size.
+         * Unknown databases are also treated as PostgreSQL, autocommit is only changed for
+         * the connections of the PostgreSQL driver.
+         */
+        @Override
+        public void prepareForStreaming(Connection connection, Statement statement, int fetchSize) throws SQLException {
+            if (connection.isWrapperFor(PGConnection.class) && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+            statement.setFetchSize(fetchSize);
+        }
     },
 
     S3_SELECT {
@@ -233,6 +285,32 @@ public enum DbProduct {
         return String.format("SET %s = %s", key, value);
     }
 
+    /**
+     * Build a query returning the number of rows of a table estimated by the statistics of the target database
+     *
+     * @param table the name of the table, optionally qualified by its schema
+     * @return a query returning a single row with the estimated number of rows,
+     * or null if the target database does not provide an estimate
+     */
+    public String buildRowCountEstimateQuery(String table) {
+        return null;
+    }
+
+    /**
+     * Prepare a statement to fetch the rows of its result set from the target database in batches of the
+     * given number of rows, instead of reading the whole result set in memory. MySQL streams the rows one
+     * by one with a fetch size of {@link Integer#MIN_VALUE}, and only uses a positive fetch size with the
+     * useCursorFetch connection property. Oracle uses the fetch size as the row prefetch of the statement.
+     *
+     * @param connection the connection of the statement
+     * @param statement  the statement
+     * @param fetchSize  the number of rows fetched at once
+     * @throws SQLException if the statement or the connection could not be changed
+     */
+    public void prepareForStreaming(Connection connection, Statement statement, int fetchSize) throws SQLException {
+        statement.setFetchSize(fetchSize);
+    }
+
     /**
      * Get DbProduct for database by database name
      *
@@ -272,5 +350,9 @@ public enum DbProduct {
         return result;
     }
 
+    private static String quoteLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(DbProduct.class);
 }
@@ -0,0 +1,101 @@
+package org.greenplum.pxf.plugins.jdbc.utils;
+
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+
+import java.util.List;
+
+/**
+ * Utilities class to choose the fetch size of a SELECT query from the estimated width of its rows,
+ * so that the rows fetched at once by the JDBC driver fit in a memory budget.
+ */
+public class FetchSizeEstimator {
+
+    /* the rows and values buffered by the drivers are objects with headers and references */
+    private static final int ROW_OVERHEAD = 16;
+    private static final int VALUE_OVERHEAD = 16;
+    /* the width of the variable length values whose maximum length is not known */
+    private static final int VARIABLE_WIDTH = 256;
+    private static final int UNKNOWN_WIDTH = -1;
+
+    /**
+     * Estimates the number of bytes a row of the projected columns takes in the memory of the JDBC driver.
+     *
+     * @param columns the columns of the table
+     * @return the estimated width of a row
+     */
+    public static long estimateRowWidth(List<ColumnDescriptor> columns) {
+        long width = ROW_OVERHEAD;
+        for (ColumnDescriptor column : columns) {
+            if (column.isProjected()) {
+                width += VALUE_OVERHEAD + estimateValueWidth(column);
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Determines whether the width of a projected column is not known, so that its values can be much wider
+     * than their estimated width.
+     *
+     * @param columns the columns of the table
+     * @return true if the maximum width of a projected column is not known
+     */
+    public static boolean hasUnknownWidth(List<ColumnDescriptor> columns) {
+        for (ColumnDescriptor column : columns) {
+            if (column.isProjected() && getValueWidth(column) == UNKNOWN_WIDTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of rows of the given width that fit in the memory budget, within the given bounds.
+     *
+     * @param memoryBudget the number of bytes the fetched rows can take
+     * @param rowWidth     the estimated width of a row
+     * @param minFetchSize the minimum fetch size
+     * @param maxFetchSize the maximum fetch size
+     * @return the fetch size
+     */
+    public static int getFetchSize(long memoryBudget, long rowWidth, int minFetchSize, int maxFetchSize) {
+        long fetchSize = memoryBudget / Math.max(rowWidth, 1);
+        return (int) Math.max(minFetchSize, Math.min(maxFetchSize, fetchSize));
+    }
+
+    private static int estimateValueWidth(ColumnDescriptor column) {
+        int width = getValueWidth(column);
+        return width == UNKNOWN_WIDTH ? VARIABLE_WIDTH : width;
+    }
+
+    private static int getValueWidth(ColumnDescriptor column) {
+        switch (column.getDataType()) {
+            case BOOLEAN:
+                return 1;
+            case SMALLINT:
+                return 2;
+            case INTEGER:
+            case REAL:
+            case DATE:
+                return 4;
+            case BIGINT:
+            case FLOAT8:
+            case TIME:
+            case TIMESTAMP:
+                return 8;
+            case TIMESTAMP_WITH_TIME_ZONE:
+                return 12;
+            case NUMERIC:
+            case INTERVAL:
+            case UUID:
+                return 16;
+            case BPCHAR:
+            case VARCHAR:
+                Integer[] modifiers = column.columnTypeModifiers();
+                return modifiers != null && modifiers.length > 0 && modifiers[0] != null && modifiers[0] > 0
+                        ? modifiers[0] : UNKNOWN_WIDTH;
+            default:
+                return UNKNOWN_WIDTH;
+        }
+    }
+}
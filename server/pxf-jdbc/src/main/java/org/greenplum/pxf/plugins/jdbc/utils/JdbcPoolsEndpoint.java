@@ -0,0 +1,71 @@
+package org.greenplum.pxf.plugins.jdbc.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint listing the live JDBC connection pools with their configured sizes and current
+ * number of connections, so that the sizes of the pools can be tuned. The pools are identified by their
+ * server, name and qualifier only, as their JDBC URL and user can contain credentials. The endpoint is
+ * not exposed by default.
+ */
+@Component
+@Endpoint(id = "jdbcpools")
+public class JdbcPoolsEndpoint {
+
+    private final ConnectionManager connectionManager;
+
+    public JdbcPoolsEndpoint(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Lists the live connection pools.
+     *
+     * @return the pools, ordered by server and pool name
+     */
+    @ReadOperation
+    public List<PoolInfo> pools() {
+        return connectionManager.getDataSources().entrySet().stream()
+                .map(entry -> new PoolInfo(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(PoolInfo::getServer).thenComparing(PoolInfo::getPoolName))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The state of a connection pool.
+     */
+    @Getter
+    public static class PoolInfo {
+        private final String server;
+        private final String poolName;
+        private final String qualifier;
+        private final int maximumPoolSize;
+        private final int minimumIdle;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int totalConnections;
+        private final int pendingThreads;
+
+        PoolInfo(PoolDescriptor poolDescriptor, HikariDataSource dataSource) {
+            this.server = poolDescriptor.getServer();
+            this.poolName = dataSource.getPoolName();
+            this.qualifier = poolDescriptor.getQualifier();
+            this.maximumPoolSize = dataSource.getMaximumPoolSize();
+            this.minimumIdle = dataSource.getMinimumIdle();
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            this.activeConnections = pool == null ? 0 : pool.getActiveConnections();
+            this.idleConnections = pool == null ? 0 : pool.getIdleConnections();
+            this.totalConnections = pool == null ? 0 : pool.getTotalConnections();
+            this.pendingThreads = pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        }
+    }
+}
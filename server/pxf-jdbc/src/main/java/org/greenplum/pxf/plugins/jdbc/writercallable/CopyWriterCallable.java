@@ -0,0 +1,295 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.jdbc.JdbcBasePlugin;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This writer streams rows to a PostgreSQL compatible database with COPY ... FROM STDIN.
+ * <p>
+ * The rows are encoded in the text format of COPY as they are supplied, a call() is required
+ * after a certain number of supply() calls and copies the encoded rows in a single COPY command.
+ * <p>
+ * COPY is not executed by a JDBC statement, so jdbc.statement.queryTimeout is applied with the
+ * statement_timeout of the session, which is reset before the connection is closed.
+ */
+@Slf4j
+class CopyWriterCallable implements WriterCallable {
+    private static final String NULL_VALUE = "\\N";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final JdbcBasePlugin plugin;
+    private final String query;
+    private final StringBuilder data;
+    private final int batchSize;
+    private final Runnable onComplete;
+    private int rowCount;
+
+    /**
+     * Construct a new COPY writer
+     */
+    CopyWriterCallable(JdbcBasePlugin plugin, String query, int batchSize, Runnable onComplete) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        } else if (plugin == null) {
+            throw new IllegalArgumentException("Plugin must not be null");
+        } else if (query == null) {
+            throw new IllegalArgumentException("Query must not be null");
+        } else if (onComplete == null) {
+            throw new IllegalArgumentException("onComplete must not be null");
+        }
+
+        this.plugin = plugin;
+        this.query = query;
+        this.batchSize = batchSize;
+        this.onComplete = onComplete;
+        data = new StringBuilder();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void supply(OneRow row) throws IllegalStateException {
+        if (rowCount >= batchSize) {
+            throw new IllegalStateException("Trying to supply() a OneRow object to a full WriterCallable");
+        }
+        if (row == null) {
+            throw new IllegalArgumentException("Trying to supply() a null OneRow object");
+        }
+        // This is safe: OneRow comes from JdbcResolver
+        List<OneField> tuple = (List<OneField>) row.getData();
+        int length = data.length();
+        try {
+            for (int i = 0; i < tuple.size(); i++) {
+                if (i > 0) {
+                    data.append('\t');
+                }
+                appendField(data, tuple.get(i));
+            }
+        } catch (IOException e) {
+            data.setLength(length);
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        data.append('\n');
+        rowCount++;
+    }
+
+    @Override
+    public boolean isCallRequired() {
+        return rowCount >= batchSize;
+    }
+
+    @Override
+    public SQLException call() throws SQLException {
+        log.trace("Writer {}: call() to copy {} rows", this, rowCount);
+        long start = System.nanoTime();
+        if (rowCount == 0) {
+            return null;
+        }
+
+        Connection connection = null;
+        Statement statement = null;
+        boolean timeoutSet = false;
+        try {
+            connection = plugin.getConnection();
+            statement = connection.createStatement();
+            Integer queryTimeout = plugin.getQueryTimeout();
+            if (queryTimeout != null && queryTimeout > 0) {
+                log.trace("Writer {}: setting statement timeout to {} seconds", this, queryTimeout);
+                statement.execute(String.format("SET statement_timeout = %d", queryTimeout * 1000L));
+                timeoutSet = true;
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            log.trace("Writer {}: got copy manager", this);
+            long copied = copyManager.copyIn(query, new StringReader(data.toString()));
+            log.trace("Writer {}: copyIn() finished with {} rows", this, copied);
+            // some drivers will not react to timeout interrupt
+            if (Thread.interrupted())
+                throw new SQLException("Writer was interrupted by timeout or by request");
+        } catch (SQLException e) {
+            log.error("Writer {}: call() failed: SQLException", this, e);
+            return e;
+        } catch (Throwable t) {
+            log.error("Writer {}: call() failed: Throwable", this, t);
+            if (t.getCause() instanceof SQLException) {
+                return (SQLException) t.getCause();
+            } else {
+                return new SQLException(t);
+            }
+        } finally {
+            if (log.isTraceEnabled()) {
+                long duration = System.nanoTime() - start;
+                log.trace("Writer {}: call() done in {} ms", this, duration / 1000000);
+            }
+            data.setLength(0);
+            rowCount = 0;
+            try {
+                if (statement != null) {
+                    if (timeoutSet) {
+                        resetStatementTimeout(statement);
+                    }
+                    JdbcBasePlugin.closeStatementAndConnection(statement);
+                } else if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                log.trace("Writer {} completed copying the batch", this);
+                onComplete.run();
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CopyWriterCallable@%d", hashCode());
+    }
+
+    /*
+     * The connection may come from a pool, its next user must not inherit the timeout
+     */
+    private void resetStatementTimeout(Statement statement) {
+        try {
+            statement.execute("RESET statement_timeout");
+        } catch (SQLException e) {
+            log.warn("Writer {}: failed to reset statement timeout", this, e);
+        }
+    }
+
+    /**
+     * Appends the value of a field in the text format of COPY
+     *
+     * @param sb    the rows to copy
+     * @param field the field
+     * @throws IOException if the field does not come from JdbcResolver
+     */
+    static void appendField(StringBuilder sb, OneField field) throws IOException {
+        if (field.val == null) {
+            sb.append(NULL_VALUE);
+            return;
+        }
+        switch (DataType.get(field.type)) {
+            case INTEGER:
+            case BIGINT:
+            case SMALLINT:
+            case REAL:
+            case FLOAT8:
+            case UUID:
+                sb.append(field.val);
+                break;
+            case BOOLEAN:
+                sb.append((boolean) field.val ? 't' : 'f');
+                break;
+            case NUMERIC:
+                sb.append(((BigDecimal) field.val).toPlainString());
+                break;
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case JSON:
+            case JSONB:
+                appendEscaped(sb, field.val.toString());
+                break;
+            case BYTEA:
+                // the backslash of the hex format of bytea is escaped
+                sb.append("\\\\x");
+                for (byte b : (byte[]) field.val) {
+                    sb.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+                }
+                break;
+            case TIMESTAMP:
+                if (field.val instanceof LocalDateTime) {
+                    appendDateTime(sb, (LocalDateTime) field.val);
+                } else {
+                    sb.append(field.val);
+                }
+                break;
+            case DATE:
+                if (field.val instanceof LocalDate) {
+                    appendDate(sb, (LocalDate) field.val);
+                    appendEra(sb, (LocalDate) field.val);
+                } else {
+                    sb.append(field.val);
+                }
+                break;
+            default:
+                throw new IOException("The data tuple from JdbcResolver is corrupted");
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    /*
+     * Dates of the wide range mode can be before the common era, which PostgreSQL expects as a positive year followed by BC
+     */
+    private static void appendDateTime(StringBuilder sb, LocalDateTime value) {
+        LocalDate date = value.toLocalDate();
+        appendDate(sb, date);
+        sb.append(' ').append(value.toLocalTime());
+        appendEra(sb, date);
+    }
+
+    private static void appendDate(StringBuilder sb, LocalDate value) {
+        int year = value.getYear();
+        sb.append(String.format("%04d-%02d-%02d", year > 0 ? year : 1 - year, value.getMonthValue(), value.getDayOfMonth()));
+    }
+
+    private static void appendEra(StringBuilder sb, LocalDate value) {
+        if (value.getYear() <= 0) {
+            sb.append(" BC");
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class WriterCallableFactory {
     private final int batchSize;
     private final JdbcBasePlugin plugin;
     private final String query;
+    private final String copyQuery;
     private final Runnable onComplete;
     private final DbProduct dbProduct;
 
@@ -43,8 +44,22 @@ public class WriterCallableFactory {
                                  int batchSize,
                                  Runnable onComplete,
                                  DbProduct dbProduct) {
+        this(plugin, query, null, batchSize, onComplete, dbProduct);
+    }
+
+    /**
+     * Create a new instance of the factory, which copies batches of rows with the given COPY query.
+     *
+     */
+    public WriterCallableFactory(JdbcBasePlugin plugin,
+                                 String query,
+                                 String copyQuery,
+                                 int batchSize,
+                                 Runnable onComplete,
+                                 DbProduct dbProduct) {
         this.plugin = plugin;
         this.query = query;
+        this.copyQuery = copyQuery;
         this.batchSize = batchSize;
         this.onComplete = onComplete;
         this.dbProduct = dbProduct;
@@ -56,6 +71,22 @@ public class WriterCallableFactory {
      * @return an implementation of WriterCallable, chosen based on parameters that were set for this factory
      */
     public WriterCallable get() {
+        return get(batchSize);
+    }
+
+    /**
+     * Get an instance of WriterCallable for batches of the given size
+     *
+     * @param batchSize the size of the batch, used instead of the batch size of the factory when batching is enabled
+     * @return an implementation of WriterCallable, chosen based on parameters that were set for this factory
+     */
+    public WriterCallable get(int batchSize) {
+        if (this.batchSize <= 1) {
+            batchSize = this.batchSize;
+        }
+        if (batchSize > 1 && copyQuery != null) {
+            return new CopyWriterCallable(plugin, copyQuery, batchSize, onComplete);
+        }
         if (batchSize > 1) {
             return new BatchWriterCallable(plugin, query, batchSize, onComplete, dbProduct);
         }
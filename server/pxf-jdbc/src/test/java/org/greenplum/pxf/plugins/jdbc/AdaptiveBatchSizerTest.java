@@ -0,0 +1,106 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveBatchSizerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testInitialBatchSizeIsLimited() {
+        assertEquals(10, new AdaptiveBatchSizer(2, 10, 100, 1000, 1000000, registry, Tags.empty()).getBatchSize());
+        assertEquals(100, new AdaptiveBatchSizer(500, 10, 100, 1000, 1000000, registry, Tags.empty()).getBatchSize());
+        assertEquals(50, new AdaptiveBatchSizer(50, 10, 100, 1000, 1000000, registry, Tags.empty()).getBatchSize());
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchSizer(100, 1, 100, 1000, 1000000, registry, Tags.empty()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchSizer(100, 10, 5, 1000, 1000000, registry, Tags.empty()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchSizer(100, 10, 100, 0, 1000000, registry, Tags.empty()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchSizer(100, 10, 100, 1000, 0, registry, Tags.empty()));
+    }
+
+    @Test
+    public void testFastBatchesGrowUpToMaximum() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 300, 1000, 1000000, registry, Tags.empty());
+        sizer.record(100, 100, 1000, 100 * MILLIS);
+        assertEquals(200, sizer.getBatchSize());
+        sizer.record(200, 200, 2000, 100 * MILLIS);
+        assertEquals(300, sizer.getBatchSize());
+        sizer.record(300, 300, 3000, 100 * MILLIS);
+        assertEquals(300, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testGrowthIsLimitedByBytes() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 10000, 1000, 15000, registry, Tags.empty());
+        sizer.record(100, 100, 10000, 100 * MILLIS);
+        assertEquals(150, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testSlowOrLargeBatchesShrinkDownToMinimum() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 30, 1000, 1000, 1000000, registry, Tags.empty());
+        sizer.record(100, 100, 1000, 2000 * MILLIS);
+        assertEquals(50, sizer.getBatchSize());
+        sizer.record(50, 50, 2000000, 100 * MILLIS);
+        assertEquals(30, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testBatchesWithinTargetOrPartialKeepSize() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 1000, 1000, 1000000, registry, Tags.empty());
+        sizer.record(100, 100, 1000, 700 * MILLIS);
+        assertEquals(100, sizer.getBatchSize());
+        sizer.record(100, 20, 200, 10 * MILLIS);
+        assertEquals(100, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testMetrics() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 1000, 1000, 1000000, registry, Tags.of("server", "default"));
+        sizer.record(100, 100, 1000, 500 * MILLIS);
+        sizer.record(100, 50, 500, 100 * MILLIS);
+
+        assertEquals(2, registry.get(AdaptiveBatchSizer.METRIC_FLUSH).tag("server", "default").timer().count());
+        assertEquals(600, registry.get(AdaptiveBatchSizer.METRIC_FLUSH).timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(150, registry.get(AdaptiveBatchSizer.METRIC_ROWS).counter().count());
+        assertEquals(100, registry.get(AdaptiveBatchSizer.METRIC_BATCH_ROWS).summary().max());
+        assertEquals(500, registry.get(AdaptiveBatchSizer.METRIC_THROUGHPUT).summary().max());
+    }
+
+    @Test
+    public void testEstimateSize() {
+        OneRow row = new OneRow(Arrays.asList(
+                new OneField(DataType.INTEGER.getOID(), 1),
+                new OneField(DataType.TEXT.getOID(), "abc"),
+                new OneField(DataType.BYTEA.getOID(), new byte[5]),
+                new OneField(DataType.TEXT.getOID(), null)));
+        assertEquals(8 + 3 + 5 + 8, AdaptiveBatchSizer.estimateSize(row));
+    }
+}
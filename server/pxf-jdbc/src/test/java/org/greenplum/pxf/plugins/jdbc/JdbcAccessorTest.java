@@ -3,8 +3,11 @@ package org.greenplum.pxf.plugins.jdbc;
 import io.arenadata.security.encryption.client.service.DecryptClient;
 import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.EnumAggregationType;
 import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
 import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,9 +25,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -304,6 +309,55 @@ public class JdbcAccessorTest {
         assertEquals(expected, queryPassed.getValue());
     }
 
+    @Test
+    public void testReadCountIsPushedDown() throws Exception {
+        context.setAccessor(JdbcAccessor.class.getName());
+        context.setAggType(EnumAggregationType.COUNT);
+        context.getTupleDescription().add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        ArgumentCaptor<String> queryPassed = ArgumentCaptor.forClass(String.class);
+        when(mockStatement.executeQuery(queryPassed.capture())).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(2L);
+        wireMocksForReadWithCreateStatement();
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+        accessor.retrieveStats();
+
+        assertEquals("SELECT COUNT(*) FROM test-table", queryPassed.getValue());
+        assertNull(accessor.emitAggObject().getData());
+        assertNull(accessor.emitAggObject().getData());
+        assertNull(accessor.emitAggObject());
+    }
+
+    @Test
+    public void testReadFetchSizeOfFixedWidthColumnsFitsMemoryBudget() {
+        context.setTupleDescription(Arrays.asList(
+                new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null),
+                new ColumnDescriptor("amt", DataType.BIGINT.getOID(), 1, "int8", null)));
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+
+        // rows of 60 bytes are capped at the maximum automatic fetch size
+        assertEquals(10000, accessor.getReadFetchSize());
+    }
+
+    @Test
+    public void testReadFetchSizeOfUnknownWidthColumnsIsNotAboveDefault() {
+        context.setTupleDescription(Arrays.asList(
+                new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null),
+                new ColumnDescriptor("body", DataType.TEXT.getOID(), 1, "text", null)));
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+
+        assertEquals(1000, accessor.getReadFetchSize());
+
+        // a small memory budget still lowers the fetch size
+        configuration.set("jdbc.read.memory-budget", "32768");
+        assertEquals(106, accessor.getReadFetchSize());
+    }
+
     private void wireMocksForReadWithCreateStatement() throws SQLException {
         wireMocksForRead();
         when(mockConnection.createStatement()).thenReturn(mockStatement);
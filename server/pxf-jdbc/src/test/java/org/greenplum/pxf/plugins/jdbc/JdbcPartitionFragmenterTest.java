@@ -22,17 +22,34 @@ package org.greenplum.pxf.plugins.jdbc;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
+import org.greenplum.pxf.plugins.jdbc.partitioning.NullPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class JdbcPartitionFragmenterTest {
 
     private RequestContext context;
+    private JdbcBasePlugin plugin;
+    private Connection connection;
+    private SQLQueryBuilder queryBuilder;
 
     @BeforeEach
     public void setUp() {
@@ -68,4 +85,160 @@ public class JdbcPartitionFragmenterTest {
         fragmenter.setRequestContext(context);
         assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
     }
+
+    @Test
+    public void testAutoPartitionByInt() throws Exception {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.setTotalSegments(3);
+        mockConnection();
+        when(queryBuilder.buildPartitionRangeQuery("id")).thenReturn("range");
+        ResultSet range = mockQuery("range", 2);
+        when(range.next()).thenReturn(true, false);
+        when(range.getLong(1)).thenReturn(1L);
+        when(range.getLong(2)).thenReturn(300L);
+
+        List<Fragment> fragments = getAutoFragmenter().getFragments();
+
+        assertEquals(6, fragments.size());
+        assertIntPartition(fragments.get(0), null, 1L);
+        assertIntPartition(fragments.get(1), 301L, null);
+        assertIntPartition(fragments.get(2), 1L, 101L);
+        assertIntPartition(fragments.get(3), 101L, 201L);
+        assertIntPartition(fragments.get(4), 201L, 301L);
+        assertTrue(fragments.get(5).getMetadata() instanceof NullPartition);
+        verify(connection).close();
+    }
+
+    @Test
+    public void testAutoPartitionByIntQuantiles() throws Exception {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.addOption("PARTITION_MODE", "quantile");
+        context.addOption("PARTITIONS", "4");
+        mockConnection();
+        when(queryBuilder.buildPartitionRangeQuery("id")).thenReturn("range");
+        when(queryBuilder.buildRowCountEstimateQuery()).thenReturn("estimate");
+        when(queryBuilder.buildPartitionQuantilesQuery("id", 2)).thenReturn("quantiles");
+        ResultSet range = mockQuery("range", 2);
+        when(range.next()).thenReturn(true, false);
+        when(range.getLong(1)).thenReturn(1L);
+        when(range.getLong(2)).thenReturn(300L);
+        // the estimated number of rows only allows for 2 partitions of the minimum size
+        ResultSet estimate = mockQuery("estimate", 1);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getLong(1)).thenReturn(20000L);
+        ResultSet quantiles = mockQuery("quantiles", 1);
+        when(quantiles.next()).thenReturn(true, true, true, false);
+        when(quantiles.getLong(1)).thenReturn(1L, 50L, 0L);
+        when(quantiles.wasNull()).thenReturn(false, false, true);
+
+        List<Fragment> fragments = getAutoFragmenter().getFragments();
+
+        assertEquals(5, fragments.size());
+        assertIntPartition(fragments.get(0), null, 1L);
+        assertIntPartition(fragments.get(1), 301L, null);
+        assertIntPartition(fragments.get(2), 1L, 50L);
+        assertIntPartition(fragments.get(3), 50L, 301L);
+        assertTrue(fragments.get(4).getMetadata() instanceof NullPartition);
+    }
+
+    @Test
+    public void testAutoPartitionWithoutValues() throws Exception {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.setTotalSegments(3);
+        mockConnection();
+        when(queryBuilder.buildPartitionRangeQuery("id")).thenReturn("range");
+        ResultSet range = mockQuery("range", 2);
+        when(range.next()).thenReturn(true, false);
+        when(range.wasNull()).thenReturn(true);
+
+        List<Fragment> fragments = getAutoFragmenter().getFragments();
+
+        assertEquals(1, fragments.size());
+        assertNull(fragments.get(0).getMetadata());
+        verify(queryBuilder, never()).buildRowCountEstimateQuery();
+    }
+
+    @Test
+    public void testAutoPartitionModeInvalid() {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.addOption("PARTITION_MODE", "random");
+        Fragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
+        assertEquals("The parameter 'PARTITION_MODE' has incorrect value 'random'. The correct values are 'uniform' and 'quantile'", e.getMessage());
+    }
+
+    @Test
+    public void testAutoPartitionCountInvalid() {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.addOption("PARTITIONS", "0");
+        Fragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
+        assertEquals("The parameter 'PARTITIONS' must be at least 1, but actual is 0", e.getMessage());
+    }
+
+    @Test
+    public void testAutoPartitionWithInterval() {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "auto");
+        context.addOption("INTERVAL", "10");
+        Fragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
+        assertEquals("The parameter 'INTERVAL' cannot be specified when 'RANGE' is 'auto'", e.getMessage());
+    }
+
+    @Test
+    public void testPartitionWithoutRangeIsNotAutomatic() {
+        context.addOption("PARTITION_BY", "id:int");
+        JdbcPartitionFragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::getFragments);
+        assertEquals("The parameter 'RANGE' must be specified for partition of type 'INT'", e.getMessage());
+    }
+
+    private void mockConnection() throws SQLException {
+        plugin = mock(JdbcBasePlugin.class);
+        connection = mock(Connection.class);
+        queryBuilder = mock(SQLQueryBuilder.class);
+        when(plugin.getConnection()).thenReturn(connection);
+        when(plugin.getSelectQueryBuilder(connection)).thenReturn(queryBuilder);
+        when(connection.getMetaData()).thenReturn(mock(DatabaseMetaData.class));
+    }
+
+    private ResultSet mockQuery(String query, int columnCount) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(plugin.getPreparedStatement(connection, query)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(columnCount);
+        return result;
+    }
+
+    private JdbcPartitionFragmenter getAutoFragmenter() {
+        JdbcPartitionFragmenter fragmenter = new JdbcPartitionFragmenter() {
+            @Override
+            JdbcBasePlugin createJdbcPlugin() {
+                return plugin;
+            }
+        };
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        return fragmenter;
+    }
+
+    private void assertIntPartition(Fragment fragment, Long start, Long end) {
+        IntPartition partition = (IntPartition) fragment.getMetadata();
+        assertEquals(start, partition.getStart());
+        assertEquals(end, partition.getEnd());
+    }
 }
@@ -0,0 +1,111 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import io.arenadata.security.encryption.client.service.DecryptClient;
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcPoolWarmerTest {
+
+    @Mock
+    private ConnectionManager mockConnectionManager;
+    @Mock
+    private ConfigurationFactory mockConfigurationFactory;
+    @Mock
+    private SecureLogin mockSecureLogin;
+    @Mock
+    private ObjectProvider<DecryptClient> mockDecryptClientProvider;
+    @Mock
+    private Connection mockConnection;
+    @Mock
+    private DatabaseMetaData mockMetaData;
+
+    private Configuration configuration;
+    private JdbcPoolWarmer warmer;
+
+    @BeforeEach
+    public void before() {
+        configuration = new Configuration();
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("jdbc.user", "pxf");
+
+        PxfJdbcProperties properties = new PxfJdbcProperties();
+        properties.getConnection().setWarmUpServers(Collections.singletonList("pg"));
+        warmer = new JdbcPoolWarmer(mockConnectionManager, mockConfigurationFactory, mockSecureLogin,
+                mockDecryptClientProvider, properties);
+    }
+
+    @AfterEach
+    public void after() {
+        warmer.destroy();
+    }
+
+    @Test
+    public void testReloadListenerIsRegistered() {
+        verify(mockConnectionManager).addReloadListener(any());
+    }
+
+    @Test
+    public void testWarmUpCreatesPool() throws Exception {
+        when(mockConfigurationFactory.initConfiguration(eq("pg"), eq("pg"), anyString(), isNull())).thenReturn(configuration);
+        when(mockConnectionManager.getConnection(eq("pg"), eq("test-url"), any(), eq(true), any(), isNull()))
+                .thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+
+        assertTrue(warmer.warmUp("pg"));
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testWarmUpSkipsImpersonatedServer() throws Exception {
+        configuration.set("pxf.service.user.impersonation", "true");
+        when(mockConfigurationFactory.initConfiguration(eq("pg"), eq("pg"), anyString(), isNull())).thenReturn(configuration);
+
+        assertFalse(warmer.warmUp("pg"));
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void testWarmUpSkipsQualifiedPool() throws Exception {
+        configuration.set("jdbc.pool.qualifier", "foo");
+        when(mockConfigurationFactory.initConfiguration(eq("pg"), eq("pg"), anyString(), isNull())).thenReturn(configuration);
+
+        assertFalse(warmer.warmUp("pg"));
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void testWarmUpFailureIsNotThrown() throws Exception {
+        when(mockConfigurationFactory.initConfiguration(eq("pg"), eq("pg"), anyString(), isNull())).thenReturn(configuration);
+        when(mockConnectionManager.getConnection(eq("pg"), eq("test-url"), any(), eq(true), any(), isNull()))
+                .thenThrow(new SQLException("connection refused"));
+
+        assertFalse(warmer.warmUp("pg"));
+    }
+}
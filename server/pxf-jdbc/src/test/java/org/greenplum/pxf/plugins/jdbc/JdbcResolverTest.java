@@ -1,6 +1,7 @@
 package org.greenplum.pxf.plugins.jdbc;
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
+import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.io.DataType;
@@ -31,6 +32,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -216,7 +218,8 @@ class JdbcResolverTest {
     void getFieldUUIDTest() throws SQLException {
         UUID uuid = UUID.fromString("decafbad-0000-0000-0000-000000000000");
         when(row.getData()).thenReturn(result);
-        when(result.getObject("uuid_col", java.util.UUID.class)).thenReturn(uuid);
+        when(result.findColumn("uuid_col")).thenReturn(1);
+        when(result.getObject(1, java.util.UUID.class)).thenReturn(uuid);
         columnDescriptors.add(new ColumnDescriptor("uuid_col", DataType.UUID.getOID(), 1, DataType.UUID.name(), null));
         context.setTupleDescription(columnDescriptors);
         resolver.columns = context.getTupleDescription();
@@ -228,6 +231,84 @@ class JdbcResolverTest {
         assertEquals(uuid, oneField.val);
     }
 
+    @Test
+    void getFieldsOfCountedRowTest() throws SQLException {
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null, false));
+        context.setTupleDescription(columnDescriptors);
+        resolver.columns = context.getTupleDescription();
+
+        List<OneField> oneFields = resolver.getFields(new OneRow(null, null));
+        assertEquals(2, oneFields.size());
+        assertEquals(DataType.INTEGER.getOID(), oneFields.get(0).type);
+        assertNull(oneFields.get(0).val);
+        assertNull(oneFields.get(1).val);
+    }
+
+    @Test
+    void getFieldsReusesExtractorsAndFieldsTest() throws SQLException {
+        when(row.getData()).thenReturn(result);
+        when(result.findColumn("id")).thenReturn(1);
+        when(result.findColumn("name")).thenReturn(2);
+        when(result.getInt(1)).thenReturn(1, 0);
+        when(result.getString(2)).thenReturn("alice", "bob");
+        when(result.wasNull()).thenReturn(false, true);
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("age", DataType.INTEGER.getOID(), 1, "int4", null, false));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 2, "text", null));
+        context.setTupleDescription(columnDescriptors);
+        resolver.columns = context.getTupleDescription();
+
+        List<OneField> first = resolver.getFields(row);
+        assertEquals(3, first.size());
+        assertEquals(DataType.INTEGER.getOID(), first.get(0).type);
+        assertEquals(1, first.get(0).val);
+        assertEquals(DataType.INTEGER.getOID(), first.get(1).type);
+        assertNull(first.get(1).val);
+        assertEquals("alice", first.get(2).val);
+
+        List<OneField> second = resolver.getFields(row);
+        assertSame(first, second);
+        assertNull(second.get(0).val);
+        assertNull(second.get(1).val);
+        assertEquals("bob", second.get(2).val);
+
+        // the columns are looked up once per result set, and the non-projected column is never read
+        verify(result).findColumn("id");
+        verify(result).findColumn("name");
+        verify(result, never()).findColumn("age");
+    }
+
+    @Test
+    void formatDateTest() {
+        for (LocalDate date : new LocalDate[]{
+                LocalDate.of(1977, 12, 11),
+                LocalDate.of(3, 5, 4),
+                LocalDate.of(1, 1, 1),
+                LocalDate.of(9999, 12, 31),
+                LocalDate.of(10000, 1, 1),
+                LocalDate.of(0, 6, 15),
+                LocalDate.of(-1234, 11, 1)}) {
+            assertEquals(date.format(GreenplumDateTime.DATE_FORMATTER), JdbcResolver.formatDate(date));
+        }
+    }
+
+    @Test
+    void formatDateTimeTest() {
+        for (LocalDateTime dateTime : new LocalDateTime[]{
+                LocalDateTime.of(1977, 12, 11, 15, 12, 11),
+                LocalDateTime.of(1977, 12, 11, 15, 12, 11, 123456789),
+                LocalDateTime.of(1977, 12, 11, 15, 12, 11, 120000000),
+                LocalDateTime.of(1977, 12, 11, 15, 12, 11, 1000),
+                LocalDateTime.of(1977, 12, 11, 15, 12, 11, 1),
+                LocalDateTime.of(3, 5, 4, 1, 2, 1, 230000000),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999999999),
+                LocalDateTime.of(10000, 1, 1, 0, 0),
+                LocalDateTime.of(-1234, 11, 1, 16, 20)}) {
+            assertEquals(dateTime.format(GreenplumDateTime.DATETIME_FORMATTER), JdbcResolver.formatDateTime(dateTime));
+        }
+    }
+
     @Test
     void setFieldDateWithWideRangeTest() {
         isDateWideRange = true;
@@ -432,16 +513,17 @@ class JdbcResolverTest {
 
     private OneField getOneField(Object date, int dataTypeOid, String typeName) throws SQLException {
         when(row.getData()).thenReturn(result);
+        lenient().when(result.findColumn("birth_date")).thenReturn(1);
         if (date instanceof LocalDate) {
-            when(result.getObject("birth_date", LocalDate.class)).thenReturn((LocalDate) date);
+            when(result.getObject(1, LocalDate.class)).thenReturn((LocalDate) date);
         } else if (date instanceof Date) {
-            when(result.getDate("birth_date")).thenReturn((Date) date);
+            when(result.getDate(1)).thenReturn((Date) date);
         } else if (date instanceof LocalDateTime) {
-            when(result.getObject("birth_date", LocalDateTime.class)).thenReturn((LocalDateTime) date);
+            when(result.getObject(1, LocalDateTime.class)).thenReturn((LocalDateTime) date);
         } else if (date instanceof Timestamp) {
-            when(result.getTimestamp("birth_date")).thenReturn((Timestamp) date);
+            when(result.getTimestamp(1)).thenReturn((Timestamp) date);
         } else if (date instanceof OffsetDateTime) {
-            when(result.getObject("birth_date", OffsetDateTime.class)).thenReturn((OffsetDateTime) date);
+            when(result.getObject(1, OffsetDateTime.class)).thenReturn((OffsetDateTime) date);
         }
         columnDescriptors.add(new ColumnDescriptor("birth_date", dataTypeOid, 1, typeName, null));
         context.setTupleDescription(columnDescriptors);
@@ -24,6 +24,7 @@ import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -575,6 +577,65 @@ public class SQLQueryBuilderTest {
         assertEquals("SELECT id, cdate, amt, grade, b FROM sales WHERE NOT (b)", builder.buildSelectQuery());
     }
 
+    @Test
+    public void testPartitionRangeQuery() throws Exception {
+        // id = 1
+        context.setFilterString("a0c20s1d1o5");
+        when(mockMetaData.getDatabaseProductName()).thenReturn("mysql");
+
+        SQLQueryBuilder builder = new SQLQueryBuilder(context, mockMetaData);
+        assertEquals("SELECT MIN(cdate), MAX(cdate) FROM sales WHERE id = 1", builder.buildPartitionRangeQuery("cdate"));
+    }
+
+    @Test
+    public void testCopyQuery() throws Exception {
+        when(mockMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        SQLQueryBuilder builder = new SQLQueryBuilder(context, mockMetaData);
+        assertEquals("COPY sales(id, cdate, amt, grade, b) FROM STDIN", builder.buildCopyQuery());
+    }
+
+    @Test
+    public void testCountQuery() throws Exception {
+        // id = 1
+        context.setFilterString("a0c20s1d1o5");
+        context.addOption("PARTITION_BY", "amt:int");
+        context.setFragmentMetadata(IntPartition.create("amt", 10L, 20L));
+        when(mockMetaData.getDatabaseProductName()).thenReturn("mysql");
+
+        SQLQueryBuilder builder = new SQLQueryBuilder(context, mockMetaData);
+        assertEquals("SELECT COUNT(*) FROM sales WHERE id = 1 AND amt >= 10 AND amt < 20",
+                builder.buildCountQuery());
+    }
+
+    @Test
+    public void testCountQueryWithSubquery() throws Exception {
+        when(mockMetaData.getDatabaseProductName()).thenReturn("mysql");
+
+        SQLQueryBuilder builder = new SQLQueryBuilder(context, mockMetaData, NAMED_QUERY);
+        assertEquals("SELECT COUNT(*) FROM (SELECT a, b FROM c) pxfsubquery",
+                builder.buildCountQuery());
+    }
+
+    @Test
+    public void testPartitionQuantilesQuery() throws Exception {
+        when(mockMetaData.getDatabaseProductName()).thenReturn("mysql");
+
+        SQLQueryBuilder builder = new SQLQueryBuilder(context, mockMetaData, NAMED_QUERY);
+        assertEquals("SELECT MIN(pxf_value) FROM (SELECT id pxf_value, NTILE(4) OVER (ORDER BY id) pxf_tile " +
+                        "FROM (SELECT a, b FROM c) pxfsubquery) pxftiles GROUP BY pxf_tile ORDER BY pxf_tile",
+                builder.buildPartitionQuantilesQuery("id", 4));
+    }
+
+    @Test
+    public void testRowCountEstimateQuery() throws Exception {
+        when(mockMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        assertEquals("SELECT reltuples FROM pg_class WHERE oid = to_regclass('sales')",
+                new SQLQueryBuilder(context, mockMetaData).buildRowCountEstimateQuery());
+        assertNull(new SQLQueryBuilder(context, mockMetaData, NAMED_QUERY).buildRowCountEstimateQuery());
+    }
+
     private Fragmenter getFragmenter(RequestContext context) {
         JdbcPartitionFragmenter fragmenter = new JdbcPartitionFragmenter();
         fragmenter.setRequestContext(context);
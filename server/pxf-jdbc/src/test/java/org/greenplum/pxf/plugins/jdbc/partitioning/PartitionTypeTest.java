@@ -2,8 +2,14 @@ package org.greenplum.pxf.plugins.jdbc.partitioning;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PartitionTypeTest {
 
@@ -123,4 +129,73 @@ public class PartitionTypeTest {
             () -> PartitionType.DATE.getFragmentsMetadata("foo", "a:b", "1", false));
         assertEquals("The parameter 'RANGE' is invalid. The correct format for partition of type 'DATE' is 'yyyy-mm-dd'", ex.getMessage());
     }
+
+    @Test
+    public void testUniformBoundariesForInt() {
+        assertEquals(Arrays.asList(1L, 26L, 51L, 76L, 101L), PartitionType.INT.getUniformBoundaries(1L, 100L, 4));
+    }
+
+    @Test
+    public void testUniformBoundariesForIntWithFewValues() {
+        assertEquals(Arrays.asList(5L, 6L, 7L), PartitionType.INT.getUniformBoundaries(5L, 6L, 4));
+    }
+
+    @Test
+    public void testUniformBoundariesForIntWithLargestValue() {
+        assertEquals(Arrays.asList(Long.MAX_VALUE - 1, Long.MAX_VALUE),
+                PartitionType.INT.getUniformBoundaries(Long.MAX_VALUE - 1, Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    public void testUniformBoundariesForDate() {
+        assertEquals(Arrays.asList(
+                        LocalDate.of(2020, 1, 1),
+                        LocalDate.of(2020, 1, 4),
+                        LocalDate.of(2020, 1, 7),
+                        LocalDate.of(2020, 1, 11)),
+                PartitionType.DATE.getUniformBoundaries(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 10), 3));
+    }
+
+    @Test
+    public void testUniformBoundariesForTimestamp() {
+        assertEquals(Arrays.asList(
+                        LocalDateTime.of(2020, 1, 1, 0, 0, 0),
+                        LocalDateTime.of(2020, 1, 1, 0, 0, 5),
+                        LocalDateTime.of(2020, 1, 1, 0, 0, 10)),
+                PartitionType.TIMESTAMP.getUniformBoundaries(
+                        LocalDateTime.of(2020, 1, 1, 0, 0, 0, 500000000),
+                        LocalDateTime.of(2020, 1, 1, 0, 0, 9, 900000000), 2));
+    }
+
+    @Test
+    public void testQuantileBoundaries() {
+        assertEquals(Arrays.asList(1L, 5L, 90L, 101L),
+                PartitionType.INT.getQuantileBoundaries(Arrays.asList(1L, 1L, 5L, 90L), 100L));
+    }
+
+    @Test
+    public void testFragmentsMetadataFromBoundaries() {
+        List<JdbcFragmentMetadata> partitions =
+                PartitionType.INT.getFragmentsMetadata("foo", Arrays.asList(1L, 5L, 10L), false);
+
+        assertEquals(5, partitions.size());
+        assertIntPartition(partitions.get(0), null, 1L);
+        assertIntPartition(partitions.get(1), 10L, null);
+        assertIntPartition(partitions.get(2), 1L, 5L);
+        assertIntPartition(partitions.get(3), 5L, 10L);
+        assertTrue(partitions.get(4) instanceof NullPartition);
+    }
+
+    @Test
+    public void testErrorIfBoundariesAreMissing() {
+        Exception ex = assertThrows(IllegalArgumentException.class,
+            () -> PartitionType.INT.getFragmentsMetadata("foo", Arrays.asList(1L), false));
+        assertEquals("At least two partition boundaries must be provided", ex.getMessage());
+    }
+
+    private void assertIntPartition(JdbcFragmentMetadata partition, Long start, Long end) {
+        IntPartition intPartition = (IntPartition) partition;
+        assertEquals(start, intPartition.getStart());
+        assertEquals(end, intPartition.getEnd());
+    }
 }
@@ -5,6 +5,8 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
 import com.zaxxer.hikari.pool.HikariProxyConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.greenplum.pxf.plugins.jdbc.PxfJdbcProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +17,10 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLTransientConnectionException;
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -240,6 +245,79 @@ public class ConnectionManagerTest {
         verify(mockDataSource, times(1)).close(); // verify datasource is closed when evicted
     }
 
+    @Test
+    public void testPoolIsNamedAfterServerAndReportsMetrics() throws SQLException {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriverManagerWrapper.getDriver("test-url")).thenReturn(mockDriver);
+        when(mockDriver.connect("test-url", connProps)).thenReturn(mockConnection);
+        when(mockDriver.acceptsURL("test-url")).thenReturn(true);
+        DriverManager.registerDriver(mockDriver);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        manager = new ConnectionManager(new ConnectionManager.DataSourceFactory(registry), Ticker.systemTicker(), properties, mockDriverManagerWrapper);
+        Connection conn = manager.getConnection("test-server", "test-url", connProps, true, poolProps, null);
+
+        Map<PoolDescriptor, HikariDataSource> dataSources = manager.getDataSources();
+        assertEquals(1, dataSources.size());
+        String poolName = dataSources.values().iterator().next().getPoolName();
+        assertTrue(poolName.startsWith("pxf-test-server-"));
+        assertEquals(1, registry.get("hikaricp.connections.active").tag("pool", poolName).gauge().value());
+
+        conn.close();
+        manager.reloadCache();
+        DriverManager.deregisterDriver(mockDriver);
+    }
+
+    @Test
+    public void testPoolsWithConfiguredNameReportSeparateMetrics() throws SQLException {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriverManagerWrapper.getDriver("test-url")).thenReturn(mockDriver);
+        when(mockDriver.connect("test-url", connProps)).thenReturn(mockConnection);
+        when(mockDriver.acceptsURL("test-url")).thenReturn(true);
+        DriverManager.registerDriver(mockDriver);
+        poolProps.setProperty("poolName", "custom");
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        manager = new ConnectionManager(new ConnectionManager.DataSourceFactory(registry), Ticker.systemTicker(), properties, mockDriverManagerWrapper);
+        Connection first = manager.getConnection("test-server", "test-url", connProps, true, poolProps, "first");
+        Connection second = manager.getConnection("test-server", "test-url", connProps, true, poolProps, "second");
+
+        Set<String> poolNames = new HashSet<>();
+        manager.getDataSources().values().forEach(dataSource -> poolNames.add(dataSource.getPoolName()));
+        assertEquals(2, poolNames.size());
+        for (String poolName : poolNames) {
+            assertTrue(poolName.startsWith("custom-"));
+            assertEquals(1, registry.get("hikaricp.connections.active").tag("pool", poolName).gauge().value());
+        }
+
+        first.close();
+        second.close();
+        manager.reloadCache();
+        DriverManager.deregisterDriver(mockDriver);
+    }
+
+    @Test
+    public void testReloadNotifiesListenersOfReloadedServers() throws SQLException {
+        ConnectionManager.DataSourceFactory mockFactory = mock(ConnectionManager.DataSourceFactory.class);
+        HikariDataSource mockDataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean mockMBean = mock(HikariPoolMXBean.class);
+        when(mockFactory.createDataSource(any())).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockDataSource.getHikariPoolMXBean()).thenReturn(mockMBean);
+
+        manager = new ConnectionManager(mockFactory, Ticker.systemTicker(), properties, mockDriverManagerWrapper);
+        Set<String> reloaded = new HashSet<>();
+        manager.addReloadListener(reloaded::addAll);
+        manager.getConnection("test-server", "test-url", connProps, true, poolProps, null);
+
+        manager.reloadCacheIf(poolDescriptor -> poolDescriptor.getServer().equals("other-server"));
+        assertTrue(reloaded.isEmpty());
+
+        manager.reloadCacheIf(poolDescriptor -> poolDescriptor.getServer().equals("test-server"));
+        assertEquals(Set.of("test-server"), reloaded);
+        assertTrue(manager.getDataSources().isEmpty());
+    }
+
     static class FakeTicker extends Ticker {
         private final AtomicLong nanos = new AtomicLong();
 
@@ -20,15 +20,23 @@ package org.greenplum.pxf.plugins.jdbc.utils;
  */
 
 import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
 
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 public class DbProductTest {
@@ -248,4 +256,56 @@ public class DbProductTest {
         Exception e = assertThrows(UnsupportedOperationException.class, () ->  dbProduct.wrapTimestampWithTZ("1985-05-11 15:10:00.12+03"));
         assertEquals("The database doesn't support pushdown of the `TIMESTAMP WITH TIME ZONE` data type", e.getMessage());
     }
+
+    @Test
+    public void testRowCountEstimateQuery() {
+        assertEquals("SELECT reltuples FROM pg_class WHERE oid = to_regclass('public.sales')",
+                DbProduct.POSTGRES.buildRowCountEstimateQuery("public.sales"));
+        assertEquals("SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'sales'",
+                DbProduct.MYSQL.buildRowCountEstimateQuery("sales"));
+        assertEquals("SELECT num_rows FROM all_tables WHERE owner = 'SCOTT' AND table_name = 'SALES'",
+                DbProduct.ORACLE.buildRowCountEstimateQuery("scott.sales"));
+        assertEquals("SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID('dbo.o''brien') AND index_id IN (0, 1)",
+                DbProduct.MICROSOFT.buildRowCountEstimateQuery("dbo.o'brien"));
+        assertNull(DbProduct.OTHER.buildRowCountEstimateQuery("sales"));
+    }
+
+    @Test
+    public void testPostgresStreamsRowsWithoutAutoCommit() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        DbProduct.POSTGRES.prepareForStreaming(connection, statement, 500);
+
+        verify(connection).setAutoCommit(false);
+        verify(statement).setFetchSize(500);
+    }
+
+    @Test
+    public void testUnknownProductKeepsAutoCommit() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // unknown databases are treated as PostgreSQL, but their drivers are not the PostgreSQL driver
+        DbProduct dbProduct = DbProduct.getDbProduct("ClickHouse", true);
+        assertEquals(DbProduct.POSTGRES, dbProduct);
+        dbProduct.prepareForStreaming(connection, statement, 500);
+
+        verify(connection, never()).setAutoCommit(false);
+        verify(statement).setFetchSize(500);
+    }
+
+    @Test
+    public void testOtherProductKeepsAutoCommit() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+
+        DbProduct.ORACLE.prepareForStreaming(connection, statement, 500);
+
+        verify(connection, never()).setAutoCommit(false);
+        verify(statement).setFetchSize(500);
+    }
 }
@@ -0,0 +1,71 @@
+package org.greenplum.pxf.plugins.jdbc.utils;
+
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FetchSizeEstimatorTest {
+
+    @Test
+    public void testEstimateRowWidthOfFixedWidthColumns() {
+        ColumnDescriptor id = new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null);
+        ColumnDescriptor amount = new ColumnDescriptor("amount", DataType.BIGINT.getOID(), 1, "int8", null);
+
+        assertEquals(16 + (16 + 4) + (16 + 8), FetchSizeEstimator.estimateRowWidth(Arrays.asList(id, amount)));
+    }
+
+    @Test
+    public void testEstimateRowWidthOfVarcharUsesTypeModifier() {
+        ColumnDescriptor name = new ColumnDescriptor("name", DataType.VARCHAR.getOID(), 0, "varchar", new Integer[]{100});
+
+        assertEquals(16 + (16 + 100), FetchSizeEstimator.estimateRowWidth(Collections.singletonList(name)));
+    }
+
+    @Test
+    public void testEstimateRowWidthOfUnboundedColumns() {
+        ColumnDescriptor name = new ColumnDescriptor("name", DataType.VARCHAR.getOID(), 0, "varchar", null);
+        ColumnDescriptor text = new ColumnDescriptor("text", DataType.TEXT.getOID(), 1, "text", null);
+
+        assertEquals(16 + 2 * (16 + 256), FetchSizeEstimator.estimateRowWidth(Arrays.asList(name, text)));
+    }
+
+    @Test
+    public void testEstimateRowWidthSkipsColumnsNotProjected() {
+        ColumnDescriptor id = new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null);
+        ColumnDescriptor text = new ColumnDescriptor("text", DataType.TEXT.getOID(), 1, "text", null, false);
+
+        assertEquals(16 + (16 + 4), FetchSizeEstimator.estimateRowWidth(Arrays.asList(id, text)));
+    }
+
+    @Test
+    public void testHasUnknownWidth() {
+        ColumnDescriptor id = new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null);
+        ColumnDescriptor name = new ColumnDescriptor("name", DataType.VARCHAR.getOID(), 1, "varchar", new Integer[]{100});
+        ColumnDescriptor text = new ColumnDescriptor("text", DataType.TEXT.getOID(), 2, "text", null);
+        ColumnDescriptor bytes = new ColumnDescriptor("bytes", DataType.BYTEA.getOID(), 3, "bytea", null, false);
+
+        assertFalse(FetchSizeEstimator.hasUnknownWidth(Arrays.asList(id, name)));
+        assertTrue(FetchSizeEstimator.hasUnknownWidth(Arrays.asList(id, text)));
+        // the columns that are not projected are not fetched
+        assertFalse(FetchSizeEstimator.hasUnknownWidth(Arrays.asList(id, bytes)));
+    }
+
+    @Test
+    public void testGetFetchSize() {
+        assertEquals(1000, FetchSizeEstimator.getFetchSize(100_000, 100, 10, 10000));
+    }
+
+    @Test
+    public void testGetFetchSizeIsBounded() {
+        assertEquals(10, FetchSizeEstimator.getFetchSize(100, 100, 10, 10000));
+        assertEquals(10000, FetchSizeEstimator.getFetchSize(1_000_000_000, 100, 10, 10000));
+        assertEquals(10000, FetchSizeEstimator.getFetchSize(1_000_000, 0, 10, 10000));
+    }
+}
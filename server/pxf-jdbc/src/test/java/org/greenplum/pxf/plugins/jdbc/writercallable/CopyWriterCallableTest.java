@@ -0,0 +1,178 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+import org.apache.commons.io.IOUtils;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.jdbc.JdbcBasePlugin;
+import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CopyWriterCallableTest {
+
+    private static final String QUERY = "COPY sales(id, name) FROM STDIN";
+
+    @Mock
+    private JdbcBasePlugin mockPlugin;
+    @Mock
+    private Connection mockConnection;
+    @Mock
+    private Statement mockStatement;
+    @Mock
+    private DatabaseMetaData mockMetaData;
+    @Mock
+    private PGConnection mockPgConnection;
+    @Mock
+    private CopyManager mockCopyManager;
+
+    @Test
+    public void testCallCopiesEncodedRows() throws Exception {
+        AtomicReference<String> copied = new AtomicReference<>();
+        AtomicInteger completed = new AtomicInteger();
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockStatement.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.unwrap(PGConnection.class)).thenReturn(mockPgConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockPgConnection.getCopyAPI()).thenReturn(mockCopyManager);
+        when(mockCopyManager.copyIn(eq(QUERY), any(Reader.class))).thenAnswer(invocation -> {
+            copied.set(IOUtils.toString(invocation.getArgument(1, Reader.class)));
+            return 2L;
+        });
+
+        CopyWriterCallable writer = new CopyWriterCallable(mockPlugin, QUERY, 2, completed::incrementAndGet);
+        writer.supply(row(new OneField(DataType.INTEGER.getOID(), 1), new OneField(DataType.TEXT.getOID(), "alice")));
+        assertFalse(writer.isCallRequired());
+        writer.supply(row(new OneField(DataType.INTEGER.getOID(), 2), new OneField(DataType.TEXT.getOID(), null)));
+        assertTrue(writer.isCallRequired());
+        assertThrows(IllegalStateException.class,
+                () -> writer.supply(row(new OneField(DataType.INTEGER.getOID(), 3), new OneField(DataType.TEXT.getOID(), "bob"))));
+
+        assertNull(writer.call());
+        assertEquals("1\talice\n2\t\\N\n", copied.get());
+        assertEquals(1, completed.get());
+        assertFalse(writer.isCallRequired());
+        verify(mockStatement, never()).execute(anyString());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testCallAppliesQueryTimeout() throws Exception {
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+        when(mockPlugin.getQueryTimeout()).thenReturn(60);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockStatement.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.unwrap(PGConnection.class)).thenReturn(mockPgConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockPgConnection.getCopyAPI()).thenReturn(mockCopyManager);
+
+        CopyWriterCallable writer = new CopyWriterCallable(mockPlugin, QUERY, 10, () -> {
+        });
+        writer.supply(row(new OneField(DataType.INTEGER.getOID(), 1)));
+
+        assertNull(writer.call());
+        InOrder inOrder = inOrder(mockStatement, mockCopyManager, mockConnection);
+        inOrder.verify(mockStatement).execute("SET statement_timeout = 60000");
+        inOrder.verify(mockCopyManager).copyIn(eq(QUERY), any(Reader.class));
+        inOrder.verify(mockStatement).execute("RESET statement_timeout");
+        inOrder.verify(mockConnection).close();
+    }
+
+    @Test
+    public void testCallReturnsCopyFailure() throws Exception {
+        SQLException exception = new SQLException("invalid input syntax for type integer");
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockStatement.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.unwrap(PGConnection.class)).thenReturn(mockPgConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockPgConnection.getCopyAPI()).thenReturn(mockCopyManager);
+        when(mockCopyManager.copyIn(eq(QUERY), any(Reader.class))).thenThrow(exception);
+
+        AtomicInteger completed = new AtomicInteger();
+        CopyWriterCallable writer = new CopyWriterCallable(mockPlugin, QUERY, 10, completed::incrementAndGet);
+        writer.supply(row(new OneField(DataType.INTEGER.getOID(), 1)));
+
+        assertSame(exception, writer.call());
+        assertEquals(1, completed.get());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testAppendField() throws Exception {
+        assertEquals("\\N", encode(DataType.INTEGER, null));
+        assertEquals("-7", encode(DataType.SMALLINT, (short) -7));
+        assertEquals("9000000000", encode(DataType.BIGINT, 9000000000L));
+        assertEquals("1.5", encode(DataType.FLOAT8, 1.5));
+        assertEquals("t", encode(DataType.BOOLEAN, true));
+        assertEquals("10000000000", encode(DataType.NUMERIC, new BigDecimal("1E+10")));
+        assertEquals("a\\\\b\\tc\\nd\\re", encode(DataType.TEXT, "a\\b\tc\nd\re"));
+        assertEquals("{\"a\": \"\\\\n\"}", encode(DataType.JSONB, "{\"a\": \"\\n\"}"));
+        assertEquals("\\\\x00ff7f", encode(DataType.BYTEA, new byte[]{0, (byte) 0xff, 0x7f}));
+        assertEquals("2020-01-02", encode(DataType.DATE, Date.valueOf("2020-01-02")));
+        assertEquals("2020-01-02 03:04:05.123", encode(DataType.TIMESTAMP, Timestamp.valueOf("2020-01-02 03:04:05.123")));
+        assertEquals("0044-03-15 BC", encode(DataType.DATE, LocalDate.of(-43, 3, 15)));
+        assertEquals("12345-01-02 10:30", encode(DataType.TIMESTAMP, LocalDateTime.of(12345, 1, 2, 10, 30)));
+        assertEquals("0001-01-01 00:00:01 BC", encode(DataType.TIMESTAMP, LocalDateTime.of(0, 1, 1, 0, 0, 1)));
+        assertEquals("decafbad-0000-0000-0000-000000000000",
+                encode(DataType.UUID, UUID.fromString("decafbad-0000-0000-0000-000000000000")));
+    }
+
+    @Test
+    public void testFactoryCopiesBatchesWithCopyQuery() {
+        Runnable onComplete = () -> {
+        };
+        assertTrue(new WriterCallableFactory(mockPlugin, "INSERT", QUERY, 10, onComplete, DbProduct.POSTGRES).get()
+                instanceof CopyWriterCallable);
+        assertTrue(new WriterCallableFactory(mockPlugin, "INSERT", null, 10, onComplete, DbProduct.POSTGRES).get()
+                instanceof BatchWriterCallable);
+        assertTrue(new WriterCallableFactory(mockPlugin, "INSERT", QUERY, 1, onComplete, DbProduct.POSTGRES).get()
+                instanceof SimpleWriterCallable);
+    }
+
+    private static String encode(DataType type, Object value) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        CopyWriterCallable.appendField(sb, new OneField(type.getOID(), value));
+        return sb.toString();
+    }
+
+    private static OneRow row(OneField... fields) {
+        return new OneRow(Arrays.asList(fields));
+    }
+}
@@ -30,6 +30,7 @@ import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.GreenplumCSV;
@@ -72,6 +73,7 @@ public class BridgeOutputBuilder {
     @Getter
     private Writable partialLine = null;
     private GPDBWritable errorRecord = null;
+    private GPDBWritableBatch outputBatch = null;
     private int[] schema;
     private String[] colNames;
     private final boolean samplingEnabled;
@@ -176,6 +178,45 @@ public class BridgeOutputBuilder {
         return outputList;
     }
 
+    /**
+     * Returns the empty batch of GPDBWritable records for resolvers that serialize
+     * a batch of records directly. The batch is created one time and is cleared for
+     * each batch of records sent.
+     *
+     * @return empty batch of records with set columns, or null if the output
+     * format is not GPDBWritable
+     */
+    public GPDBWritableBatch getEmptyOutputBatch() {
+        if (outputFormat != OutputFormat.GPDBWritable) {
+            return null;
+        }
+        if (outputBatch == null) {
+            int[] batchSchema = new int[columnDescriptors.size()];
+            for (int i = 0; i < batchSchema.length; i++) {
+                batchSchema[i] = columnDescriptors.get(i).columnTypeCode();
+            }
+            outputBatch = new GPDBWritableBatch(batchSchema, databaseEncoding);
+        }
+        outputBatch.clear();
+        return outputBatch;
+    }
+
+    /**
+     * Returns the output for a batch of records serialized directly into the
+     * batch returned by {@link #getEmptyOutputBatch()}.
+     *
+     * @param recordsBatch serialized batch of records
+     * @return list of Writable objects with the serialized batch, empty if the
+     * batch has no records
+     */
+    public LinkedList<Writable> makeVectorizedOutput(GPDBWritableBatch recordsBatch) {
+        outputList.clear();
+        if (recordsBatch.getRowCount() > 0) {
+            outputList.add(recordsBatch);
+        }
+        return outputList;
+    }
+
     /**
      * Creates the GPDBWritable object. The object is created one time and is
      * refilled from recFields for each record sent
@@ -298,6 +339,9 @@ public class BridgeOutputBuilder {
             if (samplingEnabled) {
                 convertTextDataToLines((byte[]) val);
                 return;
+            } else if (val instanceof BufferWritable) {
+                // the chunk is read into a buffer of the accessor, which is written before the next chunk is read
+                output = (BufferWritable) val;
             } else {
                 // TODO break output into lines
                 output = new BufferWritable((byte[]) val);
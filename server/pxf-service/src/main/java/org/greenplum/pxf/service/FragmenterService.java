@@ -23,8 +23,11 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
+import org.greenplum.pxf.api.model.ListingFragmenter;
+import org.greenplum.pxf.api.model.ListingStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.FragmenterCacheFactory;
+import org.greenplum.pxf.service.fragment.FragmentMetadataCache;
 import org.greenplum.pxf.service.fragment.FragmentStrategyProvider;
 import org.greenplum.pxf.service.utilities.AnalyzeUtils;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
@@ -36,12 +39,16 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * The {@link FragmenterService} returns fragments for a given segment. It
  * performs caching of Fragment for a unique query. The first segment to
  * request the list of fragments will populate it, while the rest of the
- * segments will wait until the list of fragments is populated.
+ * segments will wait until the list of fragments is populated. The fragments
+ * of a data source that did not change are reused across queries from the
+ * {@link FragmentMetadataCache}.
  */
 @Slf4j
 @Component
@@ -50,15 +57,21 @@ public class FragmenterService {
     private final FragmenterCacheFactory fragmenterCacheFactory;
     private final GSSFailureHandler failureHandler;
     private final FragmentStrategyProvider strategyProvider;
+    private final FragmentMetadataCache fragmentMetadataCache;
+    private final MetricsReporter metricsReporter;
 
     public FragmenterService(FragmenterCacheFactory fragmenterCacheFactory,
                              BasePluginFactory pluginFactory,
                              GSSFailureHandler failureHandler,
-                             FragmentStrategyProvider strategyProvider) {
+                             FragmentStrategyProvider strategyProvider,
+                             FragmentMetadataCache fragmentMetadataCache,
+                             MetricsReporter metricsReporter) {
         this.fragmenterCacheFactory = fragmenterCacheFactory;
         this.pluginFactory = pluginFactory;
         this.failureHandler = failureHandler;
         this.strategyProvider = strategyProvider;
+        this.fragmentMetadataCache = fragmentMetadataCache;
+        this.metricsReporter = metricsReporter;
     }
 
     public List<Fragment> getFragmentsForSegment(RequestContext context) throws IOException {
@@ -108,8 +121,15 @@ public class FragmenterService {
                         log.debug("Caching fragments from segmentId={} with key={}",
                                 context.getSegmentId(), fragmenterCacheKey);
 
+                        AtomicReference<Fragmenter> fragmenterReference = new AtomicReference<>();
                         List<Fragment> fragmentList = failureHandler.execute(context.getConfiguration(),
-                                "get fragments", () -> getFragmenter(context).getFragments());
+                                "get fragments", () -> {
+                                    Fragmenter fragmenter = getFragmenter(context);
+                                    fragmenterReference.set(fragmenter);
+                                    return fragmentMetadataCache.getFragments(context, fragmenter);
+                                });
+                        ListingStats listingStats = getListingStats(fragmenterReference.get());
+                        reportListingStats(listingStats, context);
 
                         /* Create a fragmenter instance with API level parameters */
                         fragmentList = AnalyzeUtils.getSampleFragments(fragmentList, context);
@@ -118,7 +138,7 @@ public class FragmenterService {
                         int numberOfFragments = fragmentList.size();
                         long elapsedMillis = Duration.between(startTime, Instant.now()).toMillis();
                         String fragmenterClassName = context.getFragmenter();
-                        log.info("Returning {} fragment{} in {} ms [user={}, table={}.{}, resource={}, fragmenter={}, profile={}, predicate {}available]",
+                        log.info("Returning {} fragment{} in {} ms [user={}, table={}.{}, resource={}, fragmenter={}, profile={}, predicate {}available{}]",
                                 numberOfFragments,
                                 numberOfFragments == 1 ? "" : "s",
                                 elapsedMillis,
@@ -128,7 +148,8 @@ public class FragmenterService {
                                 context.getDataSource(),
                                 fragmenterClassName.substring(fragmenterClassName.lastIndexOf(".") + 1),
                                 context.getProfile(),
-                                context.hasFilter() ? "" : "un");
+                                context.hasFilter() ? "" : "un",
+                                formatListingStats(listingStats));
                         return fragmentList;
                     });
         } catch (UncheckedExecutionException | ExecutionException e) {
@@ -150,6 +171,52 @@ public class FragmenterService {
         return pluginFactory.getPlugin(context, context.getFragmenter());
     }
 
+    /**
+     * Returns the statistics of the files listed by the fragmenter, if the fragmenter listed any files
+     *
+     * @param fragmenter the fragmenter
+     * @return the listing statistics or null
+     */
+    private ListingStats getListingStats(Fragmenter fragmenter) {
+        return fragmenter instanceof ListingFragmenter ? ((ListingFragmenter) fragmenter).getListingStats() : null;
+    }
+
+    /**
+     * Formats the listing statistics for the fragmenter log line, with the time spent in each phase if any
+     *
+     * @param listingStats the listing statistics, can be null
+     * @return the formatted statistics, or an empty string if there are none
+     */
+    private String formatListingStats(ListingStats listingStats) {
+        if (listingStats == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(String.format(", listed %d file%s in %d ms",
+                listingStats.getFileCount(),
+                listingStats.getFileCount() == 1 ? "" : "s",
+                listingStats.getDuration().toMillis()));
+        if (!listingStats.getPhaseDurations().isEmpty()) {
+            sb.append(listingStats.getPhaseDurations().entrySet().stream()
+                    .map(phase -> String.format("%s=%d ms", phase.getKey(), phase.getValue().toMillis()))
+                    .collect(Collectors.joining(", ", " (", ")")));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reports the time it took to list the files of the data source and the number of listed files
+     *
+     * @param listingStats the listing statistics, can be null
+     * @param context      the request context
+     */
+    private void reportListingStats(ListingStats listingStats, RequestContext context) {
+        if (listingStats == null) {
+            return;
+        }
+        metricsReporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_LISTING, listingStats.getDuration(), context);
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.FILES_LISTED, listingStats.getFileCount(), context);
+    }
+
     /**
      * Returns a key for the fragmenter cache. TransactionID is not sufficient to key the cache.
      * For the case where we have multiple scans
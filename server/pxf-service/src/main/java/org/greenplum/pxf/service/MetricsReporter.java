@@ -1,10 +1,12 @@
 package org.greenplum.pxf.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.api.model.RequestContext;
@@ -12,6 +14,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Service responsible for submitting metrics to MeterRegistry.
@@ -23,9 +27,14 @@ public class MetricsReporter {
     private static final String UNKNOWN_VALUE = "unknown";
     private static final Tags SUCCESS_TAG = Tags.of("outcome", "success");
     private static final Tags ERROR_TAG = Tags.of("outcome", "error");
+    private static final String READ_STAGES_SAMPLE_INTERVAL_PROPERTY = "pxf.metrics.read-stages.sample-interval";
+    private static final String READ_STAGES_HISTOGRAM_PROPERTY = "pxf.metrics.read-stages.histogram";
+    private static final int DEFAULT_READ_STAGES_SAMPLE_INTERVAL = 100;
 
     private final MeterRegistry registry;
     private final Environment env;
+    /* meters are registered once, registering a meter on every report is costly */
+    private final ConcurrentMap<MeterKey, Meter> meters = new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance.
@@ -81,7 +90,7 @@ public class MetricsReporter {
 
         Tags tags = (extraTags == null) ? getTags(context) : getTags(context).and(extraTags);
         try {
-            Timer timer = Timer.builder(metricName).tags(tags).register(registry);
+            Timer timer = getTimer(metricName, tags, false);
             timer.record(duration);
             if (log.isTraceEnabled()) {
                 log.trace("Reported timer {}{} with duration={}ms", metricName, tags, durationMs);
@@ -108,7 +117,8 @@ public class MetricsReporter {
         Tags tags = getTags(context);
         try {
             double incrementCount = Long.valueOf(increment).doubleValue();
-            Counter counter = Counter.builder(metricName).tags(tags).register(registry);
+            Counter counter = (Counter) meters.computeIfAbsent(new MeterKey(metricName, tags),
+                    key -> Counter.builder(metricName).tags(tags).register(registry));
             counter.increment(incrementCount);
             if (log.isTraceEnabled()) {
                 log.trace("Reported counter {}{} with increment={}", metricName, tags, increment);
@@ -118,6 +128,34 @@ public class MetricsReporter {
         }
     }
 
+    /**
+     * Returns the timers of the stages of reading a fragment, with the tags of the given request context.
+     * The stages are timed for one record out of the sample interval given by the environment.
+     *
+     * @param context request context of the fragment
+     * @return the timers of the read stages, which do not time anything if the metric is disabled
+     */
+    public ReadStageTimers getReadStageTimers(RequestContext context) {
+        PxfMetric metric = PxfMetric.READ_STAGE;
+        if (!env.getProperty(metric.getEnabledPropertyName(), Boolean.class, Boolean.FALSE)) {
+            return ReadStageTimers.DISABLED;
+        }
+        int sampleInterval = env.getProperty(READ_STAGES_SAMPLE_INTERVAL_PROPERTY, Integer.class, DEFAULT_READ_STAGES_SAMPLE_INTERVAL);
+        boolean histogram = env.getProperty(READ_STAGES_HISTOGRAM_PROPERTY, Boolean.class, Boolean.FALSE);
+        Tags tags = getTags(context);
+        try {
+            ReadStageTimers.Stage[] stages = ReadStageTimers.Stage.values();
+            Timer[] timers = new Timer[stages.length];
+            for (ReadStageTimers.Stage stage : stages) {
+                timers[stage.ordinal()] = getTimer(metric.getMetricName(), tags.and("stage", stage.getTagValue()), histogram);
+            }
+            return new ReadStageTimers(timers, sampleInterval);
+        } catch (Exception e) {
+            log.warn(String.format("Unable to create timers %s%s.", metric.getMetricName(), tags), e);
+            return ReadStageTimers.DISABLED;
+        }
+    }
+
     /**
      * Pulls the value for reporting frequency for the given metric from the environment.
      * If no value found, the default reporting frequency is 1000.
@@ -131,6 +169,11 @@ public class MetricsReporter {
         return reportFrequency;
     }
 
+    private Timer getTimer(String metricName, Tags tags, boolean histogram) {
+        return (Timer) meters.computeIfAbsent(new MeterKey(metricName, tags),
+                key -> Timer.builder(metricName).tags(tags).publishPercentileHistogram(histogram).register(registry));
+    }
+
     /**
      * Produces a set of custom tags with values from the provided request context.
      *
@@ -151,10 +194,13 @@ public class MetricsReporter {
     @Getter
     public enum PxfMetric {
         FRAGMENTS_SENT("pxf.fragments.sent", "pxf.metrics.fragments.enabled"),
+        FRAGMENTS_LISTING("pxf.fragments.listing", "pxf.metrics.fragments.enabled"),
+        FILES_LISTED("pxf.fragments.listed.files", "pxf.metrics.fragments.enabled"),
         RECORDS_SENT("pxf.records.sent", "pxf.metrics.records.enabled"),
         RECORDS_RECEIVED("pxf.records.received", "pxf.metrics.records.enabled"),
         BYTES_SENT("pxf.bytes.sent", "pxf.metrics.bytes.enabled"),
-        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled");
+        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled"),
+        READ_STAGE("pxf.read.stage", "pxf.metrics.read-stages.enabled");
 
         private final String metricName;
         private final String enabledPropertyName;
@@ -171,4 +217,13 @@ public class MetricsReporter {
         }
 
     }
+
+    /**
+     * Identity of a registered meter.
+     */
+    @Value
+    private static class MeterKey {
+        String name;
+        Tags tags;
+    }
 }
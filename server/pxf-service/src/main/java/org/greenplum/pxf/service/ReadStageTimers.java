@@ -0,0 +1,103 @@
+package org.greenplum.pxf.service;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the stages of reading the records of a fragment: opening the fragment, fetching a record from the
+ * accessor, resolving the record into fields, serializing the fields and writing the serialized record.
+ * <p>
+ * Timing every record would cost more than the stages of small records, so the stages are only timed for
+ * every n-th record, the sample interval. The timers are created once per fragment and hold the meters of
+ * the fragment, so that recording a sample does not look up the meters. An instance is used by the thread
+ * reading the fragment, only {@link #record(Stage, long)} can be called from other threads.
+ */
+public class ReadStageTimers {
+
+    /**
+     * Timers that do not time anything, used when the read stage metrics are disabled.
+     */
+    public static final ReadStageTimers DISABLED = new ReadStageTimers(null, 0);
+
+    /**
+     * The stages of reading a record.
+     */
+    @Getter
+    public enum Stage {
+        OPEN("open"),
+        FETCH("fetch"),
+        RESOLVE("resolve"),
+        SERIALIZE("serialize"),
+        WRITE("write");
+
+        private final String tagValue;
+
+        Stage(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    private final Timer[] timers;
+    private final int sampleInterval;
+    private int recordCount;
+    private boolean sampled;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param timers         the timers of the stages, indexed by the ordinal of the stage, null to disable timing
+     * @param sampleInterval the stages are timed for one record out of this number of records
+     */
+    ReadStageTimers(Timer[] timers, int sampleInterval) {
+        this.timers = timers;
+        this.sampleInterval = Math.max(sampleInterval, 1);
+    }
+
+    /**
+     * Starts reading the next record and decides whether the stages of the record are timed.
+     */
+    public void nextRecord() {
+        if (timers != null && ++recordCount >= sampleInterval) {
+            recordCount = 0;
+            sampled = true;
+        } else {
+            sampled = false;
+        }
+    }
+
+    /**
+     * Returns the start time of a stage of the current record.
+     *
+     * @return the start time in nanoseconds, or 0 if the current record is not timed
+     */
+    public long start() {
+        return sampled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the duration of a stage of the current record, if the record is timed.
+     *
+     * @param stage     the stage
+     * @param startTime the start time returned by {@link #start()}
+     */
+    public void stop(Stage stage, long startTime) {
+        if (sampled) {
+            timers[stage.ordinal()].record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the duration of a stage that is not part of reading a single record, such as opening the
+     * fragment, regardless of the sample interval.
+     *
+     * @param stage    the stage
+     * @param duration the duration in nanoseconds
+     */
+    public void record(Stage stage, long duration) {
+        if (timers != null) {
+            timers[stage.ordinal()].record(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.StatsAccessor;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.ReadStageTimers;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 
@@ -34,7 +35,7 @@ import java.util.LinkedList;
  */
 public class AggBridge extends ReadBridge implements Bridge {
 
-    /* Avoid resolving rows with the same key twice */
+    /* Avoid resolving rows with the same key twice, rows without a key are always resolved */
     private LRUMap outputCache;
 
     public AggBridge(BasePluginFactory pluginFactory, RequestContext context, GSSFailureHandler failureHandler) {
@@ -46,12 +47,17 @@ public class AggBridge extends ReadBridge implements Bridge {
      */
     @Override
     public boolean beginIteration() throws Exception {
-        // TODO: enhance with failureHandler, for now this bridge is not actually used
+        long startTime = System.nanoTime();
         /* Initialize LRU cache with 100 items*/
         outputCache = new LRUMap();
-        boolean openForReadStatus = accessor.openForRead();
-        ((StatsAccessor) accessor).retrieveStats();
-        return openForReadStatus;
+        // the statistics are retrieved with the same accessor that was opened, as the accessor will be changed by the retry function
+        boolean opened = failureHandler.execute(context.getConfiguration(), "begin iteration", () -> {
+            boolean openForReadStatus = accessor.openForRead();
+            ((StatsAccessor) accessor).retrieveStats();
+            return openForReadStatus;
+        }, this::beforeRetryCallback);
+        stageTimers.record(ReadStageTimers.Stage.OPEN, System.nanoTime() - startTime);
+        return opened;
     }
 
     /**
@@ -74,10 +80,15 @@ public class AggBridge extends ReadBridge implements Bridge {
                 if (onerow == null) {
                     break;
                 }
-                cachedOutput = (LinkedList<Writable>) outputCache.get(onerow.getKey());
-                if (cachedOutput == null) {
+                if (onerow.getKey() == null) {
+                    // rows without a key cannot be told apart, each of them is resolved
                     cachedOutput = outputBuilder.makeOutput(resolver.getFields(onerow));
-                    outputCache.put(onerow.getKey(), cachedOutput);
+                } else {
+                    cachedOutput = (LinkedList<Writable>) outputCache.get(onerow.getKey());
+                    if (cachedOutput == null) {
+                        cachedOutput = outputBuilder.makeOutput(resolver.getFields(onerow));
+                        outputCache.put(onerow.getKey(), cachedOutput);
+                    }
                 }
                 outputQueue.addAll(cachedOutput);
                 if (!outputQueue.isEmpty()) {
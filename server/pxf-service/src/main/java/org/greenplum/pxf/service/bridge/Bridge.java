@@ -21,6 +21,7 @@ package org.greenplum.pxf.service.bridge;
 
 
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.service.ReadStageTimers;
 
 import java.io.DataInputStream;
 
@@ -65,4 +66,11 @@ public interface Bridge {
      * @throws Exception when an error occurs during the operation
      */
     void cancelIteration() throws Exception;
+
+    /**
+     * Sets the timers of the stages of reading the records. Bridges that do not read records ignore the timers.
+     * @param stageTimers the timers of the read stages
+     */
+    default void setStageTimers(ReadStageTimers stageTimers) {
+    }
 }
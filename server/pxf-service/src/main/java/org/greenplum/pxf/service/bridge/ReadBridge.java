@@ -19,12 +19,14 @@ package org.greenplum.pxf.service.bridge;
  * under the License.
  */
 
+import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.CancelableOperation;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.BridgeOutputBuilder;
+import org.greenplum.pxf.service.ReadStageTimers;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 
@@ -36,6 +38,7 @@ import java.io.UTFDataFormatException;
 import java.nio.charset.CharacterCodingException;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.zip.ZipException;
 
 /**
@@ -50,6 +53,7 @@ public class ReadBridge extends BaseBridge {
 
     protected final BridgeOutputBuilder outputBuilder;
     protected Deque<Writable> outputQueue = new LinkedList<>();
+    protected ReadStageTimers stageTimers = ReadStageTimers.DISABLED;
 
     public ReadBridge(BasePluginFactory pluginFactory, RequestContext context, GSSFailureHandler failureHandler) {
         super(pluginFactory, context, failureHandler);
@@ -61,12 +65,22 @@ public class ReadBridge extends BaseBridge {
      */
     @Override
     public boolean beginIteration() throws Exception {
+        long startTime = System.nanoTime();
         // using lambda and not a method reference accessor::openForRead as the accessor will be changed by the retry function
-        return failureHandler.execute(context.getConfiguration(), "begin iteration", () -> accessor.openForRead(), this::beforeRetryCallback);
+        boolean opened = failureHandler.execute(context.getConfiguration(), "begin iteration", () -> accessor.openForRead(), this::beforeRetryCallback);
+        stageTimers.record(ReadStageTimers.Stage.OPEN, System.nanoTime() - startTime);
+        return opened;
     }
 
     protected Deque<Writable> makeOutput(OneRow oneRow) throws Exception {
-        return outputBuilder.makeOutput(resolver.getFields(oneRow));
+        long startTime = stageTimers.start();
+        List<OneField> fields = resolver.getFields(oneRow);
+        stageTimers.stop(ReadStageTimers.Stage.RESOLVE, startTime);
+
+        startTime = stageTimers.start();
+        Deque<Writable> output = outputBuilder.makeOutput(fields);
+        stageTimers.stop(ReadStageTimers.Stage.SERIALIZE, startTime);
+        return output;
     }
 
     /**
@@ -84,7 +98,10 @@ public class ReadBridge extends BaseBridge {
 
         try {
             while (true) {
+                stageTimers.nextRecord();
+                long startTime = stageTimers.start();
                 onerow = accessor.readNextObject();
+                stageTimers.stop(ReadStageTimers.Stage.FETCH, startTime);
                 if (onerow == null) {
                     output = outputBuilder.getPartialLine();
                     if (output != null) {
@@ -164,6 +181,14 @@ public class ReadBridge extends BaseBridge {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setStageTimers(ReadStageTimers stageTimers) {
+        this.stageTimers = stageTimers;
+    }
+
     /**
      * {@inheritDoc}
      */
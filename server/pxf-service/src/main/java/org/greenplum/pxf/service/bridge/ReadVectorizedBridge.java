@@ -21,9 +21,11 @@ package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
-import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.ReadStageTimers;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 
@@ -41,8 +43,21 @@ public class ReadVectorizedBridge extends ReadBridge {
      */
     @Override
     protected Deque<Writable> makeOutput(OneRow oneRow) throws Exception {
-        List<List<OneField>> resolvedBatch = ((ReadVectorizedResolver) resolver).
-                getFieldsForBatch(oneRow);
-        return outputBuilder.makeVectorizedOutput(resolvedBatch);
+        ReadVectorizedResolver vectorizedResolver = (ReadVectorizedResolver) resolver;
+        // serialize the batch without resolving it into fields if the resolver supports it
+        long startTime = stageTimers.start();
+        GPDBWritableBatch outputBatch = outputBuilder.getEmptyOutputBatch();
+        if (outputBatch != null && vectorizedResolver.writeBatch(oneRow, outputBatch)) {
+            Deque<Writable> output = outputBuilder.makeVectorizedOutput(outputBatch);
+            stageTimers.stop(ReadStageTimers.Stage.SERIALIZE, startTime);
+            return output;
+        }
+        List<List<OneField>> resolvedBatch = vectorizedResolver.getFieldsForBatch(oneRow);
+        stageTimers.stop(ReadStageTimers.Stage.RESOLVE, startTime);
+
+        startTime = stageTimers.start();
+        Deque<Writable> output = outputBuilder.makeVectorizedOutput(resolvedBatch);
+        stageTimers.stop(ReadStageTimers.Stage.SERIALIZE, startTime);
+        return output;
     }
 }
@@ -86,7 +86,7 @@ public abstract class BaseServiceImpl<T> extends PxfErrorReporter<T> {
         double rate = durationMs == 0 ? 0 : (1000.0 * recordCount / durationMs);
         double byteRate = durationMs == 0 ? 0 : (1000.0 * byteCount / durationMs);
 
-        log.info("{} {} operation [{} ms, {} record{}, {} records/sec, {} bytes, {} bytes/sec]{}",
+        log.info("{} {} operation [{} ms, {} record{}, {} records/sec, {} bytes, {} bytes/sec{}]{}",
                 status,
                 stats.getOperation().name().toLowerCase(),
                 durationMs,
@@ -95,6 +95,7 @@ public abstract class BaseServiceImpl<T> extends PxfErrorReporter<T> {
                 String.format("%.2f", rate),
                 byteCount,
                 String.format("%.2f", byteRate),
+                stats.getFragmentConcurrency() > 1 ? ", " + stats.getFragmentConcurrency() + " concurrent fragments" : "",
                 (exception == null) ? "" : " for " + result.getSourceName());
 
         // re-throw the exception if the operation failed
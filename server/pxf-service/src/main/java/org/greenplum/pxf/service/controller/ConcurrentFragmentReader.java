@@ -0,0 +1,396 @@
+package org.greenplum.pxf.service.controller;
+
+import com.google.common.io.CountingOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.greenplum.pxf.service.ReadStageTimers;
+import org.greenplum.pxf.service.bridge.Bridge;
+import org.slf4j.MDC;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reads the fragments of a segment concurrently. Up to {@code concurrency} fragments are opened and read
+ * by worker threads, each of which serializes its records into chunks of bytes and hands them over to the
+ * calling thread through a bounded queue. The calling thread is the only one writing to the output stream,
+ * it drains the chunks either in the order of the fragments or, when the order does not matter, in the
+ * order they are produced.
+ * <p>
+ * The worker threads come from an executor shared by all the requests. A fragment is submitted to it only
+ * when one of the fragments of the request in flight finishes, so a request never occupies more than
+ * {@code concurrency} of its threads, and the fragments of a request start in their order.
+ */
+@Slf4j
+class ConcurrentFragmentReader {
+
+    private static final long TERMINATION_TIMEOUT_SECONDS = 60;
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private final List<Fragment> fragments;
+    private final ExecutorService executor;
+    private final Function<Fragment, RequestContext> contextFactory;
+    private final Function<RequestContext, Bridge> bridgeFactory;
+    private final MetricsReporter metricsReporter;
+    private final int concurrency;
+    private final boolean ordered;
+    private final int chunkSize;
+    private final int chunksPerFragment;
+    private final Set<Bridge> activeBridges = ConcurrentHashMap.newKeySet();
+    private final List<FragmentTask> tasks = new ArrayList<>();
+    private int nextTask;
+    private boolean closed;
+    private volatile boolean cancelled;
+    private String sourceName;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fragments         fragments to read, the references are released as soon as the fragments are read
+     * @param executor          executor shared by the requests that runs the workers
+     * @param contextFactory    function producing a request context for a given fragment
+     * @param bridgeFactory     function producing a bridge for a given fragment request context
+     * @param metricsReporter   metrics reporter
+     * @param concurrency       maximum number of fragments to read at the same time
+     * @param ordered           true if the data must be written in the order of the fragments
+     * @param chunkSize         size in bytes after which the records read by a worker are handed over to the writer
+     * @param chunksPerFragment maximum number of chunks a worker can buffer before waiting for the writer
+     */
+    ConcurrentFragmentReader(List<Fragment> fragments,
+                             ExecutorService executor,
+                             Function<Fragment, RequestContext> contextFactory,
+                             Function<RequestContext, Bridge> bridgeFactory,
+                             MetricsReporter metricsReporter,
+                             int concurrency,
+                             boolean ordered,
+                             int chunkSize,
+                             int chunksPerFragment) {
+        this.fragments = fragments;
+        this.executor = executor;
+        this.contextFactory = contextFactory;
+        this.bridgeFactory = bridgeFactory;
+        this.metricsReporter = metricsReporter;
+        this.concurrency = concurrency;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+        this.chunksPerFragment = chunksPerFragment;
+    }
+
+    /**
+     * Reads all the fragments and writes their records to the output stream. Updates the query statistics
+     * with the statistics of every fragment, even if the operation fails.
+     *
+     * @param outputStream output stream to write data to
+     * @param queryStats   query statistics
+     * @throws Exception if reading any of the fragments or writing to the output stream fails
+     */
+    void read(CountingOutputStream outputStream, OperationStats queryStats) throws Exception {
+        // worker threads must read the data with the identity and logging context of the request
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        BlockingQueue<Chunk> sharedQueue = ordered ? null : new ArrayBlockingQueue<>(concurrency * chunksPerFragment);
+        for (int i = 0; i < fragments.size(); i++) {
+            tasks.add(new FragmentTask(fragments.get(i), ordered ? new ArrayBlockingQueue<>(chunksPerFragment) : sharedQueue));
+            // the task keeps the fragment until it is read, the same way the sequential read releases it
+            fragments.set(i, null);
+        }
+        boolean completed = false;
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                submitNext(ugi, mdcContext);
+            }
+
+            if (ordered) {
+                for (FragmentTask task : tasks) {
+                    Chunk chunk;
+                    while (!(chunk = task.queue.take()).last) {
+                        writeChunk(chunk, outputStream);
+                    }
+                    completeFragment(task, queryStats);
+                }
+            } else {
+                int remaining = tasks.size();
+                while (remaining > 0) {
+                    Chunk chunk = sharedQueue.take();
+                    if (chunk.last) {
+                        completeFragment(chunk.task, queryStats);
+                        remaining--;
+                    } else {
+                        writeChunk(chunk, outputStream);
+                    }
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // the writer is not going to consume any more data, stop the workers that are still running
+                cancelled = true;
+                cancelActiveBridges();
+                abandonTasks();
+                // report the statistics of the fragments that were fully written before the failure
+                for (FragmentTask task : tasks) {
+                    if (!task.reported && task.stats != null) {
+                        task.stats.flushStats();
+                        queryStats.update(task.stats);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the read, the fragments that are not started yet are skipped, and cancels the iteration of every
+     * in-flight bridge.
+     */
+    void cancel() {
+        cancelled = true;
+        cancelActiveBridges();
+    }
+
+    /**
+     * Returns the name of the source of the last fragment that was processed by the writer.
+     *
+     * @return name of the source
+     */
+    String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * Submits the next fragment to the executor. The workers call it before they publish the last chunk
+     * of their fragment, so the fragment the writer waits for is always submitted. The fragments are
+     * still submitted after a cancellation, their workers only publish the last chunk.
+     */
+    private synchronized void submitNext(UserGroupInformation ugi, Map<String, String> mdcContext) {
+        if (closed || nextTask >= tasks.size()) {
+            return;
+        }
+        FragmentTask task = tasks.get(nextTask++);
+        task.future = executor.submit(() -> {
+            if (!task.state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            MDC.setContextMap(mdcContext);
+            try {
+                ugi.doAs((PrivilegedAction<Void>) () -> {
+                    readFragment(task, () -> submitNext(ugi, mdcContext));
+                    return null;
+                });
+            } finally {
+                MDC.clear();
+                task.finished.countDown();
+            }
+        });
+    }
+
+    /**
+     * Stops submitting fragments, interrupts the workers that are running and waits for them to finish.
+     * The fragments that are submitted but not started are not read at all.
+     */
+    private void abandonTasks() throws InterruptedException {
+        List<FragmentTask> runningTasks = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (FragmentTask task : tasks.subList(0, nextTask)) {
+                if (task.state.compareAndSet(NEW, ABANDONED)) {
+                    task.future.cancel(false);
+                } else {
+                    task.future.cancel(true);
+                    runningTasks.add(task);
+                }
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TERMINATION_TIMEOUT_SECONDS);
+        for (FragmentTask task : runningTasks) {
+            if (!task.finished.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                log.warn("Timed out waiting for {} fragment reader threads to terminate", runningTasks.size());
+                return;
+            }
+        }
+    }
+
+    private void cancelActiveBridges() {
+        for (Bridge bridge : activeBridges) {
+            try {
+                bridge.cancelIteration();
+            } catch (Exception e) {
+                log.warn("Ignoring error encountered during bridge.cancelIteration()", e);
+            }
+        }
+    }
+
+    /**
+     * Reads all records of a single fragment on a worker thread and publishes them to the task's queue.
+     * Always publishes the last chunk unless the worker is interrupted because the writer has given up.
+     *
+     * @param task       fragment task
+     * @param submitNext submits the next fragment of the request
+     */
+    private void readFragment(FragmentTask task, Runnable submitNext) {
+        Instant startTime = Instant.now();
+        Bridge bridge = null;
+        try {
+            if (cancelled) {
+                return;
+            }
+            RequestContext context = contextFactory.apply(task.fragment);
+            task.fragment = null;
+            task.stageTimers = metricsReporter.getReadStageTimers(context);
+            task.stats = new OperationStats(OperationStats.Operation.READ, metricsReporter, context);
+            task.context = context;
+            bridge = bridgeFactory.apply(context);
+            bridge.setStageTimers(task.stageTimers);
+            activeBridges.add(bridge);
+            if (!bridge.beginIteration()) {
+                log.debug("Skipping streaming fragment {} of resource {}",
+                        context.getFragmentIndex(), context.getDataSource());
+            } else {
+                log.debug("Starting streaming fragment {} of resource {}",
+                        context.getFragmentIndex(), context.getDataSource());
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunkSize);
+                DataOutputStream dos = new DataOutputStream(buffer);
+                Writable record;
+                int records = 0;
+                while (!cancelled && (record = bridge.getNext()) != null) {
+                    record.write(dos);
+                    records += OperationStats.getRecordCount(record);
+                    if (buffer.size() >= chunkSize) {
+                        task.queue.put(new Chunk(task, buffer.toByteArray(), records, false));
+                        buffer.reset();
+                        records = 0;
+                    }
+                }
+                if (records > 0 && !cancelled) {
+                    task.queue.put(new Chunk(task, buffer.toByteArray(), records, false));
+                }
+            }
+        } catch (InterruptedException e) {
+            task.exception = e;
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            task.exception = e;
+        } finally {
+            if (bridge != null) {
+                try {
+                    bridge.endIteration();
+                } catch (Exception e) {
+                    log.warn("Ignoring error encountered during bridge.endIteration()", e);
+                }
+                activeBridges.remove(bridge);
+            }
+            task.duration = Duration.between(startTime, Instant.now());
+            submitNext.run();
+            if (!Thread.currentThread().isInterrupted()) {
+                try {
+                    task.queue.put(new Chunk(task, null, 0, true));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void writeChunk(Chunk chunk, CountingOutputStream outputStream) throws Exception {
+        if (cancelled) {
+            return;
+        }
+        OperationStats fragmentStats = chunk.task.stats;
+        long previousStreamByteCount = outputStream.getCount();
+        long startTime = System.nanoTime();
+        outputStream.write(chunk.data, 0, chunk.data.length);
+        // the records of a chunk are written at once, every chunk is timed
+        chunk.task.stageTimers.record(ReadStageTimers.Stage.WRITE, System.nanoTime() - startTime);
+        fragmentStats.reportCompletedRecords(chunk.records,
+                fragmentStats.getByteCount() + outputStream.getCount() - previousStreamByteCount);
+    }
+
+    private void completeFragment(FragmentTask task, OperationStats queryStats) throws Exception {
+        task.reported = true;
+        RequestContext context = task.context;
+        if (context == null) {
+            // the fragment was skipped after a cancellation, or its request context could not be created
+            if (task.exception != null) {
+                throw task.exception;
+            }
+            return;
+        }
+        OperationStats fragmentStats = task.stats;
+        sourceName = context.getDataSource();
+
+        fragmentStats.flushStats();
+        queryStats.update(fragmentStats);
+
+        log.debug("Finished processing fragment {} of resource {} in {} ms, wrote {} records and {} bytes.",
+                context.getFragmentIndex(), context.getDataSource(), task.duration.toMillis(),
+                fragmentStats.getRecordCount(), fragmentStats.getByteCount());
+        metricsReporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, task.duration, context, task.exception == null);
+
+        if (task.exception != null) {
+            throw task.exception;
+        }
+    }
+
+    /**
+     * State of a single fragment shared between its worker and the writer. The request context, the statistics
+     * and the timers are created by the worker, a fragment that is skipped has none.
+     */
+    private static class FragmentTask {
+        private final BlockingQueue<Chunk> queue;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile Fragment fragment;
+        private volatile RequestContext context;
+        private volatile OperationStats stats;
+        private volatile ReadStageTimers stageTimers;
+        private volatile Exception exception;
+        private volatile Duration duration = Duration.ZERO;
+        private Future<?> future;
+        private boolean reported;
+
+        FragmentTask(Fragment fragment, BlockingQueue<Chunk> queue) {
+            this.fragment = fragment;
+            this.queue = queue;
+        }
+    }
+
+    /**
+     * Serialized records of a fragment, the last chunk of a fragment carries no data and marks its end.
+     */
+    private static class Chunk {
+        private final FragmentTask task;
+        private final byte[] data;
+        private final int records;
+        private final boolean last;
+
+        Chunk(FragmentTask task, byte[] data, int records, boolean last) {
+            this.task = task;
+            this.data = data;
+            this.records = records;
+            this.last = last;
+        }
+    }
+}
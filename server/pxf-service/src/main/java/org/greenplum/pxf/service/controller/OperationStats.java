@@ -2,6 +2,8 @@ package org.greenplum.pxf.service.controller;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
+import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.MetricsReporter;
 
@@ -21,6 +23,9 @@ public class OperationStats {
     private long byteCount = 0;
     private long lastReportedRecordCount = 0;
     private long lastReportedByteCount = 0;
+    @Getter
+    @Setter
+    private int fragmentConcurrency = 1;
 
     public enum Operation {
         READ(MetricsReporter.PxfMetric.RECORDS_SENT, MetricsReporter.PxfMetric.BYTES_SENT),
@@ -68,6 +73,47 @@ public class OperationStats {
         }
     }
 
+    /**
+     * Add a batch of completed records to the operation's stats. Report the stats when the number of records
+     * processed since the last report reaches the reporting frequency.
+     *
+     * @param records   the number of records completed in the batch
+     * @param byteCount the total number of bytes written to date for the entire operation
+     */
+    public void reportCompletedRecords(long records, long byteCount) {
+        recordCount += records;
+        this.byteCount = byteCount;
+
+        if ((reportFrequency != 0) && (recordCount - lastReportedRecordCount >= reportFrequency)) {
+            flushStats();
+        }
+    }
+
+    /**
+     * Add a completed output record to the operation's stats, a batch of records serialized together counts
+     * as its number of records. Report the stats when necessary.
+     *
+     * @param record    the record that was written
+     * @param byteCount the total number of bytes written to date for the entire operation
+     */
+    public void reportCompletedRecord(Writable record, long byteCount) {
+        if (record instanceof GPDBWritableBatch) {
+            reportCompletedRecords(getRecordCount(record), byteCount);
+        } else {
+            reportCompletedRecord(byteCount);
+        }
+    }
+
+    /**
+     * Returns the number of records of an output record, which is more than one for a batch of records
+     *
+     * @param record the output record
+     * @return the number of records
+     */
+    static int getRecordCount(Writable record) {
+        return record instanceof GPDBWritableBatch ? ((GPDBWritableBatch) record).getRowCount() : 1;
+    }
+
     /**
      * Send all the stats to the metric reporter. Set last reported values.
      */
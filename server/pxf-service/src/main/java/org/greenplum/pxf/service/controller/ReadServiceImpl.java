@@ -1,8 +1,10 @@
 package org.greenplum.pxf.service.controller;
 
 import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Fragment;
@@ -11,9 +13,12 @@ import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.service.FragmenterService;
 import org.greenplum.pxf.service.MetricsReporter;
+import org.greenplum.pxf.service.ReadStageTimers;
 import org.greenplum.pxf.service.bridge.Bridge;
 import org.greenplum.pxf.service.bridge.BridgeFactory;
 import org.greenplum.pxf.service.security.SecurityService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.DataOutputStream;
@@ -23,6 +28,10 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 /**
@@ -30,11 +39,42 @@ import java.util.function.Predicate;
  */
 @Service
 @Slf4j
-public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements ReadService {
-    private final Map<RequestIdentifier, Bridge> readExecutionMap = new ConcurrentHashMap<>();
+public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements ReadService, DisposableBean {
+
+    /**
+     * Maximum number of fragments of a segment that are read at the same time, 1 means sequential reading
+     */
+    static final String FRAGMENT_CONCURRENCY_PROPERTY = "pxf.read.fragment.concurrency";
+
+    /**
+     * Whether the data of concurrently read fragments must be written in the order of the fragments
+     */
+    static final String FRAGMENT_ORDERED_PROPERTY = "pxf.read.fragment.ordered";
+
+    /**
+     * Size in bytes of the chunks of serialized records that a fragment reader hands over to the writer
+     */
+    static final String FRAGMENT_CHUNK_SIZE_PROPERTY = "pxf.read.fragment.chunk-size";
+
+    /**
+     * Maximum number of chunks a fragment reader can buffer before waiting for the writer
+     */
+    static final String FRAGMENT_CHUNK_COUNT_PROPERTY = "pxf.read.fragment.chunk-count";
+
+    private static final int DEFAULT_FRAGMENT_CONCURRENCY = 1;
+    private static final int DEFAULT_FRAGMENT_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_FRAGMENT_CHUNK_COUNT = 4;
+    private static final long FRAGMENT_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final Map<RequestIdentifier, ReadExecution> readExecutionMap = new ConcurrentHashMap<>();
 
     private final FragmenterService fragmenterService;
 
+    /**
+     * Threads reading the fragments of the requests that read their fragments concurrently
+     */
+    private final ExecutorService fragmentExecutor;
+
     /**
      * Creates a new instance.
      *
@@ -43,14 +83,29 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
      * @param securityService      security service
      * @param fragmenterService    fragmenter service
      * @param metricsReporter      metrics reporter service
+     * @param fragmentPoolSize     maximum number of threads reading fragments concurrently, shared by all requests
      */
     public ReadServiceImpl(ConfigurationFactory configurationFactory,
                            BridgeFactory bridgeFactory,
                            SecurityService securityService,
                            FragmenterService fragmenterService,
-                           MetricsReporter metricsReporter) {
+                           MetricsReporter metricsReporter,
+                           @Value("${pxf.read.fragment-pool-size:32}") int fragmentPoolSize) {
         super("Read", configurationFactory, bridgeFactory, securityService, metricsReporter);
         this.fragmenterService = fragmenterService;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(fragmentPoolSize, fragmentPoolSize,
+                FRAGMENT_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("pxf-fragment-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        this.fragmentExecutor = executor;
+    }
+
+    @Override
+    public void destroy() {
+        fragmentExecutor.shutdownNow();
     }
 
     @Override
@@ -64,16 +119,16 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
     @Override
     public boolean cancelRead(RequestContext context) {
         RequestIdentifier requestIdentifier = new RequestIdentifier(context);
-        Bridge bridge = readExecutionMap.remove(requestIdentifier);
-        return cancelExecution(requestIdentifier, bridge);
+        ReadExecution execution = readExecutionMap.remove(requestIdentifier);
+        return cancelExecution(requestIdentifier, execution);
     }
 
     @Override
     public void cancelReadExecutions(String profile, String server) {
         Predicate<RequestIdentifier> identifierFilter = getIdentifierFilter(profile, server);
-        readExecutionMap.forEach((requestIdentifier, bridge) -> {
+        readExecutionMap.forEach((requestIdentifier, execution) -> {
             if (identifierFilter.test(requestIdentifier)) {
-                cancelExecution(requestIdentifier, bridge);
+                cancelExecution(requestIdentifier, execution);
             }
         });
     }
@@ -108,6 +163,19 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         String sourceName = null;
         try {
             List<Fragment> fragments = fragmenterService.getFragmentsForSegment(context);
+            int concurrency = getFragmentConcurrency(context, fragments.size());
+            if (concurrency > 1) {
+                queryStats.setFragmentConcurrency(concurrency);
+                ConcurrentFragmentReader reader = createConcurrentReader(context, fragments, concurrency);
+                try {
+                    registerExecution(context, reader::cancel);
+                    reader.read(countingOutputStream, queryStats);
+                } finally {
+                    sourceName = reader.getSourceName();
+                    removeExecution(context);
+                }
+                return queryResult;
+            }
             for (int i = 0; i < fragments.size(); i++) {
                 Fragment fragment = fragments.get(i);
                 sourceName = fragment.getSourceName();
@@ -152,9 +220,63 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         return queryResult;
     }
 
-    private void registerExecution(RequestContext context, Bridge readBridge) {
+    /**
+     * Determines how many fragments of the segment to read at the same time. The value is taken from the server
+     * configuration, so it can be set per server or, through the option mappings, per profile. Sampling requests
+     * are always read sequentially.
+     *
+     * @param context       request context
+     * @param fragmentCount number of fragments assigned to the segment
+     * @return the number of fragments to read concurrently, 1 if fragments should be read sequentially
+     */
+    private int getFragmentConcurrency(RequestContext context, int fragmentCount) {
+        Configuration configuration = context.getConfiguration();
+        if (configuration == null || fragmentCount < 2 || context.getStatsSampleRatio() > 0) {
+            return 1;
+        }
+        int concurrency = configuration.getInt(FRAGMENT_CONCURRENCY_PROPERTY, DEFAULT_FRAGMENT_CONCURRENCY);
+        return Math.max(1, Math.min(concurrency, fragmentCount));
+    }
+
+    private ConcurrentFragmentReader createConcurrentReader(RequestContext context, List<Fragment> fragments, int concurrency) {
+        Configuration configuration = context.getConfiguration();
+        boolean ordered = configuration.getBoolean(FRAGMENT_ORDERED_PROPERTY, true);
+        int chunkSize = Math.max(1, configuration.getInt(FRAGMENT_CHUNK_SIZE_PROPERTY, DEFAULT_FRAGMENT_CHUNK_SIZE));
+        int chunkCount = Math.max(1, configuration.getInt(FRAGMENT_CHUNK_COUNT_PROPERTY, DEFAULT_FRAGMENT_CHUNK_COUNT));
+        log.debug("Reading {} fragments of resource {} with concurrency {} ({})",
+                fragments.size(), context.getDataSource(), concurrency, ordered ? "ordered" : "unordered");
+        return new ConcurrentFragmentReader(fragments, fragmentExecutor, fragment -> createFragmentContext(context, fragment),
+                this::getBridge, metricsReporter, concurrency, ordered, chunkSize, chunkCount);
+    }
+
+    /**
+     * Creates a copy of the request context for a fragment that is read concurrently with other fragments.
+     * The fragment gets its own copy of the configuration, as the accessors set properties of the file
+     * they read in it.
+     *
+     * @param context  request context
+     * @param fragment fragment to read
+     * @return request context for the fragment
+     */
+    private RequestContext createFragmentContext(RequestContext context, Fragment fragment) {
+        RequestContext fragmentContext = context.copy();
+        fragmentContext.setConfiguration(new Configuration(context.getConfiguration()));
+        String profile = fragment.getProfile();
+        if (StringUtils.isNotBlank(profile) &&
+                !StringUtils.equalsIgnoreCase(profile, context.getProfile())) {
+            log.debug("Fragment {} of resource {} will be using profile: {}",
+                    fragment.getIndex(), fragment.getSourceName(), profile);
+            updateProfile(fragmentContext, profile);
+        }
+        fragmentContext.setDataSource(fragment.getSourceName());
+        fragmentContext.setFragmentIndex(fragment.getIndex());
+        fragmentContext.setFragmentMetadata(fragment.getMetadata());
+        return fragmentContext;
+    }
+
+    private void registerExecution(RequestContext context, ReadExecution execution) {
         RequestIdentifier requestIdentifier = new RequestIdentifier(context);
-        readExecutionMap.put(requestIdentifier, readBridge);
+        readExecutionMap.put(requestIdentifier, execution);
     }
 
     private void removeExecution(RequestContext context) {
@@ -162,14 +284,14 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         readExecutionMap.remove(requestIdentifier);
     }
 
-    private boolean cancelExecution(RequestIdentifier requestIdentifier, Bridge bridge) {
-        if (bridge == null) {
+    private boolean cancelExecution(RequestIdentifier requestIdentifier, ReadExecution execution) {
+        if (execution == null) {
             log.debug("Couldn't cancel read request, request {} not found", requestIdentifier);
             return false;
         }
         try {
             log.debug("Cancelling read request {}", requestIdentifier);
-            bridge.cancelIteration();
+            execution.cancel();
         } catch (Exception e) {
             log.warn("Ignoring error encountered during bridge.cancelIteration()", e);
             return false;
@@ -198,7 +320,9 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         Bridge bridge = null;
         try {
             bridge = getBridge(context);
-            registerExecution(context, bridge);
+            ReadStageTimers stageTimers = metricsReporter.getReadStageTimers(context);
+            bridge.setStageTimers(stageTimers);
+            registerExecution(context, bridge::cancelIteration);
             if (!bridge.beginIteration()) {
                 log.debug("Skipping streaming fragment {} of resource {}",
                         context.getFragmentIndex(), context.getDataSource());
@@ -206,9 +330,11 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
                 log.debug("Starting streaming fragment {} of resource {}",
                         context.getFragmentIndex(), context.getDataSource());
                 while ((record = bridge.getNext()) != null) {
+                    long writeStartTime = stageTimers.start();
                     record.write(dos);
+                    stageTimers.stop(ReadStageTimers.Stage.WRITE, writeStartTime);
                     // fragment's current byte count is relative to the previous stream's byte count
-                    fragmentStats.reportCompletedRecord(countingOutputStream.getCount() - previousStreamByteCount);
+                    fragmentStats.reportCompletedRecord(record, countingOutputStream.getCount() - previousStreamByteCount);
                 }
             }
             success = true;
@@ -259,4 +385,12 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
             context.setProfileScheme(profileProtocol);
         }
     }
+
+    /**
+     * A read operation in progress that can be cancelled.
+     */
+    @FunctionalInterface
+    private interface ReadExecution {
+        void cancel() throws Exception;
+    }
 }
@@ -0,0 +1,277 @@
+package org.greenplum.pxf.service.fragment;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.model.CacheableFragmenter;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.Fragmenter;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the fragments of a data source across queries and transactions.
+ * <p>
+ * The fragmenter cache of {@link org.greenplum.pxf.api.utilities.FragmenterCacheFactory} only shares the
+ * fragments between the segments of a single query. This cache keeps the fragments of a
+ * {@link CacheableFragmenter} keyed by the server, the user, the fragmenter, the data source, the filter and
+ * the options of the query, together with the fingerprint of the data source at the time the fragments were
+ * computed. The fragments are reused by later queries for as long as the fingerprint of the data source is
+ * unchanged, which is much cheaper to verify than computing the fragments again.
+ * <p>
+ * The cache is bounded by the total number of cached fragments, the least recently used entries are evicted
+ * first. When a spill directory is configured, evicted entries are written to the directory and loaded back
+ * on the next access, entries in the directory expire after the same time as the entries in memory.
+ */
+@Slf4j
+@Component
+public class FragmentMetadataCache {
+
+    private static final String SPILL_FILE_SUFFIX = ".fragments";
+    private static final long SPILL_CLEANUP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Cache<String, Entry> cache;
+    private final long expirationMillis;
+    private final Path spillDirectory;
+    private final AtomicLong lastSpillCleanup = new AtomicLong();
+
+    public FragmentMetadataCache(@Value("${pxf.fragment-metadata-cache.enabled:false}") boolean enabled,
+                                 @Value("${pxf.fragment-metadata-cache.max-fragments:200000}") long maxFragments,
+                                 @Value("${pxf.fragment-metadata-cache.expiration:1h}") Duration expiration,
+                                 @Value("${pxf.fragment-metadata-cache.spill-directory:}") String spillDirectory) {
+        this.expirationMillis = expiration.toMillis();
+        this.spillDirectory = enabled && StringUtils.isNotBlank(spillDirectory) ? Paths.get(spillDirectory) : null;
+        this.cache = enabled ? CacheBuilder.newBuilder()
+                .maximumWeight(maxFragments)
+                .weigher((String key, Entry entry) -> entry.fragments.size())
+                .expireAfterAccess(expirationMillis, TimeUnit.MILLISECONDS)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build() : null;
+        if (enabled) {
+            log.info("Creating fragment metadata cache of up to {} fragments with entry expiration of {} ms{}",
+                    maxFragments, expirationMillis, this.spillDirectory != null ? ", spilling to " + this.spillDirectory : "");
+        }
+    }
+
+    /**
+     * Returns the fragments of the fragmenter, from the cache if the fingerprint of the data source did not change
+     * since they were cached. The returned fragments can be modified by the caller.
+     *
+     * @param context    the request context
+     * @param fragmenter the fragmenter initialized with the request context
+     * @return the list of fragments
+     * @throws Exception if the fragments or the fingerprint could not be retrieved
+     */
+    public List<Fragment> getFragments(RequestContext context, Fragmenter fragmenter) throws Exception {
+        if (cache == null || !(fragmenter instanceof CacheableFragmenter)) {
+            return fragmenter.getFragments();
+        }
+        String fingerprint = ((CacheableFragmenter) fragmenter).getFingerprint();
+        if (fingerprint == null) {
+            return fragmenter.getFragments();
+        }
+
+        String key = getKey(context);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null && spillDirectory != null) {
+            entry = loadSpilledEntry(key);
+        }
+        if (entry != null && entry.fingerprint.equals(fingerprint)) {
+            log.debug("Using {} cached fragments for key {}", entry.fragments.size(), key);
+            if (cache.getIfPresent(key) == null) {
+                cache.put(key, entry);
+            }
+            return copyOf(entry.fragments);
+        }
+
+        // the fingerprint was taken before the fragments, a change in between invalidates the entry next time
+        List<Fragment> fragments = fragmenter.getFragments();
+        cache.put(key, new Entry(key, fingerprint, copyOf(fragments)));
+        return fragments;
+    }
+
+    /**
+     * Returns the underlying cache for the purpose of reporting its statistics.
+     *
+     * @return the cache or null if caching is disabled
+     */
+    public Cache<String, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the key of the fragments of the request, which includes everything the fragments depend on.
+     *
+     * @param context the request context
+     * @return the cache key
+     */
+    private String getKey(RequestContext context) {
+        return String.join(":",
+                context.getServerName(),
+                context.getConfig(),
+                context.getUser(),
+                context.getProfile(),
+                context.getFragmenter(),
+                context.getDataSource(),
+                context.getFilterString(),
+                String.valueOf(context.getOptions()),
+                String.valueOf(context.getAdditionalConfigProps() != null ? new TreeMap<>(context.getAdditionalConfigProps()) : null));
+    }
+
+    private void onRemoval(RemovalNotification<String, Entry> notification) {
+        log.debug("Removed fragment metadata cache entry for key {} with cause {}", notification.getKey(), notification.getCause());
+        if (spillDirectory != null && notification.getCause() == RemovalCause.SIZE && notification.getValue() != null) {
+            spill(notification.getValue());
+        }
+    }
+
+    /*
+     * Writes an evicted entry to the spill directory, failures are ignored as the entry can be computed again
+     */
+    private void spill(Entry entry) {
+        Path file = getSpillFile(entry.key);
+        try {
+            Files.createDirectories(spillDirectory);
+            Path tempFile = Files.createTempFile(spillDirectory, "spill", ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile);
+                 Output output = new Output(outputStream)) {
+                Kryo kryo = createKryo();
+                output.writeString(entry.key);
+                output.writeString(entry.fingerprint);
+                kryo.writeClassAndObject(output, new ArrayList<>(entry.fragments));
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Spilled {} fragments for key {} to {}", entry.fragments.size(), entry.key, file);
+        } catch (Exception e) {
+            log.warn("Failed to spill fragments for key {} to {}: {}", entry.key, file, e.getMessage());
+        }
+        cleanupSpillDirectory();
+    }
+
+    /*
+     * Reads the entry of the key from the spill directory, the file is removed as the entry goes back to memory
+     */
+    @SuppressWarnings("unchecked")
+    private Entry loadSpilledEntry(String key) {
+        Path file = getSpillFile(key);
+        File spillFile = file.toFile();
+        if (!spillFile.exists()) {
+            return null;
+        }
+        Entry entry = null;
+        if (System.currentTimeMillis() - spillFile.lastModified() < expirationMillis) {
+            try (InputStream inputStream = Files.newInputStream(file);
+                 Input input = new Input(inputStream)) {
+                Kryo kryo = createKryo();
+                String spilledKey = input.readString();
+                String fingerprint = input.readString();
+                List<Fragment> fragments = (List<Fragment>) kryo.readClassAndObject(input);
+                if (key.equals(spilledKey)) {
+                    entry = new Entry(key, fingerprint, fragments);
+                    log.debug("Loaded {} spilled fragments for key {} from {}", fragments.size(), key, file);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to load spilled fragments for key {} from {}: {}", key, file, e.getMessage());
+            }
+        }
+        deleteSpillFile(file);
+        return entry;
+    }
+
+    /*
+     * Deletes the expired files of the spill directory, at most once per cleanup interval
+     */
+    private void cleanupSpillDirectory() {
+        long now = System.currentTimeMillis();
+        long last = lastSpillCleanup.get();
+        if (now - last < SPILL_CLEANUP_INTERVAL_MILLIS || !lastSpillCleanup.compareAndSet(last, now)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, "*" + SPILL_FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (now - file.toFile().lastModified() >= expirationMillis) {
+                    deleteSpillFile(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up the spill directory {}: {}", spillDirectory, e.getMessage());
+        }
+    }
+
+    private void deleteSpillFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete spilled fragments file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path getSpillFile(String key) {
+        return spillDirectory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + SPILL_FILE_SUFFIX);
+    }
+
+    /*
+     * Fragments and their metadata do not necessarily have a no-arg constructor
+     */
+    private Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+        kryo.setInstantiatorStrategy(new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        return kryo;
+    }
+
+    /*
+     * The cached fragments are never handed out, since the caller updates their indexes
+     */
+    private static List<Fragment> copyOf(List<Fragment> fragments) {
+        List<Fragment> copy = new ArrayList<>(fragments.size());
+        for (Fragment fragment : fragments) {
+            Fragment fragmentCopy = new Fragment(fragment.getSourceName(), fragment.getMetadata(), fragment.getProfile());
+            fragmentCopy.setIndex(fragment.getIndex());
+            copy.add(fragmentCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Fragments of a data source together with the fingerprint of the data source they were computed for.
+     */
+    private static class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final List<Fragment> fragments;
+
+        Entry(String key, String fingerprint, List<Fragment> fragments) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.fragments = fragments;
+        }
+    }
+}
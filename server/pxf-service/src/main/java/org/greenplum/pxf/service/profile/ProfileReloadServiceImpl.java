@@ -26,6 +26,7 @@ import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.service.controller.ReadService;
 import org.greenplum.pxf.service.controller.WriteService;
 import org.greenplum.pxf.service.rest.dto.ProfileReloadRequestDto;
+import org.greenplum.pxf.service.security.UGICache;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
@@ -39,13 +40,16 @@ public class ProfileReloadServiceImpl implements ProfileReloadService {
     private final ReadService readService;
     private final WriteService writeService;
     private final Map<String, Reloader> profileReloaderMap;
+    private final UGICache ugiCache;
 
     public ProfileReloadServiceImpl(ReadService readService,
                                     WriteService writeService,
-                                    @Lazy Map<String, Reloader> profileReloaderMap) {
+                                    @Lazy Map<String, Reloader> profileReloaderMap,
+                                    UGICache ugiCache) {
         this.readService = readService;
         this.writeService = writeService;
         this.profileReloaderMap = profileReloaderMap;
+        this.ugiCache = ugiCache;
     }
 
     @Override
@@ -63,6 +67,9 @@ public class ProfileReloadServiceImpl implements ProfileReloadService {
             log.error(message);
             throw new IllegalArgumentException(message);
         }
+        // the cached UGIs keep the FileSystem instances created with the configuration before the reload
+        ugiCache.invalidateAll();
+        log.info("Evicted the cached UGIs");
     }
 
     private void reloadAll(String profile) {
@@ -32,6 +32,9 @@ public class ServiceMetricsRestController {
             "pxf.bytes.received",
             "pxf.bytes.sent",
             "pxf.fragments.sent",
+            "pxf.fragments.listing",
+            "pxf.fragments.listed.files",
+            "pxf.read.stage",
             "pxf.records.received",
             "pxf.records.sent",
             "process.uptime",
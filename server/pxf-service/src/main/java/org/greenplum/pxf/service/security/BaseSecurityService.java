@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.PrivilegedAction;
+import java.util.Arrays;
 
 import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.HADOOP_SECURITY_SASL_PROPS_RESOLVER_CLASS;
 
@@ -30,14 +31,16 @@ public class BaseSecurityService implements SecurityService {
 
     private final SecureLogin secureLogin;
     private final UGIProvider ugiProvider;
+    private final UGICache ugiCache;
 
     /* feature flag to expand Kerberos User Principal name when impersonating */
     private final boolean isExpandUserPrincipal;
 
-    public BaseSecurityService(SecureLogin secureLogin, UGIProvider ugiProvider,
+    public BaseSecurityService(SecureLogin secureLogin, UGIProvider ugiProvider, UGICache ugiCache,
                                @Value("${" + EXPAND_PRINCIPAL_PROPERTY + "}") boolean isExpandUserPrincipal) {
         this.secureLogin = secureLogin;
         this.ugiProvider = ugiProvider;
+        this.ugiCache = ugiCache;
         this.isExpandUserPrincipal = isExpandUserPrincipal;
     }
 
@@ -46,7 +49,9 @@ public class BaseSecurityService implements SecurityService {
      * presence of the expected security headers and create a proxy user to
      * execute further request chain. If security is enabled for the
      * configuration server used for the requests, makes sure that a login
-     * UGI for the the Kerberos principal is created.
+     * UGI for the the Kerberos principal is created. The UGI of the remote
+     * user is obtained from the {@link UGICache}, so that requests for the
+     * same server and user share the UGI and its FileSystem instances.
      *
      * <p>Responds with an HTTP error if the header is missing or the chain
      * processing throws an exception.
@@ -67,7 +72,7 @@ public class BaseSecurityService implements SecurityService {
 
         // Establish the UGI for the login user or the Kerberos principal for the given server, if applicable
         boolean exceptionDetected = false;
-        UserGroupInformation userGroupInformation = null;
+        UGICache.Entry ugiEntry = null;
         try {
             /*
                get a login user that is either of:
@@ -112,14 +117,22 @@ public class BaseSecurityService implements SecurityService {
             // validate and set properties required for enabling Kerberos constrained delegation, if necessary
             processConstrainedDelegation(configuration, isSecurityEnabled, isConstrainedDelegationEnabled, remoteUser, loginUser.getUserName());
 
-            // Retrieve proxy user UGI from the UGI of the logged in user
-            if (isUserImpersonationEnabled || isConstrainedDelegationEnabled) {
-                LOG.debug("Creating proxy user = {}", remoteUser);
-                userGroupInformation = ugiProvider.createProxyUser(remoteUser, loginUser);
-            } else {
-                LOG.debug("Creating remote user = {}", remoteUser);
-                userGroupInformation = ugiProvider.createRemoteUser(remoteUser, loginUser, isSecurityEnabled);
-            }
+            // Retrieve proxy user UGI from the UGI of the logged in user, FileSystem instances are cached per UGI
+            // so the key includes everything that could be used by the FileSystem configuration of the request
+            final boolean isProxyUser = isUserImpersonationEnabled || isConstrainedDelegationEnabled;
+            final String effectiveUser = remoteUser;
+            Object ugiKey = Arrays.asList(serverName, configDirectory, remoteUser, loginUser, isProxyUser,
+                    isSecurityEnabled, context.getAdditionalConfigProps());
+            ugiEntry = ugiCache.acquire(ugiKey, () -> {
+                if (isProxyUser) {
+                    LOG.debug("Creating proxy user = {}", effectiveUser);
+                    return ugiProvider.createProxyUser(effectiveUser, loginUser);
+                } else {
+                    LOG.debug("Creating remote user = {}", effectiveUser);
+                    return ugiProvider.createRemoteUser(effectiveUser, loginUser, isSecurityEnabled);
+                }
+            });
+            UserGroupInformation userGroupInformation = ugiEntry.getUserGroupInformation();
 
             LOG.debug("Retrieved proxy user {} for server {}", userGroupInformation, serverName);
             LOG.debug("Performing request for gpdb_user = {} as [remote_user={}, service_user={}, login_user={}] with{} impersonation",
@@ -132,8 +145,8 @@ public class BaseSecurityService implements SecurityService {
         } finally {
             LOG.debug("Releasing UGI resources. {}", exceptionDetected ? " Exception while processing." : "");
             try {
-                if (userGroupInformation != null) {
-                    ugiProvider.destroy(userGroupInformation);
+                if (ugiEntry != null) {
+                    ugiCache.release(ugiEntry);
                 }
             } catch (Throwable t) {
                 LOG.warn("Error releasing UGI resources, ignored.", t);
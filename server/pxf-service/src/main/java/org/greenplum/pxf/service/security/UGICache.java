@@ -0,0 +1,203 @@
+package org.greenplum.pxf.service.security;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-expiring cache of {@link UserGroupInformation} instances shared across requests.
+ * <p>
+ * Hadoop caches {@link org.apache.hadoop.fs.FileSystem} instances per UGI, so creating a new UGI for every request
+ * also means creating (and later closing) new FileSystem instances and their connections. Reusing the UGI for
+ * the same server, remote user, login user and impersonation mode lets consecutive requests reuse them.
+ * <p>
+ * Cache entries are reference-counted: a request acquires an entry before executing its action and releases it
+ * when done. When an entry is evicted, either because it was created longer ago than the configured expiration or
+ * because the cache has reached its maximum size, the FileSystem instances of its UGI are closed right away if
+ * the entry is idle, or by the last request that releases it otherwise. Expired entries are evicted during
+ * subsequent cache operations. Entries expire even if they are used continuously, so that the UGIs and their
+ * FileSystem instances pick up changes of the server configuration and of the Kerberos configuration.
+ * All the entries are evicted when a profile is reloaded.
+ * <p>
+ * When the cache is disabled, every request gets a new UGI that is destroyed as soon as it is released.
+ */
+@Component
+public class UGICache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UGICache.class);
+
+    private final UGIProvider ugiProvider;
+    private final Cache<Object, Entry> cache;
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+
+    @Autowired
+    public UGICache(UGIProvider ugiProvider,
+                    @Value("${pxf.ugi-cache.enabled:true}") boolean enabled,
+                    @Value("${pxf.ugi-cache.max-size:500}") long maxSize,
+                    @Value("${pxf.ugi-cache.expiration:5m}") Duration expiration) {
+        this.ugiProvider = ugiProvider;
+        this.cache = enabled ? CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expiration.toMillis(), TimeUnit.MILLISECONDS)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build() : null;
+    }
+
+    /**
+     * Returns an entry holding the UGI for the given key, creating the UGI with the given factory if there is
+     * no cached UGI for the key. The entry must be released with {@link #release(Entry)} once the caller
+     * no longer uses the UGI.
+     *
+     * @param key     identifies the UGI, must implement equals and hashCode
+     * @param factory creates a new UGI for the key
+     * @return the acquired entry
+     * @throws Exception if the UGI cannot be created
+     */
+    Entry acquire(Object key, Callable<UserGroupInformation> factory) throws Exception {
+        if (cache == null) {
+            Entry entry = new Entry(key, create(factory));
+            entry.refCount = 1;
+            return entry;
+        }
+        while (true) {
+            Entry entry;
+            try {
+                entry = cache.get(key, () -> new Entry(key, create(factory)));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                Throwables.throwIfInstanceOf(e.getCause(), Exception.class);
+                throw e;
+            }
+            synchronized (entry) {
+                // an entry evicted between the lookup and now must not be used, its UGI is about to be destroyed
+                if (!entry.evicted) {
+                    entry.refCount++;
+                    return entry;
+                }
+            }
+            LOG.debug("UGI for key {} was evicted while being acquired, retrying", key);
+        }
+    }
+
+    /**
+     * Releases an entry previously returned by {@link #acquire(Object, Callable)}. Destroys the UGI of the entry
+     * if it is not cached or if it has been evicted and this was the last request using it.
+     *
+     * @param entry the entry to release
+     */
+    void release(Entry entry) {
+        boolean destroy;
+        synchronized (entry) {
+            entry.refCount--;
+            destroy = entry.refCount == 0 && (cache == null || entry.evicted);
+        }
+        if (destroy) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * Evicts all cached UGIs, the ones in use are destroyed when they are released.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the underlying cache for the purpose of reporting its statistics.
+     *
+     * @return the cache or null if caching is disabled
+     */
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * @return the number of UGIs created since startup, every new UGI gets its own FileSystem instances
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * @return the number of UGIs whose FileSystem instances have been closed since startup
+     */
+    public long getDestroyedCount() {
+        return destroyedCount.get();
+    }
+
+    private UserGroupInformation create(Callable<UserGroupInformation> factory) throws Exception {
+        UserGroupInformation ugi = factory.call();
+        createdCount.incrementAndGet();
+        return ugi;
+    }
+
+    private void onRemoval(RemovalNotification<Object, Entry> notification) {
+        Entry entry = notification.getValue();
+        if (entry == null) {
+            return;
+        }
+        boolean destroy;
+        synchronized (entry) {
+            entry.evicted = true;
+            destroy = entry.refCount == 0;
+        }
+        LOG.debug("Evicted UGI {} for key {} ({}), {}", entry.ugi, notification.getKey(), notification.getCause(),
+                destroy ? "releasing its resources" : "resources will be released by the last request using it");
+        if (destroy) {
+            destroy(entry);
+        }
+    }
+
+    private void destroy(Entry entry) {
+        try {
+            ugiProvider.destroy(entry.ugi);
+        } catch (Throwable t) {
+            LOG.warn("Error releasing UGI resources, ignored.", t);
+        } finally {
+            destroyedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * A UGI along with the number of requests currently using it.
+     */
+    static class Entry {
+        private final Object key;
+        private final UserGroupInformation ugi;
+        private int refCount;
+        private boolean evicted;
+
+        Entry(Object key, UserGroupInformation ugi) {
+            this.key = key;
+            this.ugi = ugi;
+        }
+
+        UserGroupInformation getUserGroupInformation() {
+            return ugi;
+        }
+
+        @Override
+        public String toString() {
+            return "UGICache.Entry[key=" + key + ", ugi=" + ugi + "]";
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.greenplum.pxf.service.spring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.greenplum.pxf.api.model.BaseConfigurationFactory;
+import org.greenplum.pxf.service.security.UGICache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the caches maintained by PXF to the meter registry so that their size, hit / miss counts, evictions
+ * and load times are reported as {@code cache.*} metrics tagged with the name of the cache.
+ */
+@Component
+public class PxfCacheMetricsBinder implements MeterBinder {
+
+    public static final String CONFIGURATION_CACHE_NAME = "pxf.configuration";
+    public static final String UGI_CACHE_NAME = "pxf.ugi";
+
+    private final BaseConfigurationFactory configurationFactory;
+    private final UGICache ugiCache;
+
+    public PxfCacheMetricsBinder(BaseConfigurationFactory configurationFactory, UGICache ugiCache) {
+        this.configurationFactory = configurationFactory;
+        this.ugiCache = ugiCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (configurationFactory.getConfigurationCache() != null) {
+            GuavaCacheMetrics.monitor(registry, configurationFactory.getConfigurationCache(), CONFIGURATION_CACHE_NAME);
+        }
+        if (ugiCache.getCache() != null) {
+            GuavaCacheMetrics.monitor(registry, ugiCache.getCache(), UGI_CACHE_NAME);
+        }
+        // every new UGI gets its own FileSystem instances, so these track FileSystem creations and closures
+        FunctionCounter.builder(UGI_CACHE_NAME + ".created", ugiCache, UGICache::getCreatedCount)
+                .description("The number of UGIs created along with their FileSystem instances")
+                .register(registry);
+        FunctionCounter.builder(UGI_CACHE_NAME + ".destroyed", ugiCache, UGICache::getDestroyedCount)
+                .description("The number of UGIs whose FileSystem instances have been closed")
+                .register(registry);
+    }
+}
@@ -27,6 +27,7 @@ import org.greenplum.pxf.api.examples.DemoFragmentMetadata;
 import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
 import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.OutputFormat;
@@ -52,6 +53,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -322,6 +324,31 @@ public class BridgeOutputBuilderTest {
         assertEquals("Byte is not supported for GPDB conversion", e.getMessage());
     }
 
+    @Test
+    public void testVectorizedOutputFromBatch() throws Exception {
+        RequestContext context = new RequestContext();
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        addColumn(context, 0, DataType.INTEGER, "col0");
+        addColumn(context, 1, DataType.TEXT, "col1");
+        BridgeOutputBuilder builder = makeBuilder(context);
+
+        GPDBWritableBatch batch = builder.getEmptyOutputBatch();
+        assertTrue(builder.makeVectorizedOutput(batch).isEmpty());
+
+        batch.beginRow();
+        batch.setInt(10);
+        batch.setString("value");
+        batch.endRow();
+        LinkedList<Writable> outputQueue = builder.makeVectorizedOutput(batch);
+        assertEquals(1, outputQueue.size());
+        assertSame(batch, outputQueue.get(0));
+
+        // the batch is reused and emptied
+        assertSame(batch, builder.getEmptyOutputBatch());
+        assertEquals(0, batch.getRowCount());
+        assertNull(getBridgeOutputBuilder(OutputFormat.TEXT).getEmptyOutputBatch());
+    }
+
     @Test
     public void testRecordSmallerThanSchema() throws Exception {
         RequestContext context = new RequestContext();
@@ -19,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -44,6 +45,8 @@ class FragmenterServiceTest {
     private FragmentStrategyProvider strategyProvider;
     @Mock
     private FragmentStrategy strategy;
+    @Mock
+    private MetricsReporter metricsReporter;
 
     private Cache<String, List<Fragment>> fragmentCache;
     private FakeTicker fakeTicker;
@@ -87,7 +90,8 @@ class FragmenterServiceTest {
 
         // use a real handler to ensure pass-through calls on default configuration
         fragmenterService = new FragmenterService(fragmenterCacheFactory,
-                mockPluginFactory, new GSSFailureHandler(), strategyProvider);
+                mockPluginFactory, new GSSFailureHandler(), strategyProvider,
+                new FragmentMetadataCache(false, 0, Duration.ZERO, null), metricsReporter);
     }
 
     @Test
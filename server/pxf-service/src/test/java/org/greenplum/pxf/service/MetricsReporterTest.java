@@ -18,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -199,6 +200,62 @@ public class MetricsReporterTest {
         assertEquals(1051, counter.count());
     }
 
+    @Test
+    public void testTimerIsRegisteredOnce() {
+        enableFragmentMetrics();
+        setContext();
+
+        reporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, Duration.ofMillis(100), mockContext, true);
+        reporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, Duration.ofMillis(51), mockContext, true);
+        reporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, Duration.ofMillis(10), mockContext, false);
+
+        assertEquals(2, registry.getMeters().size());
+        assertEquals(2, registry.get("pxf.fragments.sent").tags(expectedTags).tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("pxf.fragments.sent").tags(expectedTags).tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    public void testReadStageTimersDisabled() {
+        when(mockEnvironment.getProperty("pxf.metrics.read-stages.enabled", Boolean.class, Boolean.FALSE)).thenReturn(false);
+
+        ReadStageTimers stageTimers = reporter.getReadStageTimers(mockContext);
+        assertSame(ReadStageTimers.DISABLED, stageTimers);
+        stageTimers.nextRecord();
+        stageTimers.stop(ReadStageTimers.Stage.FETCH, stageTimers.start());
+        stageTimers.record(ReadStageTimers.Stage.OPEN, 100);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testReadStageTimersSampleRecords() {
+        when(mockEnvironment.getProperty("pxf.metrics.read-stages.enabled", Boolean.class, Boolean.FALSE)).thenReturn(true);
+        when(mockEnvironment.getProperty("pxf.metrics.read-stages.sample-interval", Integer.class, 100)).thenReturn(3);
+        when(mockEnvironment.getProperty("pxf.metrics.read-stages.histogram", Boolean.class, Boolean.FALSE)).thenReturn(false);
+        setContext();
+
+        ReadStageTimers stageTimers = reporter.getReadStageTimers(mockContext);
+        stageTimers.record(ReadStageTimers.Stage.OPEN, TimeUnit.MILLISECONDS.toNanos(5));
+        for (int i = 0; i < 10; i++) {
+            stageTimers.nextRecord();
+            stageTimers.stop(ReadStageTimers.Stage.FETCH, stageTimers.start());
+            stageTimers.stop(ReadStageTimers.Stage.RESOLVE, stageTimers.start());
+        }
+
+        assertEquals(5, registry.find("pxf.read.stage").tags(expectedTags).timers().size());
+        Timer open = registry.get("pxf.read.stage").tags(expectedTags).tag("stage", "open").timer();
+        assertEquals(1, open.count());
+        assertEquals(5, open.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(3, registry.get("pxf.read.stage").tags(expectedTags).tag("stage", "fetch").timer().count());
+        assertEquals(3, registry.get("pxf.read.stage").tags(expectedTags).tag("stage", "resolve").timer().count());
+        assertEquals(0, registry.get("pxf.read.stage").tags(expectedTags).tag("stage", "write").timer().count());
+
+        // the timers of the next fragment with the same tags are the same meters
+        ReadStageTimers nextStageTimers = reporter.getReadStageTimers(mockContext);
+        nextStageTimers.record(ReadStageTimers.Stage.OPEN, TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(5, registry.getMeters().size());
+        assertEquals(2, open.count());
+    }
+
     @Test
     public void testGetReportFrequency() {
         when(mockEnvironment.getProperty("pxf.metrics.report-frequency", Long.class, 1000L)).thenReturn(5L);
@@ -0,0 +1,93 @@
+package org.greenplum.pxf.service.bridge;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.StatsAccessor;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.service.utilities.BasePluginFactory;
+import org.greenplum.pxf.service.utilities.GSSFailureHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AggBridgeTest {
+
+    private RequestContext context;
+
+    @Mock
+    private BasePluginFactory mockPluginFactory;
+    @Mock
+    private StatsAccessor mockAccessor;
+    @Mock
+    private Resolver mockResolver;
+
+    @BeforeEach
+    public void setup() {
+        context = new RequestContext();
+        context.setConfiguration(new Configuration());
+        context.setAccessor("org.greenplum.pxf.api.StatsAccessor");
+        context.setResolver("org.greenplum.pxf.api.model.Resolver");
+        context.setOutputFormat(OutputFormat.TEXT);
+        context.setTupleDescription(Collections.singletonList(
+                new ColumnDescriptor("value", DataType.TEXT.getOID(), 0, "text", null)));
+
+        when(mockPluginFactory.getPlugin(context, context.getAccessor())).thenReturn(mockAccessor);
+        when(mockPluginFactory.getPlugin(context, context.getResolver())).thenReturn(mockResolver);
+        when(mockAccessor.openForRead()).thenReturn(true);
+        when(mockResolver.getFields(any())).thenAnswer(invocation -> {
+            OneRow row = invocation.getArgument(0);
+            return Collections.singletonList(new OneField(DataType.TEXT.getOID(), row.getData()));
+        });
+    }
+
+    @Test
+    public void testRowsWithoutKeyAreResolvedEachTime() throws Exception {
+        // rows without a key may have different values
+        when(mockAccessor.emitAggObject()).thenReturn(
+                new OneRow("1"), new OneRow("2"), new OneRow("3"), null);
+
+        assertEquals(List.of("1\n", "2\n", "3\n"), readAll());
+        verify(mockResolver, times(3)).getFields(any());
+    }
+
+    @Test
+    public void testRowsWithSameKeyAreResolvedOnce() throws Exception {
+        // the counted rows are the same row emitted several times
+        OneRow countedRow = new OneRow(0L, "counted");
+        when(mockAccessor.emitAggObject()).thenReturn(countedRow, countedRow, countedRow, null);
+
+        assertEquals(List.of("counted\n", "counted\n", "counted\n"), readAll());
+        verify(mockResolver, times(1)).getFields(any());
+    }
+
+    private List<String> readAll() throws Exception {
+        AggBridge bridge = new AggBridge(mockPluginFactory, context, new GSSFailureHandler());
+        bridge.beginIteration();
+        List<String> values = new ArrayList<>();
+        Writable output;
+        while ((output = bridge.getNext()) != null) {
+            values.add(output.toString());
+        }
+        bridge.endIteration();
+        return values;
+    }
+}
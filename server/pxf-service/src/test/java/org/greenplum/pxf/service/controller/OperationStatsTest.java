@@ -1,5 +1,8 @@
 package org.greenplum.pxf.service.controller;
 
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritableBatch;
+import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.MetricsReporter;
 import org.junit.jupiter.api.Test;
@@ -7,6 +10,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -78,6 +83,50 @@ public class OperationStatsTest {
         verifyNoMoreInteractions(mockMetricReporter);
     }
 
+    @Test
+    public void testReportCompletedRecordOfBatch() throws Exception {
+        when(mockMetricReporter.getReportFrequency()).thenReturn(5L);
+        OperationStats stats = new OperationStats(OperationStats.Operation.READ, mockMetricReporter, mockContext);
+        GPDBWritableBatch batch = new GPDBWritableBatch(new int[]{DataType.INTEGER.getOID()}, StandardCharsets.UTF_8);
+        for (int i = 0; i < 6; i++) {
+            batch.beginRow();
+            batch.setInt(i);
+            batch.endRow();
+        }
+        stats.reportCompletedRecord(batch, 100L);
+
+        // a batch counts as its number of records
+        assertEquals(6L, stats.getRecordCount());
+        assertEquals(100L, stats.getByteCount());
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 6, mockContext);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 100, mockContext);
+
+        stats.reportCompletedRecord(new Text("text"), 105L);
+
+        assertEquals(7L, stats.getRecordCount());
+        assertEquals(105L, stats.getByteCount());
+        verifyNoMoreInteractions(mockMetricReporter);
+    }
+
+    @Test
+    public void testReportCompletedRecordsBatchReport() {
+        when(mockMetricReporter.getReportFrequency()).thenReturn(5L);
+        OperationStats stats = new OperationStats(OperationStats.Operation.READ, mockMetricReporter, mockContext);
+        stats.reportCompletedRecords(3L, 30L);
+
+        assertEquals(3L, stats.getRecordCount());
+        assertEquals(30L, stats.getByteCount());
+        verifyNoMoreInteractions(mockMetricReporter);
+
+        stats.reportCompletedRecords(4L, 70L);
+
+        assertEquals(7L, stats.getRecordCount());
+        assertEquals(70L, stats.getByteCount());
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 7, mockContext);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 70, mockContext);
+        verifyNoMoreInteractions(mockMetricReporter);
+    }
+
     @Test
     public void testFlushStatsZeroReportFrequency() {
         when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
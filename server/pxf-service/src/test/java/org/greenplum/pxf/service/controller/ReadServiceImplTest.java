@@ -8,6 +8,7 @@ import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.FragmenterService;
 import org.greenplum.pxf.service.MetricsReporter;
+import org.greenplum.pxf.service.ReadStageTimers;
 import org.greenplum.pxf.service.bridge.Bridge;
 import org.greenplum.pxf.service.bridge.BridgeFactory;
 import org.greenplum.pxf.service.security.SecurityService;
@@ -25,13 +26,19 @@ import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -74,7 +81,9 @@ public class ReadServiceImplTest {
             return action.run();
         });
 
-        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter);
+        lenient().when(mockMetricReporter.getReadStageTimers(any())).thenReturn(ReadStageTimers.DISABLED);
+
+        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter, 4);
     }
 
     @Test
@@ -220,6 +229,56 @@ public class ReadServiceImplTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testReadDataMultiFragmentConcurrently() throws Exception {
+        Configuration configuration = new Configuration(false);
+        configuration.setInt(ReadServiceImpl.FRAGMENT_CONCURRENCY_PROPERTY, 2);
+        when(mockContext.getConfiguration()).thenReturn(configuration);
+        when(mockContext.copy()).thenAnswer(invocation -> new RequestContext());
+        when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
+        when(mockFragmentList.size()).thenReturn(2);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        when(mockFragment2.getIndex()).thenReturn(1);
+        List<RequestContext> fragmentContexts = new CopyOnWriteArrayList<>();
+        when(mockBridgeFactory.getBridge(any(RequestContext.class))).thenAnswer(invocation -> {
+            RequestContext fragmentContext = invocation.getArgument(0);
+            fragmentContexts.add(fragmentContext);
+            return fragmentContext.getFragmentIndex() == 0 ? mockBridge1 : mockBridge2;
+        });
+
+        // 1st frag
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+
+        // 2nd frag
+        when(mockBridge2.beginIteration()).thenReturn(true);
+        when(mockBridge2.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        readService.readData(mockContext, mockOutputStream);
+
+        // records of a fragment are buffered into a single chunk and the chunks are written in the fragment order
+        InOrder inOrder = inOrder(mockOutputStream);
+        inOrder.verify(mockOutputStream).write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+        inOrder.verify(mockOutputStream).write("world!Boo!".getBytes(StandardCharsets.UTF_8), 0, 10);
+        inOrder.verifyNoMoreInteractions();
+        verify(mockBridge1).endIteration();
+        verify(mockBridge2).endIteration();
+        verify(mockMetricReporter, times(2)).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), any(RequestContext.class), eq(true));
+
+        // every fragment has its own copy of the configuration
+        assertEquals(2, fragmentContexts.size());
+        Configuration configuration1 = fragmentContexts.get(0).getConfiguration();
+        Configuration configuration2 = fragmentContexts.get(1).getConfiguration();
+        assertNotSame(configuration, configuration1);
+        assertNotSame(configuration, configuration2);
+        assertNotSame(configuration1, configuration2);
+        assertEquals(2, configuration1.getInt(ReadServiceImpl.FRAGMENT_CONCURRENCY_PROPERTY, 0));
+    }
+
     @Test
     public void testReadDataZeroReportFrequency() throws Exception {
         when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
@@ -0,0 +1,179 @@
+package org.greenplum.pxf.service.fragment;
+
+import org.greenplum.pxf.api.model.BaseFragmenter;
+import org.greenplum.pxf.api.model.CacheableFragmenter;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.FragmentMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FragmentMetadataCacheTest {
+
+    @TempDir
+    File spillDirectory;
+
+    private RequestContext context;
+
+    @BeforeEach
+    public void setup() {
+        context = createContext("/data/a");
+    }
+
+    @Test
+    public void testFragmentsAreReusedWhileFingerprintIsUnchanged() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(true, 100, Duration.ofHours(1), null);
+        TestFragmenter fragmenter = new TestFragmenter("v1", "a", "b");
+
+        List<Fragment> first = cache.getFragments(context, fragmenter);
+        first.get(0).setIndex(5);
+        List<Fragment> second = cache.getFragments(context, fragmenter);
+
+        assertEquals(1, fragmenter.getFragmentsCount);
+        assertEquals(2, second.size());
+        assertEquals("a", second.get(0).getSourceName());
+        assertEquals("b", second.get(1).getSourceName());
+        // the fragments returned to a query are not shared with the next query
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(0, second.get(0).getIndex());
+        assertSame(first.get(0).getMetadata(), second.get(0).getMetadata());
+
+        fragmenter.fingerprint = "v2";
+        List<Fragment> third = cache.getFragments(context, fragmenter);
+        assertEquals(2, fragmenter.getFragmentsCount);
+        assertEquals(2, third.size());
+    }
+
+    @Test
+    public void testKeyIncludesFilterAndDataSource() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(true, 100, Duration.ofHours(1), null);
+        TestFragmenter fragmenter = new TestFragmenter("v1", "a");
+
+        cache.getFragments(context, fragmenter);
+        cache.getFragments(createContext("/data/b"), fragmenter);
+        RequestContext filtered = createContext("/data/a");
+        filtered.setFilterString("a1c23s1d1o5");
+        cache.getFragments(filtered, fragmenter);
+        cache.getFragments(context, fragmenter);
+
+        assertEquals(3, fragmenter.getFragmentsCount);
+    }
+
+    @Test
+    public void testFragmentsWithoutFingerprintAreNotCached() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(true, 100, Duration.ofHours(1), null);
+        TestFragmenter fragmenter = new TestFragmenter(null, "a");
+
+        cache.getFragments(context, fragmenter);
+        cache.getFragments(context, fragmenter);
+
+        assertEquals(2, fragmenter.getFragmentsCount);
+        assertEquals(0, cache.getCache().size());
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(false, 100, Duration.ofHours(1), null);
+        TestFragmenter fragmenter = new TestFragmenter("v1", "a");
+
+        cache.getFragments(context, fragmenter);
+        cache.getFragments(context, fragmenter);
+
+        assertEquals(2, fragmenter.getFragmentsCount);
+        assertNull(cache.getCache());
+    }
+
+    @Test
+    public void testEvictedFragmentsAreSpilledToDisk() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(true, 2, Duration.ofHours(1), spillDirectory.getPath());
+        TestFragmenter fragmenterA = new TestFragmenter("v1", "a1", "a2");
+        TestFragmenter fragmenterB = new TestFragmenter("v1", "b1", "b2");
+        RequestContext contextB = createContext("/data/b");
+
+        cache.getFragments(context, fragmenterA);
+        // evicts the fragments of the first data source
+        cache.getFragments(contextB, fragmenterB);
+        assertEquals(1, spillFileCount());
+
+        List<Fragment> fragments = cache.getFragments(context, fragmenterA);
+        assertEquals(1, fragmenterA.getFragmentsCount);
+        assertEquals(2, fragments.size());
+        assertEquals("a1", fragments.get(0).getSourceName());
+        assertEquals(42L, ((TestMetadata) fragments.get(0).getMetadata()).start);
+        assertEquals("a2", fragments.get(1).getSourceName());
+    }
+
+    @Test
+    public void testSpilledFragmentsAreValidated() throws Exception {
+        FragmentMetadataCache cache = new FragmentMetadataCache(true, 2, Duration.ofHours(1), spillDirectory.getPath());
+        TestFragmenter fragmenterA = new TestFragmenter("v1", "a1", "a2");
+        TestFragmenter fragmenterB = new TestFragmenter("v1", "b1", "b2");
+
+        cache.getFragments(context, fragmenterA);
+        cache.getFragments(createContext("/data/b"), fragmenterB);
+
+        fragmenterA.fingerprint = "v2";
+        cache.getFragments(context, fragmenterA);
+        assertEquals(2, fragmenterA.getFragmentsCount);
+    }
+
+    private long spillFileCount() {
+        File[] files = spillDirectory.listFiles((dir, name) -> name.endsWith(".fragments"));
+        return files == null ? 0 : files.length;
+    }
+
+    private RequestContext createContext(String dataSource) {
+        RequestContext requestContext = new RequestContext();
+        requestContext.setServerName("default");
+        requestContext.setConfig("default");
+        requestContext.setUser("alice");
+        requestContext.setProfile("hdfs:text");
+        requestContext.setFragmenter("org.greenplum.pxf.plugins.hdfs.HdfsDataFragmenter");
+        requestContext.setDataSource(dataSource);
+        return requestContext;
+    }
+
+    static class TestMetadata implements FragmentMetadata {
+        private final long start;
+
+        TestMetadata(long start) {
+            this.start = start;
+        }
+    }
+
+    static class TestFragmenter extends BaseFragmenter implements CacheableFragmenter {
+        private final String[] sourceNames;
+        private String fingerprint;
+        private int getFragmentsCount;
+
+        TestFragmenter(String fingerprint, String... sourceNames) {
+            this.fingerprint = fingerprint;
+            this.sourceNames = sourceNames;
+        }
+
+        @Override
+        public List<Fragment> getFragments() {
+            getFragmentsCount++;
+            return Arrays.stream(sourceNames)
+                    .map(name -> new Fragment(name, new TestMetadata(42L)))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.security.PrivilegedAction;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -41,6 +42,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -53,6 +56,7 @@ public class BaseSecurityServiceTest {
     private Configuration configuration;
     private RequestContext context;
     private SecurityService service;
+    private UGICache ugiCache;
 
     @Mock
     private SecureLogin mockSecureLogin;
@@ -67,8 +71,9 @@ public class BaseSecurityServiceTest {
     public void setup() {
         context = new RequestContext();
         configuration = new Configuration();
+        ugiCache = new UGICache(mockUGIProvider, false, 10, Duration.ofMinutes(5));
 
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, true);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, true);
 
         context.setUser("gpdb-user");
         context.setTransactionId("xid");
@@ -133,7 +138,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_NoKerberos_Impersonation_ServiceUser_NoExpansion() throws Exception {
         // no kerberos should cause no expansion anyways
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", false, true, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", false, true, false);
@@ -168,7 +173,7 @@ public class BaseSecurityServiceTest {
     public void determineRemoteUser_IsLoginUser_Kerberos_NoImpersonation_NoServiceUser_NoExpansion() throws Exception {
         // no impersonation should not attempt expansion and just take the login name which is already expanded
         // since this is kerberos use case and the login user (unlike gpdb user) should always have realm part
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("login-user@REALM", true, false, false, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("login-user@REALM", true, false, false);
@@ -177,7 +182,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsLoginUser_Kerberos_NoImpersonation_NoServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
         // this is a useless case as constrained delegation is enabled for no reason, but it is a possible config combo
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("login-user@REALM", true, false, false, true);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("login-user@REALM", true, false, true, false, false);
@@ -200,7 +205,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsServiceUser_Kerberos_NoImpersonation_ServiceUser_NoExpansion() throws Exception {
         // no impersonation should not attempt expansion and just take the service name which will is not expanded
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("service-user", true, false, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("service-user", true, false, false);
@@ -209,7 +214,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsServiceUser_Kerberos_NoImpersonation_ServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
         // constrained delegation will overrule and perform expansion
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("service-user@REALM", true, false, true, true);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("service-user@REALM", true, false, true);
@@ -237,7 +242,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_NoServiceUser_NoExpansion() throws Exception {
         // no expansion will still use short name
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", true, true, false, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", true, true, false);
@@ -253,7 +258,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_ServiceUser_NoExpansion() throws Exception {
         // no expansion will still use short name
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", true, true, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", true, true, false);
@@ -276,7 +281,7 @@ public class BaseSecurityServiceTest {
 
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_ServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         // service user is irrelevant for kerberos with impersonation
         expectScenario("gpdb-user@REALM", true, true, true, true);
         service.doAs(context, EMPTY_ACTION);
@@ -303,6 +308,26 @@ public class BaseSecurityServiceTest {
         verify(mockUGIProvider).destroy(any(UserGroupInformation.class));
     }
 
+    @Test
+    public void reusesCachedUGIAcrossRequests() throws Exception {
+        ugiCache = new UGICache(mockUGIProvider, true, 10, Duration.ofMinutes(5));
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
+        expectScenario("login-user", false, false, false, false);
+
+        service.doAs(context, EMPTY_ACTION);
+        service.doAs(context, EMPTY_ACTION);
+
+        verify(mockUGIProvider).createRemoteUser("login-user", mockLoginUGI, false);
+        verify(mockProxyUGI, times(2)).doAs(ArgumentMatchers.<PrivilegedAction<Object>>any());
+        verify(mockUGIProvider, never()).destroy(any(UserGroupInformation.class));
+        assertEquals(1, ugiCache.getCreatedCount());
+
+        // evicting an idle UGI releases its resources
+        ugiCache.invalidateAll();
+        verify(mockUGIProvider).destroy(mockProxyUGI);
+        assertEquals(1, ugiCache.getDestroyedCount());
+    }
+
     /* ----------- helper methods ----------- */
 
     private void expectScenario(String remoteUser, boolean kerberos, boolean impersonation, boolean serviceUser, boolean constrainedDelegation) throws Exception {
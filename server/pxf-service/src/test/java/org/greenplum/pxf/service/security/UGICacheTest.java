@@ -0,0 +1,130 @@
+package org.greenplum.pxf.service.security;
+
+import org.apache.hadoop.security.UserGroupInformation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UGICacheTest {
+
+    @Mock
+    private UGIProvider mockUGIProvider;
+    @Mock
+    private UserGroupInformation mockUGI1;
+    @Mock
+    private UserGroupInformation mockUGI2;
+
+    private UGICache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new UGICache(mockUGIProvider, true, 10, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testAcquireReturnsCachedUGI() throws Exception {
+        UGICache.Entry first = cache.acquire("key", () -> mockUGI1);
+        UGICache.Entry second = cache.acquire("key", () -> mockUGI2);
+
+        assertSame(first, second);
+        assertSame(mockUGI1, second.getUserGroupInformation());
+        assertEquals(1, cache.getCreatedCount());
+
+        cache.release(first);
+        cache.release(second);
+        verify(mockUGIProvider, never()).destroy(any());
+        assertEquals(1, cache.getCache().size());
+    }
+
+    @Test
+    public void testEvictedEntryInUseIsDestroyedOnLastRelease() throws Exception {
+        UGICache.Entry first = cache.acquire("key", () -> mockUGI1);
+        UGICache.Entry second = cache.acquire("key", () -> mockUGI1);
+
+        cache.invalidateAll();
+        verify(mockUGIProvider, never()).destroy(any());
+
+        // new requests get a new UGI once the old one has been evicted
+        UGICache.Entry third = cache.acquire("key", () -> mockUGI2);
+        assertNotSame(first, third);
+        assertSame(mockUGI2, third.getUserGroupInformation());
+
+        cache.release(first);
+        verify(mockUGIProvider, never()).destroy(any());
+        cache.release(second);
+        verify(mockUGIProvider).destroy(mockUGI1);
+        assertEquals(1, cache.getDestroyedCount());
+
+        cache.release(third);
+        verify(mockUGIProvider, never()).destroy(mockUGI2);
+    }
+
+    @Test
+    public void testMaxSizeEvictsIdleEntries() throws Exception {
+        cache = new UGICache(mockUGIProvider, true, 1, Duration.ofMinutes(5));
+        cache.release(cache.acquire("key1", () -> mockUGI1));
+        cache.release(cache.acquire("key2", () -> mockUGI2));
+
+        verify(mockUGIProvider).destroy(mockUGI1);
+        verify(mockUGIProvider, never()).destroy(mockUGI2);
+    }
+
+    @Test
+    public void testEntriesExpireAfterCreationEvenIfUsed() throws Exception {
+        cache = new UGICache(mockUGIProvider, true, 10, Duration.ofMillis(300));
+        UGICache.Entry first = cache.acquire("key", () -> mockUGI1);
+        cache.release(first);
+        Thread.sleep(200);
+        UGICache.Entry second = cache.acquire("key", () -> mockUGI2);
+        assertSame(mockUGI1, second.getUserGroupInformation());
+        cache.release(second);
+        Thread.sleep(200);
+
+        UGICache.Entry third = cache.acquire("key", () -> mockUGI2);
+        assertSame(mockUGI2, third.getUserGroupInformation());
+        verify(mockUGIProvider).destroy(mockUGI1);
+        cache.release(third);
+    }
+
+    @Test
+    public void testFactoryExceptionIsPropagated() {
+        IOException e = assertThrows(IOException.class,
+                () -> cache.acquire("key", () -> {
+                    throw new IOException("cannot create UGI");
+                }));
+        assertEquals("cannot create UGI", e.getMessage());
+        assertEquals(0, cache.getCreatedCount());
+    }
+
+    @Test
+    public void testDisabledCacheDestroysOnRelease() throws Exception {
+        cache = new UGICache(mockUGIProvider, false, 10, Duration.ofMinutes(5));
+        assertNull(cache.getCache());
+
+        UGICache.Entry first = cache.acquire("key", () -> mockUGI1);
+        UGICache.Entry second = cache.acquire("key", () -> mockUGI2);
+        assertNotSame(first, second);
+
+        cache.release(first);
+        verify(mockUGIProvider).destroy(mockUGI1);
+        cache.release(second);
+        verify(mockUGIProvider).destroy(mockUGI2);
+        assertEquals(2, cache.getCreatedCount());
+        assertEquals(2, cache.getDestroyedCount());
+    }
+}